@@ -79,7 +79,9 @@ final class LwjglGL11 extends LwjglGL10 implements com.badlogic.gdx.graphics.GL1
 	}
 
 	public void glBufferData (int target, int size, Buffer data, int usage) {
-		if (data instanceof ByteBuffer)
+		if (data == null)
+			GL15.glBufferData(target, size, usage);
+		else if (data instanceof ByteBuffer)
 			GL15.glBufferData(target, (ByteBuffer)data, usage);
 		else if (data instanceof IntBuffer)
 			GL15.glBufferData(target, (IntBuffer)data, usage);
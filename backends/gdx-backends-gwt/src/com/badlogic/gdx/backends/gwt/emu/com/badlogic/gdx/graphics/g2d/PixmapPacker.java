@@ -0,0 +1,450 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g2d;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Blending;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectMap.Keys;
+import com.badlogic.gdx.utils.OrderedMap;
+
+/**
+ * Packs {@link Pixmap} instances into one more more {@link Page} instances to generate
+ * an atlas of Pixmap instances. Provides means to directly convert the pixmap atlas to a {@link TextureAtlas}. The
+ * packer supports padding and border pixel duplication, specified during construction. The packer supports incremental inserts,
+ * removals and updates of TextureAtlases generated with this class.</p>
+ * 
+ * Each page places its images with a max rects allocator, which keeps a list of the largest free rectangles and puts an image
+ * into the one it fits best. Space of removed images is reused by later inserts.</p>
+ * 
+ * All methods except {@link #getPage(String)} and {@link #getPages()} are thread safe. The methods {@link #generateTextureAtlas(TextureFilter, TextureFilter, boolean)}
+ * and {@link #updateTextureAtlas(TextureAtlas, TextureFilter, TextureFilter, boolean)} need to be called on the rendering thread, all
+ * other methods can be called from any thread.</p>
+ * 
+ * One-off usage:
+ * <pre>
+ * // 512x512 pixel pages, RGB565 format, 2 pixels of padding, border duplication
+ * PixmapPacker packer = new PixmapPacker(512, 512, Format.RGB565, 2, true);
+ * packer.pack("First Pixmap", pixmap1);
+ * packer.pack("Second Pixmap", pixmap2);
+ * TextureAtlas altas = packer.generateTextureAtlas(TextureFilter.Nearest, TextureFilter.Nearest);
+ * </pre>
+ * 
+ * Note that you should not dispose the packer in this usage pattern. Instead, dispose the TextureAtlas
+ * if no longer needed.
+ * 
+ * Incremental usage:
+ * <pre>
+ * // 512x512 pixel pages, RGB565 format, 2 pixels of padding, no border duplication
+ * PixmapPacker packer = new PixmapPacker(512, 512, Format.RGB565, 2, false);
+ * TextureAtlas incrementalAtlas = new TextureAtlas();
+ * 
+ * // potentially on a separate thread, e.g. downloading thumbnails
+ * packer.pack("thumbnail", thumbnail);
+ * 
+ * // once a thumbnail is no longer needed, its region is removed from the atlas on the next update
+ * packer.remove("thumbnail");
+ * 
+ * // on the rendering thread, every frame
+ * packer.updateTextureAtlas(incrementalAtlas, TextureFilter.Linear, TextureFilter.Linear);
+ * 
+ * // once the atlas is no longer needed, make sure you get the final additions. This might
+ * // be more elaborate depending on your threading model.
+ * packer.updateTextureAtlas(incrementalAtlas, TextureFilter.Linear, TextureFilter.Linear);
+ * incrementalAtlas.dispose();
+ * </pre>
+ * 
+ * Pixmap-only usage:
+ * <pre>
+ * PixmapPacker packer = new PixmapPacker(512, 512, Format.RGB565, 2, true);
+ * packer.pack("First Pixmap", pixmap1);
+ * packer.pack("Second Pixmap", pixmap2);
+ * 
+ *  // do something interesting with the resulting pages
+ *  for(Page page: packer.getPages()) {
+ *  }
+ *  
+ *  // dispose of the packer in this case
+ *  packer.dispose();
+ * </pre>
+ */
+public class PixmapPacker implements Disposable {
+	/** Allocates rectangles in a page, keeping a list of all maximal free rectangles. Each rectangle is placed in the free
+	 * rectangle that leaves the shortest side, which is then split along the placed rectangle. */
+	static final class MaxRects {
+		final int width, height;
+		final Array<Rectangle> usedRects = new Array<Rectangle>();
+		final Array<Rectangle> freeRects = new Array<Rectangle>();
+
+		MaxRects (int width, int height) {
+			this.width = width;
+			this.height = height;
+			freeRects.add(new Rectangle(0, 0, width, height));
+		}
+
+		/** @return the allocated rectangle or null if it didn't fit */
+		Rectangle insert (int width, int height) {
+			Rectangle best = null;
+			float bestShortSide = Float.MAX_VALUE, bestLongSide = Float.MAX_VALUE;
+			for (int i = 0, n = freeRects.size; i < n; i++) {
+				Rectangle free = freeRects.get(i);
+				if (free.width < width || free.height < height) continue;
+				float shortSide = Math.min(free.width - width, free.height - height);
+				float longSide = Math.max(free.width - width, free.height - height);
+				if (shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide)) {
+					best = free;
+					bestShortSide = shortSide;
+					bestLongSide = longSide;
+				}
+			}
+			if (best == null) return null;
+
+			Rectangle rect = new Rectangle(best.x, best.y, width, height);
+			usedRects.add(rect);
+			place(rect);
+			return rect;
+		}
+
+		/** Frees an allocated rectangle. The free rectangles are rebuilt from the remaining used ones, as the freed space may
+		 * join several free rectangles into larger ones. */
+		void remove (Rectangle rect) {
+			usedRects.removeValue(rect, true);
+			freeRects.clear();
+			freeRects.add(new Rectangle(0, 0, width, height));
+			for (int i = 0, n = usedRects.size; i < n; i++)
+				place(usedRects.get(i));
+		}
+
+		/** Splits all free rectangles overlapping the used rectangle and removes those contained in others. */
+		private void place (Rectangle used) {
+			Array<Rectangle> freeRects = this.freeRects;
+			for (int i = freeRects.size - 1; i >= 0; i--) {
+				Rectangle free = freeRects.get(i);
+				if (used.x >= free.x + free.width || used.x + used.width <= free.x || used.y >= free.y + free.height
+					|| used.y + used.height <= free.y) continue;
+				freeRects.removeIndex(i);
+				if (used.x > free.x) freeRects.add(new Rectangle(free.x, free.y, used.x - free.x, free.height));
+				if (used.x + used.width < free.x + free.width)
+					freeRects.add(new Rectangle(used.x + used.width, free.y, free.x + free.width - used.x - used.width, free.height));
+				if (used.y > free.y) freeRects.add(new Rectangle(free.x, free.y, free.width, used.y - free.y));
+				if (used.y + used.height < free.y + free.height)
+					freeRects.add(new Rectangle(free.x, used.y + used.height, free.width, free.y + free.height - used.y - used.height));
+			}
+
+			for (int i = freeRects.size - 1; i >= 0; i--) {
+				Rectangle rect = freeRects.get(i);
+				for (int j = 0, n = freeRects.size; j < n; j++) {
+					if (i == j) continue;
+					Rectangle other = freeRects.get(j);
+					if (rect.x >= other.x && rect.y >= other.y && rect.x + rect.width <= other.x + other.width
+						&& rect.y + rect.height <= other.y + other.height) {
+						freeRects.removeIndex(i);
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	public class Page {
+		MaxRects allocator;
+		OrderedMap<String, Rectangle> rects;
+		Pixmap image;
+		Texture texture;
+		/** names added and removed since the last update and whether the image changed **/
+		Array<String> addedRects = new Array<String>();
+		Array<String> removedRects = new Array<String>();
+		boolean dirty;
+		
+		public Pixmap getPixmap() {
+			return image;
+		}
+	}
+
+	final int pageWidth;
+	final int pageHeight;
+	final Format pageFormat;
+	final int padding;
+	final boolean duplicateBorder;
+	final Array<Page> pages = new Array<Page>();
+	final ObjectMap<String, Page> pagesByName = new ObjectMap<String, Page>();
+	boolean disposed;
+
+	/** <p>
+	 * Creates a new ImagePacker which will insert all supplied images into a <code>width</code> by <code>height</code> image.
+	 * <code>padding</code> specifies the minimum number of pixels to insert between images. <code>border</code> will duplicate the
+	 * border pixels of the inserted images to avoid seams when rendering with bi-linear filtering on.
+	 * </p>
+	 * 
+	 * @param width the width of the output image
+	 * @param height the height of the output image
+	 * @param padding the number of padding pixels
+	 * @param duplicateBorder whether to duplicate the border */
+	public PixmapPacker (int width, int height, Format format, int padding, boolean duplicateBorder) {
+		this.pageWidth = width;
+		this.pageHeight = height;
+		this.pageFormat = format;
+		this.padding = padding;
+		this.duplicateBorder = duplicateBorder;
+		newPage();
+	}
+
+	/** <p>
+	 * Inserts the given {@link Pixmap}. You can later on retrieve the images position in the output image via the supplied name and the
+	 * method {@link #getRect(String)}. The image is copied to the page without blending.
+	 * </p>
+	 * 
+	 * @param name the name of the image
+	 * @param image the image
+	 * @return Rectangle describing the area the pixmap was rendered to or null.
+	 * @throws RuntimeException in case the image did not fit due to the page size being to small or providing a duplicate name */
+	public synchronized Rectangle pack (String name, Pixmap image) {
+		if(disposed) return null;
+		if (pagesByName.containsKey(name)) throw new RuntimeException("Key with name '" + name + "' is already in map");
+		int borderPixels = padding + (duplicateBorder ? 1 : 0);
+		borderPixels <<= 1;
+
+		if(image.getWidth() >= pageWidth + borderPixels|| image.getHeight() >= pageHeight + borderPixels) throw new GdxRuntimeException("page size for '" + name + "' to small");
+
+		int width = image.getWidth() + borderPixels, height = image.getHeight() + borderPixels;
+		Page page = null;
+		Rectangle area = null;
+		for (int i = 0; i < pages.size && area == null; i++) {
+			page = pages.get(i);
+			area = page.allocator.insert(width, height);
+		}
+		if (area == null) {
+			page = newPage();
+			area = page.allocator.insert(width, height);
+			if (area == null) throw new GdxRuntimeException("page size for '" + name + "' to small");
+		}
+
+		Rectangle rect = new Rectangle(area);
+		rect.width -= borderPixels;
+		rect.height -= borderPixels;
+		borderPixels >>= 1;
+		rect.x += borderPixels;
+		rect.y += borderPixels;
+		page.rects.put(name, rect);
+		pagesByName.put(name, page);
+
+		draw(page.image, image, area, (int)rect.x, (int)rect.y);
+		page.addedRects.add(name);
+		page.dirty = true;
+		return rect;
+	}
+
+	private void draw (Pixmap pageImage, Pixmap image, Rectangle area, int x, int y) {
+		Blending blending = Pixmap.getBlending();
+		Pixmap.setBlending(Blending.None);
+		// clears what removed images left behind in the padding
+		pageImage.setColor(0);
+		pageImage.fillRectangle((int)area.x, (int)area.y, (int)area.width, (int)area.height);
+		pageImage.drawPixmap(image, x, y);
+		if (duplicateBorder) {
+			int width = image.getWidth(), height = image.getHeight();
+			// edges
+			pageImage.drawPixmap(image, x, y - 1, 0, 0, width, 1);
+			pageImage.drawPixmap(image, x, y + height, 0, height - 1, width, 1);
+			pageImage.drawPixmap(image, x - 1, y, 0, 0, 1, height);
+			pageImage.drawPixmap(image, x + width, y, width - 1, 0, 1, height);
+			// corners
+			pageImage.drawPixmap(image, x - 1, y - 1, 0, 0, 1, 1);
+			pageImage.drawPixmap(image, x + width, y - 1, width - 1, 0, 1, 1);
+			pageImage.drawPixmap(image, x - 1, y + height, 0, height - 1, 1, 1);
+			pageImage.drawPixmap(image, x + width, y + height, width - 1, height - 1, 1, 1);
+		}
+		Pixmap.setBlending(blending);
+	}
+
+	/** Removes an image, its space is reused by later inserts. A region in a {@link TextureAtlas} updated by
+	 * {@link #updateTextureAtlas(TextureAtlas, TextureFilter, TextureFilter, boolean)} is removed on the next update.
+	 * @return whether an image with the name was packed */
+	public synchronized boolean remove (String name) {
+		if (disposed) return false;
+		Page page = pagesByName.remove(name);
+		if (page == null) return false;
+		Rectangle rect = page.rects.remove(name);
+		int borderPixels = padding + (duplicateBorder ? 1 : 0);
+		for (int i = 0, n = page.allocator.usedRects.size; i < n; i++) {
+			Rectangle area = page.allocator.usedRects.get(i);
+			if (area.x + borderPixels == rect.x && area.y + borderPixels == rect.y) {
+				page.allocator.remove(area);
+				break;
+			}
+		}
+		if (!page.addedRects.removeValue(name, false)) page.removedRects.add(name);
+		return true;
+	}
+	
+	private Page newPage() {
+		Page page = new Page();
+		page.image = new Pixmap(pageWidth, pageHeight, pageFormat);
+		page.allocator = new MaxRects(pageWidth, pageHeight);
+		page.rects = new OrderedMap<String, Rectangle>();
+		pages.add(page);
+		return page;
+	}
+
+	/** @return the {@link Page} instances created so far. This method is not thread safe! */
+	public Array<Page> getPages () {
+		return pages;
+	}
+	
+	/**
+	 * @param name the name of the image
+	 * @return the rectangle for the image in the page it's stored in or null
+	 */
+	public synchronized Rectangle getRect(String name) {
+		Page page = pagesByName.get(name);
+		return page == null ? null : page.rects.get(name);
+	}
+	
+	/**
+	 * @param name the name of the image
+	 * @return the page the image is stored in or null
+	 */
+	public synchronized Page getPage(String name) {
+		return pagesByName.get(name);
+	}
+	
+	/**
+	 * Disposes all resources, including Pixmap instances for the pages
+	 * created so far. These page Pixmap instances are shared with
+	 * any {@link TextureAtlas} generated or updated by either {@link #generateTextureAtlas(TextureFilter, TextureFilter, boolean)}
+	 * or {@link #updateTextureAtlas(TextureAtlas, TextureFilter, TextureFilter, boolean)}. Do
+	 * not call this method if you generated or updated a TextureAtlas, instead
+	 * dispose the TextureAtlas.
+	 */
+	public synchronized void dispose() {
+		for(Page page: pages) {
+			page.image.dispose();
+		}
+		disposed = true;
+	}
+
+	/**
+	 * Generates a new {@link TextureAtlas} from the {@link Pixmap} instances inserted so far.
+	 * @param minFilter
+	 * @param magFilter
+	 * @return the TextureAtlas
+	 */
+	public synchronized TextureAtlas generateTextureAtlas (TextureFilter minFilter, TextureFilter magFilter, boolean useMipMaps) {
+		TextureAtlas atlas = new TextureAtlas();
+		for(Page page: pages) {
+			if(page.rects.size != 0) {
+				Texture texture = new Texture(new ManagedPixmapTextureData(page.image, page.image.getFormat(), useMipMaps)) {
+					@Override
+					public void dispose () {
+						super.dispose();
+					}
+				};
+				texture.setFilter(minFilter, magFilter);
+				
+				Keys<String> names = page.rects.keys();
+				for(String name: names) {
+					Rectangle rect = page.rects.get(name);
+					TextureRegion region = new TextureRegion(texture, (int)rect.x, (int)rect.y, (int)rect.width, (int)rect.height);
+					atlas.addRegion(name, region);
+				}
+			}
+		}
+		return atlas;
+	}
+
+	/**
+	 * Updates the given {@link TextureAtlas}, adding any new {@link Pixmap} instances packed and removing those removed since the last
+	 * call to this method. Pages that changed are uploaded as a whole. This can be used to insert Pixmap instances on a separate
+	 * thread via {@link #pack(String, Pixmap)} and update the TextureAtlas on the rendering thread. This method must be called on
+	 * the rendering thread.
+	 */
+	public synchronized void updateTextureAtlas(TextureAtlas atlas, TextureFilter minFilter, TextureFilter magFilter, boolean useMipMaps) {
+		if(disposed) return;
+		for(Page page: pages) {
+			if(page.texture == null) {
+				if(page.addedRects.size > 0) {
+					page.texture = new Texture(new ManagedPixmapTextureData(page.image, page.image.getFormat(), useMipMaps)) {
+						@Override
+						public void dispose () {
+							super.dispose();
+							
+						}
+					};
+					page.texture.setFilter(minFilter, magFilter);
+				}
+			} else if(page.dirty) {
+				page.texture.load(page.texture.getTextureData());
+			}
+			page.dirty = false;
+
+			if(page.texture != null) {
+				Array<AtlasRegion> regions = atlas.getRegions();
+				for(String name: page.removedRects) {
+					for(int i = regions.size - 1; i >= 0; i--) {
+						AtlasRegion region = regions.get(i);
+						if(region.getTexture() == page.texture && region.name.equals(name)) regions.removeIndex(i);
+					}
+				}
+				for(String name: page.addedRects) {
+					Rectangle rect = page.rects.get(name);
+					TextureRegion region = new TextureRegion(page.texture, (int)rect.x, (int)rect.y, (int)rect.width, (int)rect.height);
+					atlas.addRegion(name, region);
+				}
+			}
+			page.addedRects.clear();
+			page.removedRects.clear();
+		}
+	}
+	
+	public int getPageWidth () {
+		return pageWidth;
+	}
+
+	public int getPageHeight () {
+		return pageHeight;
+	}
+	
+	public int getPadding() {
+		return padding;
+	}
+	
+	public boolean duplicateBoarder() {
+		return duplicateBorder;
+	}
+	
+	public class ManagedPixmapTextureData extends PixmapTextureData {
+		public ManagedPixmapTextureData (Pixmap pixmap, Format format, boolean useMipMaps) {
+			super(pixmap, format, useMipMaps, false);
+		}
+
+		@Override
+		public boolean isManaged () {
+			return true;
+		}
+	}
+}
@@ -15,11 +15,22 @@ package com.badlogic.gdx.tiledmappacker;
 
 import java.awt.Graphics;
 import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -48,22 +59,23 @@ import com.badlogic.gdx.graphics.g2d.tiled.TileSet;
 import com.badlogic.gdx.graphics.g2d.tiled.TiledLoader;
 import com.badlogic.gdx.graphics.g2d.tiled.TiledMap;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.tools.BuildCache;
+import com.badlogic.gdx.tools.BuildCache.Entry;
 import com.badlogic.gdx.tools.imagepacker.TexturePacker;
 import com.badlogic.gdx.tools.imagepacker.TexturePacker.Settings;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.Json;
 
 /** Packs a Tiled Map, adding some properties to improve the speed of the {@link TileMapRenderer}. Also runs the texture packer on
- * the tiles for use with a {@link TileAtlas}
+ * the tiles for use with a {@link TileAtlas}. Maps and tile sets are processed on several threads and a tile set used by several
+ * maps is split and packed once. The output doesn't depend on the number of threads.
  * @author David Fraska */
 public class TiledMapPacker {
 
-	private TexturePacker packer;
-	private TiledMap map;
-
-	// private File outputDir;
-	private ArrayList<String> processedTileSets = new ArrayList<String>();
-
-	private ArrayList<Integer> blendedTiles = new ArrayList<Integer>();
+	private BuildCache cache;
+	private int threads = Runtime.getRuntime().availableProcessors();
 
 	static private class TmxFilter implements FilenameFilter {
 
@@ -79,6 +91,18 @@ public class TiledMapPacker {
 
 	}
 
+	/** If not null, the packed tile sets are stored in the cache. A tile set whose image and layout are unchanged is copied from the
+	 * cache instead of being packed again. */
+	public void setCache (BuildCache cache) {
+		this.cache = cache;
+	}
+
+	/** Sets the number of threads used to load the maps, pack the tile sets and write the maps. Defaults to the number of
+	 * processors, 1 does everything on the calling thread. */
+	public void setThreads (int threads) {
+		this.threads = threads;
+	}
+
 	/** Typically, you should run the {@link TiledMapPacker#main(String[])} method instead of this method. Packs a directory of
 	 * Tiled Maps, adding properties to improve the speed of the {@link TileMapRenderer}. Also runs the texture packer on the tile
 	 * sets for use with a {@link TileAtlas}
@@ -88,50 +112,184 @@ public class TiledMapPacker {
 	 *           example, if your output directory is "C:\mydir\maps" and you have a tileset with the path "../tileset.png", the
 	 *           tileset will be output to "C:\mydir\" and the maps will be in "C:\mydir\maps".
 	 * @param settings the settings used in the TexturePacker */
-	public void processMap (File inputDir, File outputDir, Settings settings) throws IOException {
-		FileHandle inputDirHandle = Gdx.files.absolute(inputDir.getAbsolutePath());
-		File[] files = inputDir.listFiles(new TmxFilter());
+	public void processMap (File inputDir, final File outputDir, final Settings settings) throws IOException {
+		final FileHandle inputDirHandle = Gdx.files.absolute(inputDir.getAbsolutePath());
+		final File[] files = inputDir.listFiles(new TmxFilter());
+		// Sorted so a tile set used with different sizes is always reported for the same map.
+		Arrays.sort(files);
+
+		ExecutorService executor = null;
+		if (threads > 1) {
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				public Thread newThread (Runnable runnable) {
+					Thread thread = new Thread(runnable, "TiledMapPacker-Worker-Thread");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		try {
+			final TiledMap[] maps = new TiledMap[files.length];
+			List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+			for (int i = 0; i < files.length; i++) {
+				final int index = i;
+				tasks.add(new Callable<Object>() {
+					public Object call () {
+						maps[index] = TiledLoader.createMap(Gdx.files.absolute(files[index].getAbsolutePath()));
+						return null;
+					}
+				});
+			}
+			run(tasks, executor);
+
+			LinkedHashMap<String, TileSet> tileSets = new LinkedHashMap<String, TileSet>();
+			for (TiledMap map : maps) {
+				for (TileSet set : map.tileSets) {
+					TileSet other = tileSets.get(set.imageName);
+					if (other == null)
+						tileSets.put(set.imageName, set);
+					else if (other.tileWidth != set.tileWidth || other.tileHeight != set.tileHeight || other.margin != set.margin
+						|| other.spacing != set.spacing)
+						throw new GdxRuntimeException("Tile set " + set.imageName + " has a different layout in: "
+							+ map.tmxFile.name());
+				}
+			}
 
-		for (File file : files) {
-			map = TiledLoader.createMap(Gdx.files.absolute(file.getAbsolutePath()));
+			// Blended tiles by image name, relative to the first tile of the tile set.
+			final LinkedHashMap<String, IntArray> blendedTiles = new LinkedHashMap<String, IntArray>();
+			tasks.clear();
+			for (final TileSet set : tileSets.values()) {
+				final IntArray blended = new IntArray();
+				blendedTiles.put(set.imageName, blended);
+				tasks.add(new Callable<Object>() {
+					public Object call () throws IOException {
+						packTileSet(set, inputDirHandle, outputDir, settings, blended);
+						return null;
+					}
+				});
+			}
+			run(tasks, executor);
+
+			tasks.clear();
+			for (final TiledMap map : maps) {
+				tasks.add(new Callable<Object>() {
+					public Object call () throws IOException {
+						IntArray blended = new IntArray();
+						for (TileSet set : map.tileSets) {
+							IntArray tiles = blendedTiles.get(set.imageName);
+							for (int i = 0; i < tiles.size; i++)
+								blended.add(set.firstgid + tiles.get(i));
+						}
+						blended.sort();
+						writeUpdatedTMX(outputDir, map.tmxFile, blended);
+						return null;
+					}
+				});
+			}
+			run(tasks, executor);
+		} finally {
+			if (executor != null) executor.shutdown();
+		}
+	}
 
-			for (TileSet set : map.tileSets) {
-				if (!processedTileSets.contains(set.imageName)) {
-					processedTileSets.add(set.imageName);
-					packTileSet(set, inputDirHandle, outputDir, settings);
+	/** Runs the tasks on the calling thread if the executor is null, otherwise on the executor, and waits for them to finish. */
+	private static void run (List<Callable<Object>> tasks, ExecutorService executor) throws IOException {
+		if (executor == null) {
+			for (Callable<Object> task : tasks) {
+				try {
+					task.call();
+				} catch (IOException ex) {
+					throw ex;
+				} catch (RuntimeException ex) {
+					throw ex;
+				} catch (Exception ex) {
+					throw new GdxRuntimeException(ex);
 				}
 			}
-
-			writeUpdatedTMX(outputDir, map.tmxFile);
+			return;
+		}
+		try {
+			for (Future<Object> future : executor.invokeAll(tasks))
+				future.get();
+		} catch (InterruptedException ex) {
+			throw new GdxRuntimeException("interrupted while processing maps", ex);
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) throw (IOException)cause;
+			if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+			throw new GdxRuntimeException("couldn't process maps", cause);
 		}
 	}
 
-	private void packTileSet (TileSet set, FileHandle inputDirHandle, File outputDir, Settings settings) throws IOException {
+	/** Packs the tiles of the tile set, or copies them from the cache.
+	 * @param blended Receives the index of each tile that isn't fully opaque, relative to the first tile of the tile set. */
+	private void packTileSet (TileSet set, FileHandle inputDirHandle, File outputDir, Settings settings, IntArray blended)
+		throws IOException {
 		BufferedImage tile;
 		Vector2 tileLocation;
-		TileSetLayout packerTileSet;
 		Graphics g;
 
-		packer = new TexturePacker(settings);
-
 		TileSetLayout layout = new TileSetLayout(set, inputDirHandle);
 
+		String key = null;
+		Entry entry = null;
+		if (cache != null) {
+			String tileSetSettings = new Json().toJson(settings) + "\n" + set.imageName + ", " + set.tileWidth + "x" + set.tileHeight
+				+ ", " + set.margin + ", " + set.spacing;
+			key = cache.getKey(tileSetSettings, null, new Array(new File[] {inputDirHandle.child(set.imageName).file()}));
+			entry = cache.get(key);
+		}
+
+		// Tiles are split even if the tile set is cached, to find the blended tiles.
+		TexturePacker packer = entry == null ? new TexturePacker(settings) : null;
+
 		for (int gid = layout.firstgid, i = 0; i < layout.numTiles; gid++, i++) {
 			tileLocation = layout.getLocation(gid);
-			tile = new BufferedImage(layout.tileWidth, layout.tileHeight, BufferedImage.TYPE_4BYTE_ABGR);
-
-			g = tile.createGraphics();
-			g.drawImage(layout.image, 0, 0, layout.tileWidth, layout.tileHeight, (int)tileLocation.x, (int)tileLocation.y,
-				(int)tileLocation.x + layout.tileWidth, (int)tileLocation.y + layout.tileHeight, null);
 
-			if (isBlended(tile)) setBlended(gid);
+			if (isBlended(layout.image, (int)tileLocation.x, (int)tileLocation.y, layout.tileWidth, layout.tileHeight))
+				blended.add(i);
 
-			packer.addImage(tile, removeExtension(removePath(set.imageName)) + "_" + i);
+			if (packer != null) {
+				tile = new BufferedImage(layout.tileWidth, layout.tileHeight, BufferedImage.TYPE_4BYTE_ABGR);
+				g = tile.createGraphics();
+				g.drawImage(layout.image, 0, 0, layout.tileWidth, layout.tileHeight, (int)tileLocation.x, (int)tileLocation.y,
+					(int)tileLocation.x + layout.tileWidth, (int)tileLocation.y + layout.tileHeight, null);
+				g.dispose();
+				packer.addImage(tile, removeExtension(removePath(set.imageName)) + "_" + i);
+			}
 		}
 
 		File outputFile = getRelativeFile(outputDir, removeExtension(set.imageName) + " packfile");
 		outputFile.getParentFile().mkdirs();
+		if (entry != null) {
+			for (int i = 0; i < entry.files.size; i++)
+				new FileHandle(entry.files.get(i)).copyTo(new FileHandle(new File(outputFile.getParentFile(), entry.values.get(i))));
+			return;
+		}
 		packer.process(outputFile.getParentFile(), outputFile, removeExtension(removePath(set.imageName)));
+
+		if (cache != null) {
+			Array<File> files = new Array();
+			Array<String> names = new Array();
+			files.add(outputFile);
+			names.add(outputFile.getName());
+			// Page image names are the lines that follow a blank line in the pack file.
+			BufferedReader reader = new BufferedReader(new FileReader(outputFile));
+			try {
+				boolean pageName = false;
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (pageName) {
+						files.add(new File(outputFile.getParentFile(), line));
+						names.add(line);
+					}
+					pageName = line.trim().length() == 0;
+				}
+			} finally {
+				reader.close();
+			}
+			cache.put(key, files, names);
+		}
 	}
 
 	private static String removeExtension (String s) {
@@ -175,11 +333,7 @@ public class TiledMapPacker {
 		return child;
 	}
 
-	private void setBlended (int tileNum) {
-		blendedTiles.add(tileNum);
-	}
-
-	private void writeUpdatedTMX (File outputDir, FileHandle tmxFileHandle) throws IOException {
+	private void writeUpdatedTMX (File outputDir, FileHandle tmxFileHandle, IntArray blendedTiles) throws IOException {
 		Document doc;
 		DocumentBuilder docBuilder;
 		DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
@@ -231,13 +385,13 @@ public class TiledMapPacker {
 		}
 	}
 
-	private static String toCSV (ArrayList<Integer> values) {
-		String temp = "";
-		for (int i = 0; i < values.size() - 1; i++) {
-			temp += values.get(i) + ",";
+	private static String toCSV (IntArray values) {
+		StringBuilder buffer = new StringBuilder();
+		for (int i = 0; i < values.size; i++) {
+			if (i > 0) buffer.append(',');
+			buffer.append(values.get(i));
 		}
-		if (values.size() > 0) temp += values.get(values.size() - 1);
-		return temp;
+		return buffer.toString();
 	}
 
 	/** If the child node doesn't exist, it is created. */
@@ -283,10 +437,12 @@ public class TiledMapPacker {
 		}
 	}
 
-	private static boolean isBlended (BufferedImage tile) {
-		int[] rgbArray = new int[tile.getWidth() * tile.getHeight()];
-		tile.getRGB(0, 0, tile.getWidth(), tile.getHeight(), rgbArray, 0, tile.getWidth());
-		for (int i = 0; i < tile.getWidth() * tile.getHeight(); i++) {
+	/** Returns true if any pixel of the tile isn't opaque. A tile that doesn't fit in the image is padded with transparent pixels
+	 * when packed, so it is blended. */
+	private static boolean isBlended (BufferedImage image, int x, int y, int width, int height) {
+		if (x + width > image.getWidth() || y + height > image.getHeight()) return true;
+		int[] rgbArray = image.getRGB(x, y, width, height, null, 0, width);
+		for (int i = 0; i < rgbArray.length; i++) {
 			if (((rgbArray[i] >> 24) & 0xff) != 255) {
 				return true;
 			}
@@ -294,28 +450,13 @@ public class TiledMapPacker {
 		return false;
 	}
 
-	private TileSetLayout getTileSetLayout (int tileNum, FileHandle inputDirHandle) throws IOException {
-		int firstgid = 0;
-		int lastgid;
-
-		for (TileSet set : map.tileSets) {
-			TileSetLayout layout = new TileSetLayout(set, inputDirHandle);
-			firstgid = set.firstgid;
-			lastgid = firstgid + layout.numTiles - 1;
-			if (tileNum >= firstgid && tileNum <= lastgid) {
-				return layout;
-			}
-		}
-
-		return null;
-	}
-
 	/** Processes a directory of Tile Maps, compressing each tile set contained in any map once.
 	 * @param args args[0]: the input directory containing the tmx files (and tile sets, relative to the path listed in the tmx
 	 *           file). args[1]: The output directory for the tmx files, should be empty before running. WARNING: Use caution if
 	 *           you have a "../" in the path of your tile sets! The output for these tile sets will be relative to the output
 	 *           directory. For example, if your output directory is "C:\mydir\output" and you have a tileset with the path
-	 *           "../tileset.png", the tileset will be output to "C:\mydir\" and the maps will be in "C:\mydir\output". */
+	 *           "../tileset.png", the tileset will be output to "C:\mydir\" and the maps will be in "C:\mydir\output". args[2]:
+	 *           optional, a {@link BuildCache} directory so unchanged tile sets aren't packed again. */
 	public static void main (String[] args) {
 		File tmxFile, inputDir, outputDir;
 
@@ -354,10 +495,11 @@ public class TiledMapPacker {
 
 		TiledMapPacker packer = new TiledMapPacker();
 
-		if (args.length != 2) {
-			System.out.println("Usage: INPUTDIR OUTPUTDIR");
+		if (args.length != 2 && args.length != 3) {
+			System.out.println("Usage: INPUTDIR OUTPUTDIR [CACHEDIR]");
 			System.exit(0);
 		}
+		if (args.length == 3) packer.setCache(new BuildCache(new File(args[2])));
 
 		inputDir = new File(args[0]);
 		outputDir = new File(args[1]);
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tools;
+
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Json;
+
+/** Stores the output of a tool in a directory, keyed by a hash of the tool's input files and settings. Before processing, a tool
+ * computes the key with {@link #getKey(String, File, Array)}. If {@link #get(String)} has an entry, the tool copies the stored
+ * files instead of processing the inputs again, otherwise it processes them and stores its output with
+ * {@link #put(String, Array, Array)}. Stored files are named by the hash of their contents, so output shared by several entries
+ * is stored once. Nothing is ever removed, the directory can be deleted to clear the cache.
+ * <p>
+ * Tools that extend {@link FileProcessor} get the cache with {@link FileProcessor#getCache()}. A cache may be used by several
+ * threads. */
+public class BuildCache {
+	private final File entriesDir, filesDir;
+	private final Json json = new Json();
+
+	public BuildCache (File dir) {
+		entriesDir = new File(dir, "entries");
+		filesDir = new File(dir, "files");
+	}
+
+	/** Returns a key for the settings and the contents of the files.
+	 * @param settings Everything other than the files that changes the tool's output.
+	 * @param root If not null, the path of each file relative to root is part of the key, so renaming or moving a file changes the
+	 *           key. If null, only the contents of the files are used. */
+	public String getKey (String settings, File root, Array<File> files) {
+		MessageDigest digest = newDigest();
+		digest.update(bytes(settings));
+		String rootPath = root == null ? null : root.getAbsolutePath().replace('\\', '/') + "/";
+		for (int i = 0, n = files.size; i < n; i++) {
+			File file = files.get(i);
+			if (rootPath != null) {
+				String path = file.getAbsolutePath().replace('\\', '/');
+				if (path.startsWith(rootPath)) path = path.substring(rootPath.length());
+				digest.update((byte)0);
+				digest.update(bytes(path));
+			}
+			byte[] bytes = new FileHandle(file).readBytes();
+			digest.update((byte)0);
+			digest.update(bytes(String.valueOf(bytes.length)));
+			digest.update(bytes);
+		}
+		return toHex(digest.digest());
+	}
+
+	/** Returns the entry stored for the key, or null if there is none or any of its files are missing. */
+	public synchronized Entry get (String key) {
+		File file = new File(entriesDir, key);
+		if (!file.exists()) return null;
+		Manifest manifest = json.fromJson(Manifest.class, new FileHandle(file));
+		Entry entry = new Entry();
+		for (int i = 0, n = manifest.hashes.length; i < n; i++) {
+			File stored = new File(filesDir, manifest.hashes[i]);
+			if (!stored.exists()) return null;
+			entry.files.add(stored);
+			entry.values.add(manifest.values[i]);
+		}
+		return entry;
+	}
+
+	/** Stores copies of the files for the key, replacing any existing entry.
+	 * @param values A value for each file that the tool needs to use the file later, such as where the file is copied to. May be
+	 *           null. */
+	public synchronized void put (String key, Array<File> files, Array<String> values) {
+		Manifest manifest = new Manifest();
+		manifest.hashes = new String[files.size];
+		manifest.values = new String[files.size];
+		for (int i = 0, n = files.size; i < n; i++) {
+			byte[] bytes = new FileHandle(files.get(i)).readBytes();
+			MessageDigest digest = newDigest();
+			digest.update(bytes);
+			String hash = toHex(digest.digest());
+			File stored = new File(filesDir, hash);
+			if (!stored.exists()) write(stored, bytes);
+			manifest.hashes[i] = hash;
+			if (values != null) manifest.values[i] = values.get(i);
+		}
+		write(new File(entriesDir, key), bytes(json.toJson(manifest)));
+	}
+
+	/** Writes to a temporary file and renames it, so an interrupted build never leaves a partial file under a valid name. */
+	private void write (File file, byte[] bytes) {
+		File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+		new FileHandle(temp).writeBytes(bytes, false);
+		file.delete();
+		if (!temp.renameTo(file)) throw new RuntimeException("Unable to write cache file: " + file);
+	}
+
+	static private MessageDigest newDigest () {
+		try {
+			return MessageDigest.getInstance("SHA1");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	static private byte[] bytes (String value) {
+		try {
+			return value.getBytes("UTF-8");
+		} catch (UnsupportedEncodingException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	static private String toHex (byte[] digest) {
+		String hex = new BigInteger(1, digest).toString(16);
+		while (hex.length() < digest.length * 2)
+			hex = "0" + hex;
+		return hex;
+	}
+
+	static private class Manifest {
+		String[] hashes;
+		String[] values;
+	}
+
+	static public class Entry {
+		/** The stored files, in the order they were put. They should be copied, not modified. */
+		public final Array<File> files = new Array();
+		/** The value stored with each file, may contain nulls. */
+		public final Array<String> values = new Array();
+	}
+}
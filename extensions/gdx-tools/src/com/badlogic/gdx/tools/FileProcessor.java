@@ -35,6 +35,7 @@ public class FileProcessor {
 	ArrayList<InputFile> outputFiles = new ArrayList();
 	boolean recursive = true;
 	boolean flattenOutput;
+	BuildCache cache;
 
 	Comparator<InputFile> inputFileComparator = new Comparator<InputFile>() {
 		public int compare (InputFile o1, InputFile o2) {
@@ -79,6 +80,17 @@ public class FileProcessor {
 		return this;
 	}
 
+	/** Sets the cache subclasses use to skip inputs that haven't changed since they were last processed. Default is null. */
+	public FileProcessor setCache (BuildCache cache) {
+		this.cache = cache;
+		return this;
+	}
+
+	/** @return May be null. */
+	public BuildCache getCache () {
+		return cache;
+	}
+
 	/** @param outputRoot May be null.
 	 * @return the processed files added with {@link #addProcessedFile(InputFile)}. */
 	public ArrayList<InputFile> process (File inputFile, File outputRoot) throws Exception {
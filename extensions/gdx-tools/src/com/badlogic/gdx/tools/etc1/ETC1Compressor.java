@@ -24,11 +24,21 @@ import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Pixmap.Format;
 import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.graphics.glutils.ETC1.ETC1Data;
+import com.badlogic.gdx.graphics.glutils.ETC1Encoder;
+import com.badlogic.gdx.graphics.glutils.ETC1Encoder.Quality;
+import com.badlogic.gdx.tools.BuildCache;
+import com.badlogic.gdx.tools.BuildCache.Entry;
 import com.badlogic.gdx.tools.FileProcessor;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxNativesLoader;
 
 public class ETC1Compressor {
 	static class ETC1FileProcessor extends FileProcessor {
+		final ETC1Encoder encoder = new ETC1Encoder(Runtime.getRuntime().availableProcessors());
+		Quality quality = Quality.Medium;
+		boolean mipMaps;
+
 		ETC1FileProcessor () {
 			addInputSuffix(".png");
 			addInputSuffix(".jpg");
@@ -38,6 +48,21 @@ public class ETC1Compressor {
 
 		@Override
 		protected void processFile (InputFile inputFile) throws Exception {
+			BuildCache cache = getCache();
+			String key = null;
+			if (cache != null) {
+				// Medium without mipmaps is what the native encoder produced, keep those entries valid.
+				String settings = "etc1";
+				if (quality != Quality.Medium || mipMaps) settings += " " + quality + (mipMaps ? " mipmaps" : "");
+				key = cache.getKey(settings, null, new Array(new File[] {inputFile.inputFile}));
+				Entry entry = cache.get(key);
+				if (entry != null) {
+					System.out.println("Unchanged " + inputFile.inputFile);
+					new FileHandle(entry.files.get(0)).copyTo(new FileHandle(inputFile.outputFile));
+					return;
+				}
+			}
+
 			System.out.println("Processing " + inputFile.inputFile);
 			Pixmap pixmap = new Pixmap(new FileHandle(inputFile.inputFile));
 			if (pixmap.getFormat() != Format.RGB888 && pixmap.getFormat() != Format.RGB565) {
@@ -47,8 +72,15 @@ public class ETC1Compressor {
 				pixmap.dispose();
 				pixmap = tmp;
 			}
-			ETC1.encodeImagePKM(pixmap).write(new FileHandle(inputFile.outputFile));
+			if (mipMaps)
+				encoder.encodeMipMapsPKM(pixmap, quality, new FileHandle(inputFile.outputFile));
+			else {
+				ETC1Data data = encoder.encodeImagePKM(pixmap, quality);
+				data.write(new FileHandle(inputFile.outputFile));
+				data.dispose();
+			}
 			pixmap.dispose();
+			if (cache != null) cache.put(key, new Array(new File[] {inputFile.outputFile}), null);
 		}
 
 		@Override
@@ -62,18 +94,56 @@ public class ETC1Compressor {
 
 	public static void process (String inputDirectory, String outputDirectory, boolean recursive, boolean flatten)
 		throws Exception {
+		process(inputDirectory, outputDirectory, recursive, flatten, null);
+	}
+
+	public static void process (String inputDirectory, String outputDirectory, boolean recursive, boolean flatten,
+		String cacheDirectory) throws Exception {
+		process(inputDirectory, outputDirectory, recursive, flatten, cacheDirectory, Quality.Medium, false);
+	}
+
+	/** @param cacheDirectory If not null, images that were compressed before are copied from the {@link BuildCache} in this
+	 *           directory instead of being compressed again.
+	 * @param quality the {@link Quality} of the encoding, Medium gives the same result as {@link ETC1#encodeImagePKM(Pixmap)}.
+	 * @param mipMaps If true, each file contains the complete mipmap chain, see
+	 *           {@link ETC1Encoder#encodeMipMapsPKM(Pixmap, Quality, FileHandle)}. */
+	public static void process (String inputDirectory, String outputDirectory, boolean recursive, boolean flatten,
+		String cacheDirectory, Quality quality, boolean mipMaps) throws Exception {
 		GdxNativesLoader.load();
 		ETC1FileProcessor processor = new ETC1FileProcessor();
 		processor.setRecursive(recursive);
 		processor.setFlattenOutput(flatten);
-		processor.process(new File(inputDirectory), new File(outputDirectory));
+		processor.quality = quality;
+		processor.mipMaps = mipMaps;
+		if (cacheDirectory != null) processor.setCache(new BuildCache(new File(cacheDirectory)));
+		try {
+			processor.process(new File(inputDirectory), new File(outputDirectory));
+		} finally {
+			processor.encoder.dispose();
+		}
 	}
 
 	public static void main (String[] args) throws Exception {
-		if (args.length != 2) {
-			System.out.println("ETC1Compressor <input-dir> <output-dir>");
+		String cacheDirectory = null;
+		Quality quality = Quality.Medium;
+		boolean mipMaps = false;
+		boolean valid = args.length >= 2;
+		for (int i = 2; i < args.length; i++) {
+			if (args[i].equals("-fast"))
+				quality = Quality.Fast;
+			else if (args[i].equals("-high"))
+				quality = Quality.High;
+			else if (args[i].equals("-mipmaps"))
+				mipMaps = true;
+			else if (cacheDirectory == null && !args[i].startsWith("-"))
+				cacheDirectory = args[i];
+			else
+				valid = false;
+		}
+		if (!valid) {
+			System.out.println("ETC1Compressor <input-dir> <output-dir> [-fast|-high] [-mipmaps] [cache-dir]");
 			System.exit(-1);
 		}
-		ETC1Compressor.process(args[0], args[1], true, false);
+		ETC1Compressor.process(args[0], args[1], true, false, cacheDirectory, quality, mipMaps);
 	}
 }
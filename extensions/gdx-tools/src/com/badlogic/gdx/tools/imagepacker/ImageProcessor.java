@@ -9,6 +9,9 @@ import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,6 +38,35 @@ public class ImageProcessor {
 	}
 
 	public void addImage (File file) {
+		Rect rect = loadImage(file);
+		if (rect != null) addRect(rect, settings.alias ? hash(rect.image) : null);
+	}
+
+	/** Loads, strips and hashes the images on the executor, then adds them in the order given. The result is the same as calling
+	 * {@link #addImage(File)} for each file. */
+	public void addImages (Array<File> files, ExecutorService executor) {
+		final String[] hashes = settings.alias ? new String[files.size] : null;
+		Array<Future<Rect>> rects = new Array(files.size);
+		for (int i = 0, n = files.size; i < n; i++) {
+			final File file = files.get(i);
+			final int index = i;
+			rects.add(executor.submit(new Callable<Rect>() {
+				public Rect call () {
+					Rect rect = loadImage(file);
+					if (rect != null && hashes != null) hashes[index] = hash(rect.image);
+					return rect;
+				}
+			}));
+		}
+		// Aliases are resolved in order so the first of several identical images is always the one packed.
+		for (int i = 0, n = rects.size; i < n; i++) {
+			Rect rect = TexturePacker2.getResult(rects.get(i));
+			if (rect != null) addRect(rect, hashes != null ? hashes[i] : null);
+		}
+	}
+
+	/** Returns the rect for the file, or null if the image should be ignored. */
+	private Rect loadImage (File file) {
 		BufferedImage image;
 		try {
 			image = ImageIO.read(file);
@@ -82,15 +114,17 @@ public class ImageProcessor {
 			rect = createRect(image);
 			if (rect == null) {
 				System.out.println("Ignoring blank input image: " + name);
-				return;
+				return null;
 			}
 		}
 
 		rect.name = name;
 		rect.index = index;
+		return rect;
+	}
 
-		if (settings.alias) {
-			String crc = hash(rect.image);
+	private void addRect (Rect rect, String crc) {
+		if (crc != null) {
 			Rect existing = crcs.get(crc);
 			if (existing != null) {
 				System.out.println(rect.name + " (alias of " + existing.name + ")");
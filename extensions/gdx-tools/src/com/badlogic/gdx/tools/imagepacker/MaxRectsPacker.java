@@ -2,6 +2,9 @@
 package com.badlogic.gdx.tools.imagepacker;
 
 import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.tools.imagepacker.TexturePacker2.Page;
@@ -25,6 +28,13 @@ public class MaxRectsPacker {
 	}
 
 	public Array<Page> pack (Array<Rect> inputRects) {
+		return pack(inputRects, null);
+	}
+
+	/** @param executor If not null, each heuristic is packed on its own task and the page sizes the binary search may visit next
+	 *           are packed while the current size is still being packed. The pages are identical to those packed without an
+	 *           executor. */
+	public Array<Page> pack (Array<Rect> inputRects, ExecutorService executor) {
 		for (int i = 0, nn = inputRects.size; i < nn; i++) {
 			Rect rect = inputRects.get(i);
 			rect.width += settings.paddingX;
@@ -53,14 +63,14 @@ public class MaxRectsPacker {
 
 		Array<Page> pages = new Array();
 		while (inputRects.size > 0) {
-			Page result = packPage(inputRects);
+			Page result = packPage(inputRects, executor);
 			pages.add(result);
 			inputRects = result.remainingRects;
 		}
 		return pages;
 	}
 
-	private Page packPage (Array<Rect> inputRects) {
+	private Page packPage (Array<Rect> inputRects, ExecutorService executor) {
 		int edgePaddingX = 0, edgePaddingY = 0;
 		if (!settings.duplicatePadding) { // if duplicatePadding, edges get only half padding.
 			edgePaddingX = settings.paddingX;
@@ -89,27 +99,56 @@ public class MaxRectsPacker {
 		// Find the minimal page size that fits all rects.
 		BinarySearch widthSearch = new BinarySearch(minWidth, settings.maxWidth, settings.fast ? 25 : 15, settings.pot);
 		BinarySearch heightSearch = new BinarySearch(minHeight, settings.maxHeight, settings.fast ? 25 : 15, settings.pot);
-		int width = widthSearch.reset(), height = heightSearch.reset(), i = 0;
 		Page bestResult = null;
-		while (true) {
-			Page bestWidthResult = null;
-			while (width != -1) {
-				Page result = packAtSize(true, width - edgePaddingX, height - edgePaddingY, inputRects);
+		if (executor == null) {
+			int width = widthSearch.reset(), height = heightSearch.reset(), i = 0;
+			while (true) {
+				Page bestWidthResult = null;
+				while (width != -1) {
+					Page result = packAtSize(true, width - edgePaddingX, height - edgePaddingY, inputRects);
+					if (++i % 70 == 0) System.out.println();
+					System.out.print(".");
+					bestWidthResult = getBest(bestWidthResult, result);
+					width = widthSearch.next(result == null);
+				}
+				bestResult = getBest(bestResult, bestWidthResult);
+				height = heightSearch.next(bestWidthResult == null);
+				if (height == -1) break;
+				width = widthSearch.reset();
+			}
+		} else {
+			// Visits the same sizes in the same order as above. While a size is packed, both sizes that could come after it are
+			// started, and the one the search doesn't take is cancelled.
+			int i = 0;
+			Probe probe = new Probe(widthSearch.reset(), heightSearch.reset(), widthSearch, heightSearch, false);
+			probe.start(executor, edgePaddingX, edgePaddingY, inputRects);
+			while (probe != null) {
+				Probe fits = probe.next(true), doesNotFit = probe.next(false);
+				if (fits != null) fits.start(executor, edgePaddingX, edgePaddingY, inputRects);
+				if (doesNotFit != null) doesNotFit.start(executor, edgePaddingX, edgePaddingY, inputRects);
+				Page result = probe.getResult(true);
 				if (++i % 70 == 0) System.out.println();
 				System.out.print(".");
-				bestWidthResult = getBest(bestWidthResult, result);
-				width = widthSearch.next(result == null);
+				bestResult = getBest(bestResult, result);
+				if (result != null) {
+					if (doesNotFit != null) doesNotFit.cancel();
+					probe = fits;
+				} else {
+					if (fits != null) fits.cancel();
+					probe = doesNotFit;
+				}
 			}
-			bestResult = getBest(bestResult, bestWidthResult);
-			height = heightSearch.next(bestWidthResult == null);
-			if (height == -1) break;
-			width = widthSearch.reset();
 		}
 		System.out.println();
 
 		// Rects don't fit on one page. Fill a whole page and return.
-		if (bestResult == null)
+		if (bestResult == null && executor == null)
 			bestResult = packAtSize(false, settings.maxWidth - edgePaddingX, settings.maxHeight - edgePaddingY, inputRects);
+		else if (bestResult == null) {
+			Probe probe = new Probe(settings.maxWidth, settings.maxHeight, null, null, false);
+			probe.start(executor, edgePaddingX, edgePaddingY, inputRects);
+			bestResult = probe.getResult(false);
+		}
 
 		return bestResult;
 	}
@@ -119,22 +158,7 @@ public class MaxRectsPacker {
 	private Page packAtSize (boolean fully, int width, int height, Array<Rect> inputRects) {
 		Page bestResult = null;
 		for (int i = 0, n = methods.length; i < n; i++) {
-			maxRects.init(width, height);
-			Page result;
-			if (!settings.fast) {
-				result = maxRects.pack(inputRects, methods[i]);
-			} else {
-				Array<Rect> remaining = new Array();
-				for (int ii = 0, nn = inputRects.size; ii < nn; ii++) {
-					Rect rect = inputRects.get(ii);
-					if (maxRects.insert(rect, methods[i]) == null) {
-						while (ii < nn)
-							remaining.add(inputRects.get(ii++));
-					}
-				}
-				result = maxRects.getResult();
-				result.remainingRects = remaining;
-			}
+			Page result = packAtSize(maxRects, methods[i], width, height, inputRects);
 			if (fully && result.remainingRects.size > 0) continue;
 			if (result.outputRects.size == 0) continue;
 			bestResult = getBest(bestResult, result);
@@ -142,12 +166,91 @@ public class MaxRectsPacker {
 		return bestResult;
 	}
 
+	private Page packAtSize (MaxRects maxRects, FreeRectChoiceHeuristic method, int width, int height, Array<Rect> inputRects) {
+		maxRects.init(width, height);
+		if (!settings.fast) return maxRects.pack(inputRects, method);
+		Array<Rect> remaining = new Array();
+		for (int ii = 0, nn = inputRects.size; ii < nn; ii++) {
+			Rect rect = inputRects.get(ii);
+			if (maxRects.insert(rect, method) == null) {
+				while (ii < nn)
+					remaining.add(inputRects.get(ii++));
+			}
+		}
+		Page result = maxRects.getResult();
+		result.remainingRects = remaining;
+		return result;
+	}
+
 	private Page getBest (Page result1, Page result2) {
 		if (result1 == null) return result2;
 		if (result2 == null) return result1;
 		return result1.occupancy > result2.occupancy ? result1 : result2;
 	}
 
+	/** A page size visited by the binary search, packed with every heuristic on the executor. The searches hold the state after
+	 * this size was chosen. */
+	class Probe {
+		final int width, height;
+		final BinarySearch widthSearch, heightSearch;
+		/** True if a smaller size at this height already packed all rects. */
+		final boolean widthFits;
+		final Array<Future<Page>> results = new Array(methods.length);
+
+		Probe (int width, int height, BinarySearch widthSearch, BinarySearch heightSearch, boolean widthFits) {
+			this.width = width;
+			this.height = height;
+			this.widthSearch = widthSearch;
+			this.heightSearch = heightSearch;
+			this.widthFits = widthFits;
+		}
+
+		void start (ExecutorService executor, int edgePaddingX, int edgePaddingY, final Array<Rect> inputRects) {
+			final int width = this.width - edgePaddingX, height = this.height - edgePaddingY;
+			for (int i = 0, n = methods.length; i < n; i++) {
+				final FreeRectChoiceHeuristic method = methods[i];
+				results.add(executor.submit(new Callable<Page>() {
+					public Page call () {
+						return packAtSize(new MaxRects(), method, width, height, inputRects);
+					}
+				}));
+			}
+		}
+
+		/** Returns the size the search visits next if this size does or doesn't pack all rects, or null if the search ends. */
+		Probe next (boolean fits) {
+			BinarySearch widthSearch = new BinarySearch(this.widthSearch);
+			BinarySearch heightSearch = new BinarySearch(this.heightSearch);
+			int width = widthSearch.next(!fits), height = this.height;
+			boolean widthFits = this.widthFits || fits;
+			if (width == -1) {
+				height = heightSearch.next(!widthFits);
+				if (height == -1) return null;
+				width = widthSearch.reset();
+				widthFits = false;
+			}
+			return new Probe(width, height, widthSearch, heightSearch, widthFits);
+		}
+
+		/** Waits for every heuristic and chooses between them the same way as
+		 * {@link MaxRectsPacker#packAtSize(boolean, int, int, Array)}. */
+		Page getResult (boolean fully) {
+			Page bestResult = null;
+			for (int i = 0, n = results.size; i < n; i++) {
+				Page result = TexturePacker2.getResult(results.get(i));
+				if (fully && result.remainingRects.size > 0) continue;
+				if (result.outputRects.size == 0) continue;
+				bestResult = getBest(bestResult, result);
+			}
+			return bestResult;
+		}
+
+		void cancel () {
+			for (int i = 0, n = results.size; i < n; i++)
+				results.get(i).cancel(false);
+		}
+	}
+
 	static class BinarySearch {
 		int min, max, fuzziness, low, high, current;
 		boolean pot;
@@ -159,6 +262,16 @@ public class MaxRectsPacker {
 			this.max = pot ? (int)(Math.log(MathUtils.nextPowerOfTwo(max)) / Math.log(2)) : max;
 		}
 
+		public BinarySearch (BinarySearch search) {
+			min = search.min;
+			max = search.max;
+			fuzziness = search.fuzziness;
+			low = search.low;
+			high = search.high;
+			current = search.current;
+			pot = search.pot;
+		}
+
 		public int reset () {
 			low = min;
 			high = max;
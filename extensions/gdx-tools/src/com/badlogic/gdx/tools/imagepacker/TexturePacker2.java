@@ -7,9 +7,17 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
@@ -17,19 +25,27 @@ import javax.imageio.ImageWriteParam;
 import javax.imageio.ImageWriter;
 import javax.imageio.stream.ImageOutputStream;
 
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap.Format;
 import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.Texture.TextureWrap;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.tools.BuildCache;
+import com.badlogic.gdx.tools.BuildCache.Entry;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Json;
 
 /** @author Nathan Sweet */
 public class TexturePacker2 {
+	private final File rootDir;
 	private final Settings settings;
 	private final MaxRectsPacker maxRectsPacker;
 	private final ImageProcessor imageProcessor;
+	private final Array<File> inputFiles = new Array();
+	private BuildCache cache;
 
 	public TexturePacker2 (File rootDir, Settings settings) {
+		this.rootDir = rootDir;
 		this.settings = settings;
 
 		if (settings.pot) {
@@ -43,8 +59,15 @@ public class TexturePacker2 {
 		imageProcessor = new ImageProcessor(rootDir, settings);
 	}
 
+	/** The image is read when {@link #pack(File, String)} is called. */
 	public void addImage (File file) {
-		imageProcessor.addImage(file);
+		inputFiles.add(file);
+	}
+
+	/** If not null, the pages and pack file entries for the images and settings are stored in the cache. When the same images are
+	 * packed again with the same settings, the stored pages are copied instead of packing the images. */
+	public void setCache (BuildCache cache) {
+		this.cache = cache;
 	}
 
 	public void pack (File outputDir, String packFileName) {
@@ -52,22 +75,66 @@ public class TexturePacker2 {
 
 		if (packFileName.indexOf('.') == -1) packFileName += ".atlas";
 
-		Array<Page> pages = maxRectsPacker.pack(imageProcessor.getImages());
-		writeImages(outputDir, pages, packFileName);
+		String key = null;
+		if (cache != null) {
+			Settings keySettings = new Settings(settings);
+			keySettings.threads = 0; // Doesn't change the output.
+			key = cache.getKey(new Json().toJson(keySettings), rootDir, inputFiles);
+			Entry entry = cache.get(key);
+			if (entry != null) {
+				inputFiles.clear();
+				writeCached(outputDir, entry, packFileName);
+				return;
+			}
+		}
+
+		ExecutorService executor = null;
+		if (settings.threads > 1) {
+			executor = Executors.newFixedThreadPool(settings.threads, new ThreadFactory() {
+				public Thread newThread (Runnable r) {
+					Thread thread = new Thread(r, "TexturePacker-Worker-Thread");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
 		try {
-			writePackFile(outputDir, pages, packFileName);
-		} catch (IOException ex) {
-			throw new RuntimeException("Error writing pack file.", ex);
+			if (executor == null) {
+				for (int i = 0, n = inputFiles.size; i < n; i++)
+					imageProcessor.addImage(inputFiles.get(i));
+			} else
+				imageProcessor.addImages(inputFiles, executor);
+			inputFiles.clear();
+
+			Array<Page> pages = maxRectsPacker.pack(imageProcessor.getImages(), executor);
+			writeImages(outputDir, pages, packFileName, executor);
+			Array<File> imageFiles = new Array();
+			Array<String> imageNames = new Array(), pageTexts = new Array();
+			try {
+				for (Page page : pages) {
+					imageFiles.add(new File(outputDir, page.imageName));
+					imageNames.add(page.imageName);
+					pageTexts.add(getPageText(page));
+				}
+				writePackFile(outputDir, imageNames, pageTexts, packFileName);
+			} catch (IOException ex) {
+				throw new RuntimeException("Error writing pack file.", ex);
+			}
+			if (cache != null) cache.put(key, imageFiles, pageTexts);
+		} finally {
+			if (executor != null) executor.shutdown();
 		}
 	}
 
-	private void writeImages (File outputDir, Array<Page> pages, String packFileName) {
+	/** Page file names are chosen in order, then the pages are drawn and encoded on the executor if it is not null. */
+	private void writeImages (File outputDir, Array<Page> pages, String packFileName, ExecutorService executor) {
 		String imageName = packFileName;
 		int dotIndex = imageName.lastIndexOf('.');
 		if (dotIndex != -1) imageName = imageName.substring(0, dotIndex);
 
+		Array<Future<Object>> results = new Array();
 		int fileIndex = 0;
-		for (Page page : pages) {
+		for (final Page page : pages) {
 			int width = page.width, height = page.height;
 			int paddingX = settings.paddingX;
 			int paddingY = settings.paddingY;
@@ -95,96 +162,160 @@ public class TexturePacker2 {
 			}
 			page.imageName = outputFile.getName();
 
-			BufferedImage canvas = new BufferedImage(width, height, getBufferedImageType(settings.format));
-			Graphics2D g = (Graphics2D)canvas.getGraphics();
-
-			System.out.println("Writing " + canvas.getWidth() + "x" + canvas.getHeight() + ": " + outputFile);
-
-			for (Rect rect : page.outputRects) {
-				int rectX = page.x + rect.x, rectY = page.y + page.height - rect.y - rect.height;
-				if (rect.rotated) {
-					g.translate(rectX, rectY);
-					g.rotate(-90 * MathUtils.degreesToRadians);
-					g.translate(-rectX, -rectY);
-					g.translate(-(rect.height - settings.paddingY), 0);
-				}
-				BufferedImage image = rect.image;
-				if (settings.duplicatePadding) {
-					int amountX = settings.paddingX / 2;
-					int amountY = settings.paddingY / 2;
-					int imageWidth = image.getWidth();
-					int imageHeight = image.getHeight();
-					// Copy corner pixels to fill corners of the padding.
-					g.drawImage(image, rectX - amountX, rectY - amountY, rectX, rectY, 0, 0, 1, 1, null);
-					g.drawImage(image, rectX + imageWidth, rectY - amountY, rectX + imageWidth + amountX, rectY, 0, 0, 1, 1, null);
-					g.drawImage(image, rectX - amountX, rectY + imageHeight, rectX, rectY + imageHeight + amountY, 0, 0, 1, 1, null);
-					g.drawImage(image, rectX + imageWidth, rectY + imageHeight, rectX + imageWidth + amountX, rectY + imageHeight
-						+ amountY, 0, 0, 1, 1, null);
-					// Copy edge pixels into padding.
-					g.drawImage(image, rectX, rectY - amountY, rectX + imageWidth, rectY, 0, 0, imageWidth, 1, null);
-					g.drawImage(image, rectX, rectY + imageHeight, rectX + imageWidth, rectY + imageHeight + amountY, 0,
-						imageHeight - 1, imageWidth, imageHeight, null);
-					g.drawImage(image, rectX - amountX, rectY, rectX, rectY + imageHeight, 0, 0, 1, imageHeight, null);
-					g.drawImage(image, rectX + imageWidth, rectY, rectX + imageWidth + amountX, rectY + imageHeight, imageWidth - 1,
-						0, imageWidth, imageHeight, null);
-				}
-				g.drawImage(image, rectX, rectY, null);
-				if (rect.rotated) {
-					g.translate(rect.height - settings.paddingY, 0);
-					g.translate(rectX, rectY);
-					g.rotate(90 * MathUtils.degreesToRadians);
-					g.translate(-rectX, -rectY);
-				}
-				if (settings.debug) {
-					g.setColor(Color.magenta);
-					g.drawRect(rectX, rectY, rect.width - settings.paddingX - 1, rect.height - settings.paddingY - 1);
-				}
+			System.out.println("Writing " + width + "x" + height + ": " + outputFile);
+
+			if (executor == null)
+				writeImage(outputFile, page, width, height);
+			else {
+				final File file = outputFile;
+				final int pageWidth = width, pageHeight = height;
+				results.add(executor.submit(new Callable<Object>() {
+					public Object call () {
+						writeImage(file, page, pageWidth, pageHeight);
+						return null;
+					}
+				}));
 			}
+		}
+		for (int i = 0, n = results.size; i < n; i++)
+			getResult(results.get(i));
+	}
 
+	private void writeImage (File outputFile, Page page, int width, int height) {
+		BufferedImage canvas = new BufferedImage(width, height, getBufferedImageType(settings.format));
+		Graphics2D g = (Graphics2D)canvas.getGraphics();
+
+		for (Rect rect : page.outputRects) {
+			int rectX = page.x + rect.x, rectY = page.y + page.height - rect.y - rect.height;
+			if (rect.rotated) {
+				g.translate(rectX, rectY);
+				g.rotate(-90 * MathUtils.degreesToRadians);
+				g.translate(-rectX, -rectY);
+				g.translate(-(rect.height - settings.paddingY), 0);
+			}
+			BufferedImage image = rect.image;
+			if (settings.duplicatePadding) {
+				int amountX = settings.paddingX / 2;
+				int amountY = settings.paddingY / 2;
+				int imageWidth = image.getWidth();
+				int imageHeight = image.getHeight();
+				// Copy corner pixels to fill corners of the padding.
+				g.drawImage(image, rectX - amountX, rectY - amountY, rectX, rectY, 0, 0, 1, 1, null);
+				g.drawImage(image, rectX + imageWidth, rectY - amountY, rectX + imageWidth + amountX, rectY, 0, 0, 1, 1, null);
+				g.drawImage(image, rectX - amountX, rectY + imageHeight, rectX, rectY + imageHeight + amountY, 0, 0, 1, 1, null);
+				g.drawImage(image, rectX + imageWidth, rectY + imageHeight, rectX + imageWidth + amountX, rectY + imageHeight
+					+ amountY, 0, 0, 1, 1, null);
+				// Copy edge pixels into padding.
+				g.drawImage(image, rectX, rectY - amountY, rectX + imageWidth, rectY, 0, 0, imageWidth, 1, null);
+				g.drawImage(image, rectX, rectY + imageHeight, rectX + imageWidth, rectY + imageHeight + amountY, 0,
+					imageHeight - 1, imageWidth, imageHeight, null);
+				g.drawImage(image, rectX - amountX, rectY, rectX, rectY + imageHeight, 0, 0, 1, imageHeight, null);
+				g.drawImage(image, rectX + imageWidth, rectY, rectX + imageWidth + amountX, rectY + imageHeight, imageWidth - 1,
+					0, imageWidth, imageHeight, null);
+			}
+			g.drawImage(image, rectX, rectY, null);
+			if (rect.rotated) {
+				g.translate(rect.height - settings.paddingY, 0);
+				g.translate(rectX, rectY);
+				g.rotate(90 * MathUtils.degreesToRadians);
+				g.translate(-rectX, -rectY);
+			}
 			if (settings.debug) {
 				g.setColor(Color.magenta);
-				g.drawRect(0, 0, width - 1, height - 1);
+				g.drawRect(rectX, rectY, rect.width - settings.paddingX - 1, rect.height - settings.paddingY - 1);
 			}
+		}
 
-			try {
-				if (settings.outputFormat.equalsIgnoreCase("jpg")) {
-					Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg");
-					ImageWriter writer = (ImageWriter)writers.next();
-					ImageWriteParam param = writer.getDefaultWriteParam();
-					param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
-					param.setCompressionQuality(settings.jpegQuality);
-					ImageOutputStream ios = ImageIO.createImageOutputStream(outputFile);
-					writer.setOutput(ios);
-					writer.write(null, new IIOImage(canvas, null, null), param);
-				} else
-					ImageIO.write(canvas, "png", outputFile);
-			} catch (IOException ex) {
-				throw new RuntimeException("Error writing file: " + outputFile, ex);
+		if (settings.debug) {
+			g.setColor(Color.magenta);
+			g.drawRect(0, 0, width - 1, height - 1);
+		}
+
+		try {
+			if (settings.outputFormat.equalsIgnoreCase("jpg")) {
+				Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg");
+				ImageWriter writer = (ImageWriter)writers.next();
+				ImageWriteParam param = writer.getDefaultWriteParam();
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				param.setCompressionQuality(settings.jpegQuality);
+				ImageOutputStream ios = ImageIO.createImageOutputStream(outputFile);
+				writer.setOutput(ios);
+				writer.write(null, new IIOImage(canvas, null, null), param);
+			} else
+				ImageIO.write(canvas, "png", outputFile);
+		} catch (IOException ex) {
+			throw new RuntimeException("Error writing file: " + outputFile, ex);
+		}
+	}
+
+	/** Waits for the future and throws a failure of the task on the calling thread. */
+	static <T> T getResult (Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException ex) {
+			throw new RuntimeException("Interrupted while packing.", ex);
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+			if (cause instanceof Error) throw (Error)cause;
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/** Copies the pages stored in the cache, naming them the same way as writeImages. */
+	private void writeCached (File outputDir, Entry entry, String packFileName) {
+		String imageName = packFileName;
+		int dotIndex = imageName.lastIndexOf('.');
+		if (dotIndex != -1) imageName = imageName.substring(0, dotIndex);
+
+		Array<String> imageNames = new Array();
+		int fileIndex = 0;
+		for (int i = 0, n = entry.files.size; i < n; i++) {
+			File outputFile;
+			while (true) {
+				outputFile = new File(outputDir, imageName + (fileIndex++ == 0 ? "" : fileIndex) + "." + settings.outputFormat);
+				if (!outputFile.exists()) break;
 			}
+			System.out.println("Unchanged: " + outputFile);
+			new FileHandle(entry.files.get(i)).copyTo(new FileHandle(outputFile));
+			imageNames.add(outputFile.getName());
+		}
+		try {
+			writePackFile(outputDir, imageNames, entry.values, packFileName);
+		} catch (IOException ex) {
+			throw new RuntimeException("Error writing pack file.", ex);
 		}
 	}
 
-	private void writePackFile (File outputDir, Array<Page> pages, String packFileName) throws IOException {
+	private void writePackFile (File outputDir, Array<String> imageNames, Array<String> pageTexts, String packFileName)
+		throws IOException {
 		File packFile = new File(outputDir, packFileName);
 		FileWriter writer = new FileWriter(packFile, true);
-		for (Page page : pages) {
-			writer.write("\n" + page.imageName + "\n");
-			writer.write("format: " + settings.format + "\n");
-			writer.write("filter: " + settings.filterMin + "," + settings.filterMag + "\n");
-			writer.write("repeat: " + getRepeatValue() + "\n");
-
-			for (Rect rect : page.outputRects) {
-				writeRect(writer, page, rect);
-				for (Rect alias : rect.aliases) {
-					alias.setSize(rect);
-					writeRect(writer, page, alias);
-				}
-			}
+		for (int i = 0, n = imageNames.size; i < n; i++) {
+			writer.write("\n" + imageNames.get(i) + "\n");
+			writer.write(pageTexts.get(i));
 		}
 		writer.close();
 	}
 
-	private void writeRect (FileWriter writer, Page page, Rect rect) throws IOException {
+	/** Returns the pack file entry for the page, without the image name line. */
+	private String getPageText (Page page) throws IOException {
+		StringWriter writer = new StringWriter();
+		writer.write("format: " + settings.format + "\n");
+		writer.write("filter: " + settings.filterMin + "," + settings.filterMag + "\n");
+		writer.write("repeat: " + getRepeatValue() + "\n");
+
+		for (Rect rect : page.outputRects) {
+			writeRect(writer, page, rect);
+			for (Rect alias : rect.aliases) {
+				alias.setSize(rect);
+				writeRect(writer, page, alias);
+			}
+		}
+		return writer.toString();
+	}
+
+	private void writeRect (Writer writer, Page page, Rect rect) throws IOException {
 		writer.write(rect.name + "\n");
 		writer.write("  rotate: " + rect.rotated + "\n");
 		writer.write("  xy: " + (page.x + rect.x) + ", " + (page.y + page.height - rect.height - rect.y) + "\n");
@@ -323,6 +454,8 @@ public class TexturePacker2 {
 		public boolean ignoreBlankImages = true;
 		public boolean fast;
 		public boolean debug;
+		/** The number of threads used to read the images, pack and write the pages. The output is the same for any number. */
+		public int threads = Runtime.getRuntime().availableProcessors();
 
 		public Settings () {
 		}
@@ -352,6 +485,7 @@ public class TexturePacker2 {
 			wrapY = settings.wrapY;
 			duplicatePadding = settings.duplicatePadding;
 			debug = settings.debug;
+			threads = settings.threads;
 		}
 	}
 
@@ -84,6 +84,7 @@ public class TexturePackerFileProcessor extends FileProcessor {
 
 		// Pack.
 		TexturePacker2 packer = new TexturePacker2(root, settings);
+		packer.setCache(getCache());
 		for (InputFile file : files)
 			packer.addImage(file.inputFile);
 		packer.pack(inputDir.outputDir, packFileName);
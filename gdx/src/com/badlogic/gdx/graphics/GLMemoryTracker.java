@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics;
+
+import java.util.Comparator;
+import java.util.List;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.TextureData.TextureDataType;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.ObjectSet.ObjectSetIterator;
+import com.badlogic.gdx.utils.Sort;
+
+/** <p>
+ * Accounts for the GPU memory used by {@link Texture}s, {@link Mesh}es and {@link FrameBuffer}s, and optionally keeps the
+ * texture memory below a budget. Sizes are computed from the dimensions, {@link Format} and mipmaps of each texture, the
+ * maximum number of vertices and indices of each mesh and the depth buffer of each frame buffer. They are the sizes of the
+ * uploaded data, drivers may pad or align them.
+ * </p>
+ * 
+ * <p>
+ * Each {@link Texture#bind()} marks the texture as used in the current frame. Call {@link #nextFrame()} once per frame, e.g.
+ * at the end of {@link com.badlogic.gdx.ApplicationListener#render()}. If a budget is set with
+ * {@link #setTextureBudget(long)} and the resident textures exceed it, the least recently used managed textures that were not
+ * used in the last frame are evicted. Their GL textures are deleted, and they are loaded again from their {@link TextureData}
+ * the next time they are bound.
+ * </p> */
+public class GLMemoryTracker {
+	/** bytes of all resident textures, including the color buffers of frame buffers **/
+	static long textureBytes;
+	/** the number of textures evicted since the start of the application **/
+	public static int evictions;
+
+	static final ObjectSet<Texture> textures = new ObjectSet<Texture>();
+	/** the current frame, stored in {@link Texture#lastUsedFrame} when a texture is bound **/
+	static int frame;
+	private static long textureBudget;
+
+	private static final Array<Texture> candidates = new Array<Texture>(false, 16, Texture.class);
+	private static final Comparator<Texture> lastUsedComparator = new Comparator<Texture>() {
+		public int compare (Texture o1, Texture o2) {
+			return o1.lastUsedFrame - o2.lastUsedFrame;
+		}
+	};
+
+	/** Sets the maximum number of bytes resident textures should use. Only managed textures are evicted, so the budget can be
+	 * exceeded by unmanaged textures or by textures used in a single frame.
+	 * @param bytes the budget, 0 to never evict textures */
+	public static void setTextureBudget (long bytes) {
+		textureBudget = bytes;
+	}
+
+	public static long getTextureBudget () {
+		return textureBudget;
+	}
+
+	/** Ends the current frame and evicts least recently used textures if the texture budget is exceeded. Must be called on the
+	 * rendering thread. */
+	public static void nextFrame () {
+		if (textureBudget > 0 && textureBytes > textureBudget) evict();
+		frame++;
+	}
+
+	private static void evict () {
+		Array<Texture> candidates = GLMemoryTracker.candidates;
+		for (Texture texture : textures) {
+			if (texture.evicted || texture.restoring || texture.lastUsedFrame >= frame || !texture.isManaged()) continue;
+			candidates.add(texture);
+		}
+		Sort.instance().sort(candidates, lastUsedComparator);
+		for (int i = 0; i < candidates.size && textureBytes > textureBudget; i++) {
+			Texture texture = candidates.get(i);
+			texture.evict();
+			textureBytes -= texture.memorySize;
+			texture.memorySize = 0;
+			evictions++;
+		}
+		candidates.clear();
+	}
+
+	/** @return the bytes of all resident textures, including the color buffers of frame buffers */
+	public static long getTextureBytes () {
+		return textureBytes;
+	}
+
+	/** @return the bytes of the vertex and index buffer objects of all meshes. Meshes using vertex arrays are kept in client
+	 *         memory and not counted. */
+	public static long getBufferBytes () {
+		List<Mesh> meshes = Mesh.meshes.get(Gdx.app);
+		if (meshes == null) return 0;
+		long bytes = 0;
+		for (int i = 0, n = meshes.size(); i < n; i++) {
+			Mesh mesh = meshes.get(i);
+			if (mesh.isVertexArray) continue;
+			bytes += mesh.getMaxVertices() * mesh.getVertexSize() + mesh.getMaxIndices() * 2;
+		}
+		return bytes;
+	}
+
+	/** @return the bytes of the depth buffers of all frame buffers, their color buffers are counted as textures */
+	public static long getRenderBufferBytes () {
+		return FrameBuffer.getDepthBufferBytes(Gdx.app);
+	}
+
+	/** @return the bytes of all textures, buffers and render buffers */
+	public static long getTotalBytes () {
+		return getTextureBytes() + getBufferBytes() + getRenderBufferBytes();
+	}
+
+	/** @return the number of textures that are currently evicted */
+	public static int getEvictedTextures () {
+		int count = 0;
+		for (Texture texture : textures)
+			if (texture.evicted) count++;
+		return count;
+	}
+
+	public static String getStatus () {
+		StringBuilder builder = new StringBuilder();
+		builder.append("GPU memory: { textures: ");
+		builder.append(getTextureBytes() / 1024);
+		builder.append(" KB, buffers: ");
+		builder.append(getBufferBytes() / 1024);
+		builder.append(" KB, render buffers: ");
+		builder.append(getRenderBufferBytes() / 1024);
+		builder.append(" KB, evicted textures: ");
+		builder.append(getEvictedTextures());
+		builder.append(" }");
+		return builder.toString();
+	}
+
+	/** @return the number of bytes the texture data uses once uploaded, including all mipmap levels */
+	public static int getTextureSize (TextureData data) {
+		int width = data.getWidth(), height = data.getHeight();
+		boolean compressed = data.getType() == TextureDataType.Compressed;
+		int bytesPerPixel = getBytesPerPixel(data.getFormat());
+		int size = 0;
+		while (true) {
+			if (compressed)
+				size += ((width + 3) / 4) * ((height + 3) / 4) * 8;
+			else
+				size += width * height * bytesPerPixel;
+			if (!data.useMipMaps() || (width == 1 && height == 1)) break;
+			width = Math.max(1, width / 2);
+			height = Math.max(1, height / 2);
+		}
+		return size;
+	}
+
+	public static int getBytesPerPixel (Format format) {
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			return 1;
+		case LuminanceAlpha:
+		case RGB565:
+		case RGBA4444:
+			return 2;
+		case RGB888:
+			return 3;
+		default:
+			return 4;
+		}
+	}
+
+	/** Called by {@link Texture} when it was created. */
+	static void add (Texture texture) {
+		texture.lastUsedFrame = frame;
+		textures.add(texture);
+	}
+
+	/** Called by {@link Texture} when its data was uploaded. */
+	static void loaded (Texture texture) {
+		int size = getTextureSize(texture.data);
+		textureBytes += size - texture.memorySize;
+		texture.memorySize = size;
+	}
+
+	/** Called by {@link Texture} when it was disposed. */
+	static void remove (Texture texture) {
+		textures.remove(texture);
+		textureBytes -= texture.memorySize;
+		texture.memorySize = 0;
+	}
+
+	/** Called when the context was lost. Unmanaged textures lost their data and are recreated by their owners, so they are no
+	 * longer counted. */
+	static void invalidate () {
+		ObjectSetIterator<Texture> iterator = textures.iterator();
+		while (iterator.hasNext()) {
+			Texture texture = iterator.next();
+			if (texture.isManaged()) continue;
+			iterator.remove();
+			textureBytes -= texture.memorySize;
+			texture.memorySize = 0;
+		}
+	}
+}
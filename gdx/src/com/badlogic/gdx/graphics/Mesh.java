@@ -33,6 +33,7 @@ import com.badlogic.gdx.graphics.glutils.IndexData;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.graphics.glutils.VertexArray;
 import com.badlogic.gdx.graphics.glutils.VertexBufferObject;
+import com.badlogic.gdx.graphics.glutils.VertexBufferObjectStreaming;
 import com.badlogic.gdx.graphics.glutils.VertexBufferObjectSubData;
 import com.badlogic.gdx.graphics.glutils.VertexData;
 import com.badlogic.gdx.math.collision.BoundingBox;
@@ -66,7 +67,7 @@ import com.badlogic.gdx.utils.GdxRuntimeException;
  * @author mzechner, Dave Clayton <contact@redskyforge.com> */
 public class Mesh implements Disposable {
 	public enum VertexDataType {
-		VertexArray, VertexBufferObject, VertexBufferObjectSubData,
+		VertexArray, VertexBufferObject, VertexBufferObjectSubData, VertexBufferObjectStreaming,
 	}
 
 	/** list of all meshes **/
@@ -141,6 +142,10 @@ public class Mesh implements Disposable {
 			vertices = new VertexBufferObjectSubData(isStatic, maxVertices, attributes);
 			indices = new IndexBufferObjectSubData(isStatic, maxIndices);
 			isVertexArray = false;
+		} else if (type == VertexDataType.VertexBufferObjectStreaming) {
+			vertices = new VertexBufferObjectStreaming(maxVertices, attributes);
+			indices = new IndexBufferObject(isStatic, maxIndices);
+			isVertexArray = false;
 		} else {
 			vertices = new VertexArray(maxVertices, attributes);
 			indices = new IndexArray(maxIndices);
@@ -506,6 +511,8 @@ public class Mesh implements Disposable {
 		for (int i = 0; i < meshesList.size(); i++) {
 			if (meshesList.get(i).vertices instanceof VertexBufferObject) {
 				((VertexBufferObject)meshesList.get(i).vertices).invalidate();
+			} else if (meshesList.get(i).vertices instanceof VertexBufferObjectStreaming) {
+				((VertexBufferObjectStreaming)meshesList.get(i).vertices).invalidate();
 			}
 			meshesList.get(i).indices.invalidate();
 		}
@@ -18,6 +18,7 @@ package com.badlogic.gdx.graphics;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Matrix4Utils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 
@@ -113,9 +114,9 @@ public class OrthographicCamera extends Camera {
 			* viewportHeight / 2, Math.abs(near), Math.abs(far));
 		view.setToLookAt(position, tmp.set(position).add(direction), up);
 		combined.set(projection);
-		Matrix4.mul(combined.val, view.val);
+		Matrix4Utils.mul(combined.val, view.val);
 		invProjectionView.set(combined);
-		Matrix4.inv(invProjectionView.val);
+		Matrix4Utils.inv(invProjectionView.val);
 		frustum.update(invProjectionView);
 	}
 
@@ -125,11 +126,11 @@ public class OrthographicCamera extends Camera {
 			* viewportHeight / 2, Math.abs(near), Math.abs(far));
 		view.setToLookAt(position, tmp.set(position).add(direction), up);
 		combined.set(projection);
-		Matrix4.mul(combined.val, view.val);
+		Matrix4Utils.mul(combined.val, view.val);
 
 		if (updateFrustum) {
 			invProjectionView.set(combined);
-			Matrix4.inv(invProjectionView.val);
+			Matrix4Utils.inv(invProjectionView.val);
 			frustum.update(invProjectionView);
 		}
 	}
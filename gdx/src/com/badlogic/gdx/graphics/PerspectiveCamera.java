@@ -17,6 +17,7 @@
 package com.badlogic.gdx.graphics;
 
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Matrix4Utils;
 import com.badlogic.gdx.math.Vector3;
 
 /** A Camera with perspective projection.
@@ -50,9 +51,9 @@ public class PerspectiveCamera extends Camera {
 		projection.setToProjection(Math.abs(near), Math.abs(far), fieldOfView, aspect);
 		view.setToLookAt(position, tmp.set(position).add(direction), up);
 		combined.set(projection);
-		Matrix4.mul(combined.val, view.val);
+		Matrix4Utils.mul(combined.val, view.val);
 		invProjectionView.set(combined);
-		Matrix4.inv(invProjectionView.val);
+		Matrix4Utils.inv(invProjectionView.val);
 		frustum.update(invProjectionView);
 	}
 
@@ -62,11 +63,11 @@ public class PerspectiveCamera extends Camera {
 		projection.setToProjection(Math.abs(near), Math.abs(far), fieldOfView, aspect);
 		view.setToLookAt(position, tmp.set(position).add(direction), up);
 		combined.set(projection);
-		Matrix4.mul(combined.val, view.val);
+		Matrix4Utils.mul(combined.val, view.val);
 
 		if (updateFrustum) {
 			invProjectionView.set(combined);
-			Matrix4.inv(invProjectionView.val);
+			Matrix4Utils.inv(invProjectionView.val);
 			frustum.update(invProjectionView);
 		}
 	}
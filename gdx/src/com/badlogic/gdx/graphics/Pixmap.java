@@ -92,7 +92,9 @@ public class Pixmap implements Disposable {
 
 	private boolean disposed;
 
-	/** Sets the type of {@link Blending} to be used for all operations. Default is {@link Blending#SourceOver}.
+	/** Sets the type of {@link Blending} to be used for all operations. Default is {@link Blending#SourceOver}. This is global
+	 * state shared by all pixmaps, use a {@link com.badlogic.gdx.graphics.g2d.PixmapBlitter} to draw with different blending
+	 * from several threads.
 	 * @param blending the blending type */
 	public static void setBlending (Blending blending) {
 		Pixmap.blending = blending;
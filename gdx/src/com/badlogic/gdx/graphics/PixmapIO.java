@@ -12,24 +12,41 @@
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
  * See the License for the specific language governing permissions and
  * limitations under the License.
- ******************************************************************************/
+ ******************************************************************************/
 package com.badlogic.gdx.graphics;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.g2d.Gdx2DPixmap;
+import com.badlogic.gdx.graphics.g2d.PixmapBlitter;
+import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 
 /** Class with static methods to read and write Pixmaps to a custom zlib based format. First three integers define the width,
- * height and format, remaining bytes are zlib compressed pixels.
+ * height and format, remaining bytes are zlib compressed pixels. PNGs can be written with a {@link PNG} encoder and read with
+ * {@link #readPNG(FileHandle)}.
  * @author mzechner
  * @author Nathan Sweet */
 public class PixmapIO { 
@@ -47,21 +64,43 @@ public class PixmapIO {
 		return CIM.read(file);
 	}
 
-	/** Writes the pixmap as a PNG. Note this method uses quite a bit of working memory. {@link #writeCIM(FileHandle, Pixmap)} is
-	 * faster if the file does not need to be read outside of libgdx. */
+	/** Writes the pixmap as a PNG with the default settings of {@link PNG}. Use a PNG encoder directly to write many images or to
+	 * change the row filter and compression. {@link #writeCIM(FileHandle, Pixmap)} is faster if the file does not need to be read
+	 * outside of libgdx. */
 	static public void writePNG (FileHandle file, Pixmap pixmap) {
+		PNG writer = new PNG();
 		try {
-			file.writeBytes(PNG.write(pixmap), false);
+			writer.write(file, pixmap);
+		} finally {
+			writer.dispose();
+		}
+	}
+
+	/** Reads a PNG while it is decompressed, so the encoded file is never held in memory as a whole. Non interlaced PNGs with 8
+	 * bits per sample are decoded directly into the pixels of the pixmap, all others are loaded with
+	 * {@link Pixmap#Pixmap(FileHandle)}. The pixmap has the same format as one loaded with that constructor. Throws a
+	 * GdxRuntimeException in case the file couldn't be read. */
+	static public Pixmap readPNG (FileHandle file) {
+		Pixmap pixmap;
+		InputStream in = null;
+		try {
+			in = new BufferedInputStream(file.read(), PNG.BUFFER_SIZE);
+			pixmap = PNG.read(in);
 		} catch (IOException ex) {
-			throw new GdxRuntimeException("Error writing PNG: " + file, ex);
+			throw new GdxRuntimeException("Error reading PNG: " + file, ex);
+		} finally {
+			if (in != null) try {
+				in.close();
+			} catch (IOException e) {
+			}
 		}
+		if (pixmap == null) return new Pixmap(file);
+		return pixmap;
 	}
 
 	/** @author mzechner */
 	static private class CIM {
 		static private final int BUFFER_SIZE = 32000;
-		static private final byte[] writeBuffer = new byte[BUFFER_SIZE];
-		static private final byte[] readBuffer = new byte[BUFFER_SIZE];
 
 		static public void write (FileHandle file, Pixmap pixmap) {
 			DataOutputStream out = null;
@@ -74,25 +113,22 @@ public class PixmapIO {
 				out.writeInt(pixmap.getHeight());
 				out.writeInt(Format.toGdx2DPixmapFormat(pixmap.getFormat()));
 
-				ByteBuffer pixelBuf = pixmap.getPixels();
+				// a duplicate and a buffer per call, so several threads can write at once
+				ByteBuffer pixelBuf = pixmap.getPixels().duplicate();
 				pixelBuf.position(0);
 				pixelBuf.limit(pixelBuf.capacity());
 
 				int remainingBytes = pixelBuf.capacity() % BUFFER_SIZE;
 				int iterations = pixelBuf.capacity() / BUFFER_SIZE;
 
-				synchronized (writeBuffer) {
-					for (int i = 0; i < iterations; i++) {
-						pixelBuf.get(writeBuffer);
-						out.write(writeBuffer);
-					}
-
-					pixelBuf.get(writeBuffer, 0, remainingBytes);
-					out.write(writeBuffer, 0, remainingBytes);
+				byte[] writeBuffer = new byte[BUFFER_SIZE];
+				for (int i = 0; i < iterations; i++) {
+					pixelBuf.get(writeBuffer);
+					out.write(writeBuffer);
 				}
 
-				pixelBuf.position(0);
-				pixelBuf.limit(pixelBuf.capacity());
+				pixelBuf.get(writeBuffer, 0, remainingBytes);
+				out.write(writeBuffer, 0, remainingBytes);
 				// Gdx.app.log("PixmapIO", "write (" + file.name() + "):" + (System.nanoTime() - start) / 1000000000.0f + ", " +
 				// Thread.currentThread().getName());
 			} catch (Exception e) {
@@ -116,19 +152,15 @@ public class PixmapIO {
 				Format format = Format.fromGdx2DPixmapFormat(in.readInt());
 				Pixmap pixmap = new Pixmap(width, height, format);
 
-				ByteBuffer pixelBuf = pixmap.getPixels();
+				ByteBuffer pixelBuf = pixmap.getPixels().duplicate();
 				pixelBuf.position(0);
 				pixelBuf.limit(pixelBuf.capacity());
 
-				synchronized (readBuffer) {
-					int readBytes = 0;
-					while ((readBytes = in.read(readBuffer)) > 0) {
-						pixelBuf.put(readBuffer, 0, readBytes);
-					}
+				byte[] readBuffer = new byte[BUFFER_SIZE];
+				int readBytes = 0;
+				while ((readBytes = in.read(readBuffer)) > 0) {
+					pixelBuf.put(readBuffer, 0, readBytes);
 				}
-
-				pixelBuf.position(0);
-				pixelBuf.limit(pixelBuf.capacity());
 				// Gdx.app.log("PixmapIO", "read:" + (System.nanoTime() - start) / 1000000000.0f);
 				return pixmap;
 			} catch (Exception e) {
@@ -142,161 +174,583 @@ public class PixmapIO {
 		}
 	}
 
-	/** Minimal PNG encoder to create PNG streams (and MIDP images) from RGBA arrays.<br>
-	 * Copyright 2006-2009 Christian Fröschlin www.chrfr.de<br>
-	 * Terms of Use: You may use the PNG encoder free of charge for any purpose you desire, as long as you do not claim credit for
-	 * the original sources and agree not to hold me responsible for any damage arising out of its use.<br>
-	 * If you have a suitable location in GUI or documentation for giving credit, I'd appreciate a non-mandatory mention of:<br>
-	 * PNG encoder (C) 2006-2009 by Christian Fröschlin, www.chrfr.de */
-	static private class PNG {
-		static int[] crcTable;
-		static final int ZLIB_BLOCK_SIZE = 32000;
-
-		static byte[] write (Pixmap pixmap) throws IOException {
-			byte[] signature = new byte[] {(byte)137, (byte)80, (byte)78, (byte)71, (byte)13, (byte)10, (byte)26, (byte)10};
-			byte[] header = PNG.createHeaderChunk(pixmap.getWidth(), pixmap.getHeight());
-			byte[] data = PNG.createDataChunk(pixmap);
-			byte[] trailer = PNG.createTrailerChunk();
-
-			ByteArrayOutputStream png = new ByteArrayOutputStream(signature.length + header.length + data.length + trailer.length);
-			png.write(signature);
-			png.write(header);
-			png.write(data);
-			png.write(trailer);
-			return png.toByteArray();
+	/** <p>
+	 * Encodes pixmaps as PNGs. The pixels are read directly from {@link Pixmap#getPixels()} and written to the output while they
+	 * are compressed, in IDAT chunks of at most {@link #BUFFER_SIZE} bytes, so the image is never held in memory a second time.
+	 * RGBA8888, RGB888 and LuminanceAlpha pixmaps are written as they are, RGB565 pixmaps as RGB and Alpha and RGBA4444 pixmaps as
+	 * RGBA.
+	 * </p>
+	 * 
+	 * <p>
+	 * Each row is filtered with a {@link RowFilter} before it is compressed. If the encoder was created with more than one thread,
+	 * images with at least {@link #parallelThreshold} pixels are filtered in stripes of rows on the worker threads, while the
+	 * calling thread compresses the stripes filtered before. The compressed stream itself is always written by the calling
+	 * thread. An encoder can only be used by one thread at a time, the pool and the deflater must be released with
+	 * {@link #dispose()}.
+	 * </p> */
+	static public class PNG implements Disposable {
+		/** The filter applied to each row before compression, as defined by the PNG specification. */
+		public enum RowFilter {
+			None, Sub, Up, Average, Paeth,
+			/** Chooses the filter per row, the one whose result has the smallest sum of absolute values. Compresses photos best,
+			 * but filters each row five times. */
+			Adaptive
 		}
 
-		static private byte[] createHeaderChunk (int width, int height) throws IOException {
-			ByteArrayOutputStream baos = new ByteArrayOutputStream(13);
-			DataOutputStream chunk = new DataOutputStream(baos);
-			chunk.writeInt(width);
-			chunk.writeInt(height);
-			chunk.writeByte(8); // Bitdepth
-			chunk.writeByte(6); // Colortype ARGB
-			chunk.writeByte(0); // Compression
-			chunk.writeByte(0); // Filter
-			chunk.writeByte(0); // Interlace
-			return toChunk("IHDR", baos.toByteArray());
+		/** the size of the buffers used for reading and writing, and the maximum size of an IDAT chunk **/
+		static public final int BUFFER_SIZE = 32 * 1024;
+		static private final byte[] SIGNATURE = {(byte)137, 80, 78, 71, 13, 10, 26, 10};
+		static private final int IHDR = 0x49484452, PLTE = 0x504C5445, TRNS = 0x74524E53, IDAT = 0x49444154, IEND = 0x49454E44;
+		static private final int STRIPE_ROWS = 32;
+
+		/** images with fewer pixels are always filtered on the calling thread **/
+		public int parallelThreshold = 256 * 256;
+
+		private final ExecutorService executor;
+		private final List<Worker> workers;
+		private final Worker worker;
+		private final Deflater deflater = new Deflater();
+		private final CRC32 crc = new CRC32();
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+		private final byte[] chunkHeader = new byte[8];
+		private int bufferLength;
+		private RowFilter rowFilter = RowFilter.Paeth;
+
+		/** Creates an encoder that filters all rows on the calling thread. */
+		public PNG () {
+			this(1);
 		}
 
-		static private byte[] createDataChunk (Pixmap pixmap) throws IOException {
-			int width = pixmap.getWidth();
-			int height = pixmap.getHeight();
-			int dest = 0;
-			byte[] raw = new byte[4 * width * height + height];
-			for (int y = 0; y < height; y++) {
-				raw[dest++] = 0; // No filter
-				for (int x = 0; x < width; x++) {
-					// 32-bit RGBA8888
-					int pixel = pixmap.getPixel(x, y);
-
-					int mask = pixel & 0xFFFFFFFF;
-					int rr = mask >> 24 & 0xff;
-					int gg = mask >> 16 & 0xff;
-					int bb = mask >> 8 & 0xff;
-					int aa = mask & 0xff;
-
-					raw[dest++] = (byte)rr;
-					raw[dest++] = (byte)gg;
-					raw[dest++] = (byte)bb;
-					raw[dest++] = (byte)aa;
+		/** @param threads the number of worker threads used to filter large images, e.g.
+		 *           <code>Runtime.getRuntime().availableProcessors()</code>. 1 filters all rows on the calling thread. */
+		public PNG (int threads) {
+			worker = new Worker();
+			if (threads > 1) {
+				// two sets of stripes, one is filtered while the other is compressed
+				workers = new ArrayList<Worker>(threads * 2);
+				for (int i = 0; i < threads * 2; i++)
+					workers.add(new Worker());
+				executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+					@Override
+					public Thread newThread (Runnable r) {
+						Thread thread = new Thread(r, "PNG-Worker-Thread");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+			} else {
+				workers = null;
+				executor = null;
+			}
+		}
+
+		/** Sets the filter applied to each row. Default is {@link RowFilter#Paeth}. */
+		public void setRowFilter (RowFilter rowFilter) {
+			this.rowFilter = rowFilter;
+		}
+
+		/** Sets the deflate compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION}. Default
+		 * is {@link Deflater#DEFAULT_COMPRESSION}. */
+		public void setCompression (int level) {
+			deflater.setLevel(level);
+		}
+
+		/** Writes the pixmap to the file. Throws a GdxRuntimeException in case the Pixmap couldn't be written to the file. */
+		public void write (FileHandle file, Pixmap pixmap) {
+			OutputStream output = file.write(false);
+			try {
+				write(output, pixmap);
+			} catch (IOException ex) {
+				throw new GdxRuntimeException("Error writing PNG: " + file, ex);
+			} finally {
+				try {
+					output.close();
+				} catch (IOException e) {
 				}
 			}
-			return toChunk("IDAT", toZLIB(raw));
 		}
 
-		static private byte[] createTrailerChunk () throws IOException {
-			return toChunk("IEND", new byte[] {});
+		/** Writes the pixmap to the stream, which is not closed. */
+		public void write (OutputStream output, Pixmap pixmap) throws IOException {
+			int format = Format.toGdx2DPixmapFormat(pixmap.getFormat());
+			int width = pixmap.getWidth(), height = pixmap.getHeight();
+			int colorType, channels;
+			if (format == Gdx2DPixmap.GDX2D_FORMAT_LUMINANCE_ALPHA) {
+				colorType = 4;
+				channels = 2;
+			} else if (format == Gdx2DPixmap.GDX2D_FORMAT_RGB888 || format == Gdx2DPixmap.GDX2D_FORMAT_RGB565) {
+				colorType = 2;
+				channels = 3;
+			} else {
+				colorType = 6;
+				channels = 4;
+			}
+
+			output.write(SIGNATURE);
+			byte[] buffer = this.buffer;
+			putInt(buffer, 0, width);
+			putInt(buffer, 4, height);
+			buffer[8] = 8; // bit depth
+			buffer[9] = (byte)colorType;
+			buffer[10] = 0; // compression
+			buffer[11] = 0; // filter
+			buffer[12] = 0; // interlace
+			writeChunk(output, IHDR, buffer, 13);
+
+			deflater.reset();
+			bufferLength = 0;
+			if (executor == null || width * height < parallelThreshold) {
+				Worker worker = this.worker;
+				for (int y = 0; y < height; y += STRIPE_ROWS) {
+					worker.set(pixmap, channels, rowFilter, y, Math.min(height, y + STRIPE_ROWS));
+					worker.call();
+					deflate(output, worker);
+				}
+			} else
+				filterParallel(output, pixmap, channels);
+
+			deflater.finish();
+			while (!deflater.finished())
+				deflate(output);
+			if (bufferLength > 0) writeChunk(output, IDAT, buffer, bufferLength);
+			bufferLength = 0;
+			writeChunk(output, IEND, buffer, 0);
+		}
+
+		private void filterParallel (OutputStream output, Pixmap pixmap, int channels) throws IOException {
+			List<Worker> workers = this.workers;
+			int threads = workers.size() / 2, height = pixmap.getHeight();
+			List<Worker> current = workers.subList(0, threads), next = workers.subList(threads, threads * 2);
+			List<Future<Object>> results = submit(current, pixmap, channels, 0);
+			try {
+				for (int y = 0; y < height; y += threads * STRIPE_ROWS) {
+					List<Future<Object>> nextResults = null;
+					if (y + threads * STRIPE_ROWS < height) nextResults = submit(next, pixmap, channels, y + threads * STRIPE_ROWS);
+					for (int i = 0; i < threads; i++) {
+						results.get(i).get();
+						deflate(output, current.get(i));
+					}
+					List<Worker> swap = current;
+					current = next;
+					next = swap;
+					results = nextResults;
+				}
+			} catch (InterruptedException e) {
+				throw new GdxRuntimeException("interrupted while encoding PNG", e);
+			} catch (ExecutionException e) {
+				throw new GdxRuntimeException("couldn't encode PNG", e.getCause());
+			}
+		}
+
+		private List<Future<Object>> submit (List<Worker> workers, Pixmap pixmap, int channels, int start) {
+			int height = pixmap.getHeight();
+			List<Future<Object>> results = new ArrayList<Future<Object>>(workers.size());
+			for (int i = 0, n = workers.size(); i < n; i++) {
+				int stripeStart = Math.min(height, start + i * STRIPE_ROWS);
+				Worker worker = workers.get(i);
+				worker.set(pixmap, channels, rowFilter, stripeStart, Math.min(height, stripeStart + STRIPE_ROWS));
+				results.add(executor.submit(worker));
+			}
+			return results;
+		}
+
+		private void deflate (OutputStream output, Worker worker) throws IOException {
+			if (worker.length == 0) return;
+			deflater.setInput(worker.output, 0, worker.length);
+			while (!deflater.needsInput())
+				deflate(output);
+		}
+
+		/** Compresses into the buffer and writes an IDAT chunk whenever it is full. */
+		private void deflate (OutputStream output) throws IOException {
+			bufferLength += deflater.deflate(buffer, bufferLength, buffer.length - bufferLength);
+			if (bufferLength == buffer.length) {
+				writeChunk(output, IDAT, buffer, bufferLength);
+				bufferLength = 0;
+			}
 		}
 
-		static private byte[] toChunk (String id, byte[] raw) throws IOException {
-			ByteArrayOutputStream baos = new ByteArrayOutputStream(raw.length + 12);
-			DataOutputStream chunk = new DataOutputStream(baos);
+		private void writeChunk (OutputStream output, int type, byte[] data, int length) throws IOException {
+			byte[] header = chunkHeader;
+			putInt(header, 0, length);
+			putInt(header, 4, type);
+			output.write(header, 0, 8);
+			output.write(data, 0, length);
+			crc.reset();
+			crc.update(header, 4, 4);
+			crc.update(data, 0, length);
+			putInt(header, 0, (int)crc.getValue());
+			output.write(header, 0, 4);
+		}
 
-			chunk.writeInt(raw.length);
+		static private void putInt (byte[] bytes, int offset, int value) {
+			bytes[offset] = (byte)(value >>> 24);
+			bytes[offset + 1] = (byte)(value >>> 16);
+			bytes[offset + 2] = (byte)(value >>> 8);
+			bytes[offset + 3] = (byte)value;
+		}
 
-			byte[] bid = new byte[4];
-			for (int i = 0; i < 4; i++) {
-				bid[i] = (byte)id.charAt(i);
+		/** Shuts down the worker threads and releases the deflater. */
+		@Override
+		public void dispose () {
+			deflater.end();
+			if (executor == null) return;
+			executor.shutdown();
+			try {
+				executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				throw new GdxRuntimeException("Couldn't shutdown PNG threads", e);
 			}
+		}
 
-			chunk.write(bid);
+		/** Reads a PNG from the stream, decompressing the IDAT chunks as they are read and unfiltering the rows directly into the
+		 * pixels of the pixmap.
+		 * @return the pixmap or null if the PNG is interlaced or doesn't have 8 bits per sample */
+		static Pixmap read (InputStream input) throws IOException {
+			DataInputStream in = new DataInputStream(input);
+			for (int i = 0; i < SIGNATURE.length; i++)
+				if (in.readByte() != SIGNATURE[i]) throw new IOException("Not a PNG");
+
+			int width = 0, height = 0, colorType = -1;
+			byte[] palette = null, transparency = null;
+			while (true) {
+				int length = in.readInt(), type = in.readInt();
+				switch (type) {
+				case IHDR:
+					width = in.readInt();
+					height = in.readInt();
+					int bitDepth = in.readUnsignedByte();
+					colorType = in.readUnsignedByte();
+					in.readUnsignedByte(); // compression
+					in.readUnsignedByte(); // filter
+					int interlace = in.readUnsignedByte();
+					if (bitDepth != 8 || interlace != 0) return null;
+					skipFully(in, length - 13 + 4);
+					break;
+				case PLTE:
+					palette = new byte[length];
+					in.readFully(palette);
+					skipFully(in, 4);
+					break;
+				case TRNS:
+					transparency = new byte[length];
+					in.readFully(transparency);
+					skipFully(in, 4);
+					break;
+				case IDAT:
+					return decode(new DataInputStream(new IDATInputStream(in, length)), width, height, colorType, palette,
+						transparency);
+				case IEND:
+					throw new IOException("No image data");
+				default:
+					skipFully(in, length + 4);
+				}
+			}
+		}
 
-			chunk.write(raw);
+		static private Pixmap decode (DataInputStream idat, int width, int height, int colorType, byte[] palette,
+			byte[] transparency) throws IOException {
+			int channels;
+			Format format;
+			switch (colorType) {
+			case 0:
+				channels = 1;
+				format = transparency != null ? Format.LuminanceAlpha : Format.Alpha;
+				break;
+			case 2:
+				channels = 3;
+				format = transparency != null ? Format.RGBA8888 : Format.RGB888;
+				break;
+			case 3:
+				channels = 1;
+				format = transparency != null ? Format.RGBA8888 : Format.RGB888;
+				if (palette == null) throw new IOException("No palette");
+				break;
+			case 4:
+				channels = 2;
+				format = Format.LuminanceAlpha;
+				break;
+			case 6:
+				channels = 4;
+				format = Format.RGBA8888;
+				break;
+			default:
+				throw new IOException("Invalid color type: " + colorType);
+			}
 
-			int crc = 0xFFFFFFFF;
-			crc = updateCRC(crc, bid);
-			crc = updateCRC(crc, raw);
-			chunk.writeInt(~crc);
+			Inflater inflater = new Inflater();
+			DataInputStream in = new DataInputStream(new InflaterInputStream(idat, inflater, BUFFER_SIZE));
+			Pixmap pixmap = new Pixmap(width, height, format);
+			try {
+				ByteBuffer pixels = pixmap.getPixels().duplicate();
+				pixels.position(0);
+				int rowSize = width * channels, pixelSize = PixmapBlitter.getPixelSize(Format.toGdx2DPixmapFormat(format));
+				byte[] prev = new byte[rowSize], curr = new byte[rowSize];
+				byte[] expanded = pixelSize != channels || colorType == 3 ? new byte[width * pixelSize] : null;
+				for (int y = 0; y < height; y++) {
+					int filter = in.readUnsignedByte();
+					in.readFully(curr);
+					unfilter(filter, curr, prev, channels);
+					if (expanded == null)
+						pixels.put(curr);
+					else {
+						expand(curr, expanded, width, colorType, pixelSize, palette, transparency);
+						pixels.put(expanded);
+					}
+					byte[] swap = prev;
+					prev = curr;
+					curr = swap;
+				}
+			} catch (IOException ex) {
+				pixmap.dispose();
+				throw ex;
+			} finally {
+				inflater.end();
+			}
+			return pixmap;
+		}
 
-			return baos.toByteArray();
+		/** Expands a row of palette indices or of pixels with a transparent color key like stb_image does. */
+		static private void expand (byte[] row, byte[] expanded, int width, int colorType, int pixelSize, byte[] palette,
+			byte[] transparency) {
+			if (colorType == 3) {
+				int colors = palette.length / 3;
+				for (int x = 0, o = 0; x < width; x++) {
+					int index = row[x] & 0xff;
+					if (index < colors) {
+						expanded[o++] = palette[index * 3];
+						expanded[o++] = palette[index * 3 + 1];
+						expanded[o++] = palette[index * 3 + 2];
+					} else {
+						expanded[o++] = 0;
+						expanded[o++] = 0;
+						expanded[o++] = 0;
+					}
+					if (pixelSize == 4) expanded[o++] = index < transparency.length ? transparency[index] : (byte)255;
+				}
+			} else if (colorType == 0) {
+				// sample values of the color key are 16 bit, only the low byte is compared for 8 bit samples
+				byte key = transparency[1];
+				for (int x = 0, o = 0; x < width; x++) {
+					expanded[o++] = row[x];
+					expanded[o++] = row[x] == key ? 0 : (byte)255;
+				}
+			} else {
+				byte r = transparency[1], g = transparency[3], b = transparency[5];
+				for (int x = 0, i = 0, o = 0; x < width; x++) {
+					boolean transparent = row[i] == r && row[i + 1] == g && row[i + 2] == b;
+					expanded[o++] = row[i++];
+					expanded[o++] = row[i++];
+					expanded[o++] = row[i++];
+					expanded[o++] = transparent ? 0 : (byte)255;
+				}
+			}
 		}
 
-		static private void createCRCTable () {
-			crcTable = new int[256];
-			for (int i = 0; i < 256; i++) {
-				int c = i;
-				for (int k = 0; k < 8; k++)
-					c = (c & 1) > 0 ? 0xedb88320 ^ c >>> 1 : c >>> 1;
-				crcTable[i] = c;
+		static private void unfilter (int filter, byte[] curr, byte[] prev, int bpp) throws IOException {
+			int length = curr.length;
+			switch (filter) {
+			case 0:
+				break;
+			case 1:
+				for (int i = bpp; i < length; i++)
+					curr[i] += curr[i - bpp];
+				break;
+			case 2:
+				for (int i = 0; i < length; i++)
+					curr[i] += prev[i];
+				break;
+			case 3:
+				for (int i = 0; i < bpp; i++)
+					curr[i] += (prev[i] & 0xff) >>> 1;
+				for (int i = bpp; i < length; i++)
+					curr[i] += ((curr[i - bpp] & 0xff) + (prev[i] & 0xff)) >>> 1;
+				break;
+			case 4:
+				for (int i = 0; i < bpp; i++)
+					curr[i] += prev[i];
+				for (int i = bpp; i < length; i++)
+					curr[i] += paeth(curr[i - bpp] & 0xff, prev[i] & 0xff, prev[i - bpp] & 0xff);
+				break;
+			default:
+				throw new IOException("Invalid filter type: " + filter);
 			}
 		}
 
-		static private int updateCRC (int crc, byte[] raw) {
-			if (crcTable == null) createCRCTable();
-			for (byte element : raw)
-				crc = crcTable[(crc ^ element) & 0xFF] ^ crc >>> 8;
-			return crc;
+		static int paeth (int left, int up, int upLeft) {
+			int p = left + up - upLeft;
+			int pa = Math.abs(p - left), pb = Math.abs(p - up), pc = Math.abs(p - upLeft);
+			if (pa <= pb && pa <= pc) return left;
+			if (pb <= pc) return up;
+			return upLeft;
+		}
+
+		static private void skipFully (DataInputStream in, int count) throws IOException {
+			while (count > 0) {
+				int skipped = in.skipBytes(count);
+				if (skipped <= 0) {
+					in.readByte();
+					skipped = 1;
+				}
+				count -= skipped;
+			}
 		}
 
-		/*
-		 * This method is called to encode the image data as a zlib block as required by the PNG specification. This file comes with
-		 * a minimal ZLIB encoder which uses uncompressed deflate blocks (fast, short, easy, but no compression). If you want
-		 * compression, call another encoder (such as JZLib?) here.
-		 */
-		static private byte[] toZLIB (byte[] raw) throws IOException {
-			ByteArrayOutputStream baos = new ByteArrayOutputStream(raw.length + 6 + raw.length / ZLIB_BLOCK_SIZE * 5);
-			DataOutputStream zlib = new DataOutputStream(baos);
-
-			byte tmp = (byte)8;
-			zlib.writeByte(tmp); // CM = 8, CMINFO = 0
-			zlib.writeByte((31 - (tmp << 8) % 31) % 31); // FCHECK
-			// (FDICT/FLEVEL=0)
-
-			int pos = 0;
-			while (raw.length - pos > ZLIB_BLOCK_SIZE) {
-				writeUncompressedDeflateBlock(zlib, false, raw, pos, (char)ZLIB_BLOCK_SIZE);
-				pos += ZLIB_BLOCK_SIZE;
+		/** Reads the data of consecutive IDAT chunks as one stream, ending at the first chunk of another type. */
+		static private class IDATInputStream extends InputStream {
+			final DataInputStream in;
+			int remaining;
+			boolean ended;
+
+			IDATInputStream (DataInputStream in, int length) {
+				this.in = in;
+				this.remaining = length;
 			}
 
-			writeUncompressedDeflateBlock(zlib, true, raw, pos, (char)(raw.length - pos));
+			private boolean nextChunk () throws IOException {
+				while (remaining == 0) {
+					if (ended) return false;
+					skipFully(in, 4); // crc
+					int length = in.readInt(), type = in.readInt();
+					if (type != IDAT) {
+						ended = true;
+						return false;
+					}
+					remaining = length;
+				}
+				return true;
+			}
 
-			// zlib check sum of uncompressed data
-			zlib.writeInt(calcADLER32(raw));
+			@Override
+			public int read () throws IOException {
+				if (!nextChunk()) return -1;
+				remaining--;
+				return in.read();
+			}
 
-			return baos.toByteArray();
+			@Override
+			public int read (byte[] bytes, int offset, int length) throws IOException {
+				if (!nextChunk()) return -1;
+				int count = in.read(bytes, offset, Math.min(length, remaining));
+				if (count == -1) throw new IOException("Unexpected end of PNG");
+				remaining -= count;
+				return count;
+			}
 		}
 
-		static private void writeUncompressedDeflateBlock (DataOutputStream zlib, boolean last, byte[] raw, int off, char len)
-			throws IOException {
-			zlib.writeByte((byte)(last ? 1 : 0)); // Final flag, Compression type 0
-			zlib.writeByte((byte)(len & 0xFF)); // Length LSB
-			zlib.writeByte((byte)((len & 0xFF00) >> 8)); // Length MSB
-			zlib.writeByte((byte)(~len & 0xFF)); // Length 1st complement LSB
-			zlib.writeByte((byte)((~len & 0xFF00) >> 8)); // Length 1st complement
-			// MSB
-			zlib.write(raw, off, len); // Data
+		/** Filters a range of rows into its output. */
+		static private class Worker implements Callable<Object> {
+			ByteBuffer pixels;
+			int format, width, pixelSize, channels, start, end;
+			RowFilter filter;
+			byte[] output = new byte[0];
+			int length;
+			byte[] prev = new byte[0], curr = new byte[0];
+			byte[][] candidates;
+
+			void set (Pixmap pixmap, int channels, RowFilter filter, int start, int end) {
+				pixels = pixmap.getPixels().duplicate();
+				format = Format.toGdx2DPixmapFormat(pixmap.getFormat());
+				width = pixmap.getWidth();
+				pixelSize = PixmapBlitter.getPixelSize(format);
+				this.channels = channels;
+				this.filter = filter;
+				this.start = start;
+				this.end = end;
+			}
+
+			public Object call () {
+				int rowSize = width * channels;
+				if (curr.length != rowSize) {
+					prev = new byte[rowSize];
+					curr = new byte[rowSize];
+					candidates = null;
+				}
+				if (output.length < (rowSize + 1) * (end - start)) output = new byte[(rowSize + 1) * (end - start)];
+				if (filter == RowFilter.Adaptive && candidates == null) candidates = new byte[5][rowSize];
+				length = 0;
+				if (start == 0) {
+					for (int i = 0; i < rowSize; i++)
+						prev[i] = 0;
+				} else
+					readRow(start - 1, prev);
+				for (int y = start; y < end; y++) {
+					readRow(y, curr);
+					if (filter == RowFilter.Adaptive) {
+						int best = 0;
+						long bestSum = Long.MAX_VALUE;
+						for (int i = 0; i < 5; i++) {
+							filter(i, curr, prev, candidates[i], 0);
+							long sum = 0;
+							for (byte value : candidates[i])
+								sum += Math.abs(value);
+							if (sum < bestSum) {
+								bestSum = sum;
+								best = i;
+							}
+						}
+						output[length++] = (byte)best;
+						System.arraycopy(candidates[best], 0, output, length, rowSize);
+					} else {
+						output[length++] = (byte)filter.ordinal();
+						filter(filter.ordinal(), curr, prev, output, length);
+					}
+					length += rowSize;
+					byte[] swap = prev;
+					prev = curr;
+					curr = swap;
+				}
+				pixels = null;
+				return null;
+			}
+
+			void readRow (int y, byte[] row) {
+				ByteBuffer pixels = this.pixels;
+				int p = y * width * pixelSize;
+				if (pixelSize == channels) {
+					pixels.limit(p + row.length).position(p);
+					pixels.get(row);
+					pixels.limit(pixels.capacity());
+					return;
+				}
+				for (int x = 0, i = 0; x < width; x++, p += pixelSize) {
+					int color = PixmapBlitter.getPixel(pixels, format, p);
+					row[i++] = (byte)(color >>> 24);
+					row[i++] = (byte)(color >>> 16);
+					row[i++] = (byte)(color >>> 8);
+					if (channels == 4) row[i++] = (byte)color;
+				}
+			}
+
+			void filter (int type, byte[] curr, byte[] prev, byte[] out, int offset) {
+				int bpp = channels, length = curr.length;
+				switch (type) {
+				case 0:
+					System.arraycopy(curr, 0, out, offset, length);
+					break;
+				case 1:
+					for (int i = 0; i < bpp; i++)
+						out[offset + i] = curr[i];
+					for (int i = bpp; i < length; i++)
+						out[offset + i] = (byte)(curr[i] - curr[i - bpp]);
+					break;
+				case 2:
+					for (int i = 0; i < length; i++)
+						out[offset + i] = (byte)(curr[i] - prev[i]);
+					break;
+				case 3:
+					for (int i = 0; i < bpp; i++)
+						out[offset + i] = (byte)(curr[i] - ((prev[i] & 0xff) >>> 1));
+					for (int i = bpp; i < length; i++)
+						out[offset + i] = (byte)(curr[i] - (((curr[i - bpp] & 0xff) + (prev[i] & 0xff)) >>> 1));
+					break;
+				default:
+					for (int i = 0; i < bpp; i++)
+						out[offset + i] = (byte)(curr[i] - prev[i]);
+					for (int i = bpp; i < length; i++)
+						out[offset + i] = (byte)(curr[i] - paeth(curr[i - bpp] & 0xff, prev[i] & 0xff, prev[i - bpp] & 0xff));
+				}
+			}
 		}
-		
-		private static int calcADLER32(final byte[ ] raw) {
-	        int s1 = 1;
-	        int s2 = 0;
-	        for ( int i = 0 ; i < raw.length ; i++ ) {
-	            final int abs = raw[ i ] >= 0 ? raw[ i ] : ( raw[ i ] + 256 );
-	            s1 = ( s1 + abs ) % 65521;
-	            s2 = ( s2 + s1 ) % 65521;
-	        }
-	        return ( s2 << 16 ) + s1;
-	    }
 	}
-}
\ No newline at end of file
+}
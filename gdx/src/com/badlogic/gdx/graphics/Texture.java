@@ -69,6 +69,7 @@ public class Texture implements Disposable {
 	static private boolean enforcePotImages = true;
 	static private boolean useHWMipMap = true;
 	private static AssetManager assetManager;
+	private static TextureRestorer restorer;
 	final static Map<Application, List<Texture>> managedTextures = new HashMap<Application, List<Texture>>();
 
 	public enum TextureFilter {
@@ -113,6 +114,12 @@ public class Texture implements Disposable {
 	TextureWrap vWrap = TextureWrap.ClampToEdge;
 	int glHandle;
 	TextureData data;
+	/** whether the texture waits to be restored by the {@link TextureRestorer} **/
+	boolean restoring;
+	/** bytes of the uploaded data, the frame the texture was last bound in and whether it was evicted, see
+	 * {@link GLMemoryTracker} **/
+	int memorySize, lastUsedFrame;
+	boolean evicted;
 
 	public Texture (String internalPath) {
 		this(Gdx.files.internal(internalPath));
@@ -158,6 +165,7 @@ public class Texture implements Disposable {
 		glHandle = createGLHandle();
 		load(data);
 		if (data.isManaged()) addManagedTexture(Gdx.app, this);
+		GLMemoryTracker.add(this);
 	}
 
 	public static int createGLHandle () {
@@ -171,6 +179,7 @@ public class Texture implements Disposable {
 		if (this.data != null && data.isManaged() != this.data.isManaged())
 			throw new GdxRuntimeException("New data must have the same managed status as the old data");
 		this.data = data;
+		evicted = false;
 
 		if (!data.isPrepared()) data.prepare();
 
@@ -189,6 +198,7 @@ public class Texture implements Disposable {
 			setWrap(uWrap, vWrap);
 		}
 		Gdx.gl.glBindTexture(GL10.GL_TEXTURE_2D, 0);
+		GLMemoryTracker.loaded(this);
 	}
 
 	private void uploadImageData (Pixmap pixmap) {
@@ -212,7 +222,8 @@ public class Texture implements Disposable {
 		Gdx.gl.glBindTexture(GL10.GL_TEXTURE_2D, glHandle);
 		Gdx.gl.glPixelStorei(GL10.GL_UNPACK_ALIGNMENT, 1);
 		if (data.useMipMaps()) {
-			MipMapGenerator.generateMipMap(pixmap, pixmap.getWidth(), pixmap.getHeight(), disposePixmap);
+			FileHandle file = data instanceof FileTextureData ? ((FileTextureData)data).getFileHandle() : null;
+			MipMapGenerator.generateMipMap(pixmap, pixmap.getWidth(), pixmap.getHeight(), disposePixmap, file);
 		} else {
 			Gdx.gl.glTexImage2D(GL10.GL_TEXTURE_2D, 0, pixmap.getGLInternalFormat(), pixmap.getWidth(), pixmap.getHeight(), 0,
 				pixmap.getGLFormat(), pixmap.getGLType(), pixmap.getPixels());
@@ -222,6 +233,14 @@ public class Texture implements Disposable {
 		}
 	}
 
+	/** Deletes the GL texture to free its memory. The texture is loaded again by {@link #reload()} the next time it is bound.
+	 * Called by the {@link GLMemoryTracker}. */
+	void evict () {
+		buffer.put(0, glHandle);
+		Gdx.gl.glDeleteTextures(1, buffer);
+		evicted = true;
+	}
+
 	/** Used internally to reload after context loss. Creates a new GL handle then calls {@link #load(TextureData)}. Use this only if you know what you do! */
 	private void reload () {
 		if (!data.isManaged()) throw new GdxRuntimeException("Tried to reload unmanaged Texture");
@@ -232,6 +251,9 @@ public class Texture implements Disposable {
 	/** Binds this texture. The texture will be bound to the currently active texture unit specified via
 	 * {@link GLCommon#glActiveTexture(int)}. */
 	public void bind () {
+		if (restoring && restorer != null) restorer.prioritize(this);
+		if (evicted) reload();
+		lastUsedFrame = GLMemoryTracker.frame;
 		Gdx.gl.glBindTexture(GL10.GL_TEXTURE_2D, glHandle);
 	}
 
@@ -239,7 +261,10 @@ public class Texture implements Disposable {
 	 * {@link GLCommon#glActiveTexture(int)}.
 	 * @param unit the unit (0 to MAX_TEXTURE_UNITS). */
 	public void bind (int unit) {
+		if (restoring && restorer != null) restorer.prioritize(this);
 		Gdx.gl.glActiveTexture(GL10.GL_TEXTURE0 + unit);
+		if (evicted) reload();
+		lastUsedFrame = GLMemoryTracker.frame;
 		Gdx.gl.glBindTexture(GL10.GL_TEXTURE_2D, glHandle);
 	}
 
@@ -292,7 +317,9 @@ public class Texture implements Disposable {
 		return data.isManaged();
 	}
 
+	/** @return the OpenGL texture name. If the texture was evicted by the {@link GLMemoryTracker}, it is loaded again first. */
 	public int getTextureObjectHandle () {
+		if (evicted) reload();
 		return glHandle;
 	}
 
@@ -323,8 +350,12 @@ public class Texture implements Disposable {
 		// and then reload it. the glHandle is set to 0 in invalidateAllTextures prior to
 		// removal from the asset manager.
 		if (glHandle == 0) return;
-		buffer.put(0, glHandle);
-		Gdx.gl.glDeleteTextures(1, buffer);
+		if (restoring && restorer != null) restorer.remove(this);
+		if (!evicted) {
+			buffer.put(0, glHandle);
+			Gdx.gl.glDeleteTextures(1, buffer);
+		}
+		GLMemoryTracker.remove(this);
 		if (data.isManaged()) {
 			if (managedTextures.get(Gdx.app) != null) managedTextures.get(Gdx.app).remove(this);
 		}
@@ -351,9 +382,12 @@ public class Texture implements Disposable {
 	/** Invalidate all managed textures. This is an internal method. Do not use it! */
 	public static void invalidateAllTextures (Application app) {
 		List<Texture> managedTexureList = managedTextures.get(app);
+		GLMemoryTracker.invalidate();
 		if (managedTexureList == null) return;
 
-		if (assetManager == null) {
+		if (restorer != null) {
+			restorer.restore(managedTexureList);
+		} else if (assetManager == null) {
 			for (int i = 0; i < managedTexureList.size(); i++) {
 				Texture texture = managedTexureList.get(i);
 				texture.reload();
@@ -416,6 +450,19 @@ public class Texture implements Disposable {
 		Texture.assetManager = manager;
 	}
 
+	/** Sets the {@link TextureRestorer}. When the context is lost, all managed textures, including those of the
+	 * {@link AssetManager}, are restored by it in the background and {@link TextureRestorer#update(int)} has to be called each
+	 * frame until it is done. If null, textures are reloaded synchronously when the context is recreated.
+	 * @param restorer the restorer or null */
+	public static void setRestorer (TextureRestorer restorer) {
+		Texture.restorer = restorer;
+	}
+
+	/** @return the {@link TextureRestorer} or null */
+	public static TextureRestorer getRestorer () {
+		return restorer;
+	}
+
 	public static String getManagedStatus () {
 		StringBuilder builder = new StringBuilder();
 		builder.append("Managed textures/app: { ");
@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.graphics.glutils.ETC1TextureData;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** <p>
+ * Restores managed {@link Texture}s after the OpenGL context was lost without blocking the rendering thread. Set it with
+ * {@link Texture#setRestorer(TextureRestorer)}. When the context is lost, every managed texture immediately gets a new, empty
+ * GL texture, so the Texture instances stay valid. Their {@link TextureData} is then prepared, e.g. decoded from a file, on
+ * background threads, and {@link #update(int)} uploads the prepared textures on the rendering thread, as many as fit in the
+ * given time per frame.
+ * </p>
+ * 
+ * <p>
+ * Textures that are bound before they were restored, usually because the current screen uses them, are prepared and uploaded
+ * before all others. {@link #prioritize(Texture)} does the same for textures that will be needed soon. Until then
+ * {@link #getProgress()} and {@link #isRestored(Texture)} can be used to render a placeholder.
+ * </p>
+ * 
+ * <p>
+ * Textures managed by an {@link com.badlogic.gdx.assets.AssetManager} are restored the same way and keep their reference
+ * counts. Meshes, shaders and frame buffers are still restored synchronously, they don't need to be decoded.
+ * </p> */
+public class TextureRestorer implements Disposable {
+	private final ExecutorService executor;
+	/** textures whose data has to be prepared, in the order they are prepared **/
+	private final Array<Texture> toPrepare = new Array<Texture>();
+	/** textures whose data is prepared, in the order they are uploaded **/
+	private final Array<Texture> prepared = new Array<Texture>();
+	private Texture failedTexture;
+	private Throwable failure;
+	private int restored, toRestore;
+
+	/** Creates a restorer that prepares textures on one background thread. */
+	public TextureRestorer () {
+		this(1);
+	}
+
+	/** @param threads the number of threads preparing texture data */
+	public TextureRestorer (int threads) {
+		executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			@Override
+			public Thread newThread (Runnable r) {
+				Thread thread = new Thread(r, "TextureRestorer-Loader-Thread");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/** Gives the textures new GL handles and queues them for restoring. Called by {@link Texture#invalidateAllTextures}. */
+	void restore (List<Texture> textures) {
+		for (int i = 0, n = textures.size(); i < n; i++)
+			textures.get(i).glHandle = Texture.createGLHandle();
+
+		synchronized (this) {
+			if (restored == toRestore) restored = toRestore = 0;
+			for (int i = 0, n = textures.size(); i < n; i++) {
+				Texture texture = textures.get(i);
+				// Textures still waiting from a previous context loss keep their place.
+				if (texture.restoring) continue;
+				texture.evicted = false;
+				texture.restoring = true;
+				toRestore++;
+				if (texture.getTextureData().isPrepared())
+					prepared.add(texture);
+				else {
+					toPrepare.add(texture);
+					executor.submit(new Runnable() {
+						public void run () {
+							prepareNext();
+						}
+					});
+				}
+			}
+		}
+	}
+
+	/** Prepares the data of the first texture in the queue. One task is submitted per queued texture, so every texture is
+	 * prepared even if textures were moved ahead of it. */
+	private void prepareNext () {
+		Texture texture;
+		synchronized (this) {
+			if (toPrepare.size == 0) return;
+			texture = toPrepare.removeIndex(0);
+		}
+		try {
+			TextureData data = texture.getTextureData();
+			if (!data.isPrepared()) data.prepare();
+		} catch (Throwable t) {
+			synchronized (this) {
+				if (failure == null && texture.restoring) {
+					failedTexture = texture;
+					failure = t;
+				}
+			}
+			return;
+		}
+		synchronized (this) {
+			// the texture may have been disposed while its data was prepared, then nobody else releases the data
+			if (texture.restoring)
+				prepared.add(texture);
+			else
+				discard(texture);
+		}
+	}
+
+	/** Moves the texture to the front of the queue if it wasn't restored yet. Called by {@link Texture#bind()}. */
+	public synchronized void prioritize (Texture texture) {
+		if (!texture.restoring) return;
+		int index = toPrepare.indexOf(texture, true);
+		if (index > 0) {
+			toPrepare.removeIndex(index);
+			toPrepare.insert(0, texture);
+			return;
+		}
+		index = prepared.indexOf(texture, true);
+		if (index > 0) {
+			prepared.removeIndex(index);
+			prepared.insert(0, texture);
+		}
+	}
+
+	/** Removes a disposed texture from the queue. */
+	synchronized void remove (Texture texture) {
+		if (!texture.restoring) return;
+		texture.restoring = false;
+		toPrepare.removeValue(texture, true);
+		if (prepared.removeValue(texture, true)) discard(texture);
+		toRestore--;
+	}
+
+	/** Uploads a single prepared texture, if there is one. Must be called on the rendering thread.
+	 * @return true if all textures are restored */
+	public boolean update () {
+		return update(0);
+	}
+
+	/** Uploads prepared textures until the given time has passed, at least one if there is one. Must be called on the rendering
+	 * thread, usually at the start of each frame.
+	 * @param millis the time in milliseconds that may be spent uploading
+	 * @return true if all textures are restored
+	 * @throws GdxRuntimeException if the data of a texture couldn't be prepared */
+	public boolean update (int millis) {
+		long endTime = TimeUtils.nanoTime() + millis * 1000000L;
+		while (true) {
+			Texture texture;
+			synchronized (this) {
+				if (failure != null) {
+					Texture failedTexture = this.failedTexture;
+					Throwable failure = this.failure;
+					this.failedTexture = null;
+					this.failure = null;
+					remove(failedTexture);
+					throw new GdxRuntimeException("Couldn't restore texture " + failedTexture.getTextureData(), failure);
+				}
+				if (prepared.size == 0) return restored == toRestore;
+				texture = prepared.removeIndex(0);
+				texture.restoring = false;
+				restored++;
+			}
+			texture.load(texture.getTextureData());
+			if (TimeUtils.nanoTime() >= endTime) {
+				synchronized (this) {
+					return restored == toRestore;
+				}
+			}
+		}
+	}
+
+	/** Blocks until all textures are restored. Must be called on the rendering thread. */
+	public void finishRestoring () {
+		while (!update(Integer.MAX_VALUE))
+			Thread.yield();
+	}
+
+	/** @return whether the texture has its image data, false if it still waits to be restored */
+	public boolean isRestored (Texture texture) {
+		synchronized (this) {
+			return !texture.restoring;
+		}
+	}
+
+	/** @return the number of textures that still wait to be restored */
+	public synchronized int getQueuedTextures () {
+		return toRestore - restored;
+	}
+
+	/** @return the progress of the current restoration from 0 to 1, 1 if there is nothing to restore */
+	public synchronized float getProgress () {
+		if (toRestore == 0) return 1;
+		return restored / (float)toRestore;
+	}
+
+	/** Releases the image data of a texture that was prepared but won't be uploaded. */
+	private void discard (Texture texture) {
+		TextureData data = texture.getTextureData();
+		if (!data.isPrepared()) return;
+		if (data.getType() == TextureData.TextureDataType.Pixmap) {
+			Pixmap pixmap = data.consumePixmap();
+			if (data.disposePixmap()) pixmap.dispose();
+		} else if (data instanceof ETC1TextureData) {
+			// compressed data can't be consumed without uploading it
+			((ETC1TextureData)data).discardPrepared();
+		}
+	}
+
+	/** Stops preparing textures. Textures that were not restored yet stay empty. */
+	public void dispose () {
+		synchronized (this) {
+			for (int i = 0; i < prepared.size; i++) {
+				prepared.get(i).restoring = false;
+				discard(prepared.get(i));
+			}
+			for (int i = 0; i < toPrepare.size; i++)
+				toPrepare.get(i).restoring = false;
+			prepared.clear();
+			toPrepare.clear();
+			restored = toRestore = 0;
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException("Couldn't shutdown loading threads", e);
+		}
+	}
+}
@@ -0,0 +1,446 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g2d;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Blending;
+import com.badlogic.gdx.graphics.Pixmap.Filter;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** <p>
+ * Draws, fills and converts {@link Pixmap}s without the global state of {@link Pixmap#setBlending(Blending)} and
+ * {@link Pixmap#setFilter(Filter)}, the {@link Blending} and {@link Filter} are passed to each call instead. A blitter can
+ * therefore be used by several threads at once, as long as each thread draws to a different pixmap. The results are the same
+ * as those of the native methods, except that LuminanceAlpha pixels are always written with the luminance in the first byte,
+ * as documented in {@link Pixmap#getPixels()}, and that unscaled areas starting left of or above the source pixmap are clipped
+ * instead of skipped.
+ * </p>
+ * 
+ * <p>
+ * Rows of the same format drawn without blending are copied in bulk, everything else is converted pixel by pixel. If the
+ * blitter was created with more than one thread, operations writing at least {@link #parallelThreshold} pixels are split into
+ * stripes of rows, one per thread. Drawing a pixmap to itself is always done on the calling thread. The pool must be released
+ * with {@link #dispose()}.
+ * </p> */
+public class PixmapBlitter implements Disposable {
+	static final int[] lu4 = new int[16], lu5 = new int[32], lu6 = new int[64];
+	static {
+		// the same look up tables as gdx2d, so converted colors match the native ones
+		for (int i = 0; i < 16; i++)
+			lu4[i] = (int)(i / 15.0f * 255);
+		for (int i = 0; i < 32; i++)
+			lu5[i] = (int)(i / 31.0f * 255);
+		for (int i = 0; i < 64; i++)
+			lu6[i] = (int)(i / 63.0f * 255);
+	}
+
+	/** operations writing fewer pixels are always done on the calling thread **/
+	public int parallelThreshold = 128 * 128;
+
+	private final ExecutorService executor;
+	private final List<Worker> workers;
+
+	/** Creates a blitter that does all operations on the calling thread. */
+	public PixmapBlitter () {
+		this(1);
+	}
+
+	/** @param threads the number of worker threads used for large operations, e.g.
+	 *           <code>Runtime.getRuntime().availableProcessors()</code>. 1 does all operations on the calling thread. */
+	public PixmapBlitter (int threads) {
+		if (threads > 1) {
+			workers = new ArrayList<Worker>(threads);
+			for (int i = 0; i < threads; i++)
+				workers.add(new Worker());
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				@Override
+				public Thread newThread (Runnable r) {
+					Thread thread = new Thread(r, "PixmapBlitter-Worker-Thread");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		} else {
+			workers = null;
+			executor = null;
+		}
+	}
+
+	/** Draws a pixmap to another pixmap.
+	 * @see Pixmap#drawPixmap(Pixmap, int, int) */
+	public void drawPixmap (Pixmap src, Pixmap dst, int x, int y, Blending blending) {
+		drawPixmap(src, dst, 0, 0, src.getWidth(), src.getHeight(), x, y, src.getWidth(), src.getHeight(), blending,
+			Filter.NearestNeighbour);
+	}
+
+	/** Draws an area of a pixmap to another pixmap.
+	 * @see Pixmap#drawPixmap(Pixmap, int, int, int, int, int, int) */
+	public void drawPixmap (Pixmap src, Pixmap dst, int x, int y, int srcx, int srcy, int srcWidth, int srcHeight,
+		Blending blending) {
+		drawPixmap(src, dst, srcx, srcy, srcWidth, srcHeight, x, y, srcWidth, srcHeight, blending, Filter.NearestNeighbour);
+	}
+
+	/** Draws an area of a pixmap to another pixmap, scaling it to the target rectangle. The filter is ignored if the area is not
+	 * scaled.
+	 * @see Pixmap#drawPixmap(Pixmap, int, int, int, int, int, int, int, int) */
+	public void drawPixmap (Pixmap src, Pixmap dst, int srcx, int srcy, int srcWidth, int srcHeight, int dstx, int dsty,
+		int dstWidth, int dstHeight, Blending blending, Filter filter) {
+		if (srcWidth <= 0 || srcHeight <= 0 || dstWidth <= 0 || dstHeight <= 0) return;
+		int mode;
+		if (srcWidth == dstWidth && srcHeight == dstHeight)
+			mode = Worker.COPY;
+		else
+			mode = filter == Filter.BiLinear ? Worker.BILINEAR : Worker.NEAREST;
+		run(src, dst, mode, srcx, srcy, srcWidth, srcHeight, dstx, dsty, dstWidth, dstHeight, blending, 0);
+	}
+
+	/** Fills a rectangle with a color.
+	 * @param color the color, encoded as RGBA8888
+	 * @see Pixmap#fillRectangle(int, int, int, int) */
+	public void fillRectangle (Pixmap dst, int x, int y, int width, int height, int color, Blending blending) {
+		if (width <= 0 || height <= 0) return;
+		run(null, dst, Worker.FILL, 0, 0, 0, 0, x, y, width, height, blending, color);
+	}
+
+	/** Fills the complete pixmap with a color, without blending.
+	 * @param color the color, encoded as RGBA8888
+	 * @see Pixmap#fill() */
+	public void fill (Pixmap dst, int color) {
+		run(null, dst, Worker.FILL, 0, 0, 0, 0, 0, 0, dst.getWidth(), dst.getHeight(), Blending.None, color);
+	}
+
+	/** Converts a pixmap to another format.
+	 * @return a new pixmap of the same size, which has to be disposed */
+	public Pixmap convert (Pixmap src, Format format) {
+		Pixmap dst = new Pixmap(src.getWidth(), src.getHeight(), format);
+		drawPixmap(src, dst, 0, 0, Blending.None);
+		return dst;
+	}
+
+	private void run (Pixmap src, Pixmap dst, int mode, int srcx, int srcy, int srcWidth, int srcHeight, int dstx, int dsty,
+		int dstWidth, int dstHeight, Blending blending, int color) {
+		if (executor == null || src == dst || dstWidth * dstHeight < parallelThreshold) {
+			Worker worker = new Worker();
+			worker.set(src, dst, mode, srcx, srcy, srcWidth, srcHeight, dstx, dsty, dstWidth, dstHeight, blending, color, 0,
+				dstHeight);
+			worker.call();
+			return;
+		}
+
+		List<Worker> workers = this.workers;
+		synchronized (workers) {
+			int threads = workers.size();
+			int stripe = (dstHeight + threads - 1) / threads;
+			for (int i = 0; i < threads; i++) {
+				int start = Math.min(dstHeight, i * stripe), end = Math.min(dstHeight, start + stripe);
+				workers.get(i).set(src, dst, mode, srcx, srcy, srcWidth, srcHeight, dstx, dsty, dstWidth, dstHeight, blending,
+					color, start, end);
+			}
+			try {
+				List<Future<Object>> results = executor.invokeAll(workers);
+				for (int i = 0; i < threads; i++)
+					results.get(i).get();
+			} catch (InterruptedException e) {
+				throw new GdxRuntimeException("interrupted while drawing pixmap", e);
+			} catch (ExecutionException e) {
+				throw new GdxRuntimeException("couldn't draw pixmap", e.getCause());
+			}
+		}
+	}
+
+	/** Shuts down the worker threads. */
+	@Override
+	public void dispose () {
+		if (executor == null) return;
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException("Couldn't shutdown blitter threads", e);
+		}
+	}
+
+	/** @return the size of a pixel of the gdx2d format in bytes */
+	public static int getPixelSize (int format) {
+		switch (format) {
+		case Gdx2DPixmap.GDX2D_FORMAT_ALPHA:
+			return 1;
+		case Gdx2DPixmap.GDX2D_FORMAT_RGB888:
+			return 3;
+		case Gdx2DPixmap.GDX2D_FORMAT_RGBA8888:
+			return 4;
+		default:
+			return 2;
+		}
+	}
+
+	/** Reads a pixel from the pixels of a pixmap, see {@link Pixmap#getPixels()}. Does not modify the position of the buffer.
+	 * @param format the gdx2d format of the pixels
+	 * @return the pixel at the byte offset converted to RGBA8888 */
+	public static int getPixel (ByteBuffer pixels, int format, int p) {
+		switch (format) {
+		case Gdx2DPixmap.GDX2D_FORMAT_ALPHA:
+			return (pixels.get(p) & 0xff) | 0xffffff00;
+		case Gdx2DPixmap.GDX2D_FORMAT_LUMINANCE_ALPHA: {
+			int l = pixels.get(p) & 0xff;
+			return l << 24 | l << 16 | l << 8 | (pixels.get(p + 1) & 0xff);
+		}
+		case Gdx2DPixmap.GDX2D_FORMAT_RGB888:
+			return (pixels.get(p) & 0xff) << 24 | (pixels.get(p + 1) & 0xff) << 16 | (pixels.get(p + 2) & 0xff) << 8 | 0xff;
+		case Gdx2DPixmap.GDX2D_FORMAT_RGBA8888:
+			return (pixels.get(p) & 0xff) << 24 | (pixels.get(p + 1) & 0xff) << 16 | (pixels.get(p + 2) & 0xff) << 8
+				| (pixels.get(p + 3) & 0xff);
+		case Gdx2DPixmap.GDX2D_FORMAT_RGB565: {
+			int pixel = (pixels.get(p + 1) & 0xff) << 8 | (pixels.get(p) & 0xff);
+			return lu5[pixel >>> 11] << 24 | lu6[(pixel >>> 5) & 0x3f] << 16 | lu5[pixel & 0x1f] << 8 | 0xff;
+		}
+		default: {
+			int pixel = (pixels.get(p + 1) & 0xff) << 8 | (pixels.get(p) & 0xff);
+			return lu4[pixel >>> 12] << 24 | lu4[(pixel >>> 8) & 0xf] << 16 | lu4[(pixel >>> 4) & 0xf] << 8 | lu4[pixel & 0xf];
+		}
+		}
+	}
+
+	/** Converts the RGBA8888 color to the gdx2d format and stores it at the byte offset. */
+	static void setPixel (ByteBuffer pixels, int format, int p, int color) {
+		switch (format) {
+		case Gdx2DPixmap.GDX2D_FORMAT_ALPHA:
+			pixels.put(p, (byte)color);
+			break;
+		case Gdx2DPixmap.GDX2D_FORMAT_LUMINANCE_ALPHA: {
+			int r = color >>> 24, g = (color >>> 16) & 0xff, b = (color >>> 8) & 0xff;
+			pixels.put(p, (byte)(int)(0.2126f * r + 0.7152 * g + 0.0722 * b));
+			pixels.put(p + 1, (byte)color);
+			break;
+		}
+		case Gdx2DPixmap.GDX2D_FORMAT_RGB888:
+			pixels.put(p, (byte)(color >>> 24));
+			pixels.put(p + 1, (byte)(color >>> 16));
+			pixels.put(p + 2, (byte)(color >>> 8));
+			break;
+		case Gdx2DPixmap.GDX2D_FORMAT_RGBA8888:
+			pixels.put(p, (byte)(color >>> 24));
+			pixels.put(p + 1, (byte)(color >>> 16));
+			pixels.put(p + 2, (byte)(color >>> 8));
+			pixels.put(p + 3, (byte)color);
+			break;
+		case Gdx2DPixmap.GDX2D_FORMAT_RGB565: {
+			int pixel = (color >>> 27) << 11 | ((color >>> 18) & 0x3f) << 5 | ((color >>> 11) & 0x1f);
+			pixels.put(p, (byte)pixel);
+			pixels.put(p + 1, (byte)(pixel >>> 8));
+			break;
+		}
+		default: {
+			int pixel = (color >>> 28) << 12 | ((color >>> 20) & 0xf) << 8 | ((color >>> 12) & 0xf) << 4 | ((color >>> 4) & 0xf);
+			pixels.put(p, (byte)pixel);
+			pixels.put(p + 1, (byte)(pixel >>> 8));
+		}
+		}
+	}
+
+	/** Blends the RGBA8888 source color over the destination color like gdx2d does. */
+	static int blend (int src, int dst) {
+		int srcR = src >>> 24, srcG = (src >>> 16) & 0xff, srcB = (src >>> 8) & 0xff, srcA = src & 0xff;
+		int dstR = dst >>> 24, dstG = (dst >>> 16) & 0xff, dstB = (dst >>> 8) & 0xff, dstA = dst & 0xff;
+		dstR = dstR + srcA * (srcR - dstR) / 255;
+		dstG = dstG + srcA * (srcG - dstG) / 255;
+		dstB = dstB + srcA * (srcB - dstB) / 255;
+		dstA = (int)((1.0f - (1.0f - srcA / 255.0f) * (1.0f - dstA / 255.0f)) * 255);
+		return dstR << 24 | dstG << 16 | dstB << 8 | dstA;
+	}
+
+	/** Processes a range of destination rows, relative to the target rectangle. */
+	private static class Worker implements Callable<Object> {
+		static final int COPY = 0, NEAREST = 1, BILINEAR = 2, FILL = 3;
+
+		ByteBuffer src, dst;
+		int srcFormat, dstFormat, srcPixmapWidth, srcPixmapHeight, dstPixmapWidth, dstPixmapHeight;
+		int mode, srcx, srcy, srcWidth, srcHeight, dstx, dsty, dstWidth, dstHeight, color, start, end;
+		boolean blend;
+
+		void set (Pixmap src, Pixmap dst, int mode, int srcx, int srcy, int srcWidth, int srcHeight, int dstx, int dsty,
+			int dstWidth, int dstHeight, Blending blending, int color, int start, int end) {
+			if (src != null) {
+				this.src = src.getPixels();
+				srcFormat = Format.toGdx2DPixmapFormat(src.getFormat());
+				srcPixmapWidth = src.getWidth();
+				srcPixmapHeight = src.getHeight();
+			} else
+				this.src = null;
+			this.dst = dst.getPixels();
+			dstFormat = Format.toGdx2DPixmapFormat(dst.getFormat());
+			dstPixmapWidth = dst.getWidth();
+			dstPixmapHeight = dst.getHeight();
+			this.mode = mode;
+			this.srcx = srcx;
+			this.srcy = srcy;
+			this.srcWidth = srcWidth;
+			this.srcHeight = srcHeight;
+			this.dstx = dstx;
+			this.dsty = dsty;
+			this.dstWidth = dstWidth;
+			this.dstHeight = dstHeight;
+			this.blend = blending != Blending.None;
+			this.color = color;
+			this.start = start;
+			this.end = end;
+		}
+
+		public Object call () {
+			switch (mode) {
+			case COPY:
+				copy();
+				break;
+			case NEAREST:
+				nearest();
+				break;
+			case BILINEAR:
+				bilinear();
+				break;
+			default:
+				fill();
+			}
+			src = null;
+			dst = null;
+			return null;
+		}
+
+		void copy () {
+			int srcBpp = getPixelSize(srcFormat), dstBpp = getPixelSize(dstFormat);
+			int startX = Math.max(0, Math.max(-srcx, -dstx));
+			int endX = Math.min(dstWidth, Math.min(srcPixmapWidth - srcx, dstPixmapWidth - dstx));
+			if (startX >= endX) return;
+			boolean bulk = srcFormat == dstFormat && !blend;
+			ByteBuffer src = bulk ? this.src.duplicate() : this.src;
+			ByteBuffer dst = bulk ? this.dst.duplicate() : this.dst;
+			for (int i = start; i < end; i++) {
+				int sy = srcy + i, dy = dsty + i;
+				if (sy < 0 || dy < 0 || sy >= srcPixmapHeight || dy >= dstPixmapHeight) continue;
+				int sp = ((srcx + startX) + sy * srcPixmapWidth) * srcBpp;
+				int dp = ((dstx + startX) + dy * dstPixmapWidth) * dstBpp;
+				if (bulk) {
+					int length = (endX - startX) * srcBpp;
+					src.limit(sp + length).position(sp);
+					dst.position(dp);
+					dst.put(src);
+					continue;
+				}
+				for (int x = startX; x < endX; x++, sp += srcBpp, dp += dstBpp)
+					write(dp, getPixel(src, srcFormat, sp));
+			}
+		}
+
+		void nearest () {
+			int srcBpp = getPixelSize(srcFormat), dstBpp = getPixelSize(dstFormat);
+			long xRatio = ((long)srcWidth << 16) / dstWidth + 1, yRatio = ((long)srcHeight << 16) / dstHeight + 1;
+			for (int i = start; i < end; i++) {
+				int sy = (int)((i * yRatio) >> 16) + srcy, dy = i + dsty;
+				if (sy < 0 || dy < 0 || sy >= srcPixmapHeight || dy >= dstPixmapHeight) continue;
+				for (int j = 0; j < dstWidth; j++) {
+					int sx = (int)((j * xRatio) >> 16) + srcx, dx = j + dstx;
+					if (sx < 0 || dx < 0) continue;
+					if (sx >= srcPixmapWidth || dx >= dstPixmapWidth) break;
+					write((dx + dy * dstPixmapWidth) * dstBpp, getPixel(src, srcFormat, (sx + sy * srcPixmapWidth) * srcBpp));
+				}
+			}
+		}
+
+		void bilinear () {
+			int srcBpp = getPixelSize(srcFormat), dstBpp = getPixelSize(dstFormat), srcPitch = srcBpp * srcPixmapWidth;
+			float xRatio = ((float)srcWidth - 1) / dstWidth, yRatio = ((float)srcHeight - 1) / dstHeight;
+			for (int i = start; i < end; i++) {
+				int sy = (int)(i * yRatio) + srcy, dy = i + dsty;
+				float yDiff = (yRatio * i + srcy) - sy;
+				if (sy < 0 || dy < 0 || sy >= srcPixmapHeight || dy >= dstPixmapHeight) continue;
+				// gdx2d compares the neighbours against the size of the area, they are also kept inside the pixmap here
+				boolean down = sy + 1 < srcHeight && sy + 1 < srcPixmapHeight;
+				for (int j = 0; j < dstWidth; j++) {
+					int sx = (int)(j * xRatio) + srcx, dx = j + dstx;
+					float xDiff = (xRatio * j + srcx) - sx;
+					if (sx < 0 || dx < 0) continue;
+					if (sx >= srcPixmapWidth || dx >= dstPixmapWidth) break;
+					boolean right = sx + 1 < srcWidth && sx + 1 < srcPixmapWidth;
+
+					int sp = sx * srcBpp + sy * srcPitch;
+					int c1 = getPixel(src, srcFormat, sp);
+					int c2 = right ? getPixel(src, srcFormat, sp + srcBpp) : c1;
+					int c3 = down ? getPixel(src, srcFormat, sp + srcPitch) : c1;
+					int c4 = right && down ? getPixel(src, srcFormat, sp + srcPitch + srcBpp) : c1;
+
+					float ta = (1 - xDiff) * (1 - yDiff);
+					float tb = xDiff * (1 - yDiff);
+					float tc = (1 - xDiff) * yDiff;
+					float td = xDiff * yDiff;
+					int color = 0;
+					for (int shift = 24; shift >= 0; shift -= 8) {
+						int value = (int)(((c1 >>> shift) & 0xff) * ta + ((c2 >>> shift) & 0xff) * tb + ((c3 >>> shift) & 0xff) * tc
+							+ ((c4 >>> shift) & 0xff) * td) & 0xff;
+						color |= value << shift;
+					}
+					write((dx + dy * dstPixmapWidth) * dstBpp, color);
+				}
+			}
+		}
+
+		void fill () {
+			int bpp = getPixelSize(dstFormat);
+			int startX = Math.max(0, dstx), endX = Math.min(dstPixmapWidth, dstx + dstWidth);
+			if (startX >= endX) return;
+			ByteBuffer dst = this.dst;
+			byte[] row = null;
+			if (!blend) {
+				// one row of the packed color, copied in bulk
+				row = new byte[(endX - startX) * bpp];
+				setPixel(ByteBuffer.wrap(row), dstFormat, 0, color);
+				for (int i = bpp; i < row.length; i++)
+					row[i] = row[i - bpp];
+				dst = dst.duplicate();
+			}
+			for (int i = start; i < end; i++) {
+				int dy = dsty + i;
+				if (dy < 0 || dy >= dstPixmapHeight) continue;
+				int dp = (startX + dy * dstPixmapWidth) * bpp;
+				if (row != null) {
+					dst.position(dp);
+					dst.put(row);
+					continue;
+				}
+				for (int x = startX; x < endX; x++, dp += bpp)
+					write(dp, color);
+			}
+		}
+
+		void write (int dp, int color) {
+			if (blend) color = blend(color, getPixel(dst, dstFormat, dp));
+			setPixel(dst, dstFormat, dp, color);
+		}
+	}
+}
@@ -14,32 +14,44 @@
  * limitations under the License.
  ******************************************************************************/
 
+
 package com.badlogic.gdx.graphics.g2d;
 
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL10;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Pixmap.Blending;
 import com.badlogic.gdx.graphics.Pixmap.Format;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.Texture.TextureFilter;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
 import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ObjectMap.Keys;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.badlogic.gdx.utils.OrderedMap;
 
 /**
  * Packs {@link Pixmap} instances into one more more {@link Page} instances to generate
  * an atlas of Pixmap instances. Provides means to directly convert the pixmap atlas to a {@link TextureAtlas}. The
- * packer supports padding and border pixel duplication, specified during construction. The packer supports incremental inserts
- * and updates of TextureAtlases generated with this class.</p>
+ * packer supports padding and border pixel duplication, specified during construction. The packer supports incremental inserts,
+ * removals and updates of TextureAtlases generated with this class.</p>
  * 
- * All methods except {@link #getPage(String)} and {@link #getPages()} are thread safe. The methods {@link #generateTextureAtlas(TextureFilter, TextureFilter, boolean)}
+ * Each page places its images with a max rects allocator, which keeps a list of the largest free rectangles and puts an image
+ * into the one it fits best. Space of removed images is reused by later inserts.</p>
+ * 
+ * All methods except {@link #getPages()} are thread safe. The methods {@link #generateTextureAtlas(TextureFilter, TextureFilter, boolean)}
  * and {@link #updateTextureAtlas(TextureAtlas, TextureFilter, TextureFilter, boolean)} need to be called on the rendering thread, all
- * other methods can be called from any thread.</p>
+ * other methods can be called from any thread. The packer is only locked while space is allocated, images are drawn to their pages
+ * without holding the lock, so several threads can pack at once and the rendering thread is never blocked by a large image. Updating
+ * a TextureAtlas only uploads the rectangles changed since the last update via glTexSubImage2D.</p>
  * 
  * One-off usage:
  * <pre>
@@ -62,6 +74,9 @@ import com.badlogic.gdx.utils.OrderedMap;
  * // potentially on a separate thread, e.g. downloading thumbnails
  * packer.pack("thumbnail", thumbnail);
  * 
+ * // once a thumbnail is no longer needed, its region is removed from the atlas on the next update
+ * packer.remove("thumbnail");
+ * 
  * // on the rendering thread, every frame
  * packer.updateTextureAtlas(incrementalAtlas, TextureFilter.Linear, TextureFilter.Linear);
  * 
@@ -86,30 +101,98 @@ import com.badlogic.gdx.utils.OrderedMap;
  * </pre>
  */
 public class PixmapPacker implements Disposable {
-	static final class Node {
-		public Node leftChild;
-		public Node rightChild;
-		public Rectangle rect;
-		public String leaveName;
-
-		public Node (int x, int y, int width, int height, Node leftChild, Node rightChild, String leaveName) {
-			this.rect = new Rectangle(x, y, width, height);
-			this.leftChild = leftChild;
-			this.rightChild = rightChild;
-			this.leaveName = leaveName;
+	/** Allocates rectangles in a page, keeping a list of all maximal free rectangles. Each rectangle is placed in the free
+	 * rectangle that leaves the shortest side, which is then split along the placed rectangle. */
+	static final class MaxRects {
+		final int width, height;
+		final Array<Rectangle> usedRects = new Array<Rectangle>();
+		final Array<Rectangle> freeRects = new Array<Rectangle>();
+
+		MaxRects (int width, int height) {
+			this.width = width;
+			this.height = height;
+			freeRects.add(new Rectangle(0, 0, width, height));
+		}
+
+		/** @return the allocated rectangle or null if it didn't fit */
+		Rectangle insert (int width, int height) {
+			Rectangle best = null;
+			float bestShortSide = Float.MAX_VALUE, bestLongSide = Float.MAX_VALUE;
+			for (int i = 0, n = freeRects.size; i < n; i++) {
+				Rectangle free = freeRects.get(i);
+				if (free.width < width || free.height < height) continue;
+				float shortSide = Math.min(free.width - width, free.height - height);
+				float longSide = Math.max(free.width - width, free.height - height);
+				if (shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide)) {
+					best = free;
+					bestShortSide = shortSide;
+					bestLongSide = longSide;
+				}
+			}
+			if (best == null) return null;
+
+			Rectangle rect = new Rectangle(best.x, best.y, width, height);
+			usedRects.add(rect);
+			place(rect);
+			return rect;
+		}
+
+		/** Frees an allocated rectangle. The free rectangles are rebuilt from the remaining used ones, as the freed space may
+		 * join several free rectangles into larger ones. */
+		void remove (Rectangle rect) {
+			usedRects.removeValue(rect, true);
+			freeRects.clear();
+			freeRects.add(new Rectangle(0, 0, width, height));
+			for (int i = 0, n = usedRects.size; i < n; i++)
+				place(usedRects.get(i));
 		}
 
-		public Node () {
-			rect = new Rectangle();
+		/** Splits all free rectangles overlapping the used rectangle and removes those contained in others. */
+		private void place (Rectangle used) {
+			Array<Rectangle> freeRects = this.freeRects;
+			for (int i = freeRects.size - 1; i >= 0; i--) {
+				Rectangle free = freeRects.get(i);
+				if (used.x >= free.x + free.width || used.x + used.width <= free.x || used.y >= free.y + free.height
+					|| used.y + used.height <= free.y) continue;
+				freeRects.removeIndex(i);
+				if (used.x > free.x) freeRects.add(new Rectangle(free.x, free.y, used.x - free.x, free.height));
+				if (used.x + used.width < free.x + free.width)
+					freeRects.add(new Rectangle(used.x + used.width, free.y, free.x + free.width - used.x - used.width, free.height));
+				if (used.y > free.y) freeRects.add(new Rectangle(free.x, free.y, free.width, used.y - free.y));
+				if (used.y + used.height < free.y + free.height)
+					freeRects.add(new Rectangle(free.x, used.y + used.height, free.width, free.y + free.height - used.y - used.height));
+			}
+
+			for (int i = freeRects.size - 1; i >= 0; i--) {
+				Rectangle rect = freeRects.get(i);
+				for (int j = 0, n = freeRects.size; j < n; j++) {
+					if (i == j) continue;
+					Rectangle other = freeRects.get(j);
+					if (rect.x >= other.x && rect.y >= other.y && rect.x + rect.width <= other.x + other.width
+						&& rect.y + rect.height <= other.y + other.height) {
+						freeRects.removeIndex(i);
+						break;
+					}
+				}
+			}
 		}
 	}
-	
+
 	public class Page {
-		Node root;
+		MaxRects allocator;
 		OrderedMap<String, Rectangle> rects;
 		Pixmap image;
 		Texture texture;
+		/** names and rectangles drawn, names removed and areas changed since the last update, guarded by the packer **/
 		Array<String> addedRects = new Array<String>();
+		Array<Rectangle> addedRegions = new Array<Rectangle>();
+		Array<String> removedRects = new Array<String>();
+		Array<Rectangle> dirtyRects = new Array<Rectangle>();
+		/** copies of the above, only used by the rendering thread while updating **/
+		final Array<String> updateAdded = new Array<String>();
+		final Array<Rectangle> updateRegions = new Array<Rectangle>();
+		final Array<String> updateRemoved = new Array<String>();
+		final Array<Rectangle> updateDirty = new Array<Rectangle>();
 		
 		public Pixmap getPixmap() {
 			return image;
@@ -122,7 +205,12 @@ public class PixmapPacker implements Disposable {
 	final int padding;
 	final boolean duplicateBorder;
 	final Array<Page> pages = new Array<Page>();
-	Page currPage;
+	final ObjectMap<String, Page> pagesByName = new ObjectMap<String, Page>();
+	/** names allocated but not yet drawn **/
+	final ObjectSet<String> packing = new ObjectSet<String>();
+	final PixmapBlitter blitter = new PixmapBlitter();
+	final Array<Page> updatePages = new Array<Page>();
+	ByteBuffer uploadBuffer;
 	boolean disposed;
 
 	/** <p>
@@ -146,120 +234,114 @@ public class PixmapPacker implements Disposable {
 
 	/** <p>
 	 * Inserts the given {@link Pixmap}. You can later on retrieve the images position in the output image via the supplied name and the
-	 * method {@link #getRect(String)}.
+	 * method {@link #getRect(String)}. The image is copied to the page without blending. The pixmap must not be modified or disposed
+	 * before this method returns.
 	 * </p>
 	 * 
 	 * @param name the name of the image
 	 * @param image the image
 	 * @return Rectangle describing the area the pixmap was rendered to or null.
 	 * @throws RuntimeException in case the image did not fit due to the page size being to small or providing a duplicate name */
-	public synchronized Rectangle pack (String name, Pixmap image) {
-		if(disposed) return null;
-		if (getRect(name) != null) throw new RuntimeException("Key with name '" + name + "' is already in map");
+	public Rectangle pack (String name, Pixmap image) {
 		int borderPixels = padding + (duplicateBorder ? 1 : 0);
 		borderPixels <<= 1;
 
 		if(image.getWidth() >= pageWidth + borderPixels|| image.getHeight() >= pageHeight + borderPixels) throw new GdxRuntimeException("page size for '" + name + "' to small");
 
-		Rectangle rect = new Rectangle(0, 0, image.getWidth() + borderPixels, image.getHeight() + borderPixels);
-		Node node = insert(currPage.root, rect);
+		Page page = null;
+		Rectangle area = null, rect;
+		synchronized (this) {
+			if (disposed) return null;
+			if (pagesByName.containsKey(name)) throw new RuntimeException("Key with name '" + name + "' is already in map");
+			int width = image.getWidth() + borderPixels, height = image.getHeight() + borderPixels;
+			for (int i = 0; i < pages.size && area == null; i++) {
+				page = pages.get(i);
+				area = page.allocator.insert(width, height);
+			}
+			if (area == null) {
+				page = newPage();
+				area = page.allocator.insert(width, height);
+				if (area == null) throw new GdxRuntimeException("page size for '" + name + "' to small");
+			}
+			rect = new Rectangle(area);
+			rect.width -= borderPixels;
+			rect.height -= borderPixels;
+			borderPixels >>= 1;
+			rect.x += borderPixels;
+			rect.y += borderPixels;
+			page.rects.put(name, rect);
+			pagesByName.put(name, page);
+			packing.add(name);
+		}
+
+		// the area is owned by this thread until it is added to the page, so no lock is needed while drawing
+		draw(page.image, image, area, (int)rect.x, (int)rect.y);
 
-		if (node == null) {
-			newPage();
-			return pack(name, image);
+		synchronized (this) {
+			packing.remove(name);
+			notifyAll();
+			if (disposed) return null;
+			page.addedRects.add(name);
+			page.addedRegions.add(rect);
+			page.dirtyRects.add(area);
 		}
+		return rect;
+	}
 
-		node.leaveName = name;
-		rect = new Rectangle(node.rect);
-		rect.width -= borderPixels;
-		rect.height -= borderPixels;
-		borderPixels >>= 1;
-		rect.x += borderPixels;
-		rect.y += borderPixels;
-		currPage.rects.put(name, rect);
-
-		Blending blending = Pixmap.getBlending();
-		Pixmap.setBlending(Blending.None);
-		this.currPage.image.drawPixmap(image, (int)rect.x, (int)rect.y);
-		Pixmap.setBlending(blending);
-
-		// not terribly efficient (as the rest of the code) but will do :p
+	private void draw (Pixmap pageImage, Pixmap image, Rectangle area, int x, int y) {
+		PixmapBlitter blitter = this.blitter;
+		// clears what removed images left behind in the padding
+		blitter.fillRectangle(pageImage, (int)area.x, (int)area.y, (int)area.width, (int)area.height, 0, Blending.None);
+		blitter.drawPixmap(image, pageImage, x, y, Blending.None);
 		if (duplicateBorder) {
-			this.currPage.image.drawPixmap(image, (int)rect.x, (int)rect.y - 1, (int)rect.x + (int)rect.width, (int)rect.y, 0, 0, image.getWidth(), 1);
-			this.currPage.image.drawPixmap(image, (int)rect.x, (int)rect.y + (int)rect.height, (int)rect.x + (int)rect.width, (int)rect.y + (int)rect.height + 1, 0,
-				image.getHeight() - 1, image.getWidth(), image.getHeight());
-
-			this.currPage.image.drawPixmap(image, (int)rect.x - 1, (int)rect.y, (int)rect.x, (int)rect.y + (int)rect.height, 0, 0, 1, image.getHeight());
-			this.currPage.image.drawPixmap(image, (int)rect.x + (int)rect.width, (int)rect.y, (int)rect.x + (int)rect.width + 1, (int)rect.y + (int)rect.height, image.getWidth() - 1, 0,
-				image.getWidth(), image.getHeight());
-
-			this.currPage.image.drawPixmap(image, (int)rect.x - 1, (int)rect.y - 1, (int)rect.x, (int)rect.y, 0, 0, 1, 1);
-			this.currPage.image.drawPixmap(image, (int)rect.x + (int)rect.width, (int)rect.y - 1, (int)rect.x + (int)rect.width + 1, (int)rect.y, image.getWidth() - 1, 0,
-				image.getWidth(), 1);
-
-			this.currPage.image.drawPixmap(image, (int)rect.x - 1, (int)rect.y + (int)rect.height, (int)rect.x, (int)rect.y + (int)rect.height + 1, 0, image.getHeight() - 1, 1,
-				image.getHeight());
-			this.currPage.image.drawPixmap(image, (int)rect.x + (int)rect.width, (int)rect.y + (int)rect.height, (int)rect.x + (int)rect.width + 1, (int)rect.y + (int)rect.height + 1,
-				image.getWidth() - 1, image.getHeight() - 1, image.getWidth(), image.getHeight());
+			int width = image.getWidth(), height = image.getHeight();
+			// edges
+			blitter.drawPixmap(image, pageImage, x, y - 1, 0, 0, width, 1, Blending.None);
+			blitter.drawPixmap(image, pageImage, x, y + height, 0, height - 1, width, 1, Blending.None);
+			blitter.drawPixmap(image, pageImage, x - 1, y, 0, 0, 1, height, Blending.None);
+			blitter.drawPixmap(image, pageImage, x + width, y, width - 1, 0, 1, height, Blending.None);
+			// corners
+			blitter.drawPixmap(image, pageImage, x - 1, y - 1, 0, 0, 1, 1, Blending.None);
+			blitter.drawPixmap(image, pageImage, x + width, y - 1, width - 1, 0, 1, 1, Blending.None);
+			blitter.drawPixmap(image, pageImage, x - 1, y + height, 0, height - 1, 1, 1, Blending.None);
+			blitter.drawPixmap(image, pageImage, x + width, y + height, width - 1, height - 1, 1, 1, Blending.None);
 		}
-		currPage.addedRects.add(name);
-		return rect;
+	}
+
+	/** Removes an image, its space is reused by later inserts. A region in a {@link TextureAtlas} updated by
+	 * {@link #updateTextureAtlas(TextureAtlas, TextureFilter, TextureFilter, boolean)} is removed on the next update.
+	 * @return whether an image with the name was packed
+	 * @throws GdxRuntimeException in case the image is still being packed by another thread */
+	public synchronized boolean remove (String name) {
+		if (disposed) return false;
+		if (packing.contains(name)) throw new GdxRuntimeException("'" + name + "' is still being packed");
+		Page page = pagesByName.remove(name);
+		if (page == null) return false;
+		Rectangle rect = page.rects.remove(name);
+		int borderPixels = padding + (duplicateBorder ? 1 : 0);
+		for (int i = 0, n = page.allocator.usedRects.size; i < n; i++) {
+			Rectangle area = page.allocator.usedRects.get(i);
+			if (area.x + borderPixels == rect.x && area.y + borderPixels == rect.y) {
+				page.allocator.remove(area);
+				break;
+			}
+		}
+		int index = page.addedRects.indexOf(name, false);
+		if (index != -1) {
+			page.addedRects.removeIndex(index);
+			page.addedRegions.removeIndex(index);
+		} else
+			page.removedRects.add(name);
+		return true;
 	}
 	
-	private void newPage() {
+	private Page newPage() {
 		Page page = new Page();
 		page.image = new Pixmap(pageWidth, pageHeight, pageFormat);
-		page.root =  new Node(0, 0, pageWidth, pageHeight, null, null, null);
+		page.allocator = new MaxRects(pageWidth, pageHeight);
 		page.rects = new OrderedMap<String, Rectangle>();
 		pages.add(page);
-		currPage = page;
-	}
-
-	private Node insert (Node node, Rectangle rect) {
-		if (node.leaveName == null && node.leftChild != null && node.rightChild != null) {
-			Node newNode = null;
-
-			newNode = insert(node.leftChild, rect);
-			if (newNode == null) newNode = insert(node.rightChild, rect);
-
-			return newNode;
-		} else {
-			if (node.leaveName != null) return null;
-
-			if (node.rect.width == rect.width && node.rect.height == rect.height) return node;
-
-			if (node.rect.width < rect.width || node.rect.height < rect.height) return null;
-
-			node.leftChild = new Node();
-			node.rightChild = new Node();
-
-			int deltaWidth = (int)node.rect.width - (int)rect.width;
-			int deltaHeight = (int)node.rect.height - (int)rect.height;
-
-			if (deltaWidth > deltaHeight) {
-				node.leftChild.rect.x = node.rect.x;
-				node.leftChild.rect.y = node.rect.y;
-				node.leftChild.rect.width = rect.width;
-				node.leftChild.rect.height = node.rect.height;
-
-				node.rightChild.rect.x = node.rect.x + rect.width;
-				node.rightChild.rect.y = node.rect.y;
-				node.rightChild.rect.width = node.rect.width - rect.width;
-				node.rightChild.rect.height = node.rect.height;
-			} else {
-				node.leftChild.rect.x = node.rect.x;
-				node.leftChild.rect.y = node.rect.y;
-				node.leftChild.rect.width = node.rect.width;
-				node.leftChild.rect.height = rect.height;
-
-				node.rightChild.rect.x = node.rect.x;
-				node.rightChild.rect.y = node.rect.y + rect.height;
-				node.rightChild.rect.width = node.rect.width;
-				node.rightChild.rect.height = node.rect.height - rect.height;
-			}
-
-			return insert(node.leftChild, rect);
-		}
+		return page;
 	}
 
 	/** @return the {@link Page} instances created so far. This method is not thread safe! */
@@ -272,11 +354,8 @@ public class PixmapPacker implements Disposable {
 	 * @return the rectangle for the image in the page it's stored in or null
 	 */
 	public synchronized Rectangle getRect(String name) {
-		for(Page page: pages) {
-			Rectangle rect = page.rects.get(name);
-			if(rect != null) return rect;
-		}
-		return null;
+		Page page = pagesByName.get(name);
+		return page == null ? null : page.rects.get(name);
 	}
 	
 	/**
@@ -284,11 +363,7 @@ public class PixmapPacker implements Disposable {
 	 * @return the page the image is stored in or null
 	 */
 	public synchronized Page getPage(String name) {
-		for(Page page: pages) {
-			Rectangle rect = page.rects.get(name);
-			if(rect != null) return page;
-		}
-		return null;
+		return pagesByName.get(name);
 	}
 	
 	/**
@@ -297,7 +372,7 @@ public class PixmapPacker implements Disposable {
 	 * any {@link TextureAtlas} generated or updated by either {@link #generateTextureAtlas(TextureFilter, TextureFilter, boolean)}
 	 * or {@link #updateTextureAtlas(TextureAtlas, TextureFilter, TextureFilter, boolean)}. Do
 	 * not call this method if you generated or updated a TextureAtlas, instead
-	 * dispose the TextureAtlas.
+	 * dispose the TextureAtlas. Images still being packed by other threads must be finished first.
 	 */
 	public synchronized void dispose() {
 		for(Page page: pages) {
@@ -307,12 +382,27 @@ public class PixmapPacker implements Disposable {
 	}
 
 	/**
-	 * Generates a new {@link TextureAtlas} from the {@link Pixmap} instances inserted so far.
+	 * Generates a new {@link TextureAtlas} from the {@link Pixmap} instances inserted so far. Waits for images that other threads
+	 * are packing when this method is called, images whose packing starts later are not part of the atlas.
 	 * @param minFilter
 	 * @param magFilter
 	 * @return the TextureAtlas
 	 */
 	public synchronized TextureAtlas generateTextureAtlas (TextureFilter minFilter, TextureFilter magFilter, boolean useMipMaps) {
+		Array<String> waitFor = new Array<String>();
+		for (String name : packing)
+			waitFor.add(name);
+		for (int i = 0; i < waitFor.size; i++) {
+			// wait() releases the lock, so the packing threads can finish
+			while (packing.contains(waitFor.get(i))) {
+				try {
+					wait();
+				} catch (InterruptedException ex) {
+					throw new GdxRuntimeException("interrupted while waiting for images being packed", ex);
+				}
+			}
+		}
+
 		TextureAtlas atlas = new TextureAtlas();
 		for(Page page: pages) {
 			if(page.rects.size != 0) {
@@ -326,6 +416,8 @@ public class PixmapPacker implements Disposable {
 				
 				Keys<String> names = page.rects.keys();
 				for(String name: names) {
+					// still being drawn, a region would show a partial image that is never uploaded to this texture
+					if (packing.contains(name)) continue;
 					Rectangle rect = page.rects.get(name);
 					TextureRegion region = new TextureRegion(texture, (int)rect.x, (int)rect.y, (int)rect.width, (int)rect.height);
 					atlas.addRegion(name, region);
@@ -336,43 +428,100 @@ public class PixmapPacker implements Disposable {
 	}
 
 	/**
-	 * Updates the given {@link TextureAtlas}, adding any new {@link Pixmap} instances packed since the last
-	 * call to this method. This can be used to insert Pixmap instances on a separate thread via {@link #pack(String, Pixmap)}
+	 * Updates the given {@link TextureAtlas}, adding any new {@link Pixmap} instances packed and removing those removed since the last
+	 * call to this method. Only the changed areas of existing pages are uploaded, unless mipmaps are used, in which case the whole
+	 * page is uploaded. This can be used to insert Pixmap instances on a separate thread via {@link #pack(String, Pixmap)}
 	 * and update the TextureAtlas on the rendering thread. This method must be called on the rendering thread.
 	 */
-	public synchronized void updateTextureAtlas(TextureAtlas atlas, TextureFilter minFilter, TextureFilter magFilter, boolean useMipMaps) {
-		for(Page page: pages) {
-			if(page.texture == null) {
-				if(page.rects.size != 0 && page.addedRects.size > 0) {
-					 page.texture = new Texture(new ManagedPixmapTextureData(page.image, page.image.getFormat(), useMipMaps)) {
+	public void updateTextureAtlas(TextureAtlas atlas, TextureFilter minFilter, TextureFilter magFilter, boolean useMipMaps) {
+		Array<Page> updatePages = this.updatePages;
+		synchronized (this) {
+			if (disposed) return;
+			for (Page page : pages) {
+				if (page.addedRects.size == 0 && page.removedRects.size == 0 && page.dirtyRects.size == 0) continue;
+				page.updateAdded.addAll(page.addedRects);
+				page.updateRegions.addAll(page.addedRegions);
+				page.updateRemoved.addAll(page.removedRects);
+				page.updateDirty.addAll(page.dirtyRects);
+				page.addedRects.clear();
+				page.addedRegions.clear();
+				page.removedRects.clear();
+				page.dirtyRects.clear();
+				updatePages.add(page);
+			}
+		}
+
+		for (Page page : updatePages) {
+			if (page.texture == null) {
+				if (page.updateAdded.size > 0) {
+					page.texture = new Texture(new ManagedPixmapTextureData(page.image, page.image.getFormat(), useMipMaps)) {
 						@Override
 						public void dispose () {
 							super.dispose();
-							
+
 						}
 					};
 					page.texture.setFilter(minFilter, magFilter);
-					
-					for(String name: page.addedRects) {
-						Rectangle rect = page.rects.get(name);
-						TextureRegion region = new TextureRegion(page.texture, (int)rect.x, (int)rect.y, (int)rect.width, (int)rect.height);
-						atlas.addRegion(name, region);
-					}
-					page.addedRects.clear();
 				}
-			} else {
-				if(page.addedRects.size > 0) {
+			} else if (page.updateDirty.size > 0) {
+				if (useMipMaps)
 					page.texture.load(page.texture.getTextureData());
-					for(String name: page.addedRects) {
-						Rectangle rect = page.rects.get(name);
-						TextureRegion region = new TextureRegion(page.texture, (int)rect.x, (int)rect.y, (int)rect.width, (int)rect.height);
-						atlas.addRegion(name, region);
+				else {
+					for (Rectangle rect : page.updateDirty)
+						upload(page, rect);
+				}
+			}
+
+			if (page.texture != null) {
+				Array<AtlasRegion> regions = atlas.getRegions();
+				for (String name : page.updateRemoved) {
+					for (int i = regions.size - 1; i >= 0; i--) {
+						AtlasRegion region = regions.get(i);
+						if (region.getTexture() == page.texture && region.name.equals(name)) regions.removeIndex(i);
 					}
-					page.addedRects.clear();
-					return;
+				}
+				for (int i = 0; i < page.updateAdded.size; i++) {
+					Rectangle rect = page.updateRegions.get(i);
+					TextureRegion region = new TextureRegion(page.texture, (int)rect.x, (int)rect.y, (int)rect.width, (int)rect.height);
+					atlas.addRegion(page.updateAdded.get(i), region);
 				}
 			}
+			page.updateAdded.clear();
+			page.updateRegions.clear();
+			page.updateRemoved.clear();
+			page.updateDirty.clear();
 		}
+		updatePages.clear();
+	}
+
+	/** Uploads an area of the page to its texture. Rows spanning the whole page are uploaded directly from the pixmap, others are
+	 * copied to a tightly packed buffer first. */
+	private void upload (Page page, Rectangle rect) {
+		Pixmap image = page.image;
+		int x = (int)rect.x, y = (int)rect.y, width = (int)rect.width, height = (int)rect.height;
+		int pixelSize = PixmapBlitter.getPixelSize(Format.toGdx2DPixmapFormat(image.getFormat()));
+		int pitch = pageWidth * pixelSize, rowSize = width * pixelSize;
+		ByteBuffer pixels = image.getPixels().duplicate();
+		ByteBuffer buffer;
+		if (width == pageWidth) {
+			pixels.limit(pitch * (y + height)).position(pitch * y);
+			buffer = pixels;
+		} else {
+			if (uploadBuffer == null || uploadBuffer.capacity() < rowSize * height)
+				uploadBuffer = BufferUtils.newByteBuffer(Math.max(rowSize * height, pitch * 16));
+			buffer = uploadBuffer;
+			buffer.clear();
+			for (int row = 0; row < height; row++) {
+				int position = (y + row) * pitch + x * pixelSize;
+				pixels.limit(position + rowSize).position(position);
+				buffer.put(pixels);
+			}
+			buffer.flip();
+		}
+
+		page.texture.bind();
+		Gdx.gl.glPixelStorei(GL10.GL_UNPACK_ALIGNMENT, 1);
+		Gdx.gl.glTexSubImage2D(GL10.GL_TEXTURE_2D, 0, x, y, width, height, image.getGLFormat(), image.getGLType(), buffer);
 	}
 	
 	public int getPageWidth () {
@@ -5,7 +5,9 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.PolygonTriangulator;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ShortArray;
 
 /** 
  * Defines a polygon shape on top of a #TextureRegion for minimising pixel drawing. Can either be 
@@ -46,7 +48,23 @@ public class PolygonRegion {
 	 * @param vertices contains 2D polygon coordinates in pixels relative to source region
 	 */
 	public PolygonRegion(TextureRegion region, float[] vertices) {
-		
+		this.region = region;
+		if(vertices == null)
+			throw new IllegalArgumentException("vertices cannot be null.");
+		ShortArray triangles = new PolygonTriangulator().computeTriangles(vertices, new ShortArray());
+		localVertices = new float[triangles.size * 2];
+		float localTexCoords[] = new float[triangles.size * 2];
+		float width = region.getRegionWidth();
+		float height = region.getRegionHeight();
+		for(int i=0; i<triangles.size; i++){
+			int index = triangles.items[i] * 2;
+			localVertices[i*2] = vertices[index];
+			localVertices[i*2+1] = vertices[index+1];
+			// uvs have their origin top-left
+			localTexCoords[i*2] = vertices[index] / width;
+			localTexCoords[i*2+1] = 1 - vertices[index+1] / height;
+		}
+		texCoords = calculateAtlasTexCoords(localTexCoords);
 	}
 
 	
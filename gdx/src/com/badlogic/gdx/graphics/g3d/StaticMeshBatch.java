@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** <p>
+ * Merges many static {@link Mesh} instances into a few large meshes so they can be drawn with a handful of draw calls instead of
+ * one call per mesh. Each added mesh is transformed into world space when the batch is built, positions via
+ * {@link Matrix4#mulVec(float[], float[], int, int, int)} and normals via the inverse transpose of the transform. The same mesh
+ * can be added multiple times with different transforms, e.g. for a forest of trees.
+ * </p>
+ * 
+ * <p>
+ * All meshes must have the same {@link VertexAttributes} as the batch and are expected to be triangle (or line/point) lists. The
+ * batch doesn't know about materials, use one batch per material. The merged meshes use 16-bit indices, so a new merged mesh is
+ * started whenever 65536 vertices are exceeded.
+ * </p>
+ * 
+ * <p>
+ * Every added mesh becomes a part with its own world space {@link BoundingBox}. {@link #render(ShaderProgram, int, Frustum)}
+ * only draws the parts in the frustum, consecutive visible parts are drawn with a single call.
+ * </p> */
+public class StaticMeshBatch implements Disposable {
+	static final int MAX_VERTICES = 65536;
+
+	final VertexAttributes attributes;
+	final Array<Mesh> sources = new Array<Mesh>();
+	final Array<Matrix4> transforms = new Array<Matrix4>();
+	final Array<Part> parts = new Array<Part>();
+	final Array<Mesh> meshes = new Array<Mesh>();
+	boolean built;
+
+	/** number of draw calls issued by the last call to one of the render methods **/
+	public int renderCalls;
+
+	/** @param attributes the vertex attributes all added meshes have to share */
+	public StaticMeshBatch (VertexAttributes attributes) {
+		this.attributes = attributes;
+	}
+
+	/** Adds a mesh with the given world transform. The mesh's vertices are read when {@link #build()} is called, so it must not be
+	 * disposed before.
+	 * @return the index of the part */
+	public int add (Mesh mesh, Matrix4 transform) {
+		if (built) throw new GdxRuntimeException("Batch has already been built");
+		checkAttributes(mesh.getVertexAttributes());
+		sources.add(mesh);
+		transforms.add(new Matrix4(transform));
+		return sources.size - 1;
+	}
+
+	private void checkAttributes (VertexAttributes other) {
+		if (other.vertexSize != attributes.vertexSize || other.size() != attributes.size())
+			throw new IllegalArgumentException("mesh has different vertex attributes than the batch");
+		for (int i = 0; i < attributes.size(); i++)
+			if (!attributes.get(i).equals(other.get(i)))
+				throw new IllegalArgumentException("mesh has different vertex attributes than the batch");
+	}
+
+	/** Merges all added meshes. After this call no more meshes can be added and the added meshes can be disposed. */
+	public void build () {
+		if (built) throw new GdxRuntimeException("Batch has already been built");
+		built = true;
+
+		int vertexSize = attributes.vertexSize / 4;
+		VertexAttribute position = findAttribute(Usage.Position);
+		VertexAttribute normal = findAttribute(Usage.Normal);
+		Matrix4 normalMatrix = new Matrix4();
+
+		int start = 0;
+		while (start < sources.size) {
+			// gather as many parts as fit into one 16-bit indexed mesh
+			int end = start, numVertices = 0, numIndices = 0;
+			while (end < sources.size) {
+				Mesh mesh = sources.get(end);
+				if (mesh.getNumVertices() > MAX_VERTICES) throw new GdxRuntimeException("mesh has more than 65536 vertices");
+				if (numVertices + mesh.getNumVertices() > MAX_VERTICES) break;
+				numVertices += mesh.getNumVertices();
+				numIndices += mesh.getNumIndices() > 0 ? mesh.getNumIndices() : mesh.getNumVertices();
+				end++;
+			}
+
+			float[] vertices = new float[numVertices * vertexSize];
+			short[] indices = new short[numIndices];
+			int vertexOffset = 0, indexOffset = 0;
+			for (int i = start; i < end; i++) {
+				Mesh mesh = sources.get(i);
+				Matrix4 transform = transforms.get(i);
+				int count = mesh.getNumVertices();
+				int base = vertexOffset * vertexSize;
+
+				float[] tmp = new float[count * vertexSize];
+				mesh.getVertices(tmp);
+				System.arraycopy(tmp, 0, vertices, base, tmp.length);
+
+				transformPositions(vertices, base + position.offset / 4, count, vertexSize, position.numComponents, transform);
+				if (normal != null) {
+					normalMatrix.set(transform).inv().tra();
+					transformNormals(vertices, base + normal.offset / 4, count, vertexSize, normalMatrix);
+				}
+
+				Part part = new Part();
+				part.mesh = meshes.size;
+				part.offset = indexOffset;
+				part.bounds.inf();
+				for (int v = 0, idx = base + position.offset / 4; v < count; v++, idx += vertexSize)
+					part.bounds.ext(vertices[idx], position.numComponents > 1 ? vertices[idx + 1] : 0,
+						position.numComponents > 2 ? vertices[idx + 2] : 0);
+
+				if (mesh.getNumIndices() > 0) {
+					int numMeshIndices = mesh.getNumIndices();
+					short[] meshIndices = new short[numMeshIndices];
+					mesh.getIndices(meshIndices);
+					for (int j = 0; j < numMeshIndices; j++)
+						indices[indexOffset++] = (short)((meshIndices[j] & 0xffff) + vertexOffset);
+				} else {
+					for (int j = 0; j < count; j++)
+						indices[indexOffset++] = (short)(vertexOffset + j);
+				}
+				part.count = indexOffset - part.offset;
+				parts.add(part);
+				vertexOffset += count;
+			}
+
+			Mesh merged = new Mesh(true, numVertices, numIndices, attributes);
+			merged.setVertices(vertices);
+			merged.setIndices(indices);
+			merged.setAutoBind(false);
+			meshes.add(merged);
+			start = end;
+		}
+
+		sources.clear();
+		transforms.clear();
+	}
+
+	private VertexAttribute findAttribute (int usage) {
+		for (int i = 0; i < attributes.size(); i++)
+			if (attributes.get(i).usage == usage) return attributes.get(i);
+		return null;
+	}
+
+	private static void transformPositions (float[] vertices, int offset, int count, int stride, int numComponents,
+		Matrix4 transform) {
+		if (numComponents == 3) {
+			Matrix4.mulVec(transform.val, vertices, offset, count, stride);
+			return;
+		}
+		// mulVec expects three components, 2D positions are transformed in place with z = 0
+		float[] m = transform.val;
+		for (int i = 0, idx = offset; i < count; i++, idx += stride) {
+			float x = vertices[idx], y = numComponents > 1 ? vertices[idx + 1] : 0;
+			vertices[idx] = x * m[Matrix4.M00] + y * m[Matrix4.M01] + m[Matrix4.M03];
+			if (numComponents > 1) vertices[idx + 1] = x * m[Matrix4.M10] + y * m[Matrix4.M11] + m[Matrix4.M13];
+		}
+	}
+
+	private static void transformNormals (float[] vertices, int offset, int count, int stride, Matrix4 normalMatrix) {
+		Matrix4.rot(normalMatrix.val, vertices, offset, count, stride);
+		for (int i = 0, idx = offset; i < count; i++, idx += stride) {
+			float x = vertices[idx], y = vertices[idx + 1], z = vertices[idx + 2];
+			float len = (float)Math.sqrt(x * x + y * y + z * z);
+			if (len == 0) continue;
+			vertices[idx] = x / len;
+			vertices[idx + 1] = y / len;
+			vertices[idx + 2] = z / len;
+		}
+	}
+
+	/** @return the number of parts, one per added mesh */
+	public int getNumParts () {
+		return parts.size;
+	}
+
+	/** @return the world space bounds of the given part, only valid after {@link #build()} */
+	public BoundingBox getBounds (int part) {
+		return parts.get(part).bounds;
+	}
+
+	/** @return the merged meshes, only valid after {@link #build()} */
+	public Array<Mesh> getMeshes () {
+		return meshes;
+	}
+
+	/** Renders all parts with OpenGL ES 2.0. Must be called between {@link ShaderProgram#begin()} and {@link ShaderProgram#end()}. */
+	public void render (ShaderProgram shader, int primitiveType) {
+		render(shader, primitiveType, null);
+	}
+
+	/** Renders all parts whose bounds are in the frustum with OpenGL ES 2.0. Must be called between {@link ShaderProgram#begin()}
+	 * and {@link ShaderProgram#end()}.
+	 * @param frustum the frustum to cull against or null to render all parts */
+	public void render (ShaderProgram shader, int primitiveType, Frustum frustum) {
+		if (!built) throw new GdxRuntimeException("Batch has not been built");
+		renderCalls = 0;
+		int partIndex = 0;
+		for (int i = 0; i < meshes.size; i++) {
+			Mesh mesh = meshes.get(i);
+			boolean bound = false;
+			int offset = 0, count = 0;
+			for (; partIndex < parts.size && parts.get(partIndex).mesh == i; partIndex++) {
+				Part part = parts.get(partIndex);
+				if (frustum != null && !frustum.boundsInFrustum(part.bounds)) continue;
+				if (count > 0 && offset + count == part.offset) {
+					count += part.count;
+					continue;
+				}
+				if (count > 0) {
+					if (!bound) {
+						mesh.bind(shader);
+						bound = true;
+					}
+					mesh.render(shader, primitiveType, offset, count);
+					renderCalls++;
+				}
+				offset = part.offset;
+				count = part.count;
+			}
+			if (count > 0) {
+				if (!bound) {
+					mesh.bind(shader);
+					bound = true;
+				}
+				mesh.render(shader, primitiveType, offset, count);
+				renderCalls++;
+			}
+			if (bound) mesh.unbind(shader);
+		}
+	}
+
+	/** Renders all parts with OpenGL ES 1.x. */
+	public void render (int primitiveType) {
+		render(primitiveType, null);
+	}
+
+	/** Renders all parts whose bounds are in the frustum with OpenGL ES 1.x.
+	 * @param frustum the frustum to cull against or null to render all parts */
+	public void render (int primitiveType, Frustum frustum) {
+		if (!built) throw new GdxRuntimeException("Batch has not been built");
+		renderCalls = 0;
+		int partIndex = 0;
+		for (int i = 0; i < meshes.size; i++) {
+			Mesh mesh = meshes.get(i);
+			boolean bound = false;
+			int offset = 0, count = 0;
+			for (; partIndex < parts.size && parts.get(partIndex).mesh == i; partIndex++) {
+				Part part = parts.get(partIndex);
+				if (frustum != null && !frustum.boundsInFrustum(part.bounds)) continue;
+				if (count > 0 && offset + count == part.offset) {
+					count += part.count;
+					continue;
+				}
+				if (count > 0) {
+					if (!bound) {
+						mesh.bind();
+						bound = true;
+					}
+					mesh.render(primitiveType, offset, count);
+					renderCalls++;
+				}
+				offset = part.offset;
+				count = part.count;
+			}
+			if (count > 0) {
+				if (!bound) {
+					mesh.bind();
+					bound = true;
+				}
+				mesh.render(primitiveType, offset, count);
+				renderCalls++;
+			}
+			if (bound) mesh.unbind();
+		}
+	}
+
+	/** Disposes the merged meshes. */
+	public void dispose () {
+		for (int i = 0; i < meshes.size; i++)
+			meshes.get(i).dispose();
+		meshes.clear();
+	}
+
+	static class Part {
+		int mesh;
+		int offset;
+		int count;
+		final BoundingBox bounds = new BoundingBox();
+	}
+}
@@ -16,8 +16,6 @@
 
 package com.badlogic.gdx.graphics.g3d.decals;
 
-import java.util.Comparator;
-
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.GL10;
@@ -26,6 +24,7 @@ import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.RadixSort;
 
 /** <p>
  * Minimalistic grouping strategy that splits decals into opaque and transparent ones enabling and disabling blending as needed.
@@ -93,14 +92,8 @@ public class CameraGroupStrategy implements GroupStrategy, Disposable {
 
 	Camera camera;
 	ShaderProgram shader;
-	private final Comparator<Decal> cameraSorter = new Comparator<Decal>() {
-		@Override
-		public int compare (Decal o1, Decal o2) {
-			float dist1 = camera.position.dst2(o1.position);
-			float dist2 = camera.position.dst2(o2.position);
-			return (int)Math.signum(dist2 - dist1);
-		}
-	};
+	/** the negated squared distances of the blended decals to the camera, the sort keys for back to front order **/
+	private float[] distances = new float[16];
 
 	public CameraGroupStrategy (Camera camera) {
 		this.camera = camera;
@@ -124,7 +117,7 @@ public class CameraGroupStrategy implements GroupStrategy, Disposable {
 	public void beforeGroup (int group, Array<Decal> contents) {
 		if (group == GROUP_BLEND) {
 			Gdx.gl.glEnable(GL10.GL_BLEND);
-			contents.sort(cameraSorter);
+			sortByDistance(contents);
 		} else {
 			for (int i = 0, n = contents.size; i < n; i++) {
 				Decal decal = contents.get(i);
@@ -149,6 +142,16 @@ public class CameraGroupStrategy implements GroupStrategy, Disposable {
 		}
 	}
 
+	private void sortByDistance (Array<Decal> contents) {
+		int n = contents.size;
+		if (distances.length < n) distances = new float[Math.max(n, distances.length << 1)];
+		float[] distances = this.distances;
+		Object[] items = contents.items;
+		for (int i = 0; i < n; i++)
+			distances[i] = -camera.position.dst2(((Decal)items[i]).position);
+		RadixSort.instance().sort(items, distances, 0, n);
+	}
+
 	@Override
 	public void afterGroup (int group) {
 		if (group == GROUP_BLEND) {
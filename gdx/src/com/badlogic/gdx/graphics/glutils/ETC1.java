@@ -19,6 +19,8 @@ package com.badlogic.gdx.graphics.glutils;
 import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -26,6 +28,7 @@ import java.util.zip.GZIPOutputStream;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
@@ -61,14 +64,7 @@ public class ETC1 {
 			DataInputStream in = null;
 			try {
 				in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(pkmFile.read())));
-				int fileSize = in.readInt();
-				compressedData = BufferUtils.newUnsafeByteBuffer(fileSize);
-				int readBytes = 0;
-				while ((readBytes = in.read(buffer)) != -1) {
-					compressedData.put(buffer, 0, readBytes);
-				}
-				compressedData.position(0);
-				compressedData.limit(compressedData.capacity());
+				compressedData = read(in, buffer);
 			} catch (Exception e) {
 				throw new GdxRuntimeException("Couldn't load pkm file '" + pkmFile + "'", e);
 			} finally {
@@ -84,6 +80,27 @@ public class ETC1 {
 			compressedData.position(dataOffset);
 		}
 
+		/** Reads the PKM header and compressed data of one image written by {@link #write(FileHandle)}. Reads exactly the bytes
+		 * of that image, so further images may follow in the stream, see {@link ETC1#readMipMapsPKM(FileHandle)}. */
+		static ByteBuffer read (DataInputStream in, byte[] buffer) throws IOException {
+			int fileSize = in.readInt();
+			ByteBuffer compressedData = BufferUtils.newUnsafeByteBuffer(fileSize);
+			try {
+				for (int remaining = fileSize; remaining > 0;) {
+					int readBytes = in.read(buffer, 0, Math.min(remaining, buffer.length));
+					if (readBytes == -1) throw new EOFException();
+					compressedData.put(buffer, 0, readBytes);
+					remaining -= readBytes;
+				}
+			} catch (IOException e) {
+				BufferUtils.disposeUnsafeByteBuffer(compressedData);
+				throw e;
+			}
+			compressedData.position(0);
+			compressedData.limit(compressedData.capacity());
+			return compressedData;
+		}
+
 		/** @return whether this ETC1Data has a PKM header */
 		public boolean hasPKMHeader () {
 			return dataOffset == 16;
@@ -159,6 +176,40 @@ public class ETC1 {
 		return new ETC1Data(pixmap.getWidth(), pixmap.getHeight(), compressedData, 16);
 	}
 
+	/** Reads all images of a PKM file, e.g. the mipmap levels written by
+	 * {@link ETC1Encoder#encodeMipMapsPKM(Pixmap, ETC1Encoder.Quality, FileHandle)}. A file written by
+	 * {@link ETC1Data#write(FileHandle)} yields a single image.
+	 * @param pkmFile the file
+	 * @return the {@link ETC1Data} of each image, largest first, which have to be disposed */
+	public static Array<ETC1Data> readMipMapsPKM (FileHandle pkmFile) {
+		Array<ETC1Data> levels = new Array<ETC1Data>();
+		byte[] buffer = new byte[1024 * 10];
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(pkmFile.read())));
+			while (true) {
+				in.mark(1);
+				if (in.read() == -1) break;
+				in.reset();
+				ByteBuffer compressedData = ETC1Data.read(in, buffer);
+				int width = getWidthPKM(compressedData, 0);
+				int height = getHeightPKM(compressedData, 0);
+				compressedData.position(PKM_HEADER_SIZE);
+				levels.add(new ETC1Data(width, height, compressedData, PKM_HEADER_SIZE));
+			}
+		} catch (Exception e) {
+			for (int i = 0; i < levels.size; i++)
+				levels.get(i).dispose();
+			throw new GdxRuntimeException("Couldn't load pkm file '" + pkmFile + "'", e);
+		} finally {
+			if (in != null) try {
+				in.close();
+			} catch (Exception e) {
+			}
+		}
+		return levels;
+	}
+
 	/** Takes ETC1 compressed image data and converts it to a {@link Format#RGB565} or {@link Format#RGB888} {@link Pixmap}. Does
 	 * not modify the ByteBuffer's position or limit.
 	 * @param etc1Data the {@link ETC1Data} instance
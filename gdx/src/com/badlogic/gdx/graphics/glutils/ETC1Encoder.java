@@ -0,0 +1,577 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.glutils.ETC1.ETC1Data;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** <p>
+ * Encodes {@link Pixmap}s to ETC1 in Java, with a choice between speed and quality. {@link Quality#Medium} produces the same
+ * data as {@link ETC1#encodeImage(Pixmap)}. Like there, only {@link Format#RGB565} and {@link Format#RGB888} are supported.
+ * </p>
+ * 
+ * <p>
+ * ETC1 blocks are encoded independently, so if the encoder was created with more than one thread, images with at least
+ * {@link #parallelThreshold} blocks are split into stripes of whole block rows, one per thread. The pool must be released with
+ * {@link #dispose()}.
+ * </p>
+ * 
+ * <p>
+ * {@link #encodeMipMapsPKM(Pixmap, Quality, FileHandle)} writes a complete mipmap chain to a file, one level at a time. Such a
+ * file can still be read by {@link ETC1Data#ETC1Data(FileHandle)}, which reads the first level, and {@link ETC1TextureData}
+ * uploads the levels instead of generating mipmaps.
+ * </p> */
+public class ETC1Encoder implements Disposable {
+	/** Speed and quality of the encoding. **/
+	public enum Quality {
+		/** Tries only the sub-block orientation that fits the block best, faster than Medium but slightly worse. **/
+		Fast,
+		/** Tries both orientations with the average color of each sub-block as base color, like {@link ETC1}. **/
+		Medium,
+		/** Like Medium, then searches for better base colors in both the individual and the differential mode. An order of
+		 * magnitude slower than Medium. **/
+		High
+	}
+
+	static final int[] modifierTable = { //
+	2, 8, -2, -8, //
+		5, 17, -5, -17, //
+		9, 29, -9, -29, //
+		13, 42, -13, -42, //
+		18, 60, -18, -60, //
+		24, 80, -24, -80, //
+		33, 106, -33, -106, //
+		47, 183, -47, -183};
+	static final int[] yMask = {0x0, 0xf, 0xff, 0xfff, 0xffff};
+	static final int[] xMask = {0x0, 0x1111, 0x3333, 0x7777, 0xffff};
+
+	/** images with fewer blocks are always encoded on the calling thread **/
+	public int parallelThreshold = 1024;
+
+	private final ExecutorService executor;
+	private final List<Worker> workers;
+	private final Worker worker;
+
+	/** Creates an encoder that encodes all blocks on the calling thread. */
+	public ETC1Encoder () {
+		this(1);
+	}
+
+	/** @param threads the number of worker threads used for large images, e.g.
+	 *           <code>Runtime.getRuntime().availableProcessors()</code>. 1 encodes all blocks on the calling thread. */
+	public ETC1Encoder (int threads) {
+		worker = new Worker();
+		if (threads > 1) {
+			workers = new ArrayList<Worker>(threads);
+			for (int i = 0; i < threads; i++)
+				workers.add(new Worker());
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				@Override
+				public Thread newThread (Runnable r) {
+					Thread thread = new Thread(r, "ETC1Encoder-Worker-Thread");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		} else {
+			workers = null;
+			executor = null;
+		}
+	}
+
+	/** @param width the width in pixels
+	 * @param height the height in pixels
+	 * @return the number of bytes needed to store the compressed data, same as {@link ETC1#getCompressedDataSize(int, int)} */
+	public static int getCompressedDataSize (int width, int height) {
+		return ((width + 3) >> 2) * ((height + 3) >> 2) * 8;
+	}
+
+	/** Encodes the image.
+	 * @return the {@link ETC1Data}, which has to be disposed */
+	public ETC1Data encodeImage (Pixmap pixmap, Quality quality) {
+		int width = pixmap.getWidth(), height = pixmap.getHeight();
+		ByteBuffer compressedData = BufferUtils.newUnsafeByteBuffer(getCompressedDataSize(width, height));
+		encodeImage(pixmap, quality, compressedData, 0);
+		return new ETC1Data(width, height, compressedData, 0);
+	}
+
+	/** Encodes the image and adds a PKM header in front of the compressed image data.
+	 * @return the {@link ETC1Data}, which has to be disposed */
+	public ETC1Data encodeImagePKM (Pixmap pixmap, Quality quality) {
+		int width = pixmap.getWidth(), height = pixmap.getHeight();
+		ByteBuffer compressedData = BufferUtils.newUnsafeByteBuffer(getCompressedDataSize(width, height)
+			+ ETC1.PKM_HEADER_SIZE);
+		ETC1.formatHeader(compressedData, 0, width, height);
+		encodeImage(pixmap, quality, compressedData, ETC1.PKM_HEADER_SIZE);
+		compressedData.position(ETC1.PKM_HEADER_SIZE);
+		return new ETC1Data(width, height, compressedData, ETC1.PKM_HEADER_SIZE);
+	}
+
+	/** Encodes the image to the buffer. Does not modify the position or limit of the buffer.
+	 * @param compressedData receives the compressed data, must have room for {@link #getCompressedDataSize(int, int)} bytes
+	 *           after offset
+	 * @param offset the offset in bytes to the compressed data */
+	public void encodeImage (Pixmap pixmap, Quality quality, ByteBuffer compressedData, int offset) {
+		int pixelSize;
+		if (pixmap.getFormat() == Format.RGB565)
+			pixelSize = 2;
+		else if (pixmap.getFormat() == Format.RGB888)
+			pixelSize = 3;
+		else
+			throw new GdxRuntimeException("Can only handle RGB565 or RGB888 images");
+		int width = pixmap.getWidth(), height = pixmap.getHeight();
+		int blockRows = (height + 3) >> 2, blockColumns = (width + 3) >> 2;
+		ByteBuffer pixels = pixmap.getPixels();
+
+		if (executor == null || blockRows * blockColumns < parallelThreshold) {
+			worker.set(quality, pixels, pixelSize, width, height, compressedData, offset, 0, blockRows);
+			worker.call();
+			return;
+		}
+
+		List<Worker> workers = this.workers;
+		int threads = workers.size();
+		int stripe = (blockRows + threads - 1) / threads;
+		for (int i = 0; i < threads; i++) {
+			int start = Math.min(blockRows, i * stripe), end = Math.min(blockRows, start + stripe);
+			workers.get(i).set(quality, pixels, pixelSize, width, height, compressedData, offset, start, end);
+		}
+		try {
+			List<Future<Object>> results = executor.invokeAll(workers);
+			for (int i = 0; i < threads; i++)
+				results.get(i).get();
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException("interrupted while encoding", e);
+		} catch (ExecutionException e) {
+			throw new GdxRuntimeException("couldn't encode image", e.getCause());
+		}
+	}
+
+	/** Encodes the image and every smaller mipmap level down to 1x1 and writes them to the file, one level at a time. Each level
+	 * is stored with a PKM header the same way {@link ETC1Data#write(FileHandle)} stores a single image, so only the first
+	 * level is read by {@link ETC1Data#ETC1Data(FileHandle)}. All levels are read by {@link ETC1#readMipMapsPKM(FileHandle)}.
+	 * The levels are generated with {@link MipMapGenerator#generateLevel(Pixmap)}, the pixmap is not disposed. */
+	public void encodeMipMapsPKM (Pixmap pixmap, Quality quality, FileHandle file) {
+		ByteBuffer compressedData = BufferUtils.newUnsafeByteBuffer(getCompressedDataSize(pixmap.getWidth(), pixmap.getHeight())
+			+ ETC1.PKM_HEADER_SIZE);
+		byte[] buffer = new byte[10 * 1024];
+		DataOutputStream out = null;
+		Pixmap level = pixmap;
+		try {
+			out = new DataOutputStream(new GZIPOutputStream(file.write(false)));
+			while (true) {
+				int width = level.getWidth(), height = level.getHeight();
+				int size = getCompressedDataSize(width, height) + ETC1.PKM_HEADER_SIZE;
+				ETC1.formatHeader(compressedData, 0, width, height);
+				encodeImage(level, quality, compressedData, ETC1.PKM_HEADER_SIZE);
+				out.writeInt(size);
+				compressedData.position(0);
+				for (int written = 0; written < size;) {
+					int bytesToWrite = Math.min(size - written, buffer.length);
+					compressedData.get(buffer, 0, bytesToWrite);
+					out.write(buffer, 0, bytesToWrite);
+					written += bytesToWrite;
+				}
+				if (width == 1 && height == 1) break;
+				Pixmap next = MipMapGenerator.generateLevel(level);
+				if (level != pixmap) level.dispose();
+				level = next;
+			}
+		} catch (Exception e) {
+			throw new GdxRuntimeException("Couldn't write PKM file to '" + file + "'", e);
+		} finally {
+			if (level != pixmap) level.dispose();
+			BufferUtils.disposeUnsafeByteBuffer(compressedData);
+			if (out != null) try {
+				out.close();
+			} catch (Exception e) {
+			}
+		}
+	}
+
+	/** Shuts down the worker threads. */
+	@Override
+	public void dispose () {
+		if (executor == null) return;
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException("Couldn't shutdown encoding threads", e);
+		}
+	}
+
+	static int convert4To8 (int b) {
+		int c = b & 0xf;
+		return (c << 4) | c;
+	}
+
+	static int convert5To8 (int b) {
+		int c = b & 0x1f;
+		return (c << 3) | (c >> 2);
+	}
+
+	static int convert6To8 (int b) {
+		int c = b & 0x3f;
+		return (c << 2) | (c >> 4);
+	}
+
+	static int convert8To4 (int b) {
+		int d = (b & 0xff) * 15;
+		return (d + 128 + (d >> 8)) >> 8;
+	}
+
+	static int convert8To5 (int b) {
+		int d = (b & 0xff) * 31;
+		return (d + 128 + (d >> 8)) >> 8;
+	}
+
+	/** Encodes a range of block rows, on the calling thread or on one of the pool threads. The block encoding follows the
+	 * reference encoder in etc1_utils, pixels are indexed x + 4 * y and their modifier bits y + 4 * x. */
+	private class Worker implements Callable<Object> {
+		/** r, g, b of the 16 pixels of the current block **/
+		final int[] block = new int[48];
+		final int[] colors = new int[6], base = new int[6];
+		Quality quality;
+		ByteBuffer pixels, out;
+		int pixelSize, width, height, offset, start, end;
+
+		/** result of the last encoding, the score is the weighted squared error **/
+		int high, low, score;
+		/** table, modifier bits and score of the last call to {@link #encodeSubblock(int, boolean, boolean, int, int, int)} **/
+		int table, bits;
+
+		void set (Quality quality, ByteBuffer pixels, int pixelSize, int width, int height, ByteBuffer compressedData,
+			int offset, int start, int end) {
+			this.quality = quality;
+			this.pixels = pixels;
+			this.pixelSize = pixelSize;
+			this.width = width;
+			this.height = height;
+			this.out = compressedData.duplicate().order(ByteOrder.BIG_ENDIAN);
+			this.offset = offset;
+			this.start = start;
+			this.end = end;
+		}
+
+		public Object call () {
+			int[] block = this.block;
+			ByteBuffer pixels = this.pixels;
+			int pixelSize = this.pixelSize, stride = width * pixelSize;
+			int blockColumns = (width + 3) >> 2;
+			int index = offset + start * blockColumns * 8;
+			for (int y = start * 4, yEndBlocks = end * 4; y < yEndBlocks; y += 4) {
+				int yEnd = Math.min(4, height - y);
+				int ymask = yMask[yEnd];
+				for (int x = 0; x < width; x += 4) {
+					int xEnd = Math.min(4, width - x);
+					int mask = ymask & xMask[xEnd];
+					for (int cy = 0; cy < yEnd; cy++) {
+						int q = cy * 12, p = pixelSize * x + stride * (y + cy);
+						if (pixelSize == 3) {
+							for (int i = 0, n = xEnd * 3; i < n; i++)
+								block[q++] = pixels.get(p++) & 0xff;
+						} else {
+							for (int cx = 0; cx < xEnd; cx++, p += 2) {
+								int pixel = (pixels.get(p + 1) & 0xff) << 8 | (pixels.get(p) & 0xff);
+								block[q++] = convert5To8(pixel >> 11);
+								block[q++] = convert6To8(pixel >> 5);
+								block[q++] = convert5To8(pixel);
+							}
+						}
+					}
+					encodeBlock(mask);
+					out.putInt(index, high);
+					out.putInt(index + 4, low);
+					index += 8;
+				}
+			}
+			return null;
+		}
+
+		void encodeBlock (int mask) {
+			boolean flipped;
+			if (quality == Quality.Fast) {
+				flipped = deviation(mask, true) < deviation(mask, false);
+				average(mask, flipped);
+				encodeAverage(mask, flipped);
+			} else {
+				average(mask, false);
+				encodeAverage(mask, false);
+				int bestHigh = high, bestLow = low, bestScore = score;
+				average(mask, true);
+				encodeAverage(mask, true);
+				if (bestScore <= score) {
+					high = bestHigh;
+					low = bestLow;
+					score = bestScore;
+				}
+				if (quality == Quality.High) {
+					for (int i = 0; i < 2; i++) {
+						flipped = i == 1;
+						average(mask, flipped);
+						refine(mask, flipped, false);
+						refine(mask, flipped, true);
+					}
+				}
+			}
+		}
+
+		/** Sets colors to the average color of the two sub-blocks. Like the reference encoder, pixels outside the image count as
+		 * black. */
+		void average (int mask, boolean flipped) {
+			int[] block = this.block, colors = this.colors;
+			for (int second = 0; second < 2; second++) {
+				int r = 0, g = 0, b = 0;
+				for (int j = 0; j < 8; j++) {
+					int i = subblockPixel(flipped, second == 1, j);
+					if ((mask & (1 << i)) == 0) continue;
+					r += block[i * 3];
+					g += block[i * 3 + 1];
+					b += block[i * 3 + 2];
+				}
+				colors[second * 3] = (r + 4) >> 3;
+				colors[second * 3 + 1] = (g + 4) >> 3;
+				colors[second * 3 + 2] = (b + 4) >> 3;
+			}
+		}
+
+		/** Returns how much the pixels differ from the average of their sub-block. */
+		int deviation (int mask, boolean flipped) {
+			average(mask, flipped);
+			int[] block = this.block, colors = this.colors;
+			int deviation = 0;
+			for (int second = 0; second < 2; second++) {
+				int r = colors[second * 3], g = colors[second * 3 + 1], b = colors[second * 3 + 2];
+				for (int j = 0; j < 8; j++) {
+					int i = subblockPixel(flipped, second == 1, j);
+					if ((mask & (1 << i)) == 0) continue;
+					int dr = block[i * 3] - r, dg = block[i * 3 + 1] - g, db = block[i * 3 + 2] - b;
+					deviation += 3 * dr * dr + 6 * dg * dg + db * db;
+				}
+			}
+			return deviation;
+		}
+
+		/** Encodes the block with the quantized average colors as base colors, in differential mode if they are close enough and
+		 * in individual mode otherwise. */
+		void encodeAverage (int mask, boolean flipped) {
+			int[] colors = this.colors, base = this.base;
+			int high = flipped ? 1 : 0;
+			int r51 = convert8To5(colors[0]), g51 = convert8To5(colors[1]), b51 = convert8To5(colors[2]);
+			int dr = convert8To5(colors[3]) - r51, dg = convert8To5(colors[4]) - g51, db = convert8To5(colors[5]) - b51;
+			if (dr >= -4 && dr <= 3 && dg >= -4 && dg <= 3 && db >= -4 && db <= 3) {
+				high |= differential(r51, g51, b51, dr, dg, db);
+			} else {
+				high |= individual(convert8To4(colors[0]), convert8To4(colors[1]), convert8To4(colors[2]), convert8To4(colors[3]),
+					convert8To4(colors[4]), convert8To4(colors[5]));
+			}
+			int score = encodeSubblock(mask, flipped, false, base[0], base[1], base[2]);
+			high |= table << 5;
+			int low = bits;
+			score += encodeSubblock(mask, flipped, true, base[3], base[4], base[5]);
+			this.high = high | table << 2;
+			this.low = low | bits;
+			this.score = score;
+		}
+
+		/** Searches the base colors around the quantized average colors, keeping the result if it is better than the current one.
+		 * Sub-blocks are scored independently, so each base color is improved one channel step at a time until no step helps. */
+		void refine (int mask, boolean flipped, boolean differential) {
+			int[] colors = this.colors;
+			int max = differential ? 31 : 15;
+			int r1, g1, b1, r2, g2, b2;
+			if (differential) {
+				r1 = convert8To5(colors[0]);
+				g1 = convert8To5(colors[1]);
+				b1 = convert8To5(colors[2]);
+				r2 = convert8To5(colors[3]);
+				g2 = convert8To5(colors[4]);
+				b2 = convert8To5(colors[5]);
+			} else {
+				r1 = convert8To4(colors[0]);
+				g1 = convert8To4(colors[1]);
+				b1 = convert8To4(colors[2]);
+				r2 = convert8To4(colors[3]);
+				g2 = convert8To4(colors[4]);
+				b2 = convert8To4(colors[5]);
+			}
+			int first = search(mask, flipped, false, differential, r1, g1, b1, max, null);
+			r1 = first >> 16;
+			g1 = (first >> 8) & 0xff;
+			b1 = first & 0xff;
+			int second = search(mask, flipped, true, differential, r2, g2, b2, max, differential ? new int[] {r1, g1, b1} : null);
+			if (second == -1) return;
+			r2 = second >> 16;
+			g2 = (second >> 8) & 0xff;
+			b2 = second & 0xff;
+
+			int high = flipped ? 1 : 0;
+			if (differential)
+				high |= differential(r1, g1, b1, r2 - r1, g2 - g1, b2 - b1);
+			else
+				high |= individual(r1, g1, b1, r2, g2, b2);
+			int[] base = this.base;
+			int score = encodeSubblock(mask, flipped, false, base[0], base[1], base[2]);
+			high |= table << 5;
+			int low = bits;
+			score += encodeSubblock(mask, flipped, true, base[3], base[4], base[5]);
+			if (score < this.score) {
+				this.high = high | table << 2;
+				this.low = low | bits;
+				this.score = score;
+			}
+		}
+
+		/** Returns the quantized base color with the lowest score for a sub-block as r << 16 | g << 8 | b, or -1 if relativeTo
+		 * is given and no color is in differential range of it. */
+		int search (int mask, boolean flipped, boolean second, boolean differential, int r, int g, int b, int max,
+			int[] relativeTo) {
+			if (relativeTo != null) {
+				r = Math.max(relativeTo[0] - 4, Math.min(relativeTo[0] + 3, r));
+				g = Math.max(relativeTo[1] - 4, Math.min(relativeTo[1] + 3, g));
+				b = Math.max(relativeTo[2] - 4, Math.min(relativeTo[2] + 3, b));
+				if (r < 0 || r > max || g < 0 || g > max || b < 0 || b > max) return -1;
+			}
+			int[] channels = {r, g, b};
+			int bestScore = score(mask, flipped, second, differential, channels);
+			for (int iteration = 0; iteration < 8; iteration++) {
+				boolean improved = false;
+				for (int c = 0; c < 3; c++) {
+					for (int step = -1; step <= 1; step += 2) {
+						int value = channels[c] + step;
+						if (value < 0 || value > max) continue;
+						if (relativeTo != null && (value - relativeTo[c] < -4 || value - relativeTo[c] > 3)) continue;
+						channels[c] = value;
+						int score = score(mask, flipped, second, differential, channels);
+						if (score < bestScore) {
+							bestScore = score;
+							improved = true;
+						} else
+							channels[c] = value - step;
+					}
+				}
+				if (!improved) break;
+			}
+			return channels[0] << 16 | channels[1] << 8 | channels[2];
+		}
+
+		int score (int mask, boolean flipped, boolean second, boolean differential, int[] channels) {
+			if (differential)
+				return encodeSubblock(mask, flipped, second, convert5To8(channels[0]), convert5To8(channels[1]),
+					convert5To8(channels[2]));
+			return encodeSubblock(mask, flipped, second, convert4To8(channels[0]), convert4To8(channels[1]),
+				convert4To8(channels[2]));
+		}
+
+		/** Sets base and returns the base color bits of the high word in differential mode. */
+		int differential (int r51, int g51, int b51, int dr, int dg, int db) {
+			int[] base = this.base;
+			base[0] = convert5To8(r51);
+			base[1] = convert5To8(g51);
+			base[2] = convert5To8(b51);
+			base[3] = convert5To8(r51 + dr);
+			base[4] = convert5To8(g51 + dg);
+			base[5] = convert5To8(b51 + db);
+			return (r51 << 27) | ((7 & dr) << 24) | (g51 << 19) | ((7 & dg) << 16) | (b51 << 11) | ((7 & db) << 8) | 2;
+		}
+
+		/** Sets base and returns the base color bits of the high word in individual mode. */
+		int individual (int r41, int g41, int b41, int r42, int g42, int b42) {
+			int[] base = this.base;
+			base[0] = convert4To8(r41);
+			base[1] = convert4To8(g41);
+			base[2] = convert4To8(b41);
+			base[3] = convert4To8(r42);
+			base[4] = convert4To8(g42);
+			base[5] = convert4To8(b42);
+			return (r41 << 28) | (r42 << 24) | (g41 << 20) | (g42 << 16) | (b41 << 12) | (b42 << 8);
+		}
+
+		/** Chooses the modifier table with the lowest score for the sub-block and base color. Sets table and bits, and returns the
+		 * score. Of equal tables the first is chosen. */
+		int encodeSubblock (int mask, boolean flipped, boolean second, int r, int g, int b) {
+			int[] block = this.block;
+			int bestScore = Integer.MAX_VALUE, bestTable = 0, bestBits = 0;
+			for (int t = 0; t < 8; t++) {
+				int score = 0, bits = 0;
+				for (int j = 0; j < 8 && score < bestScore; j++) {
+					int i = subblockPixel(flipped, second, j);
+					if ((mask & (1 << i)) == 0) continue;
+					int pixelR = block[i * 3], pixelG = block[i * 3 + 1], pixelB = block[i * 3 + 2];
+					int pixelScore = Integer.MAX_VALUE, modifierIndex = 0;
+					for (int m = 0; m < 4; m++) {
+						int modifier = modifierTable[t * 4 + m];
+						int d = clamp(g + modifier) - pixelG;
+						int s = 6 * d * d;
+						if (s >= pixelScore) continue;
+						d = clamp(r + modifier) - pixelR;
+						s += 3 * d * d;
+						if (s >= pixelScore) continue;
+						d = clamp(b + modifier) - pixelB;
+						s += d * d;
+						if (s < pixelScore) {
+							pixelScore = s;
+							modifierIndex = m;
+						}
+					}
+					int x = i & 3, y = i >> 2;
+					bits |= (((modifierIndex >> 1) << 16) | (modifierIndex & 1)) << (y + x * 4);
+					score += pixelScore;
+				}
+				if (score < bestScore) {
+					bestScore = score;
+					bestTable = t;
+					bestBits = bits;
+				}
+			}
+			table = bestTable;
+			bits = bestBits;
+			return bestScore;
+		}
+	}
+
+	static int clamp (int x) {
+		return x >= 0 ? (x < 255 ? x : 255) : 0;
+	}
+
+	/** Returns the index x + 4 * y of the jth pixel of a sub-block. Unflipped sub-blocks are 2x4 pixels side by side, flipped
+	 * ones 4x2 pixels on top of each other. */
+	static int subblockPixel (boolean flipped, boolean second, int j) {
+		if (flipped) return (j & 3) + 4 * ((j >> 2) + (second ? 2 : 0));
+		return (j & 1) + (second ? 2 : 0) + 4 * (j >> 1);
+	}
+}
@@ -25,11 +25,14 @@ import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Pixmap.Format;
 import com.badlogic.gdx.graphics.TextureData;
 import com.badlogic.gdx.graphics.glutils.ETC1.ETC1Data;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 
 public class ETC1TextureData implements TextureData {
 	FileHandle file;
 	ETC1Data data;
+	/** the levels below data if the file contains a mipmap chain, see {@link ETC1Encoder#encodeMipMapsPKM} **/
+	Array<ETC1Data> mipMaps;
 	boolean useMipMaps;
 	int width = 0;
 	int height = 0;
@@ -64,7 +67,12 @@ public class ETC1TextureData implements TextureData {
 		if (isPrepared) throw new GdxRuntimeException("Already prepared");
 		if (file == null && data == null) throw new GdxRuntimeException("Can only load once from ETC1Data");
 		if (file != null) {
-			data = new ETC1Data(file);
+			if (useMipMaps) {
+				mipMaps = ETC1.readMipMapsPKM(file);
+				data = mipMaps.removeIndex(0);
+				if (mipMaps.size == 0) mipMaps = null;
+			} else
+				data = new ETC1Data(file);
 		}
 		width = data.width;
 		height = data.height;
@@ -79,16 +87,41 @@ public class ETC1TextureData implements TextureData {
 			Pixmap pixmap = ETC1.decodeImage(data, Format.RGB565);
 			Gdx.gl.glTexImage2D(GL10.GL_TEXTURE_2D, 0, pixmap.getGLInternalFormat(), pixmap.getWidth(), pixmap.getHeight(), 0,
 				pixmap.getGLFormat(), pixmap.getGLType(), pixmap.getPixels());
-			if (useMipMaps) MipMapGenerator.generateMipMap(pixmap, pixmap.getWidth(), pixmap.getHeight(), false);
+			if (mipMaps != null) {
+				for (int i = 0; i < mipMaps.size; i++) {
+					Pixmap level = ETC1.decodeImage(mipMaps.get(i), Format.RGB565);
+					Gdx.gl.glTexImage2D(GL10.GL_TEXTURE_2D, i + 1, level.getGLInternalFormat(), level.getWidth(), level.getHeight(),
+						0, level.getGLFormat(), level.getGLType(), level.getPixels());
+					level.dispose();
+				}
+			} else if (useMipMaps) MipMapGenerator.generateMipMap(pixmap, pixmap.getWidth(), pixmap.getHeight(), false);
 			pixmap.dispose();
 			useMipMaps = false;
 		} else {
 			Gdx.gl.glCompressedTexImage2D(GL10.GL_TEXTURE_2D, 0, ETC1.ETC1_RGB8_OES, width, height, 0,
 				data.compressedData.capacity() - data.dataOffset, data.compressedData);
-			if (useMipMaps()) Gdx.gl20.glGenerateMipmap(GL20.GL_TEXTURE_2D);
+			if (mipMaps != null) {
+				for (int i = 0; i < mipMaps.size; i++) {
+					ETC1Data level = mipMaps.get(i);
+					Gdx.gl.glCompressedTexImage2D(GL10.GL_TEXTURE_2D, i + 1, ETC1.ETC1_RGB8_OES, level.width, level.height, 0,
+						level.compressedData.capacity() - level.dataOffset, level.compressedData);
+				}
+			} else if (useMipMaps()) Gdx.gl20.glGenerateMipmap(GL20.GL_TEXTURE_2D);
 		}
+		discardPrepared();
+	}
+
+	/** Disposes the compressed data loaded by {@link #prepare()} without uploading it, e.g. because the texture was disposed in
+	 * the meantime. Does nothing if the data is not prepared. */
+	public void discardPrepared () {
+		if (!isPrepared) return;
 		data.dispose();
 		data = null;
+		if (mipMaps != null) {
+			for (int i = 0; i < mipMaps.size; i++)
+				mipMaps.get(i).dispose();
+			mipMaps = null;
+		}
 		isPrepared = false;
 	}
 
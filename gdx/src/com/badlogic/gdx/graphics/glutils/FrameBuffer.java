@@ -99,7 +99,7 @@ public class FrameBuffer implements Disposable {
 		colorTexture = new Texture(width, height, format);
 		colorTexture.setFilter(TextureFilter.Linear, TextureFilter.Linear);
 		colorTexture.setWrap(TextureWrap.ClampToEdge, TextureWrap.ClampToEdge);
-		GL20 gl = Gdx.graphics.getGL20();
+		GL20 gl = Gdx.gl20;
 
 		IntBuffer handle = BufferUtils.newIntBuffer(1);
 		gl.glGenFramebuffers(1, handle);
@@ -157,7 +157,7 @@ public class FrameBuffer implements Disposable {
 
 	/** Releases all resources associated with the FrameBuffer. */
 	public void dispose () {
-		GL20 gl = Gdx.graphics.getGL20();
+		GL20 gl = Gdx.gl20;
 
 		IntBuffer handle = BufferUtils.newIntBuffer(1);
 
@@ -178,14 +178,14 @@ public class FrameBuffer implements Disposable {
 
 	/** Makes the frame buffer current so everything gets drawn to it. */
 	public void begin () {
-		Gdx.graphics.getGL20().glViewport(0, 0, colorTexture.getWidth(), colorTexture.getHeight());
-		Gdx.graphics.getGL20().glBindFramebuffer(GL20.GL_FRAMEBUFFER, framebufferHandle);
+		Gdx.gl20.glViewport(0, 0, colorTexture.getWidth(), colorTexture.getHeight());
+		Gdx.gl20.glBindFramebuffer(GL20.GL_FRAMEBUFFER, framebufferHandle);
 	}
 
 	/** Unbinds the framebuffer, all drawing will be performed to the normal framebuffer from here on. */
 	public void end () {
-		Gdx.graphics.getGL20().glViewport(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-		Gdx.graphics.getGL20().glBindFramebuffer(GL20.GL_FRAMEBUFFER, 0);
+		Gdx.gl20.glViewport(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		Gdx.gl20.glBindFramebuffer(GL20.GL_FRAMEBUFFER, 0);
 	}
 
 	private void addManagedFrameBuffer (Application app, FrameBuffer frameBuffer) {
@@ -198,7 +198,7 @@ public class FrameBuffer implements Disposable {
 	/** Invalidates all frame buffers. This can be used when the OpenGL context is lost to rebuild all managed frame buffers. This
 	 * assumes that the texture attached to this buffer has already been rebuild! Use with care. */
 	public static void invalidateAllFrameBuffers (Application app) {
-		if (Gdx.graphics.getGL20() == null) return;
+		if (Gdx.gl20 == null) return;
 
 		List<FrameBuffer> bufferList = buffers.get(app);
 		if (bufferList == null) return;
@@ -223,6 +223,20 @@ public class FrameBuffer implements Disposable {
 		return builder.toString();
 	}
 
+	/** @return the number of bytes used by the depth buffers of all frame buffers of the application. The color buffers are
+	 *         textures and not included. */
+	public static long getDepthBufferBytes (Application app) {
+		List<FrameBuffer> bufferList = buffers.get(app);
+		if (bufferList == null) return 0;
+		long bytes = 0;
+		for (int i = 0; i < bufferList.size(); i++) {
+			FrameBuffer buffer = bufferList.get(i);
+			// GL_DEPTH_COMPONENT16
+			if (buffer.hasDepth) bytes += buffer.width * buffer.height * 2;
+		}
+		return bytes;
+	}
+
 	/** @return the color buffer texture */
 	public Texture getColorBufferTexture () {
 		return colorTexture;
@@ -0,0 +1,314 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+
+import com.badlogic.gdx.graphics.GL10;
+
+/** A profiling wrapper for OpenGL ES 1.0 contexts, see {@link GLProfiler}. */
+public class GL10Profiler extends GLCommonProfiler implements GL10 {
+	final GL10 gl10;
+
+	public GL10Profiler (GL10 gl) {
+		super(gl);
+		this.gl10 = gl;
+	}
+
+	public void glAlphaFunc (int func, float ref) {
+		long start = begin();
+		gl10.glAlphaFunc(func, ref);
+		end(start);
+	}
+
+	public void glClientActiveTexture (int texture) {
+		long start = begin();
+		gl10.glClientActiveTexture(texture);
+		end(start);
+	}
+
+	public void glColor4f (float red, float green, float blue, float alpha) {
+		long start = begin();
+		gl10.glColor4f(red, green, blue, alpha);
+		end(start);
+	}
+
+	public void glColorPointer (int size, int type, int stride, Buffer pointer) {
+		long start = begin();
+		gl10.glColorPointer(size, type, stride, pointer);
+		end(start);
+	}
+
+	public void glDeleteTextures (int n, int[] textures, int offset) {
+		long start = begin();
+		gl10.glDeleteTextures(n, textures, offset);
+		end(start);
+	}
+
+	public void glDisableClientState (int array) {
+		long start = begin();
+		gl10.glDisableClientState(array);
+		end(start);
+	}
+
+	public void glEnableClientState (int array) {
+		long start = begin();
+		gl10.glEnableClientState(array);
+		end(start);
+	}
+
+	public void glFogf (int pname, float param) {
+		long start = begin();
+		gl10.glFogf(pname, param);
+		end(start);
+	}
+
+	public void glFogfv (int pname, float[] params, int offset) {
+		long start = begin();
+		gl10.glFogfv(pname, params, offset);
+		end(start);
+	}
+
+	public void glFogfv (int pname, FloatBuffer params) {
+		long start = begin();
+		gl10.glFogfv(pname, params);
+		end(start);
+	}
+
+	public void glFrustumf (float left, float right, float bottom, float top, float zNear, float zFar) {
+		long start = begin();
+		gl10.glFrustumf(left, right, bottom, top, zNear, zFar);
+		end(start);
+	}
+
+	public void glGenTextures (int n, int[] textures, int offset) {
+		long start = begin();
+		gl10.glGenTextures(n, textures, offset);
+		end(start);
+	}
+
+	public void glGetIntegerv (int pname, int[] params, int offset) {
+		long start = begin();
+		gl10.glGetIntegerv(pname, params, offset);
+		end(start);
+	}
+
+	public void glLightModelf (int pname, float param) {
+		long start = begin();
+		gl10.glLightModelf(pname, param);
+		end(start);
+	}
+
+	public void glLightModelfv (int pname, float[] params, int offset) {
+		long start = begin();
+		gl10.glLightModelfv(pname, params, offset);
+		end(start);
+	}
+
+	public void glLightModelfv (int pname, FloatBuffer params) {
+		long start = begin();
+		gl10.glLightModelfv(pname, params);
+		end(start);
+	}
+
+	public void glLightf (int light, int pname, float param) {
+		long start = begin();
+		gl10.glLightf(light, pname, param);
+		end(start);
+	}
+
+	public void glLightfv (int light, int pname, float[] params, int offset) {
+		long start = begin();
+		gl10.glLightfv(light, pname, params, offset);
+		end(start);
+	}
+
+	public void glLightfv (int light, int pname, FloatBuffer params) {
+		long start = begin();
+		gl10.glLightfv(light, pname, params);
+		end(start);
+	}
+
+	public void glLoadIdentity () {
+		long start = begin();
+		gl10.glLoadIdentity();
+		end(start);
+	}
+
+	public void glLoadMatrixf (float[] m, int offset) {
+		long start = begin();
+		gl10.glLoadMatrixf(m, offset);
+		end(start);
+	}
+
+	public void glLoadMatrixf (FloatBuffer m) {
+		long start = begin();
+		gl10.glLoadMatrixf(m);
+		end(start);
+	}
+
+	public void glLogicOp (int opcode) {
+		long start = begin();
+		gl10.glLogicOp(opcode);
+		end(start);
+	}
+
+	public void glMaterialf (int face, int pname, float param) {
+		long start = begin();
+		gl10.glMaterialf(face, pname, param);
+		end(start);
+	}
+
+	public void glMaterialfv (int face, int pname, float[] params, int offset) {
+		long start = begin();
+		gl10.glMaterialfv(face, pname, params, offset);
+		end(start);
+	}
+
+	public void glMaterialfv (int face, int pname, FloatBuffer params) {
+		long start = begin();
+		gl10.glMaterialfv(face, pname, params);
+		end(start);
+	}
+
+	public void glMatrixMode (int mode) {
+		long start = begin();
+		gl10.glMatrixMode(mode);
+		end(start);
+	}
+
+	public void glMultMatrixf (float[] m, int offset) {
+		long start = begin();
+		gl10.glMultMatrixf(m, offset);
+		end(start);
+	}
+
+	public void glMultMatrixf (FloatBuffer m) {
+		long start = begin();
+		gl10.glMultMatrixf(m);
+		end(start);
+	}
+
+	public void glMultiTexCoord4f (int target, float s, float t, float r, float q) {
+		long start = begin();
+		gl10.glMultiTexCoord4f(target, s, t, r, q);
+		end(start);
+	}
+
+	public void glNormal3f (float nx, float ny, float nz) {
+		long start = begin();
+		gl10.glNormal3f(nx, ny, nz);
+		end(start);
+	}
+
+	public void glNormalPointer (int type, int stride, Buffer pointer) {
+		long start = begin();
+		gl10.glNormalPointer(type, stride, pointer);
+		end(start);
+	}
+
+	public void glOrthof (float left, float right, float bottom, float top, float zNear, float zFar) {
+		long start = begin();
+		gl10.glOrthof(left, right, bottom, top, zNear, zFar);
+		end(start);
+	}
+
+	public void glPointSize (float size) {
+		long start = begin();
+		gl10.glPointSize(size);
+		end(start);
+	}
+
+	public void glPopMatrix () {
+		long start = begin();
+		gl10.glPopMatrix();
+		end(start);
+	}
+
+	public void glPushMatrix () {
+		long start = begin();
+		gl10.glPushMatrix();
+		end(start);
+	}
+
+	public void glRotatef (float angle, float x, float y, float z) {
+		long start = begin();
+		gl10.glRotatef(angle, x, y, z);
+		end(start);
+	}
+
+	public void glSampleCoverage (float value, boolean invert) {
+		long start = begin();
+		gl10.glSampleCoverage(value, invert);
+		end(start);
+	}
+
+	public void glScalef (float x, float y, float z) {
+		long start = begin();
+		gl10.glScalef(x, y, z);
+		end(start);
+	}
+
+	public void glShadeModel (int mode) {
+		long start = begin();
+		gl10.glShadeModel(mode);
+		end(start);
+	}
+
+	public void glTexCoordPointer (int size, int type, int stride, Buffer pointer) {
+		long start = begin();
+		gl10.glTexCoordPointer(size, type, stride, pointer);
+		end(start);
+	}
+
+	public void glTexEnvf (int target, int pname, float param) {
+		long start = begin();
+		gl10.glTexEnvf(target, pname, param);
+		end(start);
+	}
+
+	public void glTexEnvfv (int target, int pname, float[] params, int offset) {
+		long start = begin();
+		gl10.glTexEnvfv(target, pname, params, offset);
+		end(start);
+	}
+
+	public void glTexEnvfv (int target, int pname, FloatBuffer params) {
+		long start = begin();
+		gl10.glTexEnvfv(target, pname, params);
+		end(start);
+	}
+
+	public void glTranslatef (float x, float y, float z) {
+		long start = begin();
+		gl10.glTranslatef(x, y, z);
+		end(start);
+	}
+
+	public void glVertexPointer (int size, int type, int stride, Buffer pointer) {
+		long start = begin();
+		gl10.glVertexPointer(size, type, stride, pointer);
+		end(start);
+	}
+
+	public void glPolygonMode (int face, int mode) {
+		long start = begin();
+		gl10.glPolygonMode(face, mode);
+		end(start);
+	}
+
+}
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+
+import com.badlogic.gdx.graphics.GL10;
+
+/** A {@link GLStateCache} for OpenGL ES 1.0 contexts. */
+public class GL10StateCache extends GLStateCache implements GL10 {
+	final GL10 gl10;
+
+	public GL10StateCache (GL10 gl) {
+		super(gl);
+		this.gl10 = gl;
+	}
+
+	public void glDeleteTextures (int n, int[] textures, int offset) {
+		for (int i = 0; i < n; i++)
+			textureDeleted(textures[offset + i]);
+		gl10.glDeleteTextures(n, textures, offset);
+	}
+
+	public void glAlphaFunc (int func, float ref) {
+		gl10.glAlphaFunc(func, ref);
+	}
+
+	public void glClientActiveTexture (int texture) {
+		gl10.glClientActiveTexture(texture);
+	}
+
+	public void glColor4f (float red, float green, float blue, float alpha) {
+		gl10.glColor4f(red, green, blue, alpha);
+	}
+
+	public void glColorPointer (int size, int type, int stride, Buffer pointer) {
+		gl10.glColorPointer(size, type, stride, pointer);
+	}
+
+	public void glDisableClientState (int array) {
+		gl10.glDisableClientState(array);
+	}
+
+	public void glEnableClientState (int array) {
+		gl10.glEnableClientState(array);
+	}
+
+	public void glFogf (int pname, float param) {
+		gl10.glFogf(pname, param);
+	}
+
+	public void glFogfv (int pname, float[] params, int offset) {
+		gl10.glFogfv(pname, params, offset);
+	}
+
+	public void glFogfv (int pname, FloatBuffer params) {
+		gl10.glFogfv(pname, params);
+	}
+
+	public void glFrustumf (float left, float right, float bottom, float top, float zNear, float zFar) {
+		gl10.glFrustumf(left, right, bottom, top, zNear, zFar);
+	}
+
+	public void glGenTextures (int n, int[] textures, int offset) {
+		gl10.glGenTextures(n, textures, offset);
+	}
+
+	public void glGetIntegerv (int pname, int[] params, int offset) {
+		gl10.glGetIntegerv(pname, params, offset);
+	}
+
+	public void glLightModelf (int pname, float param) {
+		gl10.glLightModelf(pname, param);
+	}
+
+	public void glLightModelfv (int pname, float[] params, int offset) {
+		gl10.glLightModelfv(pname, params, offset);
+	}
+
+	public void glLightModelfv (int pname, FloatBuffer params) {
+		gl10.glLightModelfv(pname, params);
+	}
+
+	public void glLightf (int light, int pname, float param) {
+		gl10.glLightf(light, pname, param);
+	}
+
+	public void glLightfv (int light, int pname, float[] params, int offset) {
+		gl10.glLightfv(light, pname, params, offset);
+	}
+
+	public void glLightfv (int light, int pname, FloatBuffer params) {
+		gl10.glLightfv(light, pname, params);
+	}
+
+	public void glLoadIdentity () {
+		gl10.glLoadIdentity();
+	}
+
+	public void glLoadMatrixf (float[] m, int offset) {
+		gl10.glLoadMatrixf(m, offset);
+	}
+
+	public void glLoadMatrixf (FloatBuffer m) {
+		gl10.glLoadMatrixf(m);
+	}
+
+	public void glLogicOp (int opcode) {
+		gl10.glLogicOp(opcode);
+	}
+
+	public void glMaterialf (int face, int pname, float param) {
+		gl10.glMaterialf(face, pname, param);
+	}
+
+	public void glMaterialfv (int face, int pname, float[] params, int offset) {
+		gl10.glMaterialfv(face, pname, params, offset);
+	}
+
+	public void glMaterialfv (int face, int pname, FloatBuffer params) {
+		gl10.glMaterialfv(face, pname, params);
+	}
+
+	public void glMatrixMode (int mode) {
+		gl10.glMatrixMode(mode);
+	}
+
+	public void glMultMatrixf (float[] m, int offset) {
+		gl10.glMultMatrixf(m, offset);
+	}
+
+	public void glMultMatrixf (FloatBuffer m) {
+		gl10.glMultMatrixf(m);
+	}
+
+	public void glMultiTexCoord4f (int target, float s, float t, float r, float q) {
+		gl10.glMultiTexCoord4f(target, s, t, r, q);
+	}
+
+	public void glNormal3f (float nx, float ny, float nz) {
+		gl10.glNormal3f(nx, ny, nz);
+	}
+
+	public void glNormalPointer (int type, int stride, Buffer pointer) {
+		gl10.glNormalPointer(type, stride, pointer);
+	}
+
+	public void glOrthof (float left, float right, float bottom, float top, float zNear, float zFar) {
+		gl10.glOrthof(left, right, bottom, top, zNear, zFar);
+	}
+
+	public void glPointSize (float size) {
+		gl10.glPointSize(size);
+	}
+
+	public void glPopMatrix () {
+		gl10.glPopMatrix();
+	}
+
+	public void glPushMatrix () {
+		gl10.glPushMatrix();
+	}
+
+	public void glRotatef (float angle, float x, float y, float z) {
+		gl10.glRotatef(angle, x, y, z);
+	}
+
+	public void glSampleCoverage (float value, boolean invert) {
+		gl10.glSampleCoverage(value, invert);
+	}
+
+	public void glScalef (float x, float y, float z) {
+		gl10.glScalef(x, y, z);
+	}
+
+	public void glShadeModel (int mode) {
+		gl10.glShadeModel(mode);
+	}
+
+	public void glTexCoordPointer (int size, int type, int stride, Buffer pointer) {
+		gl10.glTexCoordPointer(size, type, stride, pointer);
+	}
+
+	public void glTexEnvf (int target, int pname, float param) {
+		gl10.glTexEnvf(target, pname, param);
+	}
+
+	public void glTexEnvfv (int target, int pname, float[] params, int offset) {
+		gl10.glTexEnvfv(target, pname, params, offset);
+	}
+
+	public void glTexEnvfv (int target, int pname, FloatBuffer params) {
+		gl10.glTexEnvfv(target, pname, params);
+	}
+
+	public void glTranslatef (float x, float y, float z) {
+		gl10.glTranslatef(x, y, z);
+	}
+
+	public void glVertexPointer (int size, int type, int stride, Buffer pointer) {
+		gl10.glVertexPointer(size, type, stride, pointer);
+	}
+
+	public void glPolygonMode (int face, int mode) {
+		gl10.glPolygonMode(face, mode);
+	}
+
+}
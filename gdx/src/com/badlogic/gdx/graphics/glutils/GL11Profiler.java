@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.graphics.GL11;
+
+/** A profiling wrapper for OpenGL ES 1.1 contexts, see {@link GLProfiler}. */
+public class GL11Profiler extends GL10Profiler implements GL11 {
+	final GL11 gl11;
+
+	public GL11Profiler (GL11 gl) {
+		super(gl);
+		this.gl11 = gl;
+	}
+
+	public void glClipPlanef (int plane, float[] equation, int offset) {
+		long start = begin();
+		gl11.glClipPlanef(plane, equation, offset);
+		end(start);
+	}
+
+	public void glClipPlanef (int plane, FloatBuffer equation) {
+		long start = begin();
+		gl11.glClipPlanef(plane, equation);
+		end(start);
+	}
+
+	public void glGetClipPlanef (int pname, float[] eqn, int offset) {
+		long start = begin();
+		gl11.glGetClipPlanef(pname, eqn, offset);
+		end(start);
+	}
+
+	public void glGetClipPlanef (int pname, FloatBuffer eqn) {
+		long start = begin();
+		gl11.glGetClipPlanef(pname, eqn);
+		end(start);
+	}
+
+	public void glGetFloatv (int pname, float[] params, int offset) {
+		long start = begin();
+		gl11.glGetFloatv(pname, params, offset);
+		end(start);
+	}
+
+	public void glGetFloatv (int pname, FloatBuffer params) {
+		long start = begin();
+		gl11.glGetFloatv(pname, params);
+		end(start);
+	}
+
+	public void glGetLightfv (int light, int pname, float[] params, int offset) {
+		long start = begin();
+		gl11.glGetLightfv(light, pname, params, offset);
+		end(start);
+	}
+
+	public void glGetLightfv (int light, int pname, FloatBuffer params) {
+		long start = begin();
+		gl11.glGetLightfv(light, pname, params);
+		end(start);
+	}
+
+	public void glGetMaterialfv (int face, int pname, float[] params, int offset) {
+		long start = begin();
+		gl11.glGetMaterialfv(face, pname, params, offset);
+		end(start);
+	}
+
+	public void glGetMaterialfv (int face, int pname, FloatBuffer params) {
+		long start = begin();
+		gl11.glGetMaterialfv(face, pname, params);
+		end(start);
+	}
+
+	public void glGetTexParameterfv (int target, int pname, float[] params, int offset) {
+		long start = begin();
+		gl11.glGetTexParameterfv(target, pname, params, offset);
+		end(start);
+	}
+
+	public void glGetTexParameterfv (int target, int pname, FloatBuffer params) {
+		long start = begin();
+		gl11.glGetTexParameterfv(target, pname, params);
+		end(start);
+	}
+
+	public void glPointParameterf (int pname, float param) {
+		long start = begin();
+		gl11.glPointParameterf(pname, param);
+		end(start);
+	}
+
+	public void glPointParameterfv (int pname, float[] params, int offset) {
+		long start = begin();
+		gl11.glPointParameterfv(pname, params, offset);
+		end(start);
+	}
+
+	public void glPointParameterfv (int pname, FloatBuffer params) {
+		long start = begin();
+		gl11.glPointParameterfv(pname, params);
+		end(start);
+	}
+
+	public void glTexParameterfv (int target, int pname, float[] params, int offset) {
+		long start = begin();
+		gl11.glTexParameterfv(target, pname, params, offset);
+		end(start);
+	}
+
+	public void glTexParameterfv (int target, int pname, FloatBuffer params) {
+		long start = begin();
+		gl11.glTexParameterfv(target, pname, params);
+		end(start);
+	}
+
+	public void glBindBuffer (int target, int buffer) {
+		long start = begin();
+		gl11.glBindBuffer(target, buffer);
+		end(start);
+	}
+
+	public void glBufferData (int target, int size, Buffer data, int usage) {
+		GLProfiler.bufferUploadBytes += size;
+		long start = begin();
+		gl11.glBufferData(target, size, data, usage);
+		end(start);
+	}
+
+	public void glBufferSubData (int target, int offset, int size, Buffer data) {
+		GLProfiler.bufferUploadBytes += size;
+		long start = begin();
+		gl11.glBufferSubData(target, offset, size, data);
+		end(start);
+	}
+
+	public void glColor4ub (byte red, byte green, byte blue, byte alpha) {
+		long start = begin();
+		gl11.glColor4ub(red, green, blue, alpha);
+		end(start);
+	}
+
+	public void glDeleteBuffers (int n, int[] buffers, int offset) {
+		long start = begin();
+		gl11.glDeleteBuffers(n, buffers, offset);
+		end(start);
+	}
+
+	public void glDeleteBuffers (int n, IntBuffer buffers) {
+		long start = begin();
+		gl11.glDeleteBuffers(n, buffers);
+		end(start);
+	}
+
+	public void glGetBooleanv (int pname, boolean[] params, int offset) {
+		long start = begin();
+		gl11.glGetBooleanv(pname, params, offset);
+		end(start);
+	}
+
+	public void glGetBooleanv (int pname, IntBuffer params) {
+		long start = begin();
+		gl11.glGetBooleanv(pname, params);
+		end(start);
+	}
+
+	public void glGetBufferParameteriv (int target, int pname, int[] params, int offset) {
+		long start = begin();
+		gl11.glGetBufferParameteriv(target, pname, params, offset);
+		end(start);
+	}
+
+	public void glGetBufferParameteriv (int target, int pname, IntBuffer params) {
+		long start = begin();
+		gl11.glGetBufferParameteriv(target, pname, params);
+		end(start);
+	}
+
+	public void glGenBuffers (int n, int[] buffers, int offset) {
+		long start = begin();
+		gl11.glGenBuffers(n, buffers, offset);
+		end(start);
+	}
+
+	public void glGenBuffers (int n, IntBuffer buffers) {
+		long start = begin();
+		gl11.glGenBuffers(n, buffers);
+		end(start);
+	}
+
+	public void glGetPointerv (int pname, Buffer[] params) {
+		long start = begin();
+		gl11.glGetPointerv(pname, params);
+		end(start);
+	}
+
+	public void glGetTexEnviv (int env, int pname, int[] params, int offset) {
+		long start = begin();
+		gl11.glGetTexEnviv(env, pname, params, offset);
+		end(start);
+	}
+
+	public void glGetTexEnviv (int env, int pname, IntBuffer params) {
+		long start = begin();
+		gl11.glGetTexEnviv(env, pname, params);
+		end(start);
+	}
+
+	public void glGetTexParameteriv (int target, int pname, int[] params, int offset) {
+		long start = begin();
+		gl11.glGetTexParameteriv(target, pname, params, offset);
+		end(start);
+	}
+
+	public void glGetTexParameteriv (int target, int pname, IntBuffer params) {
+		long start = begin();
+		gl11.glGetTexParameteriv(target, pname, params);
+		end(start);
+	}
+
+	public boolean glIsBuffer (int buffer) {
+		long start = begin();
+		boolean result = gl11.glIsBuffer(buffer);
+		end(start);
+		return result;
+	}
+
+	public boolean glIsEnabled (int cap) {
+		long start = begin();
+		boolean result = gl11.glIsEnabled(cap);
+		end(start);
+		return result;
+	}
+
+	public boolean glIsTexture (int texture) {
+		long start = begin();
+		boolean result = gl11.glIsTexture(texture);
+		end(start);
+		return result;
+	}
+
+	public void glTexEnvi (int target, int pname, int param) {
+		long start = begin();
+		gl11.glTexEnvi(target, pname, param);
+		end(start);
+	}
+
+	public void glTexEnviv (int target, int pname, int[] params, int offset) {
+		long start = begin();
+		gl11.glTexEnviv(target, pname, params, offset);
+		end(start);
+	}
+
+	public void glTexEnviv (int target, int pname, IntBuffer params) {
+		long start = begin();
+		gl11.glTexEnviv(target, pname, params);
+		end(start);
+	}
+
+	public void glTexParameteri (int target, int pname, int param) {
+		long start = begin();
+		gl11.glTexParameteri(target, pname, param);
+		end(start);
+	}
+
+	public void glTexParameteriv (int target, int pname, int[] params, int offset) {
+		long start = begin();
+		gl11.glTexParameteriv(target, pname, params, offset);
+		end(start);
+	}
+
+	public void glTexParameteriv (int target, int pname, IntBuffer params) {
+		long start = begin();
+		gl11.glTexParameteriv(target, pname, params);
+		end(start);
+	}
+
+	public void glPointSizePointerOES (int type, int stride, Buffer pointer) {
+		long start = begin();
+		gl11.glPointSizePointerOES(type, stride, pointer);
+		end(start);
+	}
+
+	public void glVertexPointer (int size, int type, int stride, int pointer) {
+		long start = begin();
+		gl11.glVertexPointer(size, type, stride, pointer);
+		end(start);
+	}
+
+	public void glColorPointer (int size, int type, int stride, int pointer) {
+		long start = begin();
+		gl11.glColorPointer(size, type, stride, pointer);
+		end(start);
+	}
+
+	public void glNormalPointer (int type, int stride, int pointer) {
+		long start = begin();
+		gl11.glNormalPointer(type, stride, pointer);
+		end(start);
+	}
+
+	public void glTexCoordPointer (int size, int type, int stride, int pointer) {
+		long start = begin();
+		gl11.glTexCoordPointer(size, type, stride, pointer);
+		end(start);
+	}
+
+	public void glDrawElements (int mode, int count, int type, int indices) {
+		GLProfiler.drawCalls++;
+		GLProfiler.vertexCount += count;
+		long start = begin();
+		gl11.glDrawElements(mode, count, type, indices);
+		end(start);
+	}
+
+}
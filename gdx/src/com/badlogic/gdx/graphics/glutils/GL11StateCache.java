@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.graphics.GL11;
+
+/** A {@link GLStateCache} for OpenGL ES 1.1 contexts, additionally shadows the bound vertex and index buffers. */
+public class GL11StateCache extends GL10StateCache implements GL11 {
+	final GL11 gl11;
+
+	public GL11StateCache (GL11 gl) {
+		super(gl);
+		this.gl11 = gl;
+	}
+
+	public void glBindBuffer (int target, int buffer) {
+		if (bindBuffer(target, buffer)) gl11.glBindBuffer(target, buffer);
+	}
+
+	public void glDeleteBuffers (int n, int[] buffers, int offset) {
+		for (int i = 0; i < n; i++)
+			bufferDeleted(buffers[offset + i]);
+		gl11.glDeleteBuffers(n, buffers, offset);
+	}
+
+	public void glDeleteBuffers (int n, IntBuffer buffers) {
+		buffersDeleted(n, buffers);
+		gl11.glDeleteBuffers(n, buffers);
+	}
+
+	public void glClipPlanef (int plane, float[] equation, int offset) {
+		gl11.glClipPlanef(plane, equation, offset);
+	}
+
+	public void glClipPlanef (int plane, FloatBuffer equation) {
+		gl11.glClipPlanef(plane, equation);
+	}
+
+	public void glGetClipPlanef (int pname, float[] eqn, int offset) {
+		gl11.glGetClipPlanef(pname, eqn, offset);
+	}
+
+	public void glGetClipPlanef (int pname, FloatBuffer eqn) {
+		gl11.glGetClipPlanef(pname, eqn);
+	}
+
+	public void glGetFloatv (int pname, float[] params, int offset) {
+		gl11.glGetFloatv(pname, params, offset);
+	}
+
+	public void glGetFloatv (int pname, FloatBuffer params) {
+		gl11.glGetFloatv(pname, params);
+	}
+
+	public void glGetLightfv (int light, int pname, float[] params, int offset) {
+		gl11.glGetLightfv(light, pname, params, offset);
+	}
+
+	public void glGetLightfv (int light, int pname, FloatBuffer params) {
+		gl11.glGetLightfv(light, pname, params);
+	}
+
+	public void glGetMaterialfv (int face, int pname, float[] params, int offset) {
+		gl11.glGetMaterialfv(face, pname, params, offset);
+	}
+
+	public void glGetMaterialfv (int face, int pname, FloatBuffer params) {
+		gl11.glGetMaterialfv(face, pname, params);
+	}
+
+	public void glGetTexParameterfv (int target, int pname, float[] params, int offset) {
+		gl11.glGetTexParameterfv(target, pname, params, offset);
+	}
+
+	public void glGetTexParameterfv (int target, int pname, FloatBuffer params) {
+		gl11.glGetTexParameterfv(target, pname, params);
+	}
+
+	public void glPointParameterf (int pname, float param) {
+		gl11.glPointParameterf(pname, param);
+	}
+
+	public void glPointParameterfv (int pname, float[] params, int offset) {
+		gl11.glPointParameterfv(pname, params, offset);
+	}
+
+	public void glPointParameterfv (int pname, FloatBuffer params) {
+		gl11.glPointParameterfv(pname, params);
+	}
+
+	public void glTexParameterfv (int target, int pname, float[] params, int offset) {
+		gl11.glTexParameterfv(target, pname, params, offset);
+	}
+
+	public void glTexParameterfv (int target, int pname, FloatBuffer params) {
+		gl11.glTexParameterfv(target, pname, params);
+	}
+
+	public void glBufferData (int target, int size, Buffer data, int usage) {
+		gl11.glBufferData(target, size, data, usage);
+	}
+
+	public void glBufferSubData (int target, int offset, int size, Buffer data) {
+		gl11.glBufferSubData(target, offset, size, data);
+	}
+
+	public void glColor4ub (byte red, byte green, byte blue, byte alpha) {
+		gl11.glColor4ub(red, green, blue, alpha);
+	}
+
+	public void glGetBooleanv (int pname, boolean[] params, int offset) {
+		gl11.glGetBooleanv(pname, params, offset);
+	}
+
+	public void glGetBooleanv (int pname, IntBuffer params) {
+		gl11.glGetBooleanv(pname, params);
+	}
+
+	public void glGetBufferParameteriv (int target, int pname, int[] params, int offset) {
+		gl11.glGetBufferParameteriv(target, pname, params, offset);
+	}
+
+	public void glGetBufferParameteriv (int target, int pname, IntBuffer params) {
+		gl11.glGetBufferParameteriv(target, pname, params);
+	}
+
+	public void glGenBuffers (int n, int[] buffers, int offset) {
+		gl11.glGenBuffers(n, buffers, offset);
+	}
+
+	public void glGenBuffers (int n, IntBuffer buffers) {
+		gl11.glGenBuffers(n, buffers);
+	}
+
+	public void glGetPointerv (int pname, Buffer[] params) {
+		gl11.glGetPointerv(pname, params);
+	}
+
+	public void glGetTexEnviv (int env, int pname, int[] params, int offset) {
+		gl11.glGetTexEnviv(env, pname, params, offset);
+	}
+
+	public void glGetTexEnviv (int env, int pname, IntBuffer params) {
+		gl11.glGetTexEnviv(env, pname, params);
+	}
+
+	public void glGetTexParameteriv (int target, int pname, int[] params, int offset) {
+		gl11.glGetTexParameteriv(target, pname, params, offset);
+	}
+
+	public void glGetTexParameteriv (int target, int pname, IntBuffer params) {
+		gl11.glGetTexParameteriv(target, pname, params);
+	}
+
+	public boolean glIsBuffer (int buffer) {
+		return gl11.glIsBuffer(buffer);
+	}
+
+	public boolean glIsEnabled (int cap) {
+		return gl11.glIsEnabled(cap);
+	}
+
+	public boolean glIsTexture (int texture) {
+		return gl11.glIsTexture(texture);
+	}
+
+	public void glTexEnvi (int target, int pname, int param) {
+		gl11.glTexEnvi(target, pname, param);
+	}
+
+	public void glTexEnviv (int target, int pname, int[] params, int offset) {
+		gl11.glTexEnviv(target, pname, params, offset);
+	}
+
+	public void glTexEnviv (int target, int pname, IntBuffer params) {
+		gl11.glTexEnviv(target, pname, params);
+	}
+
+	public void glTexParameteri (int target, int pname, int param) {
+		gl11.glTexParameteri(target, pname, param);
+	}
+
+	public void glTexParameteriv (int target, int pname, int[] params, int offset) {
+		gl11.glTexParameteriv(target, pname, params, offset);
+	}
+
+	public void glTexParameteriv (int target, int pname, IntBuffer params) {
+		gl11.glTexParameteriv(target, pname, params);
+	}
+
+	public void glPointSizePointerOES (int type, int stride, Buffer pointer) {
+		gl11.glPointSizePointerOES(type, stride, pointer);
+	}
+
+	public void glVertexPointer (int size, int type, int stride, int pointer) {
+		gl11.glVertexPointer(size, type, stride, pointer);
+	}
+
+	public void glColorPointer (int size, int type, int stride, int pointer) {
+		gl11.glColorPointer(size, type, stride, pointer);
+	}
+
+	public void glNormalPointer (int type, int stride, int pointer) {
+		gl11.glNormalPointer(type, stride, pointer);
+	}
+
+	public void glTexCoordPointer (int size, int type, int stride, int pointer) {
+		gl11.glTexCoordPointer(size, type, stride, pointer);
+	}
+
+	public void glDrawElements (int mode, int count, int type, int indices) {
+		gl11.glDrawElements(mode, count, type, indices);
+	}
+
+}
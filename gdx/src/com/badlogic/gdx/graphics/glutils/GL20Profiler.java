@@ -0,0 +1,672 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.graphics.GL20;
+
+/** A profiling wrapper for OpenGL ES 2.0 contexts, see {@link GLProfiler}. */
+public class GL20Profiler extends GLCommonProfiler implements GL20 {
+	final GL20 gl20;
+
+	public GL20Profiler (GL20 gl) {
+		super(gl);
+		this.gl20 = gl;
+	}
+
+	public void glAttachShader (int program, int shader) {
+		long start = begin();
+		gl20.glAttachShader(program, shader);
+		end(start);
+	}
+
+	public void glBindAttribLocation (int program, int index, String name) {
+		long start = begin();
+		gl20.glBindAttribLocation(program, index, name);
+		end(start);
+	}
+
+	public void glBindBuffer (int target, int buffer) {
+		long start = begin();
+		gl20.glBindBuffer(target, buffer);
+		end(start);
+	}
+
+	public void glBindFramebuffer (int target, int framebuffer) {
+		long start = begin();
+		gl20.glBindFramebuffer(target, framebuffer);
+		end(start);
+	}
+
+	public void glBindRenderbuffer (int target, int renderbuffer) {
+		long start = begin();
+		gl20.glBindRenderbuffer(target, renderbuffer);
+		end(start);
+	}
+
+	public void glBlendColor (float red, float green, float blue, float alpha) {
+		long start = begin();
+		gl20.glBlendColor(red, green, blue, alpha);
+		end(start);
+	}
+
+	public void glBlendEquation (int mode) {
+		long start = begin();
+		gl20.glBlendEquation(mode);
+		end(start);
+	}
+
+	public void glBlendEquationSeparate (int modeRGB, int modeAlpha) {
+		long start = begin();
+		gl20.glBlendEquationSeparate(modeRGB, modeAlpha);
+		end(start);
+	}
+
+	public void glBlendFuncSeparate (int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+		long start = begin();
+		gl20.glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+		end(start);
+	}
+
+	public void glBufferData (int target, int size, Buffer data, int usage) {
+		GLProfiler.bufferUploadBytes += size;
+		long start = begin();
+		gl20.glBufferData(target, size, data, usage);
+		end(start);
+	}
+
+	public void glBufferSubData (int target, int offset, int size, Buffer data) {
+		GLProfiler.bufferUploadBytes += size;
+		long start = begin();
+		gl20.glBufferSubData(target, offset, size, data);
+		end(start);
+	}
+
+	public int glCheckFramebufferStatus (int target) {
+		long start = begin();
+		int result = gl20.glCheckFramebufferStatus(target);
+		end(start);
+		return result;
+	}
+
+	public void glCompileShader (int shader) {
+		long start = begin();
+		gl20.glCompileShader(shader);
+		end(start);
+	}
+
+	public int glCreateProgram () {
+		long start = begin();
+		int result = gl20.glCreateProgram();
+		end(start);
+		return result;
+	}
+
+	public int glCreateShader (int type) {
+		long start = begin();
+		int result = gl20.glCreateShader(type);
+		end(start);
+		return result;
+	}
+
+	public void glDeleteBuffers (int n, IntBuffer buffers) {
+		long start = begin();
+		gl20.glDeleteBuffers(n, buffers);
+		end(start);
+	}
+
+	public void glDeleteFramebuffers (int n, IntBuffer framebuffers) {
+		long start = begin();
+		gl20.glDeleteFramebuffers(n, framebuffers);
+		end(start);
+	}
+
+	public void glDeleteProgram (int program) {
+		long start = begin();
+		gl20.glDeleteProgram(program);
+		end(start);
+	}
+
+	public void glDeleteRenderbuffers (int n, IntBuffer renderbuffers) {
+		long start = begin();
+		gl20.glDeleteRenderbuffers(n, renderbuffers);
+		end(start);
+	}
+
+	public void glDeleteShader (int shader) {
+		long start = begin();
+		gl20.glDeleteShader(shader);
+		end(start);
+	}
+
+	public void glDetachShader (int program, int shader) {
+		long start = begin();
+		gl20.glDetachShader(program, shader);
+		end(start);
+	}
+
+	public void glDisableVertexAttribArray (int index) {
+		long start = begin();
+		gl20.glDisableVertexAttribArray(index);
+		end(start);
+	}
+
+	public void glDrawElements (int mode, int count, int type, int indices) {
+		GLProfiler.drawCalls++;
+		GLProfiler.vertexCount += count;
+		long start = begin();
+		gl20.glDrawElements(mode, count, type, indices);
+		end(start);
+	}
+
+	public void glEnableVertexAttribArray (int index) {
+		long start = begin();
+		gl20.glEnableVertexAttribArray(index);
+		end(start);
+	}
+
+	public void glFramebufferRenderbuffer (int target, int attachment, int renderbuffertarget, int renderbuffer) {
+		long start = begin();
+		gl20.glFramebufferRenderbuffer(target, attachment, renderbuffertarget, renderbuffer);
+		end(start);
+	}
+
+	public void glFramebufferTexture2D (int target, int attachment, int textarget, int texture, int level) {
+		long start = begin();
+		gl20.glFramebufferTexture2D(target, attachment, textarget, texture, level);
+		end(start);
+	}
+
+	public void glGenBuffers (int n, IntBuffer buffers) {
+		long start = begin();
+		gl20.glGenBuffers(n, buffers);
+		end(start);
+	}
+
+	public void glGenerateMipmap (int target) {
+		long start = begin();
+		gl20.glGenerateMipmap(target);
+		end(start);
+	}
+
+	public void glGenFramebuffers (int n, IntBuffer framebuffers) {
+		long start = begin();
+		gl20.glGenFramebuffers(n, framebuffers);
+		end(start);
+	}
+
+	public void glGenRenderbuffers (int n, IntBuffer renderbuffers) {
+		long start = begin();
+		gl20.glGenRenderbuffers(n, renderbuffers);
+		end(start);
+	}
+
+	public String glGetActiveAttrib (int program, int index, IntBuffer size, Buffer type) {
+		long start = begin();
+		String result = gl20.glGetActiveAttrib(program, index, size, type);
+		end(start);
+		return result;
+	}
+
+	public String glGetActiveUniform (int program, int index, IntBuffer size, Buffer type) {
+		long start = begin();
+		String result = gl20.glGetActiveUniform(program, index, size, type);
+		end(start);
+		return result;
+	}
+
+	public void glGetAttachedShaders (int program, int maxcount, Buffer count, IntBuffer shaders) {
+		long start = begin();
+		gl20.glGetAttachedShaders(program, maxcount, count, shaders);
+		end(start);
+	}
+
+	public int glGetAttribLocation (int program, String name) {
+		long start = begin();
+		int result = gl20.glGetAttribLocation(program, name);
+		end(start);
+		return result;
+	}
+
+	public void glGetBooleanv (int pname, Buffer params) {
+		long start = begin();
+		gl20.glGetBooleanv(pname, params);
+		end(start);
+	}
+
+	public void glGetBufferParameteriv (int target, int pname, IntBuffer params) {
+		long start = begin();
+		gl20.glGetBufferParameteriv(target, pname, params);
+		end(start);
+	}
+
+	public void glGetFloatv (int pname, FloatBuffer params) {
+		long start = begin();
+		gl20.glGetFloatv(pname, params);
+		end(start);
+	}
+
+	public void glGetFramebufferAttachmentParameteriv (int target, int attachment, int pname, IntBuffer params) {
+		long start = begin();
+		gl20.glGetFramebufferAttachmentParameteriv(target, attachment, pname, params);
+		end(start);
+	}
+
+	public void glGetProgramiv (int program, int pname, IntBuffer params) {
+		long start = begin();
+		gl20.glGetProgramiv(program, pname, params);
+		end(start);
+	}
+
+	public String glGetProgramInfoLog (int program) {
+		long start = begin();
+		String result = gl20.glGetProgramInfoLog(program);
+		end(start);
+		return result;
+	}
+
+	public void glGetRenderbufferParameteriv (int target, int pname, IntBuffer params) {
+		long start = begin();
+		gl20.glGetRenderbufferParameteriv(target, pname, params);
+		end(start);
+	}
+
+	public void glGetShaderiv (int shader, int pname, IntBuffer params) {
+		long start = begin();
+		gl20.glGetShaderiv(shader, pname, params);
+		end(start);
+	}
+
+	public String glGetShaderInfoLog (int shader) {
+		long start = begin();
+		String result = gl20.glGetShaderInfoLog(shader);
+		end(start);
+		return result;
+	}
+
+	public void glGetShaderPrecisionFormat (int shadertype, int precisiontype, IntBuffer range, IntBuffer precision) {
+		long start = begin();
+		gl20.glGetShaderPrecisionFormat(shadertype, precisiontype, range, precision);
+		end(start);
+	}
+
+	public void glGetShaderSource (int shader, int bufsize, Buffer length, String source) {
+		long start = begin();
+		gl20.glGetShaderSource(shader, bufsize, length, source);
+		end(start);
+	}
+
+	public void glGetTexParameterfv (int target, int pname, FloatBuffer params) {
+		long start = begin();
+		gl20.glGetTexParameterfv(target, pname, params);
+		end(start);
+	}
+
+	public void glGetTexParameteriv (int target, int pname, IntBuffer params) {
+		long start = begin();
+		gl20.glGetTexParameteriv(target, pname, params);
+		end(start);
+	}
+
+	public void glGetUniformfv (int program, int location, FloatBuffer params) {
+		long start = begin();
+		gl20.glGetUniformfv(program, location, params);
+		end(start);
+	}
+
+	public void glGetUniformiv (int program, int location, IntBuffer params) {
+		long start = begin();
+		gl20.glGetUniformiv(program, location, params);
+		end(start);
+	}
+
+	public int glGetUniformLocation (int program, String name) {
+		long start = begin();
+		int result = gl20.glGetUniformLocation(program, name);
+		end(start);
+		return result;
+	}
+
+	public void glGetVertexAttribfv (int index, int pname, FloatBuffer params) {
+		long start = begin();
+		gl20.glGetVertexAttribfv(index, pname, params);
+		end(start);
+	}
+
+	public void glGetVertexAttribiv (int index, int pname, IntBuffer params) {
+		long start = begin();
+		gl20.glGetVertexAttribiv(index, pname, params);
+		end(start);
+	}
+
+	public void glGetVertexAttribPointerv (int index, int pname, Buffer pointer) {
+		long start = begin();
+		gl20.glGetVertexAttribPointerv(index, pname, pointer);
+		end(start);
+	}
+
+	public boolean glIsBuffer (int buffer) {
+		long start = begin();
+		boolean result = gl20.glIsBuffer(buffer);
+		end(start);
+		return result;
+	}
+
+	public boolean glIsEnabled (int cap) {
+		long start = begin();
+		boolean result = gl20.glIsEnabled(cap);
+		end(start);
+		return result;
+	}
+
+	public boolean glIsFramebuffer (int framebuffer) {
+		long start = begin();
+		boolean result = gl20.glIsFramebuffer(framebuffer);
+		end(start);
+		return result;
+	}
+
+	public boolean glIsProgram (int program) {
+		long start = begin();
+		boolean result = gl20.glIsProgram(program);
+		end(start);
+		return result;
+	}
+
+	public boolean glIsRenderbuffer (int renderbuffer) {
+		long start = begin();
+		boolean result = gl20.glIsRenderbuffer(renderbuffer);
+		end(start);
+		return result;
+	}
+
+	public boolean glIsShader (int shader) {
+		long start = begin();
+		boolean result = gl20.glIsShader(shader);
+		end(start);
+		return result;
+	}
+
+	public boolean glIsTexture (int texture) {
+		long start = begin();
+		boolean result = gl20.glIsTexture(texture);
+		end(start);
+		return result;
+	}
+
+	public void glLinkProgram (int program) {
+		long start = begin();
+		gl20.glLinkProgram(program);
+		end(start);
+	}
+
+	public void glReleaseShaderCompiler () {
+		long start = begin();
+		gl20.glReleaseShaderCompiler();
+		end(start);
+	}
+
+	public void glRenderbufferStorage (int target, int internalformat, int width, int height) {
+		long start = begin();
+		gl20.glRenderbufferStorage(target, internalformat, width, height);
+		end(start);
+	}
+
+	public void glSampleCoverage (float value, boolean invert) {
+		long start = begin();
+		gl20.glSampleCoverage(value, invert);
+		end(start);
+	}
+
+	public void glShaderBinary (int n, IntBuffer shaders, int binaryformat, Buffer binary, int length) {
+		long start = begin();
+		gl20.glShaderBinary(n, shaders, binaryformat, binary, length);
+		end(start);
+	}
+
+	public void glShaderSource (int shader, String string) {
+		long start = begin();
+		gl20.glShaderSource(shader, string);
+		end(start);
+	}
+
+	public void glStencilFuncSeparate (int face, int func, int ref, int mask) {
+		long start = begin();
+		gl20.glStencilFuncSeparate(face, func, ref, mask);
+		end(start);
+	}
+
+	public void glStencilMaskSeparate (int face, int mask) {
+		long start = begin();
+		gl20.glStencilMaskSeparate(face, mask);
+		end(start);
+	}
+
+	public void glStencilOpSeparate (int face, int fail, int zfail, int zpass) {
+		long start = begin();
+		gl20.glStencilOpSeparate(face, fail, zfail, zpass);
+		end(start);
+	}
+
+	public void glTexParameterfv (int target, int pname, FloatBuffer params) {
+		long start = begin();
+		gl20.glTexParameterfv(target, pname, params);
+		end(start);
+	}
+
+	public void glTexParameteri (int target, int pname, int param) {
+		long start = begin();
+		gl20.glTexParameteri(target, pname, param);
+		end(start);
+	}
+
+	public void glTexParameteriv (int target, int pname, IntBuffer params) {
+		long start = begin();
+		gl20.glTexParameteriv(target, pname, params);
+		end(start);
+	}
+
+	public void glUniform1f (int location, float x) {
+		long start = begin();
+		gl20.glUniform1f(location, x);
+		end(start);
+	}
+
+	public void glUniform1fv (int location, int count, FloatBuffer v) {
+		long start = begin();
+		gl20.glUniform1fv(location, count, v);
+		end(start);
+	}
+
+	public void glUniform1i (int location, int x) {
+		long start = begin();
+		gl20.glUniform1i(location, x);
+		end(start);
+	}
+
+	public void glUniform1iv (int location, int count, IntBuffer v) {
+		long start = begin();
+		gl20.glUniform1iv(location, count, v);
+		end(start);
+	}
+
+	public void glUniform2f (int location, float x, float y) {
+		long start = begin();
+		gl20.glUniform2f(location, x, y);
+		end(start);
+	}
+
+	public void glUniform2fv (int location, int count, FloatBuffer v) {
+		long start = begin();
+		gl20.glUniform2fv(location, count, v);
+		end(start);
+	}
+
+	public void glUniform2i (int location, int x, int y) {
+		long start = begin();
+		gl20.glUniform2i(location, x, y);
+		end(start);
+	}
+
+	public void glUniform2iv (int location, int count, IntBuffer v) {
+		long start = begin();
+		gl20.glUniform2iv(location, count, v);
+		end(start);
+	}
+
+	public void glUniform3f (int location, float x, float y, float z) {
+		long start = begin();
+		gl20.glUniform3f(location, x, y, z);
+		end(start);
+	}
+
+	public void glUniform3fv (int location, int count, FloatBuffer v) {
+		long start = begin();
+		gl20.glUniform3fv(location, count, v);
+		end(start);
+	}
+
+	public void glUniform3i (int location, int x, int y, int z) {
+		long start = begin();
+		gl20.glUniform3i(location, x, y, z);
+		end(start);
+	}
+
+	public void glUniform3iv (int location, int count, IntBuffer v) {
+		long start = begin();
+		gl20.glUniform3iv(location, count, v);
+		end(start);
+	}
+
+	public void glUniform4f (int location, float x, float y, float z, float w) {
+		long start = begin();
+		gl20.glUniform4f(location, x, y, z, w);
+		end(start);
+	}
+
+	public void glUniform4fv (int location, int count, FloatBuffer v) {
+		long start = begin();
+		gl20.glUniform4fv(location, count, v);
+		end(start);
+	}
+
+	public void glUniform4i (int location, int x, int y, int z, int w) {
+		long start = begin();
+		gl20.glUniform4i(location, x, y, z, w);
+		end(start);
+	}
+
+	public void glUniform4iv (int location, int count, IntBuffer v) {
+		long start = begin();
+		gl20.glUniform4iv(location, count, v);
+		end(start);
+	}
+
+	public void glUniformMatrix2fv (int location, int count, boolean transpose, FloatBuffer value) {
+		long start = begin();
+		gl20.glUniformMatrix2fv(location, count, transpose, value);
+		end(start);
+	}
+
+	public void glUniformMatrix3fv (int location, int count, boolean transpose, FloatBuffer value) {
+		long start = begin();
+		gl20.glUniformMatrix3fv(location, count, transpose, value);
+		end(start);
+	}
+
+	public void glUniformMatrix4fv (int location, int count, boolean transpose, FloatBuffer value) {
+		long start = begin();
+		gl20.glUniformMatrix4fv(location, count, transpose, value);
+		end(start);
+	}
+
+	public void glUseProgram (int program) {
+		GLProfiler.shaderSwitches++;
+		long start = begin();
+		gl20.glUseProgram(program);
+		end(start);
+	}
+
+	public void glValidateProgram (int program) {
+		long start = begin();
+		gl20.glValidateProgram(program);
+		end(start);
+	}
+
+	public void glVertexAttrib1f (int indx, float x) {
+		long start = begin();
+		gl20.glVertexAttrib1f(indx, x);
+		end(start);
+	}
+
+	public void glVertexAttrib1fv (int indx, FloatBuffer values) {
+		long start = begin();
+		gl20.glVertexAttrib1fv(indx, values);
+		end(start);
+	}
+
+	public void glVertexAttrib2f (int indx, float x, float y) {
+		long start = begin();
+		gl20.glVertexAttrib2f(indx, x, y);
+		end(start);
+	}
+
+	public void glVertexAttrib2fv (int indx, FloatBuffer values) {
+		long start = begin();
+		gl20.glVertexAttrib2fv(indx, values);
+		end(start);
+	}
+
+	public void glVertexAttrib3f (int indx, float x, float y, float z) {
+		long start = begin();
+		gl20.glVertexAttrib3f(indx, x, y, z);
+		end(start);
+	}
+
+	public void glVertexAttrib3fv (int indx, FloatBuffer values) {
+		long start = begin();
+		gl20.glVertexAttrib3fv(indx, values);
+		end(start);
+	}
+
+	public void glVertexAttrib4f (int indx, float x, float y, float z, float w) {
+		long start = begin();
+		gl20.glVertexAttrib4f(indx, x, y, z, w);
+		end(start);
+	}
+
+	public void glVertexAttrib4fv (int indx, FloatBuffer values) {
+		long start = begin();
+		gl20.glVertexAttrib4fv(indx, values);
+		end(start);
+	}
+
+	public void glVertexAttribPointer (int indx, int size, int type, boolean normalized, int stride, Buffer ptr) {
+		long start = begin();
+		gl20.glVertexAttribPointer(indx, size, type, normalized, stride, ptr);
+		end(start);
+	}
+
+	public void glVertexAttribPointer (int indx, int size, int type, boolean normalized, int stride, int ptr) {
+		long start = begin();
+		gl20.glVertexAttribPointer(indx, size, type, normalized, stride, ptr);
+		end(start);
+	}
+
+}
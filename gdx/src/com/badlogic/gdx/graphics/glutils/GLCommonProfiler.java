@@ -0,0 +1,294 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.Buffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.graphics.GLCommon;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Base class of the profiling GL wrappers, see {@link GLProfiler}. */
+abstract class GLCommonProfiler implements GLCommon {
+	final GLCommon gl;
+
+	GLCommonProfiler (GLCommon gl) {
+		this.gl = gl;
+	}
+
+	final long begin () {
+		GLProfiler.calls++;
+		return TimeUtils.nanoTime();
+	}
+
+	final void end (long start) {
+		GLProfiler.glTime += TimeUtils.nanoTime() - start;
+	}
+
+	public void glActiveTexture (int texture) {
+		long start = begin();
+		gl.glActiveTexture(texture);
+		end(start);
+	}
+
+	public void glBindTexture (int target, int texture) {
+		GLProfiler.textureBindings++;
+		long start = begin();
+		gl.glBindTexture(target, texture);
+		end(start);
+	}
+
+	public void glBlendFunc (int sfactor, int dfactor) {
+		long start = begin();
+		gl.glBlendFunc(sfactor, dfactor);
+		end(start);
+	}
+
+	public void glClear (int mask) {
+		long start = begin();
+		gl.glClear(mask);
+		end(start);
+	}
+
+	public void glClearColor (float red, float green, float blue, float alpha) {
+		long start = begin();
+		gl.glClearColor(red, green, blue, alpha);
+		end(start);
+	}
+
+	public void glClearDepthf (float depth) {
+		long start = begin();
+		gl.glClearDepthf(depth);
+		end(start);
+	}
+
+	public void glClearStencil (int s) {
+		long start = begin();
+		gl.glClearStencil(s);
+		end(start);
+	}
+
+	public void glColorMask (boolean red, boolean green, boolean blue, boolean alpha) {
+		long start = begin();
+		gl.glColorMask(red, green, blue, alpha);
+		end(start);
+	}
+
+	public void glCompressedTexImage2D (int target, int level, int internalformat, int width, int height, int border, int imageSize, Buffer data) {
+		long start = begin();
+		gl.glCompressedTexImage2D(target, level, internalformat, width, height, border, imageSize, data);
+		end(start);
+	}
+
+	public void glCompressedTexSubImage2D (int target, int level, int xoffset, int yoffset, int width, int height, int format, int imageSize, Buffer data) {
+		long start = begin();
+		gl.glCompressedTexSubImage2D(target, level, xoffset, yoffset, width, height, format, imageSize, data);
+		end(start);
+	}
+
+	public void glCopyTexImage2D (int target, int level, int internalformat, int x, int y, int width, int height, int border) {
+		long start = begin();
+		gl.glCopyTexImage2D(target, level, internalformat, x, y, width, height, border);
+		end(start);
+	}
+
+	public void glCopyTexSubImage2D (int target, int level, int xoffset, int yoffset, int x, int y, int width, int height) {
+		long start = begin();
+		gl.glCopyTexSubImage2D(target, level, xoffset, yoffset, x, y, width, height);
+		end(start);
+	}
+
+	public void glCullFace (int mode) {
+		long start = begin();
+		gl.glCullFace(mode);
+		end(start);
+	}
+
+	public void glDeleteTextures (int n, IntBuffer textures) {
+		long start = begin();
+		gl.glDeleteTextures(n, textures);
+		end(start);
+	}
+
+	public void glDepthFunc (int func) {
+		long start = begin();
+		gl.glDepthFunc(func);
+		end(start);
+	}
+
+	public void glDepthMask (boolean flag) {
+		long start = begin();
+		gl.glDepthMask(flag);
+		end(start);
+	}
+
+	public void glDepthRangef (float zNear, float zFar) {
+		long start = begin();
+		gl.glDepthRangef(zNear, zFar);
+		end(start);
+	}
+
+	public void glDisable (int cap) {
+		long start = begin();
+		gl.glDisable(cap);
+		end(start);
+	}
+
+	public void glDrawArrays (int mode, int first, int count) {
+		GLProfiler.drawCalls++;
+		GLProfiler.vertexCount += count;
+		long start = begin();
+		gl.glDrawArrays(mode, first, count);
+		end(start);
+	}
+
+	public void glDrawElements (int mode, int count, int type, Buffer indices) {
+		GLProfiler.drawCalls++;
+		GLProfiler.vertexCount += count;
+		long start = begin();
+		gl.glDrawElements(mode, count, type, indices);
+		end(start);
+	}
+
+	public void glEnable (int cap) {
+		long start = begin();
+		gl.glEnable(cap);
+		end(start);
+	}
+
+	public void glFinish () {
+		long start = begin();
+		gl.glFinish();
+		end(start);
+	}
+
+	public void glFlush () {
+		long start = begin();
+		gl.glFlush();
+		end(start);
+	}
+
+	public void glFrontFace (int mode) {
+		long start = begin();
+		gl.glFrontFace(mode);
+		end(start);
+	}
+
+	public void glGenTextures (int n, IntBuffer textures) {
+		long start = begin();
+		gl.glGenTextures(n, textures);
+		end(start);
+	}
+
+	public int glGetError () {
+		long start = begin();
+		int result = gl.glGetError();
+		end(start);
+		return result;
+	}
+
+	public void glGetIntegerv (int pname, IntBuffer params) {
+		long start = begin();
+		gl.glGetIntegerv(pname, params);
+		end(start);
+	}
+
+	public String glGetString (int name) {
+		long start = begin();
+		String result = gl.glGetString(name);
+		end(start);
+		return result;
+	}
+
+	public void glHint (int target, int mode) {
+		long start = begin();
+		gl.glHint(target, mode);
+		end(start);
+	}
+
+	public void glLineWidth (float width) {
+		long start = begin();
+		gl.glLineWidth(width);
+		end(start);
+	}
+
+	public void glPixelStorei (int pname, int param) {
+		long start = begin();
+		gl.glPixelStorei(pname, param);
+		end(start);
+	}
+
+	public void glPolygonOffset (float factor, float units) {
+		long start = begin();
+		gl.glPolygonOffset(factor, units);
+		end(start);
+	}
+
+	public void glReadPixels (int x, int y, int width, int height, int format, int type, Buffer pixels) {
+		long start = begin();
+		gl.glReadPixels(x, y, width, height, format, type, pixels);
+		end(start);
+	}
+
+	public void glScissor (int x, int y, int width, int height) {
+		long start = begin();
+		gl.glScissor(x, y, width, height);
+		end(start);
+	}
+
+	public void glStencilFunc (int func, int ref, int mask) {
+		long start = begin();
+		gl.glStencilFunc(func, ref, mask);
+		end(start);
+	}
+
+	public void glStencilMask (int mask) {
+		long start = begin();
+		gl.glStencilMask(mask);
+		end(start);
+	}
+
+	public void glStencilOp (int fail, int zfail, int zpass) {
+		long start = begin();
+		gl.glStencilOp(fail, zfail, zpass);
+		end(start);
+	}
+
+	public void glTexImage2D (int target, int level, int internalformat, int width, int height, int border, int format, int type, Buffer pixels) {
+		long start = begin();
+		gl.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+		end(start);
+	}
+
+	public void glTexParameterf (int target, int pname, float param) {
+		long start = begin();
+		gl.glTexParameterf(target, pname, param);
+		end(start);
+	}
+
+	public void glTexSubImage2D (int target, int level, int xoffset, int yoffset, int width, int height, int format, int type, Buffer pixels) {
+		long start = begin();
+		gl.glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+		end(start);
+	}
+
+	public void glViewport (int x, int y, int width, int height) {
+		long start = begin();
+		gl.glViewport(x, y, width, height);
+		end(start);
+	}
+
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.badlogic.gdx.graphics.glutils;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL10;
+import com.badlogic.gdx.graphics.GL11;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GLCommon;
+import com.badlogic.gdx.math.WindowedMean;
+
+/** <p>
+ * Backend agnostic profiler for GL calls. {@link #enable()} wraps the GL instances in {@link Gdx} with profiling wrappers that
+ * count every call going to the driver as well as the time spent in it. {@link #disable()} puts the original instances back, so
+ * a disabled profiler costs nothing.
+ * </p>
+ * 
+ * <p>
+ * The counters accumulate until {@link #nextFrame()} is called. Call it once per frame, e.g. at the end of
+ * {@link ApplicationListener#render()}; it adds the counters of the finished frame to the windowed means and resets them. The
+ * profiler can be combined with {@link GLStateCache}. Enable the profiler first and install the cache afterwards, so the cache
+ * wraps the profiler and only calls that actually reach the driver are counted. Uninstall the cache before disabling the
+ * profiler.
+ * </p> */
+public class GLProfiler {
+	/** the number of samples of the windowed means **/
+	public static final int WINDOW_SIZE = 60;
+
+	/** number of GL calls in the current frame **/
+	public static int calls;
+	/** number of glDrawArrays/glDrawElements calls in the current frame **/
+	public static int drawCalls;
+	/** number of vertices (or indices) submitted via draw calls in the current frame **/
+	public static int vertexCount;
+	/** number of glBindTexture calls in the current frame **/
+	public static int textureBindings;
+	/** number of glUseProgram calls in the current frame **/
+	public static int shaderSwitches;
+	/** number of bytes uploaded via glBufferData/glBufferSubData in the current frame **/
+	public static int bufferUploadBytes;
+	/** nanoseconds of CPU time spent in GL calls in the current frame **/
+	public static long glTime;
+
+	public static final WindowedMean callsMean = new WindowedMean(WINDOW_SIZE);
+	public static final WindowedMean drawCallsMean = new WindowedMean(WINDOW_SIZE);
+	public static final WindowedMean vertexCountMean = new WindowedMean(WINDOW_SIZE);
+	public static final WindowedMean textureBindingsMean = new WindowedMean(WINDOW_SIZE);
+	public static final WindowedMean shaderSwitchesMean = new WindowedMean(WINDOW_SIZE);
+	public static final WindowedMean bufferUploadBytesMean = new WindowedMean(WINDOW_SIZE);
+	/** mean of the CPU time spent in GL calls per frame, in milliseconds **/
+	public static final WindowedMean glTimeMean = new WindowedMean(WINDOW_SIZE);
+
+	private static GLCommon gl;
+	private static GL10 gl10;
+	private static GL11 gl11;
+	private static GL20 gl20;
+
+	/** @return whether the GL instances in {@link Gdx} are currently wrapped by the profiler */
+	public static boolean isEnabled () {
+		return gl != null;
+	}
+
+	/** Wraps the GL instances in {@link Gdx} with profiling wrappers. Does nothing if the profiler is already enabled. */
+	public static void enable () {
+		if (isEnabled()) return;
+		gl = Gdx.gl;
+		gl10 = Gdx.gl10;
+		gl11 = Gdx.gl11;
+		gl20 = Gdx.gl20;
+		if (gl20 != null) {
+			GL20Profiler profiler = new GL20Profiler(gl20);
+			Gdx.gl20 = profiler;
+			Gdx.gl = profiler;
+		} else if (gl11 != null) {
+			GL11Profiler profiler = new GL11Profiler(gl11);
+			Gdx.gl11 = profiler;
+			Gdx.gl10 = profiler;
+			Gdx.gl = profiler;
+		} else if (gl10 != null) {
+			GL10Profiler profiler = new GL10Profiler(gl10);
+			Gdx.gl10 = profiler;
+			Gdx.gl = profiler;
+		} else {
+			gl = null;
+			throw new IllegalStateException("No GL instance available to profile");
+		}
+	}
+
+	/** Restores the GL instances in {@link Gdx} that were wrapped by {@link #enable()}. Does nothing if the profiler is not
+	 * enabled. */
+	public static void disable () {
+		if (!isEnabled()) return;
+		Gdx.gl = gl;
+		Gdx.gl10 = gl10;
+		Gdx.gl11 = gl11;
+		Gdx.gl20 = gl20;
+		gl = null;
+		gl10 = null;
+		gl11 = null;
+		gl20 = null;
+	}
+
+	/** Adds the counters of the current frame to the windowed means and resets them. */
+	public static void nextFrame () {
+		callsMean.addValue(calls);
+		drawCallsMean.addValue(drawCalls);
+		vertexCountMean.addValue(vertexCount);
+		textureBindingsMean.addValue(textureBindings);
+		shaderSwitchesMean.addValue(shaderSwitches);
+		bufferUploadBytesMean.addValue(bufferUploadBytes);
+		glTimeMean.addValue(glTime / 1000000f);
+		reset();
+	}
+
+	/** Resets the counters of the current frame without touching the windowed means. */
+	public static void reset () {
+		calls = 0;
+		drawCalls = 0;
+		vertexCount = 0;
+		textureBindings = 0;
+		shaderSwitches = 0;
+		bufferUploadBytes = 0;
+		glTime = 0;
+	}
+}
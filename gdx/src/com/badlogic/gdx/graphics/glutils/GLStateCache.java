@@ -0,0 +1,419 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.Buffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL10;
+import com.badlogic.gdx.graphics.GL11;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GLCommon;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/** <p>
+ * Base class of the state caching GL wrappers {@link GL10StateCache}, {@link GL11StateCache} and {@link GL20StateCache}. The
+ * wrappers shadow the render state that is set over and over again by {@link SpriteBatch}, {@link Texture#bind()},
+ * {@link Mesh} and {@link ShaderProgram#begin()}: enabled capabilities, blend function, depth function and mask, cull face,
+ * front face, the active texture unit, the texture bound to and whether texturing is enabled for each unit, the bound buffers and
+ * the current program. Calls that
+ * would not change the shadowed state are dropped instead of being passed to the driver.
+ * </p>
+ * 
+ * <p>
+ * Use {@link #install()} after the GL instances have been created, e.g. in {@link ApplicationListener#create()}, to wrap the
+ * instances in {@link Gdx}. All GL calls have to go through the wrapper from then on, otherwise the shadowed state gets out of
+ * sync with the driver. If state was changed behind the wrapper's back or the OpenGL context was lost call {@link #invalidate()}
+ * so that the next call of each kind is passed through again.
+ * </p>
+ * 
+ * <p>
+ * The wrapper counts the tracked calls it received and the ones it dropped. Call {@link #resetStatistics()} once per frame to get
+ * per frame numbers.
+ * </p> */
+public abstract class GLStateCache implements GLCommon {
+	static final int UNKNOWN = -1;
+	static final int MAX_TEXTURE_UNITS = 32;
+
+	/** the capabilities passed to glEnable/glDisable that are shadowed, all others are passed through. GL_TEXTURE_2D is shadowed
+	 * per texture unit. **/
+	static final int[] trackedCaps = {GL10.GL_BLEND, GL10.GL_DEPTH_TEST, GL10.GL_CULL_FACE, GL10.GL_SCISSOR_TEST,
+		GL10.GL_STENCIL_TEST, GL10.GL_DITHER, GL10.GL_POLYGON_OFFSET_FILL, GL10.GL_LIGHTING, GL10.GL_FOG,
+		GL10.GL_ALPHA_TEST, GL10.GL_COLOR_MATERIAL, GL10.GL_NORMALIZE};
+
+	final GLCommon gl;
+
+	final int[] caps = new int[trackedCaps.length];
+	int blendSrc, blendDst;
+	int depthFunc;
+	int depthMask;
+	int cullFace;
+	int frontFace;
+	int activeUnit;
+	final int[] boundTextures = new int[MAX_TEXTURE_UNITS];
+	final int[] texturingEnabled = new int[MAX_TEXTURE_UNITS];
+	int arrayBuffer, elementArrayBuffer;
+	int program;
+
+	/** number of tracked calls received since the last {@link #resetStatistics()} **/
+	public int calls;
+	/** number of tracked calls that were dropped because they would not have changed the state **/
+	public int redundantCalls;
+	/** number of texture binds that were passed to the driver **/
+	public int textureBindings;
+	/** number of buffer binds that were passed to the driver **/
+	public int bufferBindings;
+	/** number of program switches that were passed to the driver **/
+	public int programSwitches;
+
+	GLStateCache (GLCommon gl) {
+		if (gl == null) throw new IllegalArgumentException("gl must not be null");
+		this.gl = gl;
+		invalidate();
+	}
+
+	/** @return the wrapped GL instance */
+	public GLCommon getWrapped () {
+		return gl;
+	}
+
+	/** Forgets all shadowed state. The next call of each tracked kind is passed through to the driver. Call this after the OpenGL
+	 * context was lost or after GL state was changed without going through this wrapper. */
+	public void invalidate () {
+		for (int i = 0; i < caps.length; i++)
+			caps[i] = UNKNOWN;
+		blendSrc = blendDst = UNKNOWN;
+		depthFunc = UNKNOWN;
+		depthMask = UNKNOWN;
+		cullFace = UNKNOWN;
+		frontFace = UNKNOWN;
+		activeUnit = UNKNOWN;
+		for (int i = 0; i < boundTextures.length; i++)
+			boundTextures[i] = UNKNOWN;
+		for (int i = 0; i < texturingEnabled.length; i++)
+			texturingEnabled[i] = UNKNOWN;
+		arrayBuffer = elementArrayBuffer = UNKNOWN;
+		program = UNKNOWN;
+	}
+
+	/** Sets all statistics counters to zero. */
+	public void resetStatistics () {
+		calls = 0;
+		redundantCalls = 0;
+		textureBindings = 0;
+		bufferBindings = 0;
+		programSwitches = 0;
+	}
+
+	/** Wraps the GL instances in {@link Gdx} with a state cache, unless they are already wrapped. {@link Gdx#gl} is set to the
+	 * wrapper as well.
+	 * @return the installed wrapper */
+	public static GLStateCache install () {
+		if (Gdx.gl instanceof GLStateCache) return (GLStateCache)Gdx.gl;
+		if (Gdx.gl20 != null) {
+			GL20StateCache cache = new GL20StateCache(Gdx.gl20);
+			Gdx.gl20 = cache;
+			Gdx.gl = cache;
+			return cache;
+		}
+		if (Gdx.gl11 != null) {
+			GL11StateCache cache = new GL11StateCache(Gdx.gl11);
+			Gdx.gl11 = cache;
+			Gdx.gl10 = cache;
+			Gdx.gl = cache;
+			return cache;
+		}
+		if (Gdx.gl10 != null) {
+			GL10StateCache cache = new GL10StateCache(Gdx.gl10);
+			Gdx.gl10 = cache;
+			Gdx.gl = cache;
+			return cache;
+		}
+		throw new IllegalStateException("No GL instance available to wrap");
+	}
+
+	/** Restores the GL instances in {@link Gdx} that were wrapped by {@link #install()}. */
+	public static void uninstall () {
+		if (!(Gdx.gl instanceof GLStateCache)) return;
+		GLCommon wrapped = ((GLStateCache)Gdx.gl).gl;
+		if (Gdx.gl20 instanceof GLStateCache) Gdx.gl20 = (GL20)wrapped;
+		if (Gdx.gl11 instanceof GLStateCache) Gdx.gl11 = (GL11)wrapped;
+		if (Gdx.gl10 instanceof GLStateCache) Gdx.gl10 = (GL10)wrapped;
+		Gdx.gl = wrapped;
+	}
+
+	static int capIndex (int cap) {
+		for (int i = 0; i < trackedCaps.length; i++)
+			if (trackedCaps[i] == cap) return i;
+		return -1;
+	}
+
+	/** Records a change to a shadowed value.
+	 * @return whether the call has to be passed to the driver */
+	final boolean changed (int current, int value) {
+		calls++;
+		if (current == value) {
+			redundantCalls++;
+			return false;
+		}
+		return true;
+	}
+
+	final boolean bindBuffer (int target, int buffer) {
+		if (target == GL11.GL_ARRAY_BUFFER) {
+			if (!changed(arrayBuffer, buffer)) return false;
+			arrayBuffer = buffer;
+		} else if (target == GL11.GL_ELEMENT_ARRAY_BUFFER) {
+			if (!changed(elementArrayBuffer, buffer)) return false;
+			elementArrayBuffer = buffer;
+		}
+		bufferBindings++;
+		return true;
+	}
+
+	final void buffersDeleted (int n, IntBuffer buffers) {
+		int position = buffers.position();
+		for (int i = 0; i < n; i++)
+			bufferDeleted(buffers.get(position + i));
+	}
+
+	final void bufferDeleted (int buffer) {
+		// deleting a bound buffer reverts the binding to zero
+		if (arrayBuffer == buffer) arrayBuffer = 0;
+		if (elementArrayBuffer == buffer) elementArrayBuffer = 0;
+	}
+
+	final void textureDeleted (int texture) {
+		// deleting a bound texture reverts the binding of every unit it was bound to to zero
+		for (int i = 0; i < boundTextures.length; i++)
+			if (boundTextures[i] == texture) boundTextures[i] = 0;
+	}
+
+	/** Records enabling or disabling a capability.
+	 * @return whether the call has to be passed to the driver */
+	final boolean setCap (int cap, int enabled) {
+		if (cap == GL10.GL_TEXTURE_2D) {
+			// texturing is enabled per texture unit, a unit that is not known is passed through
+			if (activeUnit < 0 || activeUnit >= MAX_TEXTURE_UNITS) return true;
+			if (!changed(texturingEnabled[activeUnit], enabled)) return false;
+			texturingEnabled[activeUnit] = enabled;
+			return true;
+		}
+		int index = capIndex(cap);
+		if (index != -1) {
+			if (!changed(caps[index], enabled)) return false;
+			caps[index] = enabled;
+		}
+		return true;
+	}
+
+	public void glEnable (int cap) {
+		if (setCap(cap, 1)) gl.glEnable(cap);
+	}
+
+	public void glDisable (int cap) {
+		if (setCap(cap, 0)) gl.glDisable(cap);
+	}
+
+	public void glBlendFunc (int sfactor, int dfactor) {
+		calls++;
+		if (blendSrc == sfactor && blendDst == dfactor) {
+			redundantCalls++;
+			return;
+		}
+		blendSrc = sfactor;
+		blendDst = dfactor;
+		gl.glBlendFunc(sfactor, dfactor);
+	}
+
+	public void glDepthFunc (int func) {
+		if (!changed(depthFunc, func)) return;
+		depthFunc = func;
+		gl.glDepthFunc(func);
+	}
+
+	public void glDepthMask (boolean flag) {
+		int mask = flag ? 1 : 0;
+		if (!changed(depthMask, mask)) return;
+		depthMask = mask;
+		gl.glDepthMask(flag);
+	}
+
+	public void glCullFace (int mode) {
+		if (!changed(cullFace, mode)) return;
+		cullFace = mode;
+		gl.glCullFace(mode);
+	}
+
+	public void glFrontFace (int mode) {
+		if (!changed(frontFace, mode)) return;
+		frontFace = mode;
+		gl.glFrontFace(mode);
+	}
+
+	public void glActiveTexture (int texture) {
+		int unit = texture - GL10.GL_TEXTURE0;
+		if (!changed(activeUnit, unit)) return;
+		activeUnit = unit;
+		gl.glActiveTexture(texture);
+	}
+
+	public void glBindTexture (int target, int texture) {
+		if (target == GL10.GL_TEXTURE_2D && activeUnit >= 0 && activeUnit < MAX_TEXTURE_UNITS) {
+			if (!changed(boundTextures[activeUnit], texture)) return;
+			boundTextures[activeUnit] = texture;
+		}
+		textureBindings++;
+		gl.glBindTexture(target, texture);
+	}
+
+	public void glDeleteTextures (int n, IntBuffer textures) {
+		int position = textures.position();
+		for (int i = 0; i < n; i++)
+			textureDeleted(textures.get(position + i));
+		gl.glDeleteTextures(n, textures);
+	}
+
+	public void glClear (int mask) {
+		gl.glClear(mask);
+	}
+
+	public void glClearColor (float red, float green, float blue, float alpha) {
+		gl.glClearColor(red, green, blue, alpha);
+	}
+
+	public void glClearDepthf (float depth) {
+		gl.glClearDepthf(depth);
+	}
+
+	public void glClearStencil (int s) {
+		gl.glClearStencil(s);
+	}
+
+	public void glColorMask (boolean red, boolean green, boolean blue, boolean alpha) {
+		gl.glColorMask(red, green, blue, alpha);
+	}
+
+	public void glCompressedTexImage2D (int target, int level, int internalformat, int width, int height, int border, int imageSize, Buffer data) {
+		gl.glCompressedTexImage2D(target, level, internalformat, width, height, border, imageSize, data);
+	}
+
+	public void glCompressedTexSubImage2D (int target, int level, int xoffset, int yoffset, int width, int height, int format, int imageSize, Buffer data) {
+		gl.glCompressedTexSubImage2D(target, level, xoffset, yoffset, width, height, format, imageSize, data);
+	}
+
+	public void glCopyTexImage2D (int target, int level, int internalformat, int x, int y, int width, int height, int border) {
+		gl.glCopyTexImage2D(target, level, internalformat, x, y, width, height, border);
+	}
+
+	public void glCopyTexSubImage2D (int target, int level, int xoffset, int yoffset, int x, int y, int width, int height) {
+		gl.glCopyTexSubImage2D(target, level, xoffset, yoffset, x, y, width, height);
+	}
+
+	public void glDepthRangef (float zNear, float zFar) {
+		gl.glDepthRangef(zNear, zFar);
+	}
+
+	public void glDrawArrays (int mode, int first, int count) {
+		gl.glDrawArrays(mode, first, count);
+	}
+
+	public void glDrawElements (int mode, int count, int type, Buffer indices) {
+		gl.glDrawElements(mode, count, type, indices);
+	}
+
+	public void glFinish () {
+		gl.glFinish();
+	}
+
+	public void glFlush () {
+		gl.glFlush();
+	}
+
+	public void glGenTextures (int n, IntBuffer textures) {
+		gl.glGenTextures(n, textures);
+	}
+
+	public int glGetError () {
+		return gl.glGetError();
+	}
+
+	public void glGetIntegerv (int pname, IntBuffer params) {
+		gl.glGetIntegerv(pname, params);
+	}
+
+	public String glGetString (int name) {
+		return gl.glGetString(name);
+	}
+
+	public void glHint (int target, int mode) {
+		gl.glHint(target, mode);
+	}
+
+	public void glLineWidth (float width) {
+		gl.glLineWidth(width);
+	}
+
+	public void glPixelStorei (int pname, int param) {
+		gl.glPixelStorei(pname, param);
+	}
+
+	public void glPolygonOffset (float factor, float units) {
+		gl.glPolygonOffset(factor, units);
+	}
+
+	public void glReadPixels (int x, int y, int width, int height, int format, int type, Buffer pixels) {
+		gl.glReadPixels(x, y, width, height, format, type, pixels);
+	}
+
+	public void glScissor (int x, int y, int width, int height) {
+		gl.glScissor(x, y, width, height);
+	}
+
+	public void glStencilFunc (int func, int ref, int mask) {
+		gl.glStencilFunc(func, ref, mask);
+	}
+
+	public void glStencilMask (int mask) {
+		gl.glStencilMask(mask);
+	}
+
+	public void glStencilOp (int fail, int zfail, int zpass) {
+		gl.glStencilOp(fail, zfail, zpass);
+	}
+
+	public void glTexImage2D (int target, int level, int internalformat, int width, int height, int border, int format, int type, Buffer pixels) {
+		gl.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	public void glTexParameterf (int target, int pname, float param) {
+		gl.glTexParameterf(target, pname, param);
+	}
+
+	public void glTexSubImage2D (int target, int level, int xoffset, int yoffset, int width, int height, int format, int type, Buffer pixels) {
+		gl.glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+	}
+
+	public void glViewport (int x, int y, int width, int height) {
+		gl.glViewport(x, y, width, height);
+	}
+
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL10;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** The mipmap levels below a {@link Pixmap}, down to 1x1 pixels, stored tightly packed in a single buffer in the format of the
+ * Pixmap. Level index 0 is mipmap level 1, half the size of the Pixmap. Chains are generated by a {@link MipMapChainGenerator}
+ * and can be stored next to the image they were generated from with {@link #write(FileHandle, FileHandle)}, so they don't have
+ * to be generated again the next time the image is loaded.
+ * @see MipMapGenerator#setCacheMipMaps(boolean) */
+public class MipMapChain implements Disposable {
+	/** The filter used to downsample each level from the level above. **/
+	public enum Filter {
+		/** Averages 2x2 pixels. Fast, but slightly blurry. **/
+		Box,
+		/** A 6x6 Kaiser windowed sinc. Keeps more detail than Box, but is slower. **/
+		Kaiser
+	}
+
+	static final int VERSION = 1;
+
+	final Format format;
+	final int glInternalFormat, glFormat, glType;
+	final int width, height;
+	final int[] widths, heights, offsets;
+	final ByteBuffer pixels;
+
+	/** Allocates the levels below a pixmap with the given size and format. */
+	MipMapChain (Pixmap pixmap) {
+		format = pixmap.getFormat();
+		glInternalFormat = pixmap.getGLInternalFormat();
+		glFormat = pixmap.getGLFormat();
+		glType = pixmap.getGLType();
+		width = pixmap.getWidth();
+		height = pixmap.getHeight();
+
+		int levels = 0;
+		for (int w = width, h = height; w > 1 || h > 1; w = Math.max(1, w / 2), h = Math.max(1, h / 2))
+			levels++;
+		widths = new int[levels];
+		heights = new int[levels];
+		offsets = new int[levels + 1];
+		int pixelSize = getPixelSize(format);
+		for (int i = 0, w = width, h = height; i < levels; i++) {
+			w = Math.max(1, w / 2);
+			h = Math.max(1, h / 2);
+			widths[i] = w;
+			heights[i] = h;
+			offsets[i + 1] = offsets[i] + w * h * pixelSize;
+		}
+		pixels = BufferUtils.newUnsafeByteBuffer(offsets[levels]);
+	}
+
+	/** @return the number of levels, 0 for a 1x1 pixmap */
+	public int getLevels () {
+		return widths.length;
+	}
+
+	public int getWidth (int index) {
+		return widths[index];
+	}
+
+	public int getHeight (int index) {
+		return heights[index];
+	}
+
+	public Format getFormat () {
+		return format;
+	}
+
+	/** @return a buffer sharing the pixels of all levels, with position and limit set to the given level */
+	public ByteBuffer getPixels (int index) {
+		ByteBuffer buffer = pixels.duplicate();
+		buffer.limit(offsets[index + 1]);
+		buffer.position(offsets[index]);
+		return buffer;
+	}
+
+	/** Uploads all levels as mipmap levels 1 and up of the currently bound texture. The unpack alignment must be 1. */
+	public void upload () {
+		for (int i = 0; i < widths.length; i++)
+			Gdx.gl.glTexImage2D(GL10.GL_TEXTURE_2D, i + 1, glInternalFormat, widths[i], heights[i], 0, glFormat, glType,
+				getPixels(i));
+	}
+
+	/** Writes the chain to a file. The length and modification time of the source file are stored with it, so
+	 * {@link #read(FileHandle, FileHandle, Pixmap, Filter)} can tell when the chain is outdated.
+	 * @param file the file to write to
+	 * @param source the image the chain was generated from
+	 * @param filter the filter the chain was generated with */
+	public void write (FileHandle file, FileHandle source, Filter filter) {
+		byte[] buffer = new byte[10 * 1024];
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(file.write(false), buffer.length));
+			out.writeInt(VERSION);
+			out.writeLong(source.length());
+			out.writeLong(source.lastModified());
+			out.writeInt(Format.toGdx2DPixmapFormat(format));
+			out.writeInt(filter.ordinal());
+			out.writeInt(width);
+			out.writeInt(height);
+			ByteBuffer pixels = this.pixels.duplicate();
+			pixels.clear();
+			while (pixels.hasRemaining()) {
+				int bytes = Math.min(pixels.remaining(), buffer.length);
+				pixels.get(buffer, 0, bytes);
+				out.write(buffer, 0, bytes);
+			}
+		} catch (Exception e) {
+			throw new GdxRuntimeException("Couldn't write mipmap chain to '" + file + "'", e);
+		} finally {
+			if (out != null) try {
+				out.close();
+			} catch (Exception e) {
+			}
+		}
+	}
+
+	/** Reads a chain written by {@link #write(FileHandle, FileHandle, Filter)}.
+	 * @param file the file to read from
+	 * @param source the image the chain was generated from
+	 * @param pixmap the pixmap loaded from the source
+	 * @param filter the filter the chain must have been generated with
+	 * @return the chain, or null if the file does not exist or was written for a different source, pixmap or filter */
+	public static MipMapChain read (FileHandle file, FileHandle source, Pixmap pixmap, Filter filter) {
+		if (!file.exists()) return null;
+		byte[] buffer = new byte[10 * 1024];
+		DataInputStream in = null;
+		MipMapChain chain = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(file.read(), buffer.length));
+			if (in.readInt() != VERSION) return null;
+			if (in.readLong() != source.length()) return null;
+			long lastModified = in.readLong();
+			// Internal files on Android have no modification time.
+			if (lastModified != source.lastModified() && source.type() != FileType.Internal) return null;
+			if (in.readInt() != Format.toGdx2DPixmapFormat(pixmap.getFormat())) return null;
+			if (in.readInt() != filter.ordinal()) return null;
+			if (in.readInt() != pixmap.getWidth() || in.readInt() != pixmap.getHeight()) return null;
+			chain = new MipMapChain(pixmap);
+			ByteBuffer pixels = chain.pixels.duplicate();
+			pixels.clear();
+			while (pixels.hasRemaining()) {
+				int bytes = in.read(buffer, 0, Math.min(pixels.remaining(), buffer.length));
+				if (bytes == -1) throw new IOException("Unexpected end of file");
+				pixels.put(buffer, 0, bytes);
+			}
+			MipMapChain result = chain;
+			chain = null;
+			return result;
+		} catch (IOException e) {
+			return null;
+		} finally {
+			if (chain != null) chain.dispose();
+			if (in != null) try {
+				in.close();
+			} catch (Exception e) {
+			}
+		}
+	}
+
+	/** Releases the buffer holding the levels. */
+	@Override
+	public void dispose () {
+		BufferUtils.disposeUnsafeByteBuffer(pixels);
+	}
+
+	static int getPixelSize (Format format) {
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			return 1;
+		case LuminanceAlpha:
+		case RGB565:
+		case RGBA4444:
+			return 2;
+		case RGB888:
+			return 3;
+		case RGBA8888:
+			return 4;
+		}
+		throw new GdxRuntimeException("Unsupported format: " + format);
+	}
+}
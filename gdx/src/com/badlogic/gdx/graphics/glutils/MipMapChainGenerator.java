@@ -0,0 +1,321 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.glutils.MipMapChain.Filter;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** <p>
+ * Generates {@link MipMapChain}s on the CPU. Each level is downsampled from the level above it with a {@link Filter}, directly
+ * into the buffer of the chain, so no {@link Pixmap} is allocated per level. All formats are supported, RGB565 and RGBA4444
+ * are filtered per channel.
+ * </p>
+ * 
+ * <p>
+ * If the generator was created with more than one thread, levels with at least {@link #parallelThreshold} pixels are split
+ * into stripes of rows, one per thread. The levels themselves are generated one after the other, as each depends on the
+ * previous one. The pool must be released with {@link #dispose()}.
+ * </p> */
+public class MipMapChainGenerator implements Disposable {
+	static final int[] boxOffsets = {0, 1};
+	static final float[] boxWeights = {0.5f, 0.5f};
+	static final int[] kaiserOffsets = {-2, -1, 0, 1, 2, 3};
+	static final float[] kaiserWeights = new float[6];
+	static {
+		// A sinc for a scale of 1/2, windowed by a Kaiser window with alpha 4 and a radius of 3 source pixels. Taps are at
+		// the distances -2.5 to 2.5 from the center between the two source pixels of a destination pixel.
+		float sum = 0;
+		for (int i = 0; i < 6; i++) {
+			double t = kaiserOffsets[i] - 0.5, x = Math.PI * t / 2, r = t / 3;
+			double weight = Math.sin(x) / x * besselI0(4 * Math.sqrt(1 - r * r)) / besselI0(4);
+			kaiserWeights[i] = (float)weight;
+			sum += weight;
+		}
+		for (int i = 0; i < 6; i++)
+			kaiserWeights[i] /= sum;
+	}
+
+	/** levels with fewer pixels are always generated on the calling thread **/
+	public int parallelThreshold = 64 * 64;
+
+	private final ExecutorService executor;
+	private final List<Worker> workers;
+	private final Worker worker;
+
+	/** Creates a generator that generates all levels on the calling thread. */
+	public MipMapChainGenerator () {
+		this(1);
+	}
+
+	/** @param threads the number of worker threads used for large levels, e.g.
+	 *           <code>Runtime.getRuntime().availableProcessors()</code>. 1 generates all levels on the calling thread. */
+	public MipMapChainGenerator (int threads) {
+		worker = new Worker();
+		if (threads > 1) {
+			workers = new ArrayList<Worker>(threads);
+			for (int i = 0; i < threads; i++)
+				workers.add(new Worker());
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				@Override
+				public Thread newThread (Runnable r) {
+					Thread thread = new Thread(r, "MipMapChainGenerator-Worker-Thread");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		} else {
+			workers = null;
+			executor = null;
+		}
+	}
+
+	/** Generates all levels below the pixmap.
+	 * @return the {@link MipMapChain}, which has to be disposed */
+	public MipMapChain generate (Pixmap pixmap, Filter filter) {
+		MipMapChain chain = new MipMapChain(pixmap);
+		Format format = pixmap.getFormat();
+		ByteBuffer src = pixmap.getPixels();
+		int srcOffset = 0, srcWidth = pixmap.getWidth(), srcHeight = pixmap.getHeight();
+		for (int i = 0; i < chain.getLevels(); i++) {
+			downsample(format, filter, src, srcOffset, srcWidth, srcHeight, chain.pixels, chain.offsets[i], chain.widths[i],
+				chain.heights[i]);
+			src = chain.pixels;
+			srcOffset = chain.offsets[i];
+			srcWidth = chain.widths[i];
+			srcHeight = chain.heights[i];
+		}
+		return chain;
+	}
+
+	/** Downsamples the pixmap into another pixmap of the same format, usually half its size.
+	 * @see MipMapGenerator#generateLevel(Pixmap) */
+	public void downsample (Pixmap src, Pixmap dst, Filter filter) {
+		if (src.getFormat() != dst.getFormat()) throw new IllegalArgumentException("Pixmaps must have the same format");
+		downsample(src.getFormat(), filter, src.getPixels(), 0, src.getWidth(), src.getHeight(), dst.getPixels(), 0,
+			dst.getWidth(), dst.getHeight());
+	}
+
+	/** Downsamples tightly packed pixel data. Does not modify the position or limit of the buffers.
+	 * @param srcOffset the offset in bytes to the source pixels
+	 * @param dstOffset the offset in bytes to the destination pixels */
+	public void downsample (Format format, Filter filter, ByteBuffer src, int srcOffset, int srcWidth, int srcHeight,
+		ByteBuffer dst, int dstOffset, int dstWidth, int dstHeight) {
+		if (executor == null || dstWidth * dstHeight < parallelThreshold) {
+			worker.set(format, filter, src, srcOffset, srcWidth, srcHeight, dst, dstOffset, dstWidth, dstHeight, 0, dstHeight);
+			worker.call();
+			return;
+		}
+
+		List<Worker> workers = this.workers;
+		int threads = workers.size();
+		int stripe = (dstHeight + threads - 1) / threads;
+		for (int i = 0; i < threads; i++) {
+			int start = Math.min(dstHeight, i * stripe), end = Math.min(dstHeight, start + stripe);
+			workers.get(i).set(format, filter, src, srcOffset, srcWidth, srcHeight, dst, dstOffset, dstWidth, dstHeight, start,
+				end);
+		}
+		try {
+			List<Future<Object>> results = executor.invokeAll(workers);
+			for (int i = 0; i < threads; i++)
+				results.get(i).get();
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException("interrupted while generating mipmaps", e);
+		} catch (ExecutionException e) {
+			throw new GdxRuntimeException("couldn't generate mipmaps", e.getCause());
+		}
+	}
+
+	/** Shuts down the worker threads. */
+	@Override
+	public void dispose () {
+		if (executor == null) return;
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException("Couldn't shutdown mipmap threads", e);
+		}
+	}
+
+	static double besselI0 (double x) {
+		double sum = 1, term = 1;
+		for (int k = 1; k < 20; k++) {
+			term *= (x / (2 * k)) * (x / (2 * k));
+			sum += term;
+		}
+		return sum;
+	}
+
+	/** Downsamples a range of destination rows. Source rows are unpacked to one int per channel and filtered horizontally
+	 * once, then kept in a ring of rows for the vertical filter, as consecutive destination rows share source rows. */
+	private static class Worker implements Callable<Object> {
+		Format format;
+		ByteBuffer src, dst;
+		int srcOffset, srcWidth, srcHeight, dstOffset, dstWidth, dstHeight, start, end;
+		int[] offsets;
+		float[] weights;
+		int channels, pixelSize;
+
+		int[] unpacked = new int[0];
+		float[][] rows = new float[0][];
+		int[] rowIndices;
+		float[] sums = new float[0];
+
+		void set (Format format, Filter filter, ByteBuffer src, int srcOffset, int srcWidth, int srcHeight, ByteBuffer dst,
+			int dstOffset, int dstWidth, int dstHeight, int start, int end) {
+			this.format = format;
+			this.src = src;
+			this.srcOffset = srcOffset;
+			this.srcWidth = srcWidth;
+			this.srcHeight = srcHeight;
+			this.dst = dst;
+			this.dstOffset = dstOffset;
+			this.dstWidth = dstWidth;
+			this.dstHeight = dstHeight;
+			this.start = start;
+			this.end = end;
+			if (filter == Filter.Box) {
+				offsets = boxOffsets;
+				weights = boxWeights;
+			} else {
+				offsets = kaiserOffsets;
+				weights = kaiserWeights;
+			}
+			pixelSize = MipMapChain.getPixelSize(format);
+			channels = format == Format.RGB565 ? 3 : format == Format.RGBA4444 ? 4 : pixelSize;
+		}
+
+		public Object call () {
+			int[] offsets = this.offsets;
+			float[] weights = this.weights;
+			int taps = offsets.length, channels = this.channels;
+			int rowLength = dstWidth * channels;
+			if (unpacked.length < srcWidth * channels) unpacked = new int[srcWidth * channels];
+			if (sums.length < rowLength) sums = new float[rowLength];
+			if (rows.length != taps || rows[0].length < rowLength) rows = new float[taps][rowLength];
+			rowIndices = new int[taps];
+			for (int i = 0; i < taps; i++)
+				rowIndices[i] = -1;
+
+			float[] sums = this.sums;
+			for (int y = start; y < end; y++) {
+				for (int i = 0; i < rowLength; i++)
+					sums[i] = 0;
+				for (int t = 0; t < taps; t++) {
+					float[] row = filterRow(Math.max(0, Math.min(srcHeight - 1, y * 2 + offsets[t])));
+					float weight = weights[t];
+					for (int i = 0; i < rowLength; i++)
+						sums[i] += row[i] * weight;
+				}
+				pack(sums, y);
+			}
+			return null;
+		}
+
+		/** Returns the source row filtered horizontally, from the ring if it was filtered before. */
+		float[] filterRow (int srcY) {
+			int slot = srcY % rowIndices.length;
+			float[] row = rows[slot];
+			if (rowIndices[slot] == srcY) return row;
+			rowIndices[slot] = srcY;
+
+			unpack(srcY);
+			int[] unpacked = this.unpacked, offsets = this.offsets;
+			float[] weights = this.weights;
+			int taps = offsets.length, channels = this.channels, srcWidth = this.srcWidth;
+			for (int x = 0, i = 0; x < dstWidth; x++) {
+				for (int c = 0; c < channels; c++, i++) {
+					float sum = 0;
+					for (int t = 0; t < taps; t++) {
+						int srcX = Math.max(0, Math.min(srcWidth - 1, x * 2 + offsets[t]));
+						sum += unpacked[srcX * channels + c] * weights[t];
+					}
+					row[i] = sum;
+				}
+			}
+			return row;
+		}
+
+		void unpack (int srcY) {
+			int[] unpacked = this.unpacked;
+			ByteBuffer src = this.src;
+			int p = srcOffset + srcY * srcWidth * pixelSize;
+			if (format == Format.RGB565) {
+				for (int x = 0, i = 0; x < srcWidth; x++, p += 2) {
+					int pixel = (src.get(p + 1) & 0xff) << 8 | (src.get(p) & 0xff);
+					int r = (pixel >> 11) & 0x1f, g = (pixel >> 5) & 0x3f, b = pixel & 0x1f;
+					unpacked[i++] = (r << 3) | (r >> 2);
+					unpacked[i++] = (g << 2) | (g >> 4);
+					unpacked[i++] = (b << 3) | (b >> 2);
+				}
+			} else if (format == Format.RGBA4444) {
+				for (int x = 0, i = 0; x < srcWidth; x++, p += 2) {
+					int pixel = (src.get(p + 1) & 0xff) << 8 | (src.get(p) & 0xff);
+					unpacked[i++] = ((pixel >> 12) & 0xf) * 17;
+					unpacked[i++] = ((pixel >> 8) & 0xf) * 17;
+					unpacked[i++] = ((pixel >> 4) & 0xf) * 17;
+					unpacked[i++] = (pixel & 0xf) * 17;
+				}
+			} else {
+				for (int i = 0, n = srcWidth * pixelSize; i < n; i++)
+					unpacked[i] = src.get(p++) & 0xff;
+			}
+		}
+
+		void pack (float[] sums, int dstY) {
+			ByteBuffer dst = this.dst;
+			int p = dstOffset + dstY * dstWidth * pixelSize;
+			if (format == Format.RGB565) {
+				for (int x = 0, i = 0; x < dstWidth; x++, p += 2) {
+					int pixel = quantize(sums[i++], 31) << 11 | quantize(sums[i++], 63) << 5 | quantize(sums[i++], 31);
+					dst.put(p, (byte)pixel);
+					dst.put(p + 1, (byte)(pixel >> 8));
+				}
+			} else if (format == Format.RGBA4444) {
+				for (int x = 0, i = 0; x < dstWidth; x++, p += 2) {
+					int pixel = quantize(sums[i++], 15) << 12 | quantize(sums[i++], 15) << 8 | quantize(sums[i++], 15) << 4
+						| quantize(sums[i++], 15);
+					dst.put(p, (byte)pixel);
+					dst.put(p + 1, (byte)(pixel >> 8));
+				}
+			} else {
+				for (int i = 0, n = dstWidth * pixelSize; i < n; i++)
+					dst.put(p++, (byte)quantize(sums[i], 255));
+			}
+		}
+
+		/** Rounds a channel value in the range 0 to 255 to the range 0 to max, clamping the overshoot of the Kaiser filter. */
+		static int quantize (float value, int max) {
+			int result = (int)(value * max / 255 + 0.5f);
+			return result < 0 ? 0 : (result > max ? max : result);
+		}
+	}
+}
@@ -17,29 +17,62 @@
 package com.badlogic.gdx.graphics.glutils;
 
 import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.Files.FileType;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.GL10;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.GLCommon;
 import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Pixmap.Blending;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.glutils.MipMapChain.Filter;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 
 public class MipMapGenerator {
 	private static boolean useHWMipMap = true;
+	private static MipMapChainGenerator chainGenerator = new MipMapChainGenerator();
+	private static Filter filter = Filter.Box;
+	private static boolean cacheMipMaps;
 
 	static public void setUseHardwareMipMap (boolean useHWMipMap) {
 		MipMapGenerator.useHWMipMap = useHWMipMap;
 	}
 
+	/** Sets the generator used when mipmaps are generated on the CPU, e.g. one with several threads. The previous generator is
+	 * not disposed. */
+	static public void setChainGenerator (MipMapChainGenerator generator) {
+		if (generator == null) throw new IllegalArgumentException("generator must not be null");
+		MipMapGenerator.chainGenerator = generator;
+	}
+
+	/** Sets the {@link Filter} used when mipmaps are generated on the CPU. Default is {@link Filter#Box}. */
+	static public void setFilter (Filter filter) {
+		if (filter == null) throw new IllegalArgumentException("filter must not be null");
+		MipMapGenerator.filter = filter;
+	}
+
+	/** If true, mipmaps generated on the CPU for a texture loaded from a file are stored in a file next to it, with ".mips"
+	 * appended to the name, and read from there the next time. Only local, external and absolute files are written, but a
+	 * chain shipped next to an internal file is read. Default is false. */
+	static public void setCacheMipMaps (boolean cacheMipMaps) {
+		MipMapGenerator.cacheMipMaps = cacheMipMaps;
+	}
+
 	/** Sets the image data of the {@link Texture} based on the {@link Pixmap}. The texture must be bound for this to work. If
 	 * <code>disposePixmap</code> is true, the pixmap will be disposed at the end of the method.
 	 * @param pixmap the Pixmap
 	 * @param disposePixmap whether to dispose the Pixmap after upload */
 	public static void generateMipMap (Pixmap pixmap, int textureWidth, int textureHeight, boolean disposePixmap) {
+		generateMipMap(pixmap, textureWidth, textureHeight, disposePixmap, null);
+	}
+
+	/** Like {@link #generateMipMap(Pixmap, int, int, boolean)}, but mipmaps generated on the CPU are cached next to the file the
+	 * pixmap was loaded from, see {@link #setCacheMipMaps(boolean)}.
+	 * @param file the file the pixmap was loaded from, may be null */
+	public static void generateMipMap (Pixmap pixmap, int textureWidth, int textureHeight, boolean disposePixmap,
+		FileHandle file) {
 		if (!useHWMipMap) {
-			generateMipMapCPU(pixmap, textureWidth, textureHeight, disposePixmap);
+			generateMipMapCPU(pixmap, textureWidth, textureHeight, disposePixmap, file);
 			return;
 		}
 
@@ -47,9 +80,9 @@ public class MipMapGenerator {
 			if (Gdx.graphics.isGL20Available())
 				generateMipMapGLES20(pixmap, disposePixmap);
 			else
-				generateMipMapCPU(pixmap, textureWidth, textureHeight, disposePixmap);
+				generateMipMapCPU(pixmap, textureWidth, textureHeight, disposePixmap, file);
 		} else {
-			generateMipMapDesktop(pixmap, textureWidth, textureHeight, disposePixmap);
+			generateMipMapDesktop(pixmap, textureWidth, textureHeight, disposePixmap, file);
 		}
 	}
 
@@ -60,7 +93,8 @@ public class MipMapGenerator {
 		if (disposePixmap) pixmap.dispose();
 	}
 
-	private static void generateMipMapDesktop (Pixmap pixmap, int textureWidth, int textureHeight, boolean disposePixmap) {
+	private static void generateMipMapDesktop (Pixmap pixmap, int textureWidth, int textureHeight, boolean disposePixmap,
+		FileHandle file) {
 		if (Gdx.graphics.isGL20Available()
 			&& (Gdx.graphics.supportsExtension("GL_ARB_framebuffer_object") || Gdx.graphics
 				.supportsExtension("GL_EXT_framebuffer_object"))) {
@@ -76,34 +110,49 @@ public class MipMapGenerator {
 				pixmap.getGLFormat(), pixmap.getGLType(), pixmap.getPixels());
 			if (disposePixmap) pixmap.dispose();
 		} else {
-			generateMipMapCPU(pixmap, textureWidth, textureHeight, disposePixmap);
+			generateMipMapCPU(pixmap, textureWidth, textureHeight, disposePixmap, file);
 		}
 	}
 
-	private static void generateMipMapCPU (Pixmap pixmap, int textureWidth, int textureHeight, boolean disposePixmap) {
+	private static void generateMipMapCPU (Pixmap pixmap, int textureWidth, int textureHeight, boolean disposePixmap,
+		FileHandle file) {
 		Gdx.gl.glTexImage2D(GL10.GL_TEXTURE_2D, 0, pixmap.getGLInternalFormat(), pixmap.getWidth(), pixmap.getHeight(), 0,
 			pixmap.getGLFormat(), pixmap.getGLType(), pixmap.getPixels());
 		if ((Gdx.gl20 == null) && textureWidth != textureHeight)
 			throw new GdxRuntimeException("texture width and height must be square when using mipmapping.");
-		int width = pixmap.getWidth() / 2;
-		int height = pixmap.getHeight() / 2;
-		int level = 1;
-		Blending blending = Pixmap.getBlending();
-		Pixmap.setBlending(Blending.None);
-		while (width > 0 && height > 0) {
-			Pixmap tmp = new Pixmap(width, height, pixmap.getFormat());
-			tmp.drawPixmap(pixmap, 0, 0, pixmap.getWidth(), pixmap.getHeight(), 0, 0, width, height);
-			if (level > 1 || disposePixmap) pixmap.dispose();
-			pixmap = tmp;
-
-			Gdx.gl.glTexImage2D(GL10.GL_TEXTURE_2D, level, pixmap.getGLInternalFormat(), pixmap.getWidth(), pixmap.getHeight(), 0,
-				pixmap.getGLFormat(), pixmap.getGLType(), pixmap.getPixels());
 
-			width = pixmap.getWidth() / 2;
-			height = pixmap.getHeight() / 2;
-			level++;
+		MipMapChain chain = null;
+		FileHandle cacheFile = null;
+		if (cacheMipMaps && file != null) {
+			cacheFile = file.sibling(file.name() + ".mips");
+			chain = MipMapChain.read(cacheFile, file, pixmap, filter);
+		}
+		if (chain == null) {
+			chain = chainGenerator.generate(pixmap, filter);
+			if (cacheFile != null) {
+				FileType type = file.type();
+				if (type == FileType.Local || type == FileType.External || type == FileType.Absolute) {
+					try {
+						chain.write(cacheFile, file, filter);
+					} catch (GdxRuntimeException e) {
+						Gdx.app.error("MipMapGenerator", "Couldn't cache mipmaps of " + file, e);
+					}
+				}
+			}
 		}
-		Pixmap.setBlending(blending);
-		pixmap.dispose();
+		chain.upload();
+		chain.dispose();
+		if (disposePixmap) pixmap.dispose();
+	}
+
+	/** Creates the next smaller mipmap level of the {@link Pixmap}, half its size but at least 1x1 pixels, with the
+	 * {@link Filter} set by {@link #setFilter(Filter)}. The returned Pixmap has the same format and must be disposed.
+	 * @param pixmap the Pixmap, is not disposed */
+	public static Pixmap generateLevel (Pixmap pixmap) {
+		int width = Math.max(1, pixmap.getWidth() / 2);
+		int height = Math.max(1, pixmap.getHeight() / 2);
+		Pixmap level = new Pixmap(width, height, pixmap.getFormat());
+		chainGenerator.downsample(pixmap, level, filter);
+		return level;
 	}
 }
@@ -0,0 +1,342 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.glutils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL10;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** <p>
+ * Renders lines, rectangles, circles and triangles, outlined and filled, in any order between a single {@link #begin()} and
+ * {@link #end()}. Unlike {@link ShapeRenderer}, which needs a begin/end pair per {@link ShapeRenderer.ShapeType}, every shape is
+ * triangulated into one indexed triangle list. Lines and outlines are drawn as quads of {@link #setLineWidth(float) line width}
+ * world units. Vertices and indices are written in bulk into arrays and only flushed when they are full or a matrix changes.
+ * </p>
+ * 
+ * <p>
+ * All shapes lie in the x/y plane. To change the projection use {@link #setProjectionMatrix(Matrix4)}, usually with
+ * {@link Camera#combined}. This class works with OpenGL ES 1.x and 2.0 and must be disposed when no longer used.
+ * </p> */
+public class ShapeBatch implements Disposable {
+	static final int VERTEX_SIZE = 4;
+
+	private final Mesh mesh;
+	private final float[] vertices;
+	private final short[] indices;
+	private int vertexIdx;
+	private int numVertices;
+	private int indexIdx;
+
+	private ShaderProgram shader;
+	private boolean ownsShader;
+
+	private final Matrix4 projection = new Matrix4();
+	private final Matrix4 transform = new Matrix4();
+	private final Matrix4 combined = new Matrix4();
+
+	private float color = Color.WHITE.toFloatBits();
+	private float halfWidth = 0.5f;
+	private boolean drawing;
+
+	/** number of render calls since last {@link #begin()} **/
+	public int renderCalls = 0;
+
+	/** Constructs a ShapeBatch that can hold 5000 vertices and 15000 indices. */
+	public ShapeBatch () {
+		this(5000);
+	}
+
+	/** @param maxVertices the number of vertices a single flush can hold, at most 32767 */
+	public ShapeBatch (int maxVertices) {
+		if (maxVertices > Short.MAX_VALUE) throw new IllegalArgumentException("maxVertices must be <= " + Short.MAX_VALUE);
+		mesh = new Mesh(false, maxVertices, maxVertices * 3, new VertexAttribute(Usage.Position, 3,
+			ShaderProgram.POSITION_ATTRIBUTE), new VertexAttribute(Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE));
+		vertices = new float[maxVertices * VERTEX_SIZE];
+		indices = new short[maxVertices * 3];
+		if (Gdx.graphics.isGL20Available()) {
+			shader = ImmediateModeRenderer20.createDefaultShader(false, true, 0);
+			ownsShader = true;
+		}
+		projection.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+	}
+
+	/** Sets a custom shader for OpenGL ES 2.0. It must have the same attributes and uniforms as
+	 * {@link ImmediateModeRenderer20#createDefaultShader(boolean, boolean, int)} with colors and without normals and texture
+	 * coordinates. The shader is not owned by the ShapeBatch. */
+	public void setShader (ShaderProgram shader) {
+		if (drawing) flush();
+		if (ownsShader) this.shader.dispose();
+		this.shader = shader;
+		ownsShader = false;
+	}
+
+	/** Sets the projection matrix to be used for rendering. Usually this will be set to {@link Camera#combined}. Flushes the batch
+	 * if called between {@link #begin()} and {@link #end()}. */
+	public void setProjectionMatrix (Matrix4 matrix) {
+		if (drawing) flush();
+		projection.set(matrix);
+	}
+
+	/** Sets the transform matrix to be used for rendering. Flushes the batch if called between {@link #begin()} and {@link #end()}. */
+	public void setTransformMatrix (Matrix4 matrix) {
+		if (drawing) flush();
+		transform.set(matrix);
+	}
+
+	public void setColor (Color color) {
+		this.color = color.toFloatBits();
+	}
+
+	public void setColor (float r, float g, float b, float a) {
+		this.color = Color.toFloatBits(r, g, b, a);
+	}
+
+	/** Sets the width of lines and outlines in world units. */
+	public void setLineWidth (float width) {
+		this.halfWidth = width / 2;
+	}
+
+	public void begin () {
+		if (drawing) throw new IllegalStateException("you have to call ShapeBatch.end() first");
+		renderCalls = 0;
+		drawing = true;
+	}
+
+	public void end () {
+		if (!drawing) throw new IllegalStateException("ShapeBatch.begin must be called before end.");
+		flush();
+		drawing = false;
+	}
+
+	/** Renders all pending shapes. */
+	public void flush () {
+		if (indexIdx == 0) {
+			vertexIdx = 0;
+			numVertices = 0;
+			return;
+		}
+		renderCalls++;
+		combined.set(projection).mul(transform);
+		mesh.setVertices(vertices, 0, vertexIdx);
+		mesh.setIndices(indices, 0, indexIdx);
+		if (Gdx.graphics.isGL20Available()) {
+			shader.begin();
+			shader.setUniformMatrix("u_projModelView", combined);
+			mesh.render(shader, GL10.GL_TRIANGLES, 0, indexIdx);
+			shader.end();
+		} else {
+			GL10 gl = Gdx.gl10;
+			gl.glMatrixMode(GL10.GL_PROJECTION);
+			gl.glLoadMatrixf(combined.val, 0);
+			gl.glMatrixMode(GL10.GL_MODELVIEW);
+			gl.glLoadIdentity();
+			mesh.render(GL10.GL_TRIANGLES, 0, indexIdx);
+		}
+		vertexIdx = 0;
+		numVertices = 0;
+		indexIdx = 0;
+	}
+
+	/** Makes room for the given number of vertices and indices, flushing if necessary.
+	 * @return the index of the first new vertex */
+	private int reserve (int numVertices, int numIndices) {
+		if (!drawing) throw new IllegalStateException("ShapeBatch.begin must be called before drawing.");
+		if (numVertices * VERTEX_SIZE > vertices.length || numIndices > indices.length)
+			throw new GdxRuntimeException("Shape needs more vertices than the batch can hold");
+		if (vertexIdx + numVertices * VERTEX_SIZE > vertices.length || indexIdx + numIndices > indices.length) flush();
+		int first = this.numVertices;
+		this.numVertices += numVertices;
+		return first;
+	}
+
+	private void vertex (float x, float y, float color) {
+		final float[] vertices = this.vertices;
+		int idx = vertexIdx;
+		vertices[idx] = x;
+		vertices[idx + 1] = y;
+		vertices[idx + 2] = 0;
+		vertices[idx + 3] = color;
+		vertexIdx = idx + VERTEX_SIZE;
+	}
+
+	private void quadIndices (int first) {
+		final short[] indices = this.indices;
+		int idx = indexIdx;
+		indices[idx] = (short)first;
+		indices[idx + 1] = (short)(first + 1);
+		indices[idx + 2] = (short)(first + 2);
+		indices[idx + 3] = (short)(first + 2);
+		indices[idx + 4] = (short)(first + 3);
+		indices[idx + 5] = (short)first;
+		indexIdx = idx + 6;
+	}
+
+	/** Draws a line as a quad of the current line width. */
+	public void line (float x1, float y1, float x2, float y2) {
+		float dx = x2 - x1, dy = y2 - y1;
+		float len = (float)Math.sqrt(dx * dx + dy * dy);
+		if (len == 0) return;
+		float nx = -dy / len * halfWidth, ny = dx / len * halfWidth;
+		int first = reserve(4, 6);
+		float color = this.color;
+		vertex(x1 + nx, y1 + ny, color);
+		vertex(x1 - nx, y1 - ny, color);
+		vertex(x2 - nx, y2 - ny, color);
+		vertex(x2 + nx, y2 + ny, color);
+		quadIndices(first);
+	}
+
+	/** Draws the outline of a rectangle, the x and y coordinate specify the bottom left corner. */
+	public void rect (float x, float y, float width, float height) {
+		float w = halfWidth;
+		filledRect(x - w, y - w, width + 2 * w, 2 * w);
+		filledRect(x - w, y + height - w, width + 2 * w, 2 * w);
+		filledRect(x - w, y + w, 2 * w, height - 2 * w);
+		filledRect(x + width - w, y + w, 2 * w, height - 2 * w);
+	}
+
+	/** Draws a filled rectangle, the x and y coordinate specify the bottom left corner. */
+	public void filledRect (float x, float y, float width, float height) {
+		int first = reserve(4, 6);
+		float color = this.color;
+		vertex(x, y, color);
+		vertex(x + width, y, color);
+		vertex(x + width, y + height, color);
+		vertex(x, y + height, color);
+		quadIndices(first);
+	}
+
+	/** Draws a filled rectangle with the given colors for the bottom left, bottom right, top right and top left corner. */
+	public void filledRect (float x, float y, float width, float height, Color c1, Color c2, Color c3, Color c4) {
+		int first = reserve(4, 6);
+		vertex(x, y, c1.toFloatBits());
+		vertex(x + width, y, c2.toFloatBits());
+		vertex(x + width, y + height, c3.toFloatBits());
+		vertex(x, y + height, c4.toFloatBits());
+		quadIndices(first);
+	}
+
+	/** Calls {@link #circle(float, float, float, int)} by estimating the number of segments needed for a smooth circle. */
+	public void circle (float x, float y, float radius) {
+		circle(x, y, radius, Math.max(1, (int)(6 * (float)Math.cbrt(radius))));
+	}
+
+	/** Draws the outline of a circle as a ring of the current line width. */
+	public void circle (float x, float y, float radius, int segments) {
+		if (segments <= 0) throw new IllegalArgumentException("segments must be > 0.");
+		int first = reserve(segments * 2, segments * 6);
+		float color = this.color;
+		float inner = radius - halfWidth, outer = radius + halfWidth;
+		float angle = 2 * MathUtils.PI / segments;
+		float cos = MathUtils.cos(angle), sin = MathUtils.sin(angle);
+		float cx = 1, cy = 0;
+		for (int i = 0; i < segments; i++) {
+			vertex(x + cx * inner, y + cy * inner, color);
+			vertex(x + cx * outer, y + cy * outer, color);
+			float temp = cx;
+			cx = cos * cx - sin * cy;
+			cy = sin * temp + cos * cy;
+		}
+		final short[] indices = this.indices;
+		int idx = indexIdx;
+		for (int i = 0; i < segments; i++) {
+			int a = first + i * 2, b = first + ((i + 1) % segments) * 2;
+			indices[idx++] = (short)a;
+			indices[idx++] = (short)(a + 1);
+			indices[idx++] = (short)(b + 1);
+			indices[idx++] = (short)(b + 1);
+			indices[idx++] = (short)b;
+			indices[idx++] = (short)a;
+		}
+		indexIdx = idx;
+	}
+
+	/** Calls {@link #filledCircle(float, float, float, int)} by estimating the number of segments needed for a smooth circle. */
+	public void filledCircle (float x, float y, float radius) {
+		filledCircle(x, y, radius, Math.max(3, (int)(4 * (float)Math.sqrt(radius))));
+	}
+
+	/** Draws a filled circle as an indexed fan around its center. */
+	public void filledCircle (float x, float y, float radius, int segments) {
+		if (segments <= 0) throw new IllegalArgumentException("segments must be > 0.");
+		int first = reserve(segments + 1, segments * 3);
+		float color = this.color;
+		vertex(x, y, color);
+		float angle = 2 * MathUtils.PI / segments;
+		float cos = MathUtils.cos(angle), sin = MathUtils.sin(angle);
+		float cx = radius, cy = 0;
+		for (int i = 0; i < segments; i++) {
+			vertex(x + cx, y + cy, color);
+			float temp = cx;
+			cx = cos * cx - sin * cy;
+			cy = sin * temp + cos * cy;
+		}
+		final short[] indices = this.indices;
+		int idx = indexIdx;
+		for (int i = 0; i < segments; i++) {
+			indices[idx++] = (short)first;
+			indices[idx++] = (short)(first + 1 + i);
+			indices[idx++] = (short)(first + 1 + (i + 1) % segments);
+		}
+		indexIdx = idx;
+	}
+
+	/** Draws the outline of a triangle. */
+	public void triangle (float x1, float y1, float x2, float y2, float x3, float y3) {
+		line(x1, y1, x2, y2);
+		line(x2, y2, x3, y3);
+		line(x3, y3, x1, y1);
+	}
+
+	public void filledTriangle (float x1, float y1, float x2, float y2, float x3, float y3) {
+		int first = reserve(3, 3);
+		float color = this.color;
+		vertex(x1, y1, color);
+		vertex(x2, y2, color);
+		vertex(x3, y3, color);
+		final short[] indices = this.indices;
+		int idx = indexIdx;
+		indices[idx] = (short)first;
+		indices[idx + 1] = (short)(first + 1);
+		indices[idx + 2] = (short)(first + 2);
+		indexIdx = idx + 3;
+	}
+
+	/** Draws connected line segments through the given x/y pairs.
+	 * @param closed whether to connect the last point with the first */
+	public void polyline (float[] points, int offset, int count, boolean closed) {
+		if (count < 4) return;
+		int end = offset + count - 2;
+		for (int i = offset; i < end; i += 2)
+			line(points[i], points[i + 1], points[i + 2], points[i + 3]);
+		if (closed) line(points[end], points[end + 1], points[offset], points[offset + 1]);
+	}
+
+	public void dispose () {
+		if (ownsShader && shader != null) shader.dispose();
+		mesh.dispose();
+	}
+}
@@ -22,6 +22,7 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL10;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Matrix4Utils;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 
 /** Renders points, lines, rectangles, filled rectangles and boxes. This class is not meant to be used for performance sensitive
@@ -196,7 +197,7 @@ public class ShapeRenderer {
 		currType = type;
 		if (matrixDirty) {
 			combined.set(projView);
-			Matrix4.mul(combined.val, transform.val);
+			Matrix4Utils.mul(combined.val, transform.val);
 			matrixDirty = false;
 		}
 		renderer.begin(combined, currType.getGlType());
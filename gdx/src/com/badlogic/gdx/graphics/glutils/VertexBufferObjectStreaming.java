@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL10;
+import com.badlogic.gdx.graphics.GL11;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.BufferUtils;
+
+/** <p>
+ * A {@link VertexData} implementation for vertices that change every frame, e.g. the vertices of a {@link SpriteBatch}. Instead
+ * of respecifying the whole OpenGL buffer on each upload like {@link VertexBufferObject}, the vertices are appended to a large
+ * ring buffer via glBufferSubData at a moving offset. Only when the ring buffer is full it is orphaned via glBufferData with a
+ * null pointer, so the driver can hand out fresh storage while the GPU still reads the old one.
+ * </p>
+ * 
+ * <p>
+ * The buffer returned by {@link #getBuffer()} is a direct buffer that is passed to OpenGL as is. Writing vertices straight into it
+ * and calling {@link #bind()} avoids the copy from a float[] that {@link #setVertices(float[], int, int)} has to do. Clear the
+ * buffer, put the vertices and flip it so that its limit equals the number of floats written.
+ * </p>
+ * 
+ * <p>
+ * Vertex attribute pointers are relative to the start of the last uploaded vertices, so index buffers and draw offsets work as
+ * with the other VertexData implementations. This class can be used with OpenGL ES 1.1 and 2.0. If the OpenGL ES context was lost
+ * call {@link #invalidate()}.
+ * </p> */
+public class VertexBufferObjectStreaming implements VertexData {
+	final static IntBuffer tmpHandle = BufferUtils.newIntBuffer(1);
+
+	final VertexAttributes attributes;
+	final FloatBuffer buffer;
+	final ByteBuffer byteBuffer;
+	final int ringSize;
+	int bufferHandle;
+	int writeOffset;
+	int vertexOffset;
+	boolean isDirty = false;
+	boolean isBound = false;
+	ShaderProgram boundShader;
+
+	/** number of times the ring buffer was orphaned, will not be reset, unless it's done manually **/
+	public int orphans = 0;
+
+	/** Constructs a new VertexBufferObjectStreaming with a ring buffer eight times the size of a single upload.
+	 * 
+	 * @param numVertices the maximum number of vertices per upload
+	 * @param attributes the {@link VertexAttribute}s. */
+	public VertexBufferObjectStreaming (int numVertices, VertexAttribute... attributes) {
+		this(numVertices, 8, new VertexAttributes(attributes));
+	}
+
+	/** Constructs a new VertexBufferObjectStreaming.
+	 * 
+	 * @param numVertices the maximum number of vertices per upload
+	 * @param segments the size of the ring buffer in multiples of numVertices
+	 * @param attributes the {@link VertexAttributes}. */
+	public VertexBufferObjectStreaming (int numVertices, int segments, VertexAttributes attributes) {
+		if (segments < 1) throw new IllegalArgumentException("segments must be >= 1");
+		this.attributes = attributes;
+
+		byteBuffer = BufferUtils.newUnsafeByteBuffer(attributes.vertexSize * numVertices);
+		buffer = byteBuffer.asFloatBuffer();
+		buffer.flip();
+		byteBuffer.flip();
+		ringSize = attributes.vertexSize * numVertices * segments;
+		bufferHandle = createBufferObject();
+	}
+
+	private int createBufferObject () {
+		if (Gdx.gl20 != null)
+			Gdx.gl20.glGenBuffers(1, tmpHandle);
+		else
+			Gdx.gl11.glGenBuffers(1, tmpHandle);
+		// the storage is allocated by the orphaning on the first upload
+		writeOffset = ringSize;
+		return tmpHandle.get(0);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public VertexAttributes getAttributes () {
+		return attributes;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int getNumVertices () {
+		return buffer.limit() * 4 / attributes.vertexSize;
+	}
+
+	/** {@inheritDoc} */
+	public int getNumMaxVertices () {
+		return byteBuffer.capacity() / attributes.vertexSize;
+	}
+
+	/** Returns the direct FloatBuffer holding the vertices of the next upload. The vertices are appended to the ring buffer on the
+	 * next call to {@link #bind()}. */
+	@Override
+	public FloatBuffer getBuffer () {
+		isDirty = true;
+		return buffer;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setVertices (float[] vertices, int offset, int count) {
+		isDirty = true;
+		BufferUtils.copy(vertices, byteBuffer, count, offset);
+		buffer.position(0);
+		buffer.limit(count);
+
+		if (isBound) {
+			upload();
+			if (boundShader != null)
+				setAttributePointers(boundShader);
+			else
+				setAttributePointers();
+		}
+	}
+
+	/** Appends the dirty vertices to the ring buffer, orphaning it if they don't fit in anymore. The buffer must be bound. */
+	private void upload () {
+		int size = buffer.limit() * 4;
+		byteBuffer.position(0);
+		byteBuffer.limit(size);
+		if (Gdx.gl20 != null) {
+			GL20 gl = Gdx.gl20;
+			if (writeOffset + size > ringSize) {
+				gl.glBufferData(GL20.GL_ARRAY_BUFFER, ringSize, null, GL20.GL_STREAM_DRAW);
+				writeOffset = 0;
+				orphans++;
+			}
+			gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, writeOffset, size, byteBuffer);
+		} else {
+			GL11 gl = Gdx.gl11;
+			if (writeOffset + size > ringSize) {
+				gl.glBufferData(GL11.GL_ARRAY_BUFFER, ringSize, null, GL11.GL_DYNAMIC_DRAW);
+				writeOffset = 0;
+				orphans++;
+			}
+			gl.glBufferSubData(GL11.GL_ARRAY_BUFFER, writeOffset, size, byteBuffer);
+		}
+		vertexOffset = writeOffset;
+		writeOffset += size;
+		isDirty = false;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void bind () {
+		Gdx.gl11.glBindBuffer(GL11.GL_ARRAY_BUFFER, bufferHandle);
+		if (isDirty) upload();
+		setAttributePointers();
+		isBound = true;
+	}
+
+	private void setAttributePointers () {
+		GL11 gl = Gdx.gl11;
+		int textureUnit = 0;
+		int numAttributes = attributes.size();
+
+		for (int i = 0; i < numAttributes; i++) {
+			VertexAttribute attribute = attributes.get(i);
+			int offset = vertexOffset + attribute.offset;
+
+			switch (attribute.usage) {
+			case Usage.Position:
+				gl.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+				gl.glVertexPointer(attribute.numComponents, GL10.GL_FLOAT, attributes.vertexSize, offset);
+				break;
+
+			case Usage.Color:
+			case Usage.ColorPacked:
+				int colorType = GL10.GL_FLOAT;
+				if (attribute.usage == Usage.ColorPacked) colorType = GL11.GL_UNSIGNED_BYTE;
+
+				gl.glEnableClientState(GL10.GL_COLOR_ARRAY);
+				gl.glColorPointer(attribute.numComponents, colorType, attributes.vertexSize, offset);
+				break;
+
+			case Usage.Normal:
+				gl.glEnableClientState(GL10.GL_NORMAL_ARRAY);
+				gl.glNormalPointer(GL10.GL_FLOAT, attributes.vertexSize, offset);
+				break;
+
+			case Usage.TextureCoordinates:
+				gl.glClientActiveTexture(GL10.GL_TEXTURE0 + textureUnit);
+				gl.glEnableClientState(GL10.GL_TEXTURE_COORD_ARRAY);
+				gl.glTexCoordPointer(attribute.numComponents, GL10.GL_FLOAT, attributes.vertexSize, offset);
+				textureUnit++;
+				break;
+
+			default:
+				// throw new GdxRuntimeException("unkown vertex attribute type: " + attribute.usage);
+			}
+		}
+	}
+
+	/** Binds this VertexBufferObjectStreaming for rendering via glDrawArrays or glDrawElements
+	 * 
+	 * @param shader the shader */
+	@Override
+	public void bind (ShaderProgram shader) {
+		Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, bufferHandle);
+		if (isDirty) upload();
+		setAttributePointers(shader);
+		boundShader = shader;
+		isBound = true;
+	}
+
+	private void setAttributePointers (ShaderProgram shader) {
+		int numAttributes = attributes.size();
+		for (int i = 0; i < numAttributes; i++) {
+			VertexAttribute attribute = attributes.get(i);
+			shader.enableVertexAttribute(attribute.alias);
+			int colorType = GL20.GL_FLOAT;
+			boolean normalize = false;
+			if (attribute.usage == Usage.ColorPacked) {
+				colorType = GL20.GL_UNSIGNED_BYTE;
+				normalize = true;
+			}
+			shader.setVertexAttribute(attribute.alias, attribute.numComponents, colorType, normalize, attributes.vertexSize,
+				vertexOffset + attribute.offset);
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void unbind () {
+		GL11 gl = Gdx.gl11;
+		int textureUnit = 0;
+		int numAttributes = attributes.size();
+
+		for (int i = 0; i < numAttributes; i++) {
+			VertexAttribute attribute = attributes.get(i);
+			switch (attribute.usage) {
+			case Usage.Position:
+				break; // no-op, we also need a position bound in gles
+			case Usage.Color:
+			case Usage.ColorPacked:
+				gl.glDisableClientState(GL11.GL_COLOR_ARRAY);
+				break;
+			case Usage.Normal:
+				gl.glDisableClientState(GL11.GL_NORMAL_ARRAY);
+				break;
+			case Usage.TextureCoordinates:
+				gl.glClientActiveTexture(GL11.GL_TEXTURE0 + textureUnit);
+				gl.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+				textureUnit++;
+				break;
+			default:
+				// throw new GdxRuntimeException("unkown vertex attribute type: " + attribute.usage);
+			}
+		}
+
+		gl.glBindBuffer(GL11.GL_ARRAY_BUFFER, 0);
+		isBound = false;
+	}
+
+	/** Unbinds this VertexBufferObjectStreaming.
+	 * 
+	 * @param shader the shader */
+	@Override
+	public void unbind (ShaderProgram shader) {
+		GL20 gl = Gdx.gl20;
+		int numAttributes = attributes.size();
+		for (int i = 0; i < numAttributes; i++) {
+			VertexAttribute attribute = attributes.get(i);
+			shader.disableVertexAttribute(attribute.alias);
+		}
+		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		boundShader = null;
+		isBound = false;
+	}
+
+	/** Invalidates the VertexBufferObjectStreaming so a new OpenGL buffer handle is created. Use this in case of a context loss. */
+	public void invalidate () {
+		bufferHandle = createBufferObject();
+		isDirty = true;
+	}
+
+	/** Disposes of all resources this VertexBufferObjectStreaming uses. */
+	@Override
+	public void dispose () {
+		tmpHandle.clear();
+		tmpHandle.put(bufferHandle);
+		tmpHandle.flip();
+		if (Gdx.gl20 != null) {
+			GL20 gl = Gdx.gl20;
+			gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+			gl.glDeleteBuffers(1, tmpHandle);
+		} else {
+			GL11 gl = Gdx.gl11;
+			gl.glBindBuffer(GL11.GL_ARRAY_BUFFER, 0);
+			gl.glDeleteBuffers(1, tmpHandle);
+		}
+		bufferHandle = 0;
+		BufferUtils.disposeUnsafeByteBuffer(byteBuffer);
+	}
+}
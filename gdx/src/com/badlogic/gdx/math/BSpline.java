@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+/** <p>
+ * A uniform cubic B-spline. It is smoother than a {@link CardinalSpline} but in general does not pass through its control points.
+ * An open spline with n control points has n - 3 segments, a closed one has n segments.
+ * </p> */
+public class BSpline extends Spline {
+	public BSpline (int dimensions) {
+		this(dimensions, false);
+	}
+
+	public BSpline (int dimensions, boolean closed) {
+		super(dimensions, closed);
+	}
+
+	public int getSegmentCount () {
+		if (closed) return pointCount < 2 ? 0 : pointCount;
+		return Math.max(pointCount - 3, 0);
+	}
+
+	protected int getFirstPointIndex (int segment) {
+		return segment;
+	}
+
+	protected void getWeights (float u, boolean derivative, float[] weights) {
+		float u2 = u * u;
+		if (derivative) {
+			weights[0] = (-3 * u2 + 6 * u - 3) / 6;
+			weights[1] = (9 * u2 - 12 * u) / 6;
+			weights[2] = (-9 * u2 + 6 * u + 3) / 6;
+			weights[3] = 3 * u2 / 6;
+		} else {
+			float u3 = u2 * u;
+			weights[0] = (-u3 + 3 * u2 - 3 * u + 1) / 6;
+			weights[1] = (3 * u3 - 6 * u2 + 4) / 6;
+			weights[2] = (-3 * u3 + 3 * u2 + 3 * u + 1) / 6;
+			weights[3] = u3 / 6;
+		}
+	}
+}
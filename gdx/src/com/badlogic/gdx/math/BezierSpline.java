@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+/** <p>
+ * A spline made of cubic Bezier curves. Each segment uses four control points, start, two handles and end, and shares its end
+ * point with the start of the next segment, so a spline with n segments has 3 * n + 1 control points. The spline passes through
+ * the start and end points but in general not through the handles. A closed spline uses the first control point as the end
+ * point of the last segment, so it has 3 * n control points.
+ * </p> */
+public class BezierSpline extends Spline {
+	public BezierSpline (int dimensions) {
+		this(dimensions, false);
+	}
+
+	public BezierSpline (int dimensions, boolean closed) {
+		super(dimensions, closed);
+	}
+
+	public int getSegmentCount () {
+		if (closed) return pointCount / 3;
+		return pointCount < 4 ? 0 : (pointCount - 1) / 3;
+	}
+
+	protected int getFirstPointIndex (int segment) {
+		return segment * 3;
+	}
+
+	protected void getWeights (float u, boolean derivative, float[] weights) {
+		float v = 1 - u;
+		if (derivative) {
+			weights[0] = -3 * v * v;
+			weights[1] = 3 * v * v - 6 * u * v;
+			weights[2] = 6 * u * v - 3 * u * u;
+			weights[3] = 3 * u * u;
+		} else {
+			weights[0] = v * v * v;
+			weights[1] = 3 * u * v * v;
+			weights[2] = 3 * u * u * v;
+			weights[3] = u * u * u;
+		}
+	}
+}
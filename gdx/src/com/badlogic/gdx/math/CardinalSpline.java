@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+/** <p>
+ * A cardinal spline passing through its control points. With the default tension of 0 it is a Catmull-Rom spline, a tension of 1
+ * gives straight lines between the control points.
+ * </p>
+ * 
+ * <p>
+ * An open spline runs from the second to the second to last control point, the first and last control points only shape the
+ * tangents at the ends, like {@link CatmullRomSpline}. A closed spline runs through all control points and back to the first
+ * one.
+ * </p> */
+public class CardinalSpline extends Spline {
+	private final float scale;
+
+	/** Creates an open Catmull-Rom spline. */
+	public CardinalSpline (int dimensions) {
+		this(dimensions, 0, false);
+	}
+
+	/** @param tension scales the tangents by 1 - tension, 0 for a Catmull-Rom spline */
+	public CardinalSpline (int dimensions, float tension, boolean closed) {
+		super(dimensions, closed);
+		scale = (1 - tension) * 0.5f;
+	}
+
+	public int getSegmentCount () {
+		if (closed) return pointCount < 2 ? 0 : pointCount;
+		return Math.max(pointCount - 3, 0);
+	}
+
+	protected int getFirstPointIndex (int segment) {
+		return closed ? segment - 1 : segment;
+	}
+
+	protected void getWeights (float u, boolean derivative, float[] weights) {
+		// hermite basis with the tangents (p2 - p0) * scale and (p3 - p1) * scale
+		float h00, h01, h10, h11;
+		if (derivative) {
+			h00 = 6 * u * u - 6 * u;
+			h01 = -h00;
+			h10 = 3 * u * u - 4 * u + 1;
+			h11 = 3 * u * u - 2 * u;
+		} else {
+			float u2 = u * u, u3 = u2 * u;
+			h00 = 2 * u3 - 3 * u2 + 1;
+			h01 = 1 - h00;
+			h10 = u3 - 2 * u2 + u;
+			h11 = u3 - u2;
+		}
+		float scale = this.scale;
+		weights[0] = -scale * h10;
+		weights[1] = h00 - scale * h11;
+		weights[2] = h01 + scale * h10;
+		weights[3] = scale * h11;
+	}
+}
@@ -21,7 +21,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 /** Encapsulates a catmull rom spline with n control points, n >= 4. For more information on this type of spline see
- * http://www.mvps.org/directx/articles/catmull/.
+ * http://www.mvps.org/directx/articles/catmull/. The methods of this class allocate and sample uniformly in parameter space, use
+ * {@link CardinalSpline} for allocation free and constant speed evaluation.
  * 
  * @author badlogicgames@gmail.com */
 public class CatmullRomSpline implements Serializable {
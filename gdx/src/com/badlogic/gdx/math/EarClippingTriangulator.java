@@ -20,7 +20,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-/** A simple implementation of the ear cutting algorithm to triangulate simple polygons without holes. For more information:
+/** A simple implementation of the ear cutting algorithm to triangulate simple polygons without holes. It creates a new Vector2
+ * for every triangle vertex, use {@link PolygonTriangulator} to triangulate polygons at runtime. For more information:
  * http://cgm.cs.mcgill.ca/~godfried/teaching/cg-projects/97/Ian/algorithm2.html
  * http://www.geometrictools.com/Documentation/TriangulationByEarClipping.pdf
  * 
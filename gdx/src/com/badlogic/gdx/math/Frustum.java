@@ -55,7 +55,7 @@ public class Frustum {
 	 * @param inverseProjectionView the combined projection and view matrices. */
 	public void update (Matrix4 inverseProjectionView) {
 		System.arraycopy(clipSpacePlanePointsArray, 0, planePointsArray, 0, clipSpacePlanePointsArray.length);
-		Matrix4.prj(inverseProjectionView.val, planePointsArray, 0, 8, 3);
+		Matrix4Utils.prj(inverseProjectionView.val, planePointsArray, 0, 8, 3);
 		for (int i = 0, j = 0; i < 8; i++) {
 			Vector3 v = planePoints[i];
 			v.x = planePointsArray[j++];
@@ -123,16 +123,15 @@ public class Frustum {
 	 * @param bounds The bounding box
 	 * @return Wheter the bounding box is in the frustum */
 	public boolean boundsInFrustum (BoundingBox bounds) {
-		Vector3[] corners = bounds.getCorners();
-		int len = corners.length;
+		Vector3 min = bounds.min, max = bounds.max;
 
 		for (int i = 0, len2 = planes.length; i < len2; i++) {
-			int out = 0;
-
-			for (int j = 0; j < len; j++)
-				if (planes[i].testPoint(corners[j]) == PlaneSide.Back) out++;
-
-			if (out == 8) return false;
+			// the box is outside if the corner furthest along the plane normal is behind the plane
+			Vector3 normal = planes[i].normal;
+			float x = normal.x >= 0 ? max.x : min.x;
+			float y = normal.y >= 0 ? max.y : min.y;
+			float z = normal.z >= 0 ? max.z : min.z;
+			if (normal.x * x + normal.y * y + normal.z * z + planes[i].d < 0) return false;
 		}
 
 		return true;
@@ -0,0 +1,358 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.NumberUtils;
+
+/** <p>
+ * Culls large numbers of spheres or axis aligned boxes against a {@link Frustum} in one call. The objects are given as structure
+ * of arrays, one float array per component, and the result is either a list of the visible indices or a bit mask with one bit
+ * per object. This avoids the per object overhead of {@link Frustum#sphereInFrustum(Vector3, float)} and
+ * {@link Frustum#boundsInFrustum(com.badlogic.gdx.math.collision.BoundingBox)}.
+ * </p>
+ *
+ * <p>
+ * The objects are processed in blocks. For each block the visibility of every object is computed in a loop without branches,
+ * and then compacted into the output in a second pass that again does not branch on the result. If the culler was created
+ * with more than one thread, calls with at least {@link #parallelThreshold} objects are split across a pool of worker threads.
+ * The pool must be released with {@link #dispose()}.
+ * </p>
+ *
+ * <p>
+ * Objects that stay outside the frustum usually stay outside because of the same plane. If a byte array is passed as plane cache,
+ * the plane an object failed on is stored and tested first in the next call, so most invisible objects are rejected with a
+ * single plane test.
+ * </p>
+ *
+ * <p>
+ * Spheres are given by center and radius, boxes by center and half extents. An object is culled if it is completely behind one
+ * of the planes, which like the tests in Frustum is conservative near the edges of the frustum.
+ * </p> */
+public class FrustumCuller implements Disposable {
+	static final int BLOCK = 256;
+
+	/** calls with fewer objects are always processed on the calling thread **/
+	public int parallelThreshold = 8192;
+
+	/** normal x, y, z and distance of the six planes **/
+	final float[] planes = new float[24];
+	private final ExecutorService executor;
+	private final List<Worker> workers;
+	private final Worker worker;
+
+	/** Creates a culler that processes all objects on the calling thread. */
+	public FrustumCuller () {
+		this(1);
+	}
+
+	/** @param threads the number of worker threads used for large calls, e.g.
+	 *           <code>Runtime.getRuntime().availableProcessors()</code>. 1 processes all objects on the calling thread. */
+	public FrustumCuller (int threads) {
+		worker = new Worker();
+		if (threads > 1) {
+			workers = new ArrayList<Worker>(threads);
+			for (int i = 0; i < threads; i++)
+				workers.add(new Worker());
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				@Override
+				public Thread newThread (Runnable r) {
+					Thread thread = new Thread(r, "FrustumCuller-Worker-Thread");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		} else {
+			workers = null;
+			executor = null;
+		}
+	}
+
+	/** Copies the planes of the frustum. Has to be called whenever the frustum changed, e.g. after
+	 * {@link com.badlogic.gdx.graphics.Camera#update()}.
+	 * @param frustum the frustum
+	 * @return this culler for chaining */
+	public FrustumCuller set (Frustum frustum) {
+		for (int i = 0, j = 0; i < 6; i++) {
+			Plane plane = frustum.planes[i];
+			planes[j++] = plane.normal.x;
+			planes[j++] = plane.normal.y;
+			planes[j++] = plane.normal.z;
+			planes[j++] = plane.d;
+		}
+		return this;
+	}
+
+	/** Writes the indices of all visible spheres to visible.
+	 * @param x the x coordinates of the centers
+	 * @param y the y coordinates of the centers
+	 * @param z the z coordinates of the centers
+	 * @param radius the radii
+	 * @param offset the index of the first sphere
+	 * @param count the number of spheres
+	 * @param planeCache the plane each sphere failed on in the previous call, indexed like the spheres. May be null.
+	 * @param visible receives the indices of the visible spheres, must have room for count indices
+	 * @return the number of visible spheres */
+	public int cullSpheres (float[] x, float[] y, float[] z, float[] radius, int offset, int count, byte[] planeCache,
+		int[] visible) {
+		return cull(false, false, x, y, z, radius, null, null, offset, count, planeCache, visible);
+	}
+
+	/** Sets bit i of the mask, that is bit <code>i &amp; 31</code> of <code>mask[i &gt;&gt;&gt; 5]</code>, if sphere
+	 * <code>offset + i</code> is visible and clears it otherwise.
+	 * @param mask the bit mask, must have room for count bits
+	 * @return the number of visible spheres
+	 * @see #cullSpheres(float[], float[], float[], float[], int, int, byte[], int[]) */
+	public int cullSpheresMask (float[] x, float[] y, float[] z, float[] radius, int offset, int count, byte[] planeCache,
+		int[] mask) {
+		return cull(false, true, x, y, z, radius, null, null, offset, count, planeCache, mask);
+	}
+
+	/** Writes the indices of all visible axis aligned boxes to visible.
+	 * @param x the x coordinates of the centers
+	 * @param y the y coordinates of the centers
+	 * @param z the z coordinates of the centers
+	 * @param halfWidth the half extents along the x axis
+	 * @param halfHeight the half extents along the y axis
+	 * @param halfDepth the half extents along the z axis
+	 * @param offset the index of the first box
+	 * @param count the number of boxes
+	 * @param planeCache the plane each box failed on in the previous call, indexed like the boxes. May be null.
+	 * @param visible receives the indices of the visible boxes, must have room for count indices
+	 * @return the number of visible boxes */
+	public int cullBoxes (float[] x, float[] y, float[] z, float[] halfWidth, float[] halfHeight, float[] halfDepth, int offset,
+		int count, byte[] planeCache, int[] visible) {
+		return cull(true, false, x, y, z, halfWidth, halfHeight, halfDepth, offset, count, planeCache, visible);
+	}
+
+	/** Sets bit i of the mask, that is bit <code>i &amp; 31</code> of <code>mask[i &gt;&gt;&gt; 5]</code>, if box
+	 * <code>offset + i</code> is visible and clears it otherwise.
+	 * @param mask the bit mask, must have room for count bits
+	 * @return the number of visible boxes
+	 * @see #cullBoxes(float[], float[], float[], float[], float[], float[], int, int, byte[], int[]) */
+	public int cullBoxesMask (float[] x, float[] y, float[] z, float[] halfWidth, float[] halfHeight, float[] halfDepth,
+		int offset, int count, byte[] planeCache, int[] mask) {
+		return cull(true, true, x, y, z, halfWidth, halfHeight, halfDepth, offset, count, planeCache, mask);
+	}
+
+	private int cull (boolean boxes, boolean mask, float[] x, float[] y, float[] z, float[] a, float[] b, float[] c, int offset,
+		int count, byte[] planeCache, int[] out) {
+		if (executor == null || count < parallelThreshold) {
+			worker.set(boxes, mask, x, y, z, a, b, c, offset, 0, count, planeCache, out);
+			worker.call();
+			return worker.visible;
+		}
+
+		// split into ranges that are multiples of 32, so each worker writes separate words of a mask
+		List<Worker> workers = this.workers;
+		int threads = workers.size();
+		int range = ((count + threads - 1) / threads + 31) & ~31;
+		for (int i = 0; i < threads; i++) {
+			int start = Math.min(count, i * range), end = Math.min(count, start + range);
+			workers.get(i).set(boxes, mask, x, y, z, a, b, c, offset, start, end, planeCache, out);
+		}
+		try {
+			List<Future<Object>> results = executor.invokeAll(workers);
+			for (int i = 0; i < threads; i++)
+				results.get(i).get();
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException("interrupted while culling", e);
+		} catch (ExecutionException e) {
+			throw new GdxRuntimeException("couldn't cull", e.getCause());
+		}
+
+		// every worker wrote its indices at the start of its range, move them together
+		int visible = 0;
+		for (int i = 0; i < threads; i++) {
+			Worker worker = workers.get(i);
+			if (!mask && visible != worker.start) System.arraycopy(out, worker.start, out, visible, worker.visible);
+			visible += worker.visible;
+		}
+		return visible;
+	}
+
+	/** Shuts down the worker threads. */
+	@Override
+	public void dispose () {
+		if (executor == null) return;
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException("Couldn't shutdown culling threads", e);
+		}
+	}
+
+	/** Culls a range of objects, on the calling thread or on one of the pool threads. */
+	private class Worker implements Callable<Object> {
+		final int[] flags = new int[BLOCK];
+		boolean boxes, mask;
+		float[] x, y, z, a, b, c;
+		int offset, start, end, visible;
+		byte[] planeCache;
+		int[] out;
+
+		void set (boolean boxes, boolean mask, float[] x, float[] y, float[] z, float[] a, float[] b, float[] c, int offset,
+			int start, int end, byte[] planeCache, int[] out) {
+			this.boxes = boxes;
+			this.mask = mask;
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.a = a;
+			this.b = b;
+			this.c = c;
+			this.offset = offset;
+			this.start = start;
+			this.end = end;
+			this.planeCache = planeCache;
+			this.out = out;
+		}
+
+		public Object call () {
+			int[] flags = this.flags, out = this.out;
+			int visible = 0, written = start;
+			for (int blockStart = start; blockStart < end; blockStart += BLOCK) {
+				int n = Math.min(BLOCK, end - blockStart), first = offset + blockStart;
+				if (planeCache != null)
+					coherent(first, n);
+				else if (boxes)
+					boxes(first, n);
+				else
+					spheres(first, n);
+
+				if (mask) {
+					// blocks are multiples of 32, only the last one can end within a word
+					for (int i = 0, word = blockStart >>> 5; i < n; i += 32, word++) {
+						int bits = 0;
+						for (int j = 0, m = Math.min(32, n - i); j < m; j++)
+							bits |= flags[i + j] << j;
+						out[word] = bits;
+						visible += Integer.bitCount(bits);
+					}
+				} else {
+					// the index is always written, but the write position only advances for visible objects
+					for (int i = 0; i < n; i++) {
+						out[written] = first + i;
+						written += flags[i];
+					}
+				}
+			}
+			this.visible = mask ? visible : written - start;
+			x = y = z = a = b = c = null;
+			planeCache = null;
+			this.out = null;
+			return null;
+		}
+
+		/** Sets the flag of each sphere to 1 if it is in front of all planes. The sign bits of the distances are combined instead of
+		 * comparing them, which keeps the loop free of branches that would be mispredicted for randomly placed objects. */
+		private void spheres (int first, int n) {
+			float[] p = planes, x = this.x, y = this.y, z = this.z, radius = a;
+			int[] flags = this.flags;
+			float n0x = p[0], n0y = p[1], n0z = p[2], d0 = p[3], n1x = p[4], n1y = p[5], n1z = p[6], d1 = p[7];
+			float n2x = p[8], n2y = p[9], n2z = p[10], d2 = p[11], n3x = p[12], n3y = p[13], n3z = p[14], d3 = p[15];
+			float n4x = p[16], n4y = p[17], n4z = p[18], d4 = p[19], n5x = p[20], n5y = p[21], n5z = p[22], d5 = p[23];
+			for (int i = 0; i < n; i++) {
+				int j = first + i;
+				float px = x[j], py = y[j], pz = z[j], r = radius[j];
+				int outside = NumberUtils.floatToRawIntBits(n0x * px + n0y * py + n0z * pz + d0 + r)
+					| NumberUtils.floatToRawIntBits(n1x * px + n1y * py + n1z * pz + d1 + r)
+					| NumberUtils.floatToRawIntBits(n2x * px + n2y * py + n2z * pz + d2 + r)
+					| NumberUtils.floatToRawIntBits(n3x * px + n3y * py + n3z * pz + d3 + r)
+					| NumberUtils.floatToRawIntBits(n4x * px + n4y * py + n4z * pz + d4 + r)
+					| NumberUtils.floatToRawIntBits(n5x * px + n5y * py + n5z * pz + d5 + r);
+				flags[i] = ~outside >>> 31;
+			}
+		}
+
+		/** Sets the flag of each box to 1 if the corner furthest along each plane normal is in front of the plane. */
+		private void boxes (int first, int n) {
+			float[] p = planes, x = this.x, y = this.y, z = this.z, ex = a, ey = b, ez = c;
+			int[] flags = this.flags;
+			float n0x = p[0], n0y = p[1], n0z = p[2], d0 = p[3], n1x = p[4], n1y = p[5], n1z = p[6], d1 = p[7];
+			float n2x = p[8], n2y = p[9], n2z = p[10], d2 = p[11], n3x = p[12], n3y = p[13], n3z = p[14], d3 = p[15];
+			float n4x = p[16], n4y = p[17], n4z = p[18], d4 = p[19], n5x = p[20], n5y = p[21], n5z = p[22], d5 = p[23];
+			float a0x = Math.abs(n0x), a0y = Math.abs(n0y), a0z = Math.abs(n0z), a1x = Math.abs(n1x), a1y = Math.abs(n1y), a1z = Math
+				.abs(n1z);
+			float a2x = Math.abs(n2x), a2y = Math.abs(n2y), a2z = Math.abs(n2z), a3x = Math.abs(n3x), a3y = Math.abs(n3y), a3z = Math
+				.abs(n3z);
+			float a4x = Math.abs(n4x), a4y = Math.abs(n4y), a4z = Math.abs(n4z), a5x = Math.abs(n5x), a5y = Math.abs(n5y), a5z = Math
+				.abs(n5z);
+			for (int i = 0; i < n; i++) {
+				int j = first + i;
+				float px = x[j], py = y[j], pz = z[j], hx = ex[j], hy = ey[j], hz = ez[j];
+				int outside = NumberUtils.floatToRawIntBits(n0x * px + n0y * py + n0z * pz + d0 + a0x * hx + a0y * hy + a0z * hz)
+					| NumberUtils.floatToRawIntBits(n1x * px + n1y * py + n1z * pz + d1 + a1x * hx + a1y * hy + a1z * hz)
+					| NumberUtils.floatToRawIntBits(n2x * px + n2y * py + n2z * pz + d2 + a2x * hx + a2y * hy + a2z * hz)
+					| NumberUtils.floatToRawIntBits(n3x * px + n3y * py + n3z * pz + d3 + a3x * hx + a3y * hy + a3z * hz)
+					| NumberUtils.floatToRawIntBits(n4x * px + n4y * py + n4z * pz + d4 + a4x * hx + a4y * hy + a4z * hz)
+					| NumberUtils.floatToRawIntBits(n5x * px + n5y * py + n5z * pz + d5 + a5x * hx + a5y * hy + a5z * hz);
+				flags[i] = ~outside >>> 31;
+			}
+		}
+
+		/** Tests the plane each object failed on last time first and remembers the first failing plane. */
+		private void coherent (int first, int n) {
+			float[] p = planes, x = this.x, y = this.y, z = this.z;
+			int[] flags = this.flags;
+			byte[] planeCache = this.planeCache;
+			boolean boxes = this.boxes;
+			for (int i = 0; i < n; i++) {
+				int j = first + i;
+				float px = x[j], py = y[j], pz = z[j], hx = a[j], hy = 0, hz = 0;
+				if (boxes) {
+					hy = b[j];
+					hz = c[j];
+				}
+				int plane = planeCache[j];
+				float distance = distance(p, plane, boxes, px, py, pz, hx, hy, hz);
+				if (distance < 0) {
+					flags[i] = 0;
+					continue;
+				}
+				for (plane = 0; plane < 6; plane++) {
+					distance = distance(p, plane, boxes, px, py, pz, hx, hy, hz);
+					if (distance < 0) {
+						planeCache[j] = (byte)plane;
+						break;
+					}
+				}
+				flags[i] = distance < 0 ? 0 : 1;
+			}
+		}
+
+		private float distance (float[] p, int plane, boolean boxes, float px, float py, float pz, float hx, float hy, float hz) {
+			int k = plane * 4;
+			float nx = p[k], ny = p[k + 1], nz = p[k + 2];
+			float distance = nx * px + ny * py + nz * pz + p[k + 3];
+			if (boxes) return distance + Math.abs(nx) * hx + Math.abs(ny) * hy + Math.abs(nz) * hz;
+			return distance + hx;
+		}
+	}
+}
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/** <p>
+ * A {@link SpatialIndex} that stores each box in exactly one node of a loose quadtree. The bounds of a node are extended by half
+ * its size on each side, so a box fits into the deepest node that is at least as large as the box and contains the center of the
+ * box. Finding that node takes constant time, which keeps updates of moving boxes cheap. Unlike a {@link SpatialHash} it copes
+ * well with boxes of very different sizes.
+ * </p>
+ * 
+ * <p>
+ * The tree covers a fixed square area given to the constructor. Boxes outside of it are kept in the root node and are tested by
+ * every query. The nodes of all levels are allocated up front, (4^(maxDepth + 1) - 1) / 3 of them.
+ * </p> */
+public class LooseQuadTree extends SpatialIndex {
+	static private final int MAX_DEPTH = 10;
+
+	private final float x, y, size;
+	private final int maxDepth;
+	private final int[] levelStart;
+
+	// per node, the first box stored in the node and the number of boxes in the subtree
+	private final int[] nodeHead, nodeCount;
+	// per handle, the node and the links of the node's list of boxes
+	private int[] handleNode = new int[16], handleNext = new int[16], handlePrev = new int[16];
+
+	// traversal stack, three ints (level, x, y) per node
+	private int[] stack = new int[3 * 4 * (MAX_DEPTH + 1)];
+
+	/** @param x the x-coordinate of the lower left corner of the covered area
+	 * @param y the y-coordinate of the lower left corner of the covered area
+	 * @param size the width and height of the covered area
+	 * @param maxDepth the depth of the deepest nodes, the root has depth 0, at most 10 */
+	public LooseQuadTree (float x, float y, float size, int maxDepth) {
+		if (size <= 0) throw new IllegalArgumentException("size must be > 0: " + size);
+		if (maxDepth < 0 || maxDepth > MAX_DEPTH)
+			throw new IllegalArgumentException("maxDepth must be >= 0 and <= " + MAX_DEPTH + ": " + maxDepth);
+		this.x = x;
+		this.y = y;
+		this.size = size;
+		this.maxDepth = maxDepth;
+		levelStart = new int[maxDepth + 2];
+		for (int level = 1; level <= maxDepth + 1; level++)
+			levelStart[level] = levelStart[level - 1] + (1 << (2 * (level - 1)));
+		int nodes = levelStart[maxDepth + 1];
+		nodeHead = new int[nodes];
+		nodeCount = new int[nodes];
+		for (int i = 0; i < nodes; i++)
+			nodeHead[i] = -1;
+	}
+
+	public int getMaxDepth () {
+		return maxDepth;
+	}
+
+	protected void insert (int handle) {
+		int i = handle * 4;
+		int node = findNode(bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3]);
+		link(handle, node);
+	}
+
+	protected void delete (int handle) {
+		unlink(handle);
+	}
+
+	protected void move (int handle, float minX, float minY, float maxX, float maxY) {
+		setBounds(handle, minX, minY, maxX, maxY);
+		int node = findNode(minX, minY, maxX, maxY);
+		if (node == handleNode[handle]) return;
+		unlink(handle);
+		link(handle, node);
+	}
+
+	protected void reset () {
+		int[] nodeHead = this.nodeHead, nodeCount = this.nodeCount;
+		for (int i = 0, n = nodeHead.length; i < n; i++) {
+			nodeHead[i] = -1;
+			nodeCount[i] = 0;
+		}
+	}
+
+	protected float initialSearchRadius () {
+		return size / (1 << maxDepth);
+	}
+
+	protected void resizeHandles (int capacity) {
+		handleNode = resize(handleNode, capacity);
+		handleNext = resize(handleNext, capacity);
+		handlePrev = resize(handlePrev, capacity);
+	}
+
+	public int query (float minX, float minY, float maxX, float maxY, IntArray results) {
+		int start = results.size;
+		int[] nodeHead = this.nodeHead, nodeCount = this.nodeCount, handleNext = this.handleNext, levelStart = this.levelStart;
+		int[] stack = this.stack;
+		int top = 0;
+		stack[top++] = 0;
+		stack[top++] = 0;
+		stack[top++] = 0;
+		while (top > 0) {
+			int cellY = stack[--top], cellX = stack[--top], level = stack[--top];
+			int node = levelStart[level] + (cellY << level) + cellX;
+			for (int handle = nodeHead[node]; handle != -1; handle = handleNext[handle])
+				if (overlaps(handle, minX, minY, maxX, maxY)) results.add(handle);
+			if (level == maxDepth) continue;
+			int childLevel = level + 1;
+			float childSize = size / (1 << childLevel), loose = childSize * 0.5f;
+			for (int i = 0; i < 4; i++) {
+				int childX = (cellX << 1) + (i & 1), childY = (cellY << 1) + (i >> 1);
+				if (nodeCount[levelStart[childLevel] + (childY << childLevel) + childX] == 0) continue;
+				float nodeMinX = x + childX * childSize - loose, nodeMinY = y + childY * childSize - loose;
+				if (nodeMinX > maxX || nodeMinX + childSize + 2 * loose < minX) continue;
+				if (nodeMinY > maxY || nodeMinY + childSize + 2 * loose < minY) continue;
+				stack[top++] = childLevel;
+				stack[top++] = childX;
+				stack[top++] = childY;
+			}
+		}
+		return results.size - start;
+	}
+
+	public int raycast (float x, float y, float dirX, float dirY, float maxDistance, IntArray results) {
+		int start = results.size;
+		int[] nodeHead = this.nodeHead, nodeCount = this.nodeCount, handleNext = this.handleNext, levelStart = this.levelStart;
+		int[] stack = this.stack;
+		int top = 0;
+		stack[top++] = 0;
+		stack[top++] = 0;
+		stack[top++] = 0;
+		while (top > 0) {
+			int cellY = stack[--top], cellX = stack[--top], level = stack[--top];
+			int node = levelStart[level] + (cellY << level) + cellX;
+			for (int handle = nodeHead[node]; handle != -1; handle = handleNext[handle])
+				if (rayDistance(handle, x, y, dirX, dirY, maxDistance) != Float.POSITIVE_INFINITY) results.add(handle);
+			if (level == maxDepth) continue;
+			int childLevel = level + 1;
+			float childSize = size / (1 << childLevel), loose = childSize * 0.5f;
+			for (int i = 0; i < 4; i++) {
+				int childX = (cellX << 1) + (i & 1), childY = (cellY << 1) + (i >> 1);
+				if (nodeCount[levelStart[childLevel] + (childY << childLevel) + childX] == 0) continue;
+				float nodeMinX = this.x + childX * childSize - loose, nodeMinY = this.y + childY * childSize - loose;
+				float nodeSize = childSize + 2 * loose;
+				float distance = rayDistance(x, y, dirX, dirY, maxDistance, nodeMinX, nodeMinY, nodeMinX + nodeSize, nodeMinY + nodeSize);
+				if (distance == Float.POSITIVE_INFINITY) continue;
+				stack[top++] = childLevel;
+				stack[top++] = childX;
+				stack[top++] = childY;
+			}
+		}
+		return results.size - start;
+	}
+
+	/** @return the deepest node whose loose bounds contain the box, or the root */
+	private int findNode (float minX, float minY, float maxX, float maxY) {
+		float extent = Math.max(maxX - minX, maxY - minY);
+		int level = 0;
+		float nodeSize = size;
+		while (level < maxDepth && extent <= nodeSize * 0.5f) {
+			nodeSize *= 0.5f;
+			level++;
+		}
+		if (level == 0) return 0;
+		int cellX = (int)Math.floor(((minX + maxX) * 0.5f - x) / nodeSize);
+		int cellY = (int)Math.floor(((minY + maxY) * 0.5f - y) / nodeSize);
+		int cells = 1 << level;
+		if (cellX < 0 || cellY < 0 || cellX >= cells || cellY >= cells) return 0;
+		return levelStart[level] + (cellY << level) + cellX;
+	}
+
+	private void link (int handle, int node) {
+		int head = nodeHead[node];
+		handleNext[handle] = head;
+		handlePrev[handle] = -1;
+		if (head != -1) handlePrev[head] = handle;
+		nodeHead[node] = handle;
+		handleNode[handle] = node;
+		changeCount(node, 1);
+	}
+
+	private void unlink (int handle) {
+		int node = handleNode[handle];
+		int prev = handlePrev[handle], next = handleNext[handle];
+		if (prev == -1)
+			nodeHead[node] = next;
+		else
+			handleNext[prev] = next;
+		if (next != -1) handlePrev[next] = prev;
+		changeCount(node, -1);
+	}
+
+	/** Adds the amount to the box count of the node and all its parents. */
+	private void changeCount (int node, int amount) {
+		int level = 0;
+		while (level < maxDepth && levelStart[level + 1] <= node)
+			level++;
+		int cell = node - levelStart[level];
+		int cellX = cell & ((1 << level) - 1), cellY = cell >> level;
+		for (; level >= 0; level--, cellX >>= 1, cellY >>= 1)
+			nodeCount[levelStart[level] + (cellY << level) + cellX] += amount;
+	}
+
+	static private int[] resize (int[] array, int capacity) {
+		int[] newArray = new int[capacity];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+}
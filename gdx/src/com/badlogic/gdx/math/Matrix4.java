@@ -20,6 +20,7 @@ import java.io.Serializable;
 
 /** Encapsulates a column major 4 by 4 matrix. You can access the linear array for use with OpenGL via the public
  * {@link Matrix4#val} member. Like the {@link Vector3} class it allows to chain methods by returning a reference to itself.
+ * See {@link Matrix4Utils} for pure Java versions of the native static methods and for bulk operations.
  * 
  * @author badlogicgames@gmail.com */
 public class Matrix4 implements Serializable {
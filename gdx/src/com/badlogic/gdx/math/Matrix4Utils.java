@@ -0,0 +1,403 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+import static com.badlogic.gdx.math.Matrix4.*;
+
+/** <p>
+ * Pure Java counterparts of the static JNI methods in {@link Matrix4}, plus bulk operations that work on many matrices or
+ * vertices at once. All arrays are assumed to hold 4x4 column major matrices as you can get from {@link Matrix4#val}, packed
+ * back to back when an array holds more than one matrix.
+ * </p>
+ * 
+ * <p>
+ * A JNI call has a fixed cost that is larger than the work done for a single 4x4 matrix multiplication on a JIT, so for single
+ * matrices and short runs of vectors these methods are faster than their native counterparts on the desktop and on Android
+ * devices with a JIT. They also work on backends without native code. The native methods in {@link Matrix4} are still available
+ * and can be faster on very long vertex arrays on older Android devices, see the MatrixJNITest for a comparison.
+ * </p>
+ * 
+ * <p>
+ * None of the methods allocate memory. Source and destination arrays may be the same array unless stated otherwise.
+ * </p> */
+public final class Matrix4Utils {
+	private Matrix4Utils () {
+	}
+
+	/** Multiplies the matrix mata with matrix matb, storing the result in mata. Same as {@link Matrix4#mul(float[], float[])}.
+	 * 
+	 * @param mata the first matrix.
+	 * @param matb the second matrix. */
+	public static void mul (float[] mata, float[] matb) {
+		mul(mata, 0, matb, 0, mata, 0);
+	}
+
+	/** Multiplies the matrix at offset a in mata with the matrix at offset b in matb and stores the result at offset result in
+	 * out. The output may overlap either input.
+	 * 
+	 * @param mata the array holding the left matrix
+	 * @param a the offset of the left matrix
+	 * @param matb the array holding the right matrix
+	 * @param b the offset of the right matrix
+	 * @param out the array receiving the result
+	 * @param result the offset of the result */
+	public static void mul (float[] mata, int a, float[] matb, int b, float[] out, int result) {
+		float a00 = mata[a + M00], a01 = mata[a + M01], a02 = mata[a + M02], a03 = mata[a + M03];
+		float a10 = mata[a + M10], a11 = mata[a + M11], a12 = mata[a + M12], a13 = mata[a + M13];
+		float a20 = mata[a + M20], a21 = mata[a + M21], a22 = mata[a + M22], a23 = mata[a + M23];
+		float a30 = mata[a + M30], a31 = mata[a + M31], a32 = mata[a + M32], a33 = mata[a + M33];
+		float b00 = matb[b + M00], b01 = matb[b + M01], b02 = matb[b + M02], b03 = matb[b + M03];
+		float b10 = matb[b + M10], b11 = matb[b + M11], b12 = matb[b + M12], b13 = matb[b + M13];
+		float b20 = matb[b + M20], b21 = matb[b + M21], b22 = matb[b + M22], b23 = matb[b + M23];
+		float b30 = matb[b + M30], b31 = matb[b + M31], b32 = matb[b + M32], b33 = matb[b + M33];
+		out[result + M00] = a00 * b00 + a01 * b10 + a02 * b20 + a03 * b30;
+		out[result + M01] = a00 * b01 + a01 * b11 + a02 * b21 + a03 * b31;
+		out[result + M02] = a00 * b02 + a01 * b12 + a02 * b22 + a03 * b32;
+		out[result + M03] = a00 * b03 + a01 * b13 + a02 * b23 + a03 * b33;
+		out[result + M10] = a10 * b00 + a11 * b10 + a12 * b20 + a13 * b30;
+		out[result + M11] = a10 * b01 + a11 * b11 + a12 * b21 + a13 * b31;
+		out[result + M12] = a10 * b02 + a11 * b12 + a12 * b22 + a13 * b32;
+		out[result + M13] = a10 * b03 + a11 * b13 + a12 * b23 + a13 * b33;
+		out[result + M20] = a20 * b00 + a21 * b10 + a22 * b20 + a23 * b30;
+		out[result + M21] = a20 * b01 + a21 * b11 + a22 * b21 + a23 * b31;
+		out[result + M22] = a20 * b02 + a21 * b12 + a22 * b22 + a23 * b32;
+		out[result + M23] = a20 * b03 + a21 * b13 + a22 * b23 + a23 * b33;
+		out[result + M30] = a30 * b00 + a31 * b10 + a32 * b20 + a33 * b30;
+		out[result + M31] = a30 * b01 + a31 * b11 + a32 * b21 + a33 * b31;
+		out[result + M32] = a30 * b02 + a31 * b12 + a32 * b22 + a33 * b32;
+		out[result + M33] = a30 * b03 + a31 * b13 + a32 * b23 + a33 * b33;
+	}
+
+	/** Multiplies count pairs of matrices, result[i] = left[i] * right[i]. The output array may be the same as either input.
+	 * 
+	 * @param left the left matrices, 16 floats each
+	 * @param right the right matrices, 16 floats each
+	 * @param result the array receiving count matrices
+	 * @param count the number of matrices */
+	public static void mul (float[] left, float[] right, float[] result, int count) {
+		for (int i = 0, n = count * 16; i < n; i += 16)
+			mul(left, i, right, i, result, i);
+	}
+
+	/** Multiplies count matrices with the same matrix, result[i] = mat * right[i], e.g. to transform many local transforms into
+	 * world space. The output array may be the same as right.
+	 * 
+	 * @param mat the left matrix
+	 * @param right the right matrices, 16 floats each
+	 * @param result the array receiving the matrices
+	 * @param offset the index of the first matrix in right and result
+	 * @param count the number of matrices */
+	public static void mul (float[] mat, float[] right, float[] result, int offset, int count) {
+		for (int i = offset * 16, n = (offset + count) * 16; i < n; i += 16)
+			mul(mat, 0, right, i, result, i);
+	}
+
+	/** Computes the world transforms of a node hierarchy in one pass, world[i] = world[parents[i]] * local[i]. Nodes must be
+	 * sorted so that parents come before their children, a parent index of -1 marks a root node whose world transform is its local
+	 * transform. local and world must not be the same array.
+	 * 
+	 * @param local the local transforms, 16 floats each
+	 * @param parents the parent index of each node or -1
+	 * @param world the array receiving the world transforms
+	 * @param count the number of nodes */
+	public static void mulHierarchy (float[] local, int[] parents, float[] world, int count) {
+		for (int i = 0; i < count; i++) {
+			int parent = parents[i];
+			int offset = i * 16;
+			if (parent < 0)
+				System.arraycopy(local, offset, world, offset, 16);
+			else {
+				if (parent >= i) throw new IllegalArgumentException("Parent must come before its child: " + i);
+				mul(world, parent * 16, local, offset, world, offset);
+			}
+		}
+	}
+
+	/** Sets count matrices to the transform translation * rotation * scale. The translations and scales arrays hold 3 floats per
+	 * matrix, the rotations array holds normalized quaternions as 4 floats (x, y, z, w) per matrix. The scales array may be null
+	 * in which case a scale of 1 is used.
+	 * 
+	 * @param translations the translations
+	 * @param rotations the rotations as quaternions
+	 * @param scales the scales or null
+	 * @param result the array receiving count matrices
+	 * @param count the number of matrices */
+	public static void setToTransforms (float[] translations, float[] rotations, float[] scales, float[] result, int count) {
+		for (int i = 0; i < count; i++) {
+			int t = i * 3, r = i * 4;
+			float sx = 1, sy = 1, sz = 1;
+			if (scales != null) {
+				sx = scales[t];
+				sy = scales[t + 1];
+				sz = scales[t + 2];
+			}
+			setToTransform(translations[t], translations[t + 1], translations[t + 2], rotations[r], rotations[r + 1],
+				rotations[r + 2], rotations[r + 3], sx, sy, sz, result, i * 16);
+		}
+	}
+
+	/** Sets count matrices to the transform translation * rotation * scale, reading the elements offset to offset + count - 1 of
+	 * the given arrays. The scales array may be null in which case a scale of 1 is used.
+	 * 
+	 * @param translations the translations
+	 * @param rotations the rotations, must be normalized
+	 * @param scales the scales or null
+	 * @param offset the index of the first element to read
+	 * @param result the array receiving count matrices
+	 * @param count the number of matrices */
+	public static void setToTransforms (Vector3[] translations, Quaternion[] rotations, Vector3[] scales, int offset,
+		float[] result, int count) {
+		for (int i = 0; i < count; i++) {
+			Vector3 t = translations[offset + i];
+			Quaternion r = rotations[offset + i];
+			if (scales == null)
+				setToTransform(t.x, t.y, t.z, r.x, r.y, r.z, r.w, 1, 1, 1, result, i * 16);
+			else {
+				Vector3 s = scales[offset + i];
+				setToTransform(t.x, t.y, t.z, r.x, r.y, r.z, r.w, s.x, s.y, s.z, result, i * 16);
+			}
+		}
+	}
+
+	/** Sets the matrix at the given offset to the transform translation * rotation * scale.
+	 * 
+	 * @param qx the x-component of the normalized rotation quaternion
+	 * @param qy the y-component of the normalized rotation quaternion
+	 * @param qz the z-component of the normalized rotation quaternion
+	 * @param qw the w-component of the normalized rotation quaternion
+	 * @param result the array receiving the matrix
+	 * @param offset the offset of the matrix in the array */
+	public static void setToTransform (float tx, float ty, float tz, float qx, float qy, float qz, float qw, float sx, float sy,
+		float sz, float[] result, int offset) {
+		float xx = qx * qx, xy = qx * qy, xz = qx * qz, xw = qx * qw;
+		float yy = qy * qy, yz = qy * qz, yw = qy * qw;
+		float zz = qz * qz, zw = qz * qw;
+		result[offset + M00] = (1 - 2 * (yy + zz)) * sx;
+		result[offset + M01] = 2 * (xy - zw) * sy;
+		result[offset + M02] = 2 * (xz + yw) * sz;
+		result[offset + M03] = tx;
+		result[offset + M10] = 2 * (xy + zw) * sx;
+		result[offset + M11] = (1 - 2 * (xx + zz)) * sy;
+		result[offset + M12] = 2 * (yz - xw) * sz;
+		result[offset + M13] = ty;
+		result[offset + M20] = 2 * (xz - yw) * sx;
+		result[offset + M21] = 2 * (yz + xw) * sy;
+		result[offset + M22] = (1 - 2 * (xx + yy)) * sz;
+		result[offset + M23] = tz;
+		result[offset + M30] = 0;
+		result[offset + M31] = 0;
+		result[offset + M32] = 0;
+		result[offset + M33] = 1;
+	}
+
+	/** Multiplies the vector with the given matrix. Same as {@link Matrix4#mulVec(float[], float[])}.
+	 * 
+	 * @param mat the matrix
+	 * @param vec the vector. */
+	public static void mulVec (float[] mat, float[] vec) {
+		mulVec(mat, vec, 0, 1, 3);
+	}
+
+	/** Multiplies the vectors with the given matrix. Same as {@link Matrix4#mulVec(float[], float[], int, int, int)}.
+	 * 
+	 * @param mat the matrix
+	 * @param vecs the vectors
+	 * @param offset the offset into the vectors array
+	 * @param numVecs the number of vectors
+	 * @param stride the stride between vectors in floats */
+	public static void mulVec (float[] mat, float[] vecs, int offset, int numVecs, int stride) {
+		mulVec(mat, vecs, offset, stride, vecs, offset, stride, numVecs);
+	}
+
+	/** Multiplies the vectors in src with the given matrix and writes them to dst, e.g. to transform the positions of a packed
+	 * vertex array into another vertex array. Only the three position components of each vertex are written.
+	 * 
+	 * @param mat the matrix
+	 * @param src the source vectors
+	 * @param srcOffset the offset of the first source vector
+	 * @param srcStride the stride between source vectors in floats
+	 * @param dst the destination vectors, may be src
+	 * @param dstOffset the offset of the first destination vector
+	 * @param dstStride the stride between destination vectors in floats
+	 * @param numVecs the number of vectors */
+	public static void mulVec (float[] mat, float[] src, int srcOffset, int srcStride, float[] dst, int dstOffset, int dstStride,
+		int numVecs) {
+		float m00 = mat[M00], m01 = mat[M01], m02 = mat[M02], m03 = mat[M03];
+		float m10 = mat[M10], m11 = mat[M11], m12 = mat[M12], m13 = mat[M13];
+		float m20 = mat[M20], m21 = mat[M21], m22 = mat[M22], m23 = mat[M23];
+		for (int i = 0, s = srcOffset, d = dstOffset; i < numVecs; i++, s += srcStride, d += dstStride) {
+			float x = src[s], y = src[s + 1], z = src[s + 2];
+			dst[d] = x * m00 + y * m01 + z * m02 + m03;
+			dst[d + 1] = x * m10 + y * m11 + z * m12 + m13;
+			dst[d + 2] = x * m20 + y * m21 + z * m22 + m23;
+		}
+	}
+
+	/** Multiplies the vector with the given matrix, performing a division by w. Same as {@link Matrix4#prj(float[], float[])}.
+	 * 
+	 * @param mat the matrix
+	 * @param vec the vector. */
+	public static void prj (float[] mat, float[] vec) {
+		prj(mat, vec, 0, 1, 3);
+	}
+
+	/** Multiplies the vectors with the given matrix, performing a division by w. Same as
+	 * {@link Matrix4#prj(float[], float[], int, int, int)}.
+	 * 
+	 * @param mat the matrix
+	 * @param vecs the vectors
+	 * @param offset the offset into the vectors array
+	 * @param numVecs the number of vectors
+	 * @param stride the stride between vectors in floats */
+	public static void prj (float[] mat, float[] vecs, int offset, int numVecs, int stride) {
+		float m00 = mat[M00], m01 = mat[M01], m02 = mat[M02], m03 = mat[M03];
+		float m10 = mat[M10], m11 = mat[M11], m12 = mat[M12], m13 = mat[M13];
+		float m20 = mat[M20], m21 = mat[M21], m22 = mat[M22], m23 = mat[M23];
+		float m30 = mat[M30], m31 = mat[M31], m32 = mat[M32], m33 = mat[M33];
+		for (int i = 0, v = offset; i < numVecs; i++, v += stride) {
+			float x = vecs[v], y = vecs[v + 1], z = vecs[v + 2];
+			float invW = 1.0f / (x * m30 + y * m31 + z * m32 + m33);
+			vecs[v] = (x * m00 + y * m01 + z * m02 + m03) * invW;
+			vecs[v + 1] = (x * m10 + y * m11 + z * m12 + m13) * invW;
+			vecs[v + 2] = (x * m20 + y * m21 + z * m22 + m23) * invW;
+		}
+	}
+
+	/** Multiplies the vector with the top most 3x3 sub-matrix of the given matrix. Same as {@link Matrix4#rot(float[], float[])}.
+	 * 
+	 * @param mat the matrix
+	 * @param vec the vector. */
+	public static void rot (float[] mat, float[] vec) {
+		rot(mat, vec, 0, 1, 3);
+	}
+
+	/** Multiplies the vectors with the top most 3x3 sub-matrix of the given matrix. Same as
+	 * {@link Matrix4#rot(float[], float[], int, int, int)}.
+	 * 
+	 * @param mat the matrix
+	 * @param vecs the vectors
+	 * @param offset the offset into the vectors array
+	 * @param numVecs the number of vectors
+	 * @param stride the stride between vectors in floats */
+	public static void rot (float[] mat, float[] vecs, int offset, int numVecs, int stride) {
+		rot(mat, vecs, offset, stride, vecs, offset, stride, numVecs);
+	}
+
+	/** Multiplies the vectors in src with the top most 3x3 sub-matrix of the given matrix and writes them to dst, e.g. to
+	 * transform the normals of a packed vertex array. See {@link #mulVec(float[], float[], int, int, float[], int, int, int)}. */
+	public static void rot (float[] mat, float[] src, int srcOffset, int srcStride, float[] dst, int dstOffset, int dstStride,
+		int numVecs) {
+		float m00 = mat[M00], m01 = mat[M01], m02 = mat[M02];
+		float m10 = mat[M10], m11 = mat[M11], m12 = mat[M12];
+		float m20 = mat[M20], m21 = mat[M21], m22 = mat[M22];
+		for (int i = 0, s = srcOffset, d = dstOffset; i < numVecs; i++, s += srcStride, d += dstStride) {
+			float x = src[s], y = src[s + 1], z = src[s + 2];
+			dst[d] = x * m00 + y * m01 + z * m02;
+			dst[d + 1] = x * m10 + y * m11 + z * m12;
+			dst[d + 2] = x * m20 + y * m21 + z * m22;
+		}
+	}
+
+	/** Computes the determinant of the given matrix. Same as {@link Matrix4#det(float[])}.
+	 * 
+	 * @param values the matrix values.
+	 * @return the determinant. */
+	public static float det (float[] values) {
+		return det(values, 0);
+	}
+
+	/** Computes the determinant of the matrix at the given offset.
+	 * 
+	 * @param values the matrix values.
+	 * @param offset the offset of the matrix in the array
+	 * @return the determinant. */
+	public static float det (float[] values, int offset) {
+		float a00 = values[offset + M00], a01 = values[offset + M01], a02 = values[offset + M02], a03 = values[offset + M03];
+		float a10 = values[offset + M10], a11 = values[offset + M11], a12 = values[offset + M12], a13 = values[offset + M13];
+		float a20 = values[offset + M20], a21 = values[offset + M21], a22 = values[offset + M22], a23 = values[offset + M23];
+		float a30 = values[offset + M30], a31 = values[offset + M31], a32 = values[offset + M32], a33 = values[offset + M33];
+		float s0 = a00 * a11 - a10 * a01;
+		float s1 = a00 * a12 - a10 * a02;
+		float s2 = a00 * a13 - a10 * a03;
+		float s3 = a01 * a12 - a11 * a02;
+		float s4 = a01 * a13 - a11 * a03;
+		float s5 = a02 * a13 - a12 * a03;
+		float c5 = a22 * a33 - a32 * a23;
+		float c4 = a21 * a33 - a31 * a23;
+		float c3 = a21 * a32 - a31 * a22;
+		float c2 = a20 * a33 - a30 * a23;
+		float c1 = a20 * a32 - a30 * a22;
+		float c0 = a20 * a31 - a30 * a21;
+		return s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+	}
+
+	/** Computes the inverse of the given matrix. Same as {@link Matrix4#inv(float[])}.
+	 * 
+	 * @param values the matrix values.
+	 * @return false in case the inverse could not be calculated, true otherwise. */
+	public static boolean inv (float[] values) {
+		return inv(values, 0, values, 0);
+	}
+
+	/** Computes the inverse of the matrix at offset in values and stores it at offset result in out, which may be the same
+	 * location. The output is not touched if the matrix is singular.
+	 * 
+	 * @param values the matrix values.
+	 * @param offset the offset of the matrix
+	 * @param out the array receiving the inverse
+	 * @param result the offset of the inverse
+	 * @return false in case the inverse could not be calculated, true otherwise. */
+	public static boolean inv (float[] values, int offset, float[] out, int result) {
+		float a00 = values[offset + M00], a01 = values[offset + M01], a02 = values[offset + M02], a03 = values[offset + M03];
+		float a10 = values[offset + M10], a11 = values[offset + M11], a12 = values[offset + M12], a13 = values[offset + M13];
+		float a20 = values[offset + M20], a21 = values[offset + M21], a22 = values[offset + M22], a23 = values[offset + M23];
+		float a30 = values[offset + M30], a31 = values[offset + M31], a32 = values[offset + M32], a33 = values[offset + M33];
+		// 2x2 sub-determinants of the upper and lower two rows, see "The Laplace Expansion Theorem" by D. Eberly
+		float s0 = a00 * a11 - a10 * a01;
+		float s1 = a00 * a12 - a10 * a02;
+		float s2 = a00 * a13 - a10 * a03;
+		float s3 = a01 * a12 - a11 * a02;
+		float s4 = a01 * a13 - a11 * a03;
+		float s5 = a02 * a13 - a12 * a03;
+		float c5 = a22 * a33 - a32 * a23;
+		float c4 = a21 * a33 - a31 * a23;
+		float c3 = a21 * a32 - a31 * a22;
+		float c2 = a20 * a33 - a30 * a23;
+		float c1 = a20 * a32 - a30 * a22;
+		float c0 = a20 * a31 - a30 * a21;
+		float det = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+		if (det == 0) return false;
+		float invDet = 1.0f / det;
+		out[result + M00] = (a11 * c5 - a12 * c4 + a13 * c3) * invDet;
+		out[result + M01] = (-a01 * c5 + a02 * c4 - a03 * c3) * invDet;
+		out[result + M02] = (a31 * s5 - a32 * s4 + a33 * s3) * invDet;
+		out[result + M03] = (-a21 * s5 + a22 * s4 - a23 * s3) * invDet;
+		out[result + M10] = (-a10 * c5 + a12 * c2 - a13 * c1) * invDet;
+		out[result + M11] = (a00 * c5 - a02 * c2 + a03 * c1) * invDet;
+		out[result + M12] = (-a30 * s5 + a32 * s2 - a33 * s1) * invDet;
+		out[result + M13] = (a20 * s5 - a22 * s2 + a23 * s1) * invDet;
+		out[result + M20] = (a10 * c4 - a11 * c2 + a13 * c0) * invDet;
+		out[result + M21] = (-a00 * c4 + a01 * c2 - a03 * c0) * invDet;
+		out[result + M22] = (a30 * s4 - a31 * s2 + a33 * s0) * invDet;
+		out[result + M23] = (-a20 * s4 + a21 * s2 - a23 * s0) * invDet;
+		out[result + M30] = (-a10 * c3 + a11 * c1 - a12 * c0) * invDet;
+		out[result + M31] = (a00 * c3 - a01 * c1 + a02 * c0) * invDet;
+		out[result + M32] = (-a30 * s3 + a31 * s1 - a32 * s0) * invDet;
+		out[result + M33] = (a20 * s3 - a21 * s1 + a22 * s0) * invDet;
+		return true;
+	}
+}
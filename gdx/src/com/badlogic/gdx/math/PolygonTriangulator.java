@@ -0,0 +1,541 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ShortArray;
+
+/** <p>
+ * Triangulates simple polygons without holes given as x,y pairs in a float array. Unlike {@link EarClippingTriangulator} no
+ * objects are created, the triangles are written as vertex indices into a {@link ShortArray} or {@link IntArray} and all working
+ * memory is kept between calls, so a single instance can be used every frame.
+ * </p>
+ *
+ * <p>
+ * Polygons with few reflex vertices are ear clipped. Only reflex vertices can lie inside an ear, so these are tracked in a
+ * separate list and only the two neighbours of a clipped ear are reclassified, which makes ear clipping close to linear. Polygons
+ * with more than {@link #monotoneThreshold} reflex vertices are split into y-monotone pieces with a plane sweep and each piece is
+ * triangulated in linear time, which is O(n log n) overall.
+ * </p>
+ *
+ * <p>
+ * The polygon may be given in either winding order, the triangles are always counter-clockwise. Degenerate triangles are omitted.
+ * Instances are not thread safe.
+ * </p> */
+public class PolygonTriangulator {
+	private static final int START = 0, END = 1, SPLIT = 2, MERGE = 3, REGULAR = 4;
+
+	/** polygons with more reflex vertices than this are decomposed into monotone pieces instead of being ear clipped. Set it to 0
+	 * to always use the monotone decomposition or to {@link Integer#MAX_VALUE} to always ear clip. **/
+	public int monotoneThreshold = 32;
+
+	private final IntArray indices = new IntArray();
+	private final IntArray reflexVertices = new IntArray(false, 16);
+	private final IntArray status = new IntArray();
+	private final IntArray diagonals = new IntArray();
+	private final IntArray piece = new IntArray();
+	private final IntArray stack = new IntArray();
+
+	private int vertexCount;
+	private float[] xs = new float[0], ys = new float[0];
+	private int[] original = new int[0], previous = new int[0], next = new int[0];
+	private int[] sorted = new int[0], helpers = new int[0], types = new int[0];
+	private int[] edgeOffsets = new int[0], edges = new int[0], chain = new int[0];
+	private boolean[] reflex = new boolean[0], used = new boolean[0], leftChain = new boolean[0];
+	private IntArray triangles;
+
+	/** @see #computeTriangles(float[], int, int, ShortArray) */
+	public ShortArray computeTriangles (float[] vertices, ShortArray triangles) {
+		return computeTriangles(vertices, 0, vertices.length, triangles);
+	}
+
+	/** Triangulates the polygon, the vertex indices of the triangles are written to the given array.
+	 * @param vertices the polygon as x,y pairs
+	 * @param offset the offset of the first vertex in the array
+	 * @param count the number of floats to use, twice the number of vertices
+	 * @param triangles receives three vertex indices per triangle, relative to offset. Is cleared first.
+	 * @return the triangles array for chaining */
+	public ShortArray computeTriangles (float[] vertices, int offset, int count, ShortArray triangles) {
+		computeTriangles(vertices, offset, count, indices);
+		triangles.clear();
+		short[] items = triangles.ensureCapacity(indices.size);
+		int[] source = indices.items;
+		for (int i = 0, n = indices.size; i < n; i++)
+			items[i] = (short)source[i];
+		triangles.size = indices.size;
+		return triangles;
+	}
+
+	/** @see #computeTriangles(float[], int, int, IntArray) */
+	public IntArray computeTriangles (float[] vertices, IntArray triangles) {
+		return computeTriangles(vertices, 0, vertices.length, triangles);
+	}
+
+	/** Triangulates the polygon, the vertex indices of the triangles are written to the given array.
+	 * @param vertices the polygon as x,y pairs
+	 * @param offset the offset of the first vertex in the array
+	 * @param count the number of floats to use, twice the number of vertices
+	 * @param triangles receives three vertex indices per triangle, relative to offset. Is cleared first.
+	 * @return the triangles array for chaining */
+	public IntArray computeTriangles (float[] vertices, int offset, int count, IntArray triangles) {
+		this.triangles = triangles;
+		triangles.clear();
+		int n = count / 2;
+		vertexCount = n;
+		if (n < 3) return triangles;
+		ensureCapacity(n);
+
+		// copy the vertices in counter-clockwise order
+		float area = 0;
+		for (int i = 0, j = offset; i < n; i++, j += 2) {
+			int k = i == n - 1 ? offset : j + 2;
+			area += vertices[j] * vertices[k + 1] - vertices[k] * vertices[j + 1];
+		}
+		boolean reverse = area < 0;
+		float[] xs = this.xs, ys = this.ys;
+		int[] original = this.original;
+		for (int i = 0; i < n; i++) {
+			int index = reverse ? n - 1 - i : i;
+			xs[i] = vertices[offset + index * 2];
+			ys[i] = vertices[offset + index * 2 + 1];
+			original[i] = index;
+		}
+
+		int[] previous = this.previous, next = this.next;
+		boolean[] reflex = this.reflex;
+		reflexVertices.clear();
+		for (int i = 0; i < n; i++) {
+			previous[i] = i == 0 ? n - 1 : i - 1;
+			next[i] = i == n - 1 ? 0 : i + 1;
+		}
+		for (int i = 0; i < n; i++) {
+			reflex[i] = area(previous[i], i, next[i]) <= 0;
+			if (reflex[i]) reflexVertices.add(i);
+		}
+
+		if (reflexVertices.size == 0)
+			fan();
+		else if (reflexVertices.size > monotoneThreshold)
+			decompose();
+		else
+			clipEars();
+		this.triangles = null;
+		return triangles;
+	}
+
+	private void ensureCapacity (int n) {
+		if (xs.length >= n) return;
+		xs = new float[n];
+		ys = new float[n];
+		original = new int[n];
+		previous = new int[n];
+		next = new int[n];
+		sorted = new int[n];
+		helpers = new int[n];
+		types = new int[n];
+		edgeOffsets = new int[n + 1];
+		edges = new int[n * 4];
+		chain = new int[n];
+		reflex = new boolean[n];
+		used = new boolean[n * 4];
+		leftChain = new boolean[n];
+	}
+
+	/** @return twice the signed area of the triangle, positive if it is counter-clockwise */
+	private double area (int a, int b, int c) {
+		float[] xs = this.xs, ys = this.ys;
+		return ((double)xs[b] - xs[a]) * ((double)ys[c] - ys[a]) - ((double)xs[c] - xs[a]) * ((double)ys[b] - ys[a]);
+	}
+
+	/** Adds the triangle if it is not degenerate, fixing up its winding. */
+	private void triangle (int a, int b, int c) {
+		double area = area(a, b, c);
+		if (area == 0) return;
+		IntArray triangles = this.triangles;
+		triangles.add(original[a]);
+		if (area > 0) {
+			triangles.add(original[b]);
+			triangles.add(original[c]);
+		} else {
+			triangles.add(original[c]);
+			triangles.add(original[b]);
+		}
+	}
+
+	/** Triangulates a convex polygon. */
+	private void fan () {
+		for (int i = 2, n = vertexCount; i < n; i++)
+			triangle(0, i - 1, i);
+	}
+
+	private void clipEars () {
+		int[] previous = this.previous, next = this.next;
+		int remaining = vertexCount, vertex = 0, skipped = 0;
+		while (remaining > 3) {
+			if (isEar(vertex) || skipped > remaining) {
+				// if no ear was found in a whole round the polygon is self intersecting, the vertex is clipped anyway to terminate
+				int p = previous[vertex], n = next[vertex];
+				triangle(p, vertex, n);
+				next[p] = n;
+				previous[n] = p;
+				if (reflex[vertex]) reflexVertices.removeValue(vertex);
+				remaining--;
+				updateReflex(p);
+				updateReflex(n);
+				vertex = p;
+				skipped = 0;
+			} else {
+				vertex = next[vertex];
+				skipped++;
+			}
+		}
+		triangle(previous[vertex], vertex, next[vertex]);
+	}
+
+	/** Clipping an ear can only turn its neighbours from reflex to convex, never the other way around. */
+	private void updateReflex (int vertex) {
+		if (reflex[vertex] && area(previous[vertex], vertex, next[vertex]) > 0) {
+			reflex[vertex] = false;
+			reflexVertices.removeValue(vertex);
+		}
+	}
+
+	private boolean isEar (int vertex) {
+		if (reflex[vertex]) return false;
+		int p = previous[vertex], n = next[vertex];
+		float[] xs = this.xs, ys = this.ys;
+		float ax = xs[p], ay = ys[p], bx = xs[vertex], by = ys[vertex], cx = xs[n], cy = ys[n];
+		int[] reflexItems = reflexVertices.items;
+		for (int i = 0, size = reflexVertices.size; i < size; i++) {
+			int r = reflexItems[i];
+			if (r == p || r == n) continue;
+			float x = xs[r], y = ys[r];
+			if ((bx - ax) * (y - ay) - (by - ay) * (x - ax) >= 0 && (cx - bx) * (y - by) - (cy - by) * (x - bx) >= 0
+				&& (ax - cx) * (y - cy) - (ay - cy) * (x - cx) >= 0) return false;
+		}
+		return true;
+	}
+
+	/** @return whether vertex a is processed before vertex b by the sweep, which runs from top to bottom and left to right */
+	private boolean above (int a, int b) {
+		float ya = ys[a], yb = ys[b];
+		if (ya != yb) return ya > yb;
+		float xa = xs[a], xb = xs[b];
+		if (xa != xb) return xa < xb;
+		return a < b;
+	}
+
+	/** Splits the polygon into y-monotone pieces by adding diagonals at split and merge vertices, see de Berg et al.,
+	 * Computational Geometry, chapter 3.2, then triangulates each piece. */
+	private void decompose () {
+		int n = vertexCount;
+		int[] sorted = this.sorted, types = this.types, helpers = this.helpers;
+		for (int i = 0; i < n; i++) {
+			sorted[i] = i;
+			int p = i == 0 ? n - 1 : i - 1, next = i == n - 1 ? 0 : i + 1;
+			boolean abovePrevious = above(p, i), aboveNext = above(next, i);
+			boolean convex = area(p, i, next) > 0;
+			if (!abovePrevious && !aboveNext)
+				types[i] = convex ? START : SPLIT;
+			else if (abovePrevious && aboveNext)
+				types[i] = convex ? END : MERGE;
+			else
+				types[i] = REGULAR;
+		}
+		sort(0, n - 1);
+
+		// edge i runs from vertex i to vertex i + 1, the status holds the edges left of the polygon interior sorted by x
+		IntArray status = this.status, diagonals = this.diagonals;
+		status.clear();
+		diagonals.clear();
+		for (int k = 0; k < n; k++) {
+			int v = sorted[k], previousEdge = v == 0 ? n - 1 : v - 1;
+			switch (types[v]) {
+			case START:
+				status.insert(leftEdge(v) + 1, v);
+				helpers[v] = v;
+				break;
+			case END:
+				if (types[helpers[previousEdge]] == MERGE) addDiagonal(v, helpers[previousEdge]);
+				status.removeValue(previousEdge);
+				break;
+			case SPLIT: {
+				int left = leftEdge(v);
+				if (left != -1) {
+					int edge = status.items[left];
+					addDiagonal(v, helpers[edge]);
+					helpers[edge] = v;
+				}
+				status.insert(left + 1, v);
+				helpers[v] = v;
+				break;
+			}
+			case MERGE: {
+				if (types[helpers[previousEdge]] == MERGE) addDiagonal(v, helpers[previousEdge]);
+				status.removeValue(previousEdge);
+				int left = leftEdge(v);
+				if (left != -1) {
+					int edge = status.items[left];
+					if (types[helpers[edge]] == MERGE) addDiagonal(v, helpers[edge]);
+					helpers[edge] = v;
+				}
+				break;
+			}
+			default:
+				if (above(previousEdge, v)) {
+					// the interior lies to the right of v
+					if (types[helpers[previousEdge]] == MERGE) addDiagonal(v, helpers[previousEdge]);
+					status.removeValue(previousEdge);
+					status.insert(leftEdge(v) + 1, v);
+					helpers[v] = v;
+				} else {
+					int left = leftEdge(v);
+					if (left != -1) {
+						int edge = status.items[left];
+						if (types[helpers[edge]] == MERGE) addDiagonal(v, helpers[edge]);
+						helpers[edge] = v;
+					}
+				}
+			}
+		}
+
+		if (diagonals.size == 0)
+			triangulateMonotone(wholePolygon());
+		else
+			traceFaces();
+	}
+
+	private void addDiagonal (int a, int b) {
+		diagonals.add(a);
+		diagonals.add(b);
+	}
+
+	/** @return the index in the status of the nearest edge left of the vertex, or -1 */
+	private int leftEdge (int vertex) {
+		float x = xs[vertex], y = ys[vertex];
+		int[] items = status.items;
+		int low = 0, high = status.size - 1, result = -1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (edgeX(items[middle], y) <= x) {
+				result = middle;
+				low = middle + 1;
+			} else
+				high = middle - 1;
+		}
+		return result;
+	}
+
+	/** @return the x coordinate of the edge at the given height */
+	private float edgeX (int edge, float y) {
+		int end = edge == vertexCount - 1 ? 0 : edge + 1;
+		float x1 = xs[edge], y1 = ys[edge], x2 = xs[end], y2 = ys[end];
+		if (y1 == y2) return Math.min(x1, x2);
+		return x1 + (y - y1) * (x2 - x1) / (y2 - y1);
+	}
+
+	/** Sorts the vertices between low and high inclusive in sweep order. */
+	private void sort (int low, int high) {
+		int[] sorted = this.sorted;
+		while (high - low > 16) {
+			int middle = (low + high) >>> 1;
+			if (above(sorted[middle], sorted[low])) swap(middle, low);
+			if (above(sorted[high], sorted[low])) swap(high, low);
+			if (above(sorted[high], sorted[middle])) swap(high, middle);
+			int pivot = sorted[middle];
+			int i = low, j = high;
+			while (i <= j) {
+				while (above(sorted[i], pivot))
+					i++;
+				while (above(pivot, sorted[j]))
+					j--;
+				if (i <= j) swap(i++, j--);
+			}
+			// recurse into the smaller half to bound the stack depth
+			if (j - low < high - i) {
+				sort(low, j);
+				low = i;
+			} else {
+				sort(i, high);
+				high = j;
+			}
+		}
+		for (int i = low + 1; i <= high; i++) {
+			int value = sorted[i], j = i - 1;
+			for (; j >= low && above(value, sorted[j]); j--)
+				sorted[j + 1] = sorted[j];
+			sorted[j + 1] = value;
+		}
+	}
+
+	private void swap (int a, int b) {
+		int[] sorted = this.sorted;
+		int tmp = sorted[a];
+		sorted[a] = sorted[b];
+		sorted[b] = tmp;
+	}
+
+	/** Walks the faces of the polygon split by the diagonals and triangulates each of them. */
+	private void traceFaces () {
+		int n = vertexCount;
+		int[] edgeOffsets = this.edgeOffsets, edges = this.edges;
+		boolean[] used = this.used;
+
+		// adjacency lists of the polygon edges and diagonals
+		int[] diagonalItems = diagonals.items;
+		for (int i = 0; i <= n; i++)
+			edgeOffsets[i] = 0;
+		for (int i = 0; i < diagonals.size; i++)
+			edgeOffsets[diagonalItems[i] + 1]++;
+		for (int i = 0; i < n; i++)
+			edgeOffsets[i + 1] += edgeOffsets[i] + 2;
+		int[] fill = helpers;
+		for (int i = 0; i < n; i++) {
+			int offset = edgeOffsets[i];
+			edges[offset] = i == n - 1 ? 0 : i + 1;
+			edges[offset + 1] = i == 0 ? n - 1 : i - 1;
+			fill[i] = offset + 2;
+			// the outside of the polygon is to the left of the reversed edges
+			used[offset] = false;
+			used[offset + 1] = true;
+		}
+		for (int i = 0; i < diagonals.size; i += 2) {
+			int a = diagonalItems[i], b = diagonalItems[i + 1];
+			used[fill[a]] = false;
+			edges[fill[a]++] = b;
+			used[fill[b]] = false;
+			edges[fill[b]++] = a;
+		}
+
+		// each unused directed edge starts a new counter-clockwise face
+		for (int start = 0; start < n; start++) {
+			for (int slot = edgeOffsets[start], end = edgeOffsets[start + 1]; slot < end; slot++) {
+				if (used[slot]) continue;
+				IntArray piece = this.piece;
+				piece.clear();
+				int from = start, current = slot;
+				do {
+					used[current] = true;
+					piece.add(from);
+					int to = edges[current];
+					current = nextEdge(from, to);
+					from = to;
+				} while (current != slot && !used[current] && piece.size <= n);
+				if (piece.size >= 3) triangulateMonotone(piece);
+			}
+		}
+	}
+
+	/** @return the slot of the edge leaving vertex to that turns least clockwise from the direction back to from */
+	private int nextEdge (int from, int to) {
+		float[] xs = this.xs, ys = this.ys;
+		float bx = xs[from] - xs[to], by = ys[from] - ys[to];
+		int best = -1;
+		double bestAngle = Double.MAX_VALUE;
+		for (int slot = edgeOffsets[to], end = edgeOffsets[to + 1]; slot < end; slot++) {
+			int other = edges[slot];
+			double angle;
+			if (other == from)
+				angle = 2 * Math.PI;
+			else {
+				float dx = xs[other] - xs[to], dy = ys[other] - ys[to];
+				angle = -Math.atan2(bx * dy - by * dx, bx * dx + by * dy);
+				if (angle <= 0) angle += 2 * Math.PI;
+			}
+			if (angle < bestAngle) {
+				bestAngle = angle;
+				best = slot;
+			}
+		}
+		return best;
+	}
+
+	/** @return the piece array filled with the whole polygon */
+	private IntArray wholePolygon () {
+		piece.clear();
+		for (int i = 0; i < vertexCount; i++)
+			piece.add(i);
+		return piece;
+	}
+
+	/** Triangulates a y-monotone polygon given in counter-clockwise order in linear time, see de Berg et al., Computational
+	 * Geometry, chapter 3.3. */
+	private void triangulateMonotone (IntArray piece) {
+		int[] vertices = piece.items;
+		int m = piece.size;
+		if (m == 3) {
+			triangle(vertices[0], vertices[1], vertices[2]);
+			return;
+		}
+		int top = 0, bottom = 0;
+		for (int i = 1; i < m; i++) {
+			if (above(vertices[i], vertices[top])) top = i;
+			if (above(vertices[bottom], vertices[i])) bottom = i;
+		}
+
+		// merge the left chain, running forward from the top, and the right chain, running backward, into sweep order
+		int[] chain = this.chain;
+		boolean[] leftChain = this.leftChain;
+		chain[0] = vertices[top];
+		leftChain[0] = true;
+		int left = top == m - 1 ? 0 : top + 1, right = top == 0 ? m - 1 : top - 1;
+		for (int i = 1; i < m - 1; i++) {
+			if (right == bottom || (left != bottom && above(vertices[left], vertices[right]))) {
+				chain[i] = vertices[left];
+				leftChain[i] = true;
+				left = left == m - 1 ? 0 : left + 1;
+			} else {
+				chain[i] = vertices[right];
+				leftChain[i] = false;
+				right = right == 0 ? m - 1 : right - 1;
+			}
+		}
+		chain[m - 1] = vertices[bottom];
+		leftChain[m - 1] = false;
+
+		IntArray stack = this.stack;
+		stack.clear();
+		stack.add(0);
+		stack.add(1);
+		for (int j = 2; j < m - 1; j++) {
+			int u = chain[j];
+			int[] items = stack.items;
+			if (leftChain[j] != leftChain[stack.peek()]) {
+				for (int i = 0; i < stack.size - 1; i++)
+					triangle(u, chain[items[i]], chain[items[i + 1]]);
+				stack.clear();
+				stack.add(j - 1);
+				stack.add(j);
+			} else {
+				int popped = stack.pop();
+				while (stack.size > 0) {
+					int topVertex = chain[stack.peek()], poppedVertex = chain[popped];
+					double area = leftChain[j] ? area(u, topVertex, poppedVertex) : area(u, poppedVertex, topVertex);
+					if (area <= 0) break;
+					triangle(u, topVertex, poppedVertex);
+					popped = stack.pop();
+				}
+				stack.add(popped);
+				stack.add(j);
+			}
+		}
+		int u = chain[m - 1];
+		int[] items = stack.items;
+		for (int i = 0; i < stack.size - 1; i++)
+			triangle(u, chain[items[i]], chain[items[i + 1]]);
+	}
+}
@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/** <p>
+ * A {@link SpatialIndex} that hashes boxes into the cells of an unbounded uniform grid. A box is stored in every cell it
+ * overlaps, so the cell size should be about the size of a typical box. Boxes that move within the cells they already overlap
+ * only have their bounds updated, which makes this the best choice for many small moving objects, like bullets.
+ * </p>
+ * 
+ * <p>
+ * Only cells containing boxes are stored. Cells that became empty are kept until the cell table grows or the index is cleared.
+ * </p> */
+public class SpatialHash extends SpatialIndex {
+	static private final int EMPTY = -2;
+
+	private final float cellSize, invCellSize;
+
+	// cell table, open addressing with linear probing. heads[slot] is the first entry of the cell, -1 if the cell has no entries
+	// and EMPTY if the slot is unused.
+	private long[] keys;
+	private int[] heads;
+	private int mask, slotCount, threshold;
+
+	// entries, one per box and cell, linked per cell and per box
+	private int[] entryHandle = new int[64], entryNext = new int[64], entryPrev = new int[64], entrySlot = new int[64],
+		entryNextOfHandle = new int[64];
+	private int entryCount, freeEntry = -1;
+
+	// per handle, the first entry and the overlapped cell range (minX, minY, maxX, maxY)
+	private int[] handleEntry = new int[16], handleCells = new int[16 * 4];
+
+	/** @param cellSize the width and height of a cell */
+	public SpatialHash (float cellSize) {
+		if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be > 0: " + cellSize);
+		this.cellSize = cellSize;
+		this.invCellSize = 1 / cellSize;
+		createTable(64);
+	}
+
+	public float getCellSize () {
+		return cellSize;
+	}
+
+	protected void insert (int handle) {
+		int i = handle * 4;
+		float[] bounds = this.bounds;
+		int minX = cell(bounds[i]), minY = cell(bounds[i + 1]), maxX = cell(bounds[i + 2]), maxY = cell(bounds[i + 3]);
+		int[] handleCells = this.handleCells;
+		handleCells[i] = minX;
+		handleCells[i + 1] = minY;
+		handleCells[i + 2] = maxX;
+		handleCells[i + 3] = maxY;
+		int first = -1;
+		for (int y = minY; y <= maxY; y++) {
+			for (int x = minX; x <= maxX; x++) {
+				int slot = addSlot(x, y);
+				int entry = newEntry();
+				entryHandle[entry] = handle;
+				entrySlot[entry] = slot;
+				entryPrev[entry] = -1;
+				int head = heads[slot];
+				entryNext[entry] = head;
+				if (head >= 0) entryPrev[head] = entry;
+				heads[slot] = entry;
+				entryNextOfHandle[entry] = first;
+				first = entry;
+			}
+		}
+		handleEntry[handle] = first;
+	}
+
+	protected void delete (int handle) {
+		int entry = handleEntry[handle];
+		while (entry != -1) {
+			int next = entryNextOfHandle[entry];
+			int prev = entryPrev[entry], after = entryNext[entry];
+			if (prev == -1)
+				heads[entrySlot[entry]] = after;
+			else
+				entryNext[prev] = after;
+			if (after != -1) entryPrev[after] = prev;
+			entryNext[entry] = freeEntry;
+			freeEntry = entry;
+			entry = next;
+		}
+		handleEntry[handle] = -1;
+	}
+
+	protected void move (int handle, float minX, float minY, float maxX, float maxY) {
+		int i = handle * 4;
+		int[] handleCells = this.handleCells;
+		if (cell(minX) == handleCells[i] && cell(minY) == handleCells[i + 1] && cell(maxX) == handleCells[i + 2]
+			&& cell(maxY) == handleCells[i + 3]) {
+			setBounds(handle, minX, minY, maxX, maxY);
+			return;
+		}
+		delete(handle);
+		setBounds(handle, minX, minY, maxX, maxY);
+		insert(handle);
+	}
+
+	protected void reset () {
+		int[] heads = this.heads;
+		for (int i = 0, n = heads.length; i < n; i++)
+			heads[i] = EMPTY;
+		slotCount = 0;
+		entryCount = 0;
+		freeEntry = -1;
+	}
+
+	protected float initialSearchRadius () {
+		return cellSize;
+	}
+
+	protected void resizeHandles (int capacity) {
+		int[] newEntry = new int[capacity];
+		System.arraycopy(handleEntry, 0, newEntry, 0, handleEntry.length);
+		handleEntry = newEntry;
+		int[] newCells = new int[capacity * 4];
+		System.arraycopy(handleCells, 0, newCells, 0, handleCells.length);
+		handleCells = newCells;
+	}
+
+	public int query (float minX, float minY, float maxX, float maxY, IntArray results) {
+		if (size == 0) return 0;
+		int cellMinX = cell(minX), cellMinY = cell(minY), cellMaxX = cell(maxX), cellMaxY = cell(maxY);
+		int start = results.size;
+		beginMarking();
+		long cells = ((long)cellMaxX - cellMinX + 1) * ((long)cellMaxY - cellMinY + 1);
+		if (cells > slotCount) {
+			// the query covers more cells than exist, visit the existing ones instead
+			long[] keys = this.keys;
+			int[] heads = this.heads;
+			for (int slot = 0, n = heads.length; slot < n; slot++) {
+				if (heads[slot] < 0) continue;
+				long key = keys[slot];
+				int x = (int)(key >> 32), y = (int)key;
+				if (x < cellMinX || x > cellMaxX || y < cellMinY || y > cellMaxY) continue;
+				queryCell(slot, minX, minY, maxX, maxY, results);
+			}
+		} else {
+			for (int y = cellMinY; y <= cellMaxY; y++) {
+				for (int x = cellMinX; x <= cellMaxX; x++) {
+					int slot = findSlot(x, y);
+					if (slot >= 0) queryCell(slot, minX, minY, maxX, maxY, results);
+				}
+			}
+		}
+		return results.size - start;
+	}
+
+	private void queryCell (int slot, float minX, float minY, float maxX, float maxY, IntArray results) {
+		int[] entryHandle = this.entryHandle, entryNext = this.entryNext;
+		for (int entry = heads[slot]; entry != -1; entry = entryNext[entry]) {
+			int handle = entryHandle[entry];
+			if (overlaps(handle, minX, minY, maxX, maxY) && mark(handle)) results.add(handle);
+		}
+	}
+
+	public int raycast (float x, float y, float dirX, float dirY, float maxDistance, IntArray results) {
+		if (size == 0) return 0;
+		if (dirX == 0 && dirY == 0) return query(x, y, x, y, results);
+		// clip the ray to the extent of all boxes
+		float start = rayDistance(x, y, dirX, dirY, maxDistance, extentMinX, extentMinY, extentMaxX, extentMaxY);
+		if (start == Float.POSITIVE_INFINITY) return 0;
+		float end = rayExit(x, y, dirX, dirY, maxDistance);
+		int count = results.size;
+		beginMarking();
+
+		// walk the cells along the ray, see "A Fast Voxel Traversal Algorithm for Ray Tracing" by Amanatides and Woo
+		float startX = x + dirX * start, startY = y + dirY * start;
+		int cellX = cell(startX), cellY = cell(startY);
+		int stepX = dirX > 0 ? 1 : dirX < 0 ? -1 : 0, stepY = dirY > 0 ? 1 : dirY < 0 ? -1 : 0;
+		float deltaX = stepX == 0 ? Float.POSITIVE_INFINITY : Math.abs(cellSize / dirX);
+		float deltaY = stepY == 0 ? Float.POSITIVE_INFINITY : Math.abs(cellSize / dirY);
+		float nextX = stepX == 0 ? Float.POSITIVE_INFINITY : ((cellX + (stepX > 0 ? 1 : 0)) * cellSize - x) / dirX;
+		float nextY = stepY == 0 ? Float.POSITIVE_INFINITY : ((cellY + (stepY > 0 ? 1 : 0)) * cellSize - y) / dirY;
+		int[] entryHandle = this.entryHandle, entryNext = this.entryNext;
+		while (true) {
+			int slot = findSlot(cellX, cellY);
+			if (slot >= 0) {
+				for (int entry = heads[slot]; entry != -1; entry = entryNext[entry]) {
+					int handle = entryHandle[entry];
+					if (rayDistance(handle, x, y, dirX, dirY, maxDistance) != Float.POSITIVE_INFINITY && mark(handle))
+						results.add(handle);
+				}
+			}
+			if (nextX < nextY) {
+				if (nextX > end) break;
+				cellX += stepX;
+				nextX += deltaX;
+			} else {
+				if (nextY > end) break;
+				cellY += stepY;
+				nextY += deltaY;
+			}
+		}
+		return results.size - count;
+	}
+
+	/** @return the distance at which the ray leaves the extent of all boxes, clamped to maxDistance */
+	private float rayExit (float x, float y, float dirX, float dirY, float maxDistance) {
+		float end = maxDistance;
+		if (dirX != 0) end = Math.min(end, ((dirX > 0 ? extentMaxX : extentMinX) - x) / dirX);
+		if (dirY != 0) end = Math.min(end, ((dirY > 0 ? extentMaxY : extentMinY) - y) / dirY);
+		return end;
+	}
+
+	private int cell (float value) {
+		return (int)Math.floor(value * invCellSize);
+	}
+
+	private int newEntry () {
+		int entry = freeEntry;
+		if (entry != -1) {
+			freeEntry = entryNext[entry];
+			return entry;
+		}
+		entry = entryCount++;
+		if (entry == entryHandle.length) {
+			int capacity = (int)(entry * 1.75f);
+			entryHandle = resize(entryHandle, capacity);
+			entryNext = resize(entryNext, capacity);
+			entryPrev = resize(entryPrev, capacity);
+			entrySlot = resize(entrySlot, capacity);
+			entryNextOfHandle = resize(entryNextOfHandle, capacity);
+		}
+		return entry;
+	}
+
+	private int findSlot (int x, int y) {
+		long key = key(x, y);
+		long[] keys = this.keys;
+		int[] heads = this.heads;
+		int mask = this.mask;
+		for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+			if (heads[slot] == EMPTY) return -1;
+			if (keys[slot] == key) return slot;
+		}
+	}
+
+	private int addSlot (int x, int y) {
+		long key = key(x, y);
+		long[] keys = this.keys;
+		int[] heads = this.heads;
+		int mask = this.mask;
+		int slot = hash(key) & mask;
+		for (;; slot = (slot + 1) & mask) {
+			if (heads[slot] == EMPTY) break;
+			if (keys[slot] == key) return slot;
+		}
+		if (slotCount >= threshold) {
+			rehash();
+			return addSlot(x, y);
+		}
+		keys[slot] = key;
+		heads[slot] = -1;
+		slotCount++;
+		return slot;
+	}
+
+	/** Rebuilds the cell table without the cells that became empty, growing it if needed. */
+	private void rehash () {
+		long[] oldKeys = keys;
+		int[] oldHeads = heads;
+		int used = 0;
+		for (int i = 0, n = oldHeads.length; i < n; i++)
+			if (oldHeads[i] >= 0) used++;
+		// keep the load below a quarter so the next rehash is not triggered right away
+		int capacity = oldHeads.length;
+		while (used * 4 >= capacity)
+			capacity <<= 1;
+		createTable(capacity);
+		long[] keys = this.keys;
+		int[] heads = this.heads;
+		int mask = this.mask;
+		for (int i = 0, n = oldHeads.length; i < n; i++) {
+			int head = oldHeads[i];
+			if (head < 0) continue;
+			long key = oldKeys[i];
+			int slot = hash(key) & mask;
+			while (heads[slot] != EMPTY)
+				slot = (slot + 1) & mask;
+			keys[slot] = key;
+			heads[slot] = head;
+			slotCount++;
+			for (int entry = head; entry != -1; entry = entryNext[entry])
+				entrySlot[entry] = slot;
+		}
+	}
+
+	private void createTable (int capacity) {
+		keys = new long[capacity];
+		heads = new int[capacity];
+		for (int i = 0; i < capacity; i++)
+			heads[i] = EMPTY;
+		mask = capacity - 1;
+		threshold = capacity / 2;
+		slotCount = 0;
+	}
+
+	static private long key (int x, int y) {
+		return ((long)x << 32) | (y & 0xffffffffL);
+	}
+
+	static private int hash (long key) {
+		int h = ((int)(key >> 32) * 73856093 ^ (int)key * 19349663) * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	static private int[] resize (int[] array, int capacity) {
+		int[] newArray = new int[capacity];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+}
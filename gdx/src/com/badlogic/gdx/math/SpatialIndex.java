@@ -0,0 +1,400 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/** <p>
+ * Base class for 2D spatial indices over axis aligned boxes. Each box is identified by an int handle returned by
+ * {@link #add(float, float, float, float)}. Handles of removed boxes are reused. The bounds of all boxes are kept in a single
+ * float array, four floats (minX, minY, maxX, maxY) per handle, see {@link #getBounds()}.
+ * </p>
+ * 
+ * <p>
+ * Queries add the handles they find to an {@link IntArray} which is not cleared, and return the number of handles added. They
+ * don't allocate memory once the internal scratch buffers have grown to the needed size. An index is not thread safe, including
+ * its queries.
+ * </p>
+ * 
+ * @see SpatialHash
+ * @see LooseQuadTree */
+public abstract class SpatialIndex {
+	/** The number of boxes in the index. */
+	public int size;
+
+	float[] bounds = new float[16 * 4];
+	boolean[] used = new boolean[16];
+	int handleCount;
+	final IntArray freeHandles = new IntArray();
+
+	/** The union of all boxes added since the last clear, it only grows. */
+	float extentMinX, extentMinY, extentMaxX, extentMaxY;
+
+	private int[] marks = new int[16];
+	private int mark;
+
+	private final IntArray candidates = new IntArray();
+	private float[] nearestDistances = new float[8];
+	private int[] nearestHandles = new int[8];
+
+	public SpatialIndex () {
+		resetExtent();
+	}
+
+	/** Adds a box to the index.
+	 * @return the handle of the box */
+	public int add (float minX, float minY, float maxX, float maxY) {
+		int handle;
+		if (freeHandles.size > 0)
+			handle = freeHandles.pop();
+		else {
+			handle = handleCount++;
+			if (handle == used.length) ensureHandleCapacity(handle + 1);
+		}
+		used[handle] = true;
+		size++;
+		setBounds(handle, minX, minY, maxX, maxY);
+		insert(handle);
+		return handle;
+	}
+
+	/** Adds a box to the index.
+	 * @return the handle of the box */
+	public int add (Rectangle rectangle) {
+		return add(rectangle.x, rectangle.y, rectangle.x + rectangle.width, rectangle.y + rectangle.height);
+	}
+
+	/** Changes the bounds of a box. Moving a box by a small amount is cheap.
+	 * @param handle the handle returned by {@link #add(float, float, float, float)} */
+	public void update (int handle, float minX, float minY, float maxX, float maxY) {
+		checkHandle(handle);
+		move(handle, minX, minY, maxX, maxY);
+	}
+
+	/** Removes a box from the index. The handle may be returned by a later call to {@link #add(float, float, float, float)}. */
+	public void remove (int handle) {
+		checkHandle(handle);
+		delete(handle);
+		used[handle] = false;
+		freeHandles.add(handle);
+		size--;
+	}
+
+	/** Removes all boxes from the index. */
+	public void clear () {
+		for (int i = 0; i < handleCount; i++)
+			used[i] = false;
+		handleCount = 0;
+		size = 0;
+		freeHandles.clear();
+		resetExtent();
+		reset();
+	}
+
+	/** Replaces the contents of the index with count boxes in one go, which is faster than adding them one by one. The box with
+	 * the index i gets the handle i.
+	 * @param boxes the boxes as minX, minY, maxX, maxY
+	 * @param offset the offset of the first box in the array */
+	public void set (float[] boxes, int offset, int count) {
+		clear();
+		ensureHandleCapacity(count);
+		float[] bounds = this.bounds;
+		System.arraycopy(boxes, offset, bounds, 0, count * 4);
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+		for (int i = 0, n = count * 4; i < n; i += 4) {
+			minX = Math.min(minX, bounds[i]);
+			minY = Math.min(minY, bounds[i + 1]);
+			maxX = Math.max(maxX, bounds[i + 2]);
+			maxY = Math.max(maxY, bounds[i + 3]);
+		}
+		extentMinX = minX;
+		extentMinY = minY;
+		extentMaxX = maxX;
+		extentMaxY = maxY;
+		for (int i = 0; i < count; i++)
+			used[i] = true;
+		handleCount = count;
+		size = count;
+		rebuild();
+	}
+
+	/** @return whether the handle refers to a box in the index. */
+	public boolean contains (int handle) {
+		return handle >= 0 && handle < handleCount && used[handle];
+	}
+
+	/** Returns the backing array of the bounds, four floats (minX, minY, maxX, maxY) per handle. The array must not be modified
+	 * and is replaced when the index grows. */
+	public float[] getBounds () {
+		return bounds;
+	}
+
+	/** Stores the bounds of the box in the rectangle.
+	 * @return the rectangle for chaining */
+	public Rectangle getBounds (int handle, Rectangle rectangle) {
+		checkHandle(handle);
+		int i = handle * 4;
+		rectangle.x = bounds[i];
+		rectangle.y = bounds[i + 1];
+		rectangle.width = bounds[i + 2] - bounds[i];
+		rectangle.height = bounds[i + 3] - bounds[i + 1];
+		return rectangle;
+	}
+
+	/** Adds the handles of all boxes overlapping the given box to the results. Touching boxes overlap.
+	 * @param results receives the handles, is not cleared
+	 * @return the number of handles added */
+	public abstract int query (float minX, float minY, float maxX, float maxY, IntArray results);
+
+	/** Adds the handles of all boxes overlapping the rectangle to the results.
+	 * @param results receives the handles, is not cleared
+	 * @return the number of handles added */
+	public int query (Rectangle rectangle, IntArray results) {
+		return query(rectangle.x, rectangle.y, rectangle.x + rectangle.width, rectangle.y + rectangle.height, results);
+	}
+
+	/** Adds the handles of all boxes overlapping the circle to the results.
+	 * @param results receives the handles, is not cleared
+	 * @return the number of handles added */
+	public int queryRadius (float x, float y, float radius, IntArray results) {
+		int start = results.size;
+		query(x - radius, y - radius, x + radius, y + radius, results);
+		float radius2 = radius * radius;
+		int[] items = results.items;
+		int n = start;
+		for (int i = start, end = results.size; i < end; i++) {
+			int handle = items[i];
+			if (distance2(handle, x, y) <= radius2) items[n++] = handle;
+		}
+		results.size = n;
+		return n - start;
+	}
+
+	/** Adds the handles of all boxes hit by the ray to the results, in no particular order. A box containing the origin is hit.
+	 * @param dirX the x-component of the direction, does not need to be normalized
+	 * @param dirY the y-component of the direction, does not need to be normalized
+	 * @param maxDistance the length of the ray in multiples of the direction, may be {@link Float#POSITIVE_INFINITY}
+	 * @param results receives the handles, is not cleared
+	 * @return the number of handles added */
+	public abstract int raycast (float x, float y, float dirX, float dirY, float maxDistance, IntArray results);
+
+	/** Returns the handle of the box hit first by the ray or -1. See
+	 * {@link #raycast(float, float, float, float, float, IntArray)}. */
+	public int raycastFirst (float x, float y, float dirX, float dirY, float maxDistance) {
+		IntArray candidates = this.candidates;
+		candidates.clear();
+		raycast(x, y, dirX, dirY, maxDistance, candidates);
+		int closest = -1;
+		float closestDistance = Float.POSITIVE_INFINITY;
+		for (int i = 0, n = candidates.size; i < n; i++) {
+			int handle = candidates.items[i];
+			float distance = rayDistance(handle, x, y, dirX, dirY, maxDistance);
+			if (distance < closestDistance) {
+				closestDistance = distance;
+				closest = handle;
+			}
+		}
+		return closest;
+	}
+
+	/** Adds the handles of the k boxes closest to the point to the results, closest first. The distance of a box is the distance
+	 * from the point to the closest point of the box, boxes containing the point have a distance of 0.
+	 * @param results receives the handles, is not cleared
+	 * @return the number of handles added, less than k if the index has less than k boxes */
+	public int nearest (float x, float y, int k, IntArray results) {
+		if (k <= 0 || size == 0) return 0;
+		if (k > size) k = size;
+		float maxRadius = (float)Math.sqrt(Math.max(distance2(x, y, extentMinX, extentMinY, extentMaxX, extentMaxY, true), 0));
+		float radius = Math.max(initialSearchRadius(), 0.0001f);
+		IntArray candidates = this.candidates;
+		while (true) {
+			candidates.clear();
+			queryRadius(x, y, radius, candidates);
+			// every box not found lies farther away than radius, so the k closest candidates are the k closest boxes
+			if (candidates.size >= k || radius >= maxRadius) break;
+			radius *= 2;
+		}
+
+		if (nearestHandles.length < k) {
+			nearestHandles = new int[k];
+			nearestDistances = new float[k];
+		}
+		int[] handles = nearestHandles;
+		float[] distances = nearestDistances;
+		int found = 0;
+		for (int i = 0, n = candidates.size; i < n; i++) {
+			int handle = candidates.items[i];
+			float distance = distance2(handle, x, y);
+			if (found == k && distance >= distances[k - 1]) continue;
+			int j = found < k ? found++ : k - 1;
+			for (; j > 0 && distances[j - 1] > distance; j--) {
+				distances[j] = distances[j - 1];
+				handles[j] = handles[j - 1];
+			}
+			distances[j] = distance;
+			handles[j] = handle;
+		}
+		results.addAll(handles, 0, found);
+		return found;
+	}
+
+	/** Inserts the box with the given handle, its bounds are already set. */
+	protected abstract void insert (int handle);
+
+	/** Removes the box with the given handle, its bounds are still set. */
+	protected abstract void delete (int handle);
+
+	/** Moves the box with the given handle. The bounds still hold the old values, implementations have to call
+	 * {@link #setBounds(int, float, float, float, float)}. */
+	protected abstract void move (int handle, float minX, float minY, float maxX, float maxY);
+
+	/** Removes all boxes, the handles have already been cleared. */
+	protected abstract void reset ();
+
+	/** Inserts all boxes after {@link #set(float[], int, int)}. Implementations may override this with a faster bulk build. */
+	protected void rebuild () {
+		for (int i = 0; i < handleCount; i++)
+			if (used[i]) insert(i);
+	}
+
+	/** @return the radius the search for the nearest boxes starts with, it is doubled until enough boxes are found. */
+	protected abstract float initialSearchRadius ();
+
+	/** Called when the number of handles the index can hold grows, implementations grow their per handle arrays. */
+	protected void resizeHandles (int capacity) {
+	}
+
+	protected void setBounds (int handle, float minX, float minY, float maxX, float maxY) {
+		if (minX > maxX || minY > maxY)
+			throw new IllegalArgumentException("Invalid bounds: " + minX + ", " + minY + ", " + maxX + ", " + maxY);
+		int i = handle * 4;
+		bounds[i] = minX;
+		bounds[i + 1] = minY;
+		bounds[i + 2] = maxX;
+		bounds[i + 3] = maxY;
+		if (minX < extentMinX) extentMinX = minX;
+		if (minY < extentMinY) extentMinY = minY;
+		if (maxX > extentMaxX) extentMaxX = maxX;
+		if (maxY > extentMaxY) extentMaxY = maxY;
+	}
+
+	/** Starts a new query, after which {@link #mark(int)} returns true once per handle. Used to report boxes stored in several
+	 * places only once. */
+	protected void beginMarking () {
+		if (++mark == Integer.MAX_VALUE) {
+			mark = 1;
+			int[] marks = this.marks;
+			for (int i = 0, n = marks.length; i < n; i++)
+				marks[i] = 0;
+		}
+	}
+
+	/** @return true if the handle was not marked since the last call to {@link #beginMarking()} */
+	protected boolean mark (int handle) {
+		if (marks[handle] == mark) return false;
+		marks[handle] = mark;
+		return true;
+	}
+
+	/** @return whether the box overlaps the given box */
+	protected boolean overlaps (int handle, float minX, float minY, float maxX, float maxY) {
+		int i = handle * 4;
+		float[] bounds = this.bounds;
+		return bounds[i] <= maxX && bounds[i + 2] >= minX && bounds[i + 1] <= maxY && bounds[i + 3] >= minY;
+	}
+
+	/** @return the squared distance from the point to the closest point of the box */
+	protected float distance2 (int handle, float x, float y) {
+		int i = handle * 4;
+		return distance2(x, y, bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3], false);
+	}
+
+	/** @return the squared distance from the point to the closest or, if farthest is true, the farthest point of the box */
+	static float distance2 (float x, float y, float minX, float minY, float maxX, float maxY, boolean farthest) {
+		float dx, dy;
+		if (farthest) {
+			dx = Math.max(Math.abs(x - minX), Math.abs(x - maxX));
+			dy = Math.max(Math.abs(y - minY), Math.abs(y - maxY));
+		} else {
+			dx = x < minX ? minX - x : x > maxX ? x - maxX : 0;
+			dy = y < minY ? minY - y : y > maxY ? y - maxY : 0;
+		}
+		return dx * dx + dy * dy;
+	}
+
+	/** @return the distance along the ray, in multiples of the direction, at which it enters the box, 0 if the origin is in the
+	 *         box, or {@link Float#POSITIVE_INFINITY} if the ray misses the box. */
+	protected float rayDistance (int handle, float x, float y, float dirX, float dirY, float maxDistance) {
+		int i = handle * 4;
+		return rayDistance(x, y, dirX, dirY, maxDistance, bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3]);
+	}
+
+	static float rayDistance (float x, float y, float dirX, float dirY, float maxDistance, float minX, float minY, float maxX,
+		float maxY) {
+		float near = 0, far = maxDistance;
+		if (dirX == 0) {
+			if (x < minX || x > maxX) return Float.POSITIVE_INFINITY;
+		} else {
+			float t1 = (minX - x) / dirX, t2 = (maxX - x) / dirX;
+			if (t1 > t2) {
+				float t = t1;
+				t1 = t2;
+				t2 = t;
+			}
+			if (t1 > near) near = t1;
+			if (t2 < far) far = t2;
+		}
+		if (dirY == 0) {
+			if (y < minY || y > maxY) return Float.POSITIVE_INFINITY;
+		} else {
+			float t1 = (minY - y) / dirY, t2 = (maxY - y) / dirY;
+			if (t1 > t2) {
+				float t = t1;
+				t1 = t2;
+				t2 = t;
+			}
+			if (t1 > near) near = t1;
+			if (t2 < far) far = t2;
+		}
+		return near <= far ? near : Float.POSITIVE_INFINITY;
+	}
+
+	private void ensureHandleCapacity (int capacity) {
+		if (capacity <= used.length) return;
+		capacity = Math.max(capacity, (int)(used.length * 1.75f));
+		float[] newBounds = new float[capacity * 4];
+		System.arraycopy(bounds, 0, newBounds, 0, bounds.length);
+		bounds = newBounds;
+		boolean[] newUsed = new boolean[capacity];
+		System.arraycopy(used, 0, newUsed, 0, used.length);
+		used = newUsed;
+		int[] newMarks = new int[capacity];
+		System.arraycopy(marks, 0, newMarks, 0, marks.length);
+		marks = newMarks;
+		resizeHandles(capacity);
+	}
+
+	private void checkHandle (int handle) {
+		if (!contains(handle)) throw new IllegalArgumentException("Invalid handle: " + handle);
+	}
+
+	private void resetExtent () {
+		extentMinX = extentMinY = Float.POSITIVE_INFINITY;
+		extentMaxX = extentMaxY = Float.NEGATIVE_INFINITY;
+	}
+}
@@ -0,0 +1,388 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** <p>
+ * Base class of piecewise cubic splines in any number of dimensions, see {@link CardinalSpline}, {@link BezierSpline} and
+ * {@link BSpline}. The control points are stored in a float array, {@link #dimensions} floats per point. Values are written to
+ * caller supplied float arrays or vectors, nothing is allocated after the arc length table has been built.
+ * </p>
+ * 
+ * <p>
+ * A spline can be evaluated by its parameter t, which runs from 0 at the start to 1 at the end of the spline and gives every
+ * segment the same share regardless of its length. For movement at constant speed it can be evaluated by distance along the
+ * spline instead, using a table of arc lengths sampled along the spline, see {@link #computeArcLengths(int)}. The batch methods
+ * evaluate many parameters or distances in one call.
+ * </p>
+ * 
+ * <p>
+ * A spline is not thread safe, it uses internal scratch arrays.
+ * </p> */
+public abstract class Spline {
+	/** The number of floats per control point and value. */
+	public final int dimensions;
+	/** Whether the spline is a closed loop. */
+	public final boolean closed;
+
+	float[] points;
+	int pointCount;
+
+	private float[] arcLengths;
+	private int samplesPerSegment;
+	private final float[] weights = new float[4];
+	private final float[] tmp;
+
+	public Spline (int dimensions, boolean closed) {
+		if (dimensions < 1) throw new IllegalArgumentException("dimensions must be > 0: " + dimensions);
+		this.dimensions = dimensions;
+		this.closed = closed;
+		points = new float[0];
+		tmp = new float[dimensions * 2];
+	}
+
+	/** Sets the control points. The array is copied.
+	 * @param points the control points, {@link #dimensions} floats each
+	 * @param count the number of control points */
+	public void setControlPoints (float[] points, int offset, int count) {
+		if (this.points.length < count * dimensions) this.points = new float[count * dimensions];
+		System.arraycopy(points, offset, this.points, 0, count * dimensions);
+		pointCount = count;
+		invalidate();
+	}
+
+	/** Sets the control points from the x- and y-components of the vectors. The spline must have at least 2 dimensions, further
+	 * dimensions are set to 0. */
+	public void setControlPoints (Vector2[] points) {
+		if (dimensions < 2) throw new GdxRuntimeException("The spline needs at least 2 dimensions.");
+		ensurePoints(points.length);
+		for (int i = 0, n = points.length; i < n; i++) {
+			int offset = i * dimensions;
+			this.points[offset] = points[i].x;
+			this.points[offset + 1] = points[i].y;
+		}
+		invalidate();
+	}
+
+	/** Sets the control points from the x-, y- and z-components of the vectors. The spline must have at least 3 dimensions,
+	 * further dimensions are set to 0. */
+	public void setControlPoints (Vector3[] points) {
+		if (dimensions < 3) throw new GdxRuntimeException("The spline needs at least 3 dimensions.");
+		ensurePoints(points.length);
+		for (int i = 0, n = points.length; i < n; i++) {
+			int offset = i * dimensions;
+			this.points[offset] = points[i].x;
+			this.points[offset + 1] = points[i].y;
+			this.points[offset + 2] = points[i].z;
+		}
+		invalidate();
+	}
+
+	/** Returns the control points, {@link #dimensions} floats per point. After changing them {@link #invalidate()} must be
+	 * called. */
+	public float[] getControlPoints () {
+		return points;
+	}
+
+	public int getControlPointCount () {
+		return pointCount;
+	}
+
+	/** Discards the arc length table, must be called after the control points have been changed in place. */
+	public void invalidate () {
+		samplesPerSegment = 0;
+	}
+
+	/** @return the number of cubic segments, 0 if there are not enough control points. */
+	public abstract int getSegmentCount ();
+
+	/** Computes the weights of the four control points of a segment at the local parameter u, or the weights of their derivative.
+	 * @param u the parameter within the segment, [0, 1]
+	 * @param weights receives the four weights */
+	protected abstract void getWeights (float u, boolean derivative, float[] weights);
+
+	/** Returns the index of the first of the four control points of the segment, the others follow it. For a closed spline the
+	 * indices wrap around, the result may be -1 or the following indices may reach past the last control point. */
+	protected abstract int getFirstPointIndex (int segment);
+
+	/** Writes the point at parameter t to out.
+	 * @param t the parameter, [0, 1]
+	 * @param out receives {@link #dimensions} floats
+	 * @param offset the offset in out */
+	public void valueAt (float t, float[] out, int offset) {
+		evaluate(t, false, out, offset);
+	}
+
+	/** Writes the first derivative at parameter t to out. Its direction is the tangent of the spline.
+	 * @param t the parameter, [0, 1]
+	 * @param out receives {@link #dimensions} floats
+	 * @param offset the offset in out */
+	public void derivativeAt (float t, float[] out, int offset) {
+		evaluate(t, true, out, offset);
+	}
+
+	/** Stores the point at parameter t in out. Missing dimensions are set to 0.
+	 * @return out for chaining */
+	public Vector2 valueAt (float t, Vector2 out) {
+		evaluate(t, false, tmp, 0);
+		return toVector(out);
+	}
+
+	/** Stores the point at parameter t in out. Missing dimensions are set to 0.
+	 * @return out for chaining */
+	public Vector3 valueAt (float t, Vector3 out) {
+		evaluate(t, false, tmp, 0);
+		return toVector(out);
+	}
+
+	/** Stores the first derivative at parameter t in out. Missing dimensions are set to 0.
+	 * @return out for chaining */
+	public Vector2 derivativeAt (float t, Vector2 out) {
+		evaluate(t, true, tmp, 0);
+		return toVector(out);
+	}
+
+	/** Stores the first derivative at parameter t in out. Missing dimensions are set to 0.
+	 * @return out for chaining */
+	public Vector3 derivativeAt (float t, Vector3 out) {
+		evaluate(t, true, tmp, 0);
+		return toVector(out);
+	}
+
+	/** Writes the points at count parameters to out.
+	 * @param parameters the parameters, [0, 1]
+	 * @param out receives {@link #dimensions} floats per parameter
+	 * @param outOffset the offset of the first point in out */
+	public void valuesAt (float[] parameters, int offset, int count, float[] out, int outOffset) {
+		for (int i = 0; i < count; i++, outOffset += dimensions)
+			evaluate(parameters[offset + i], false, out, outOffset);
+	}
+
+	/** Builds the arc length table by sampling each segment at the given number of points. The length of the chords between the
+	 * samples approximates the arc length, more samples give more accurate distances. Called with 16 samples by the distance
+	 * methods if no table exists. */
+	public void computeArcLengths (int samplesPerSegment) {
+		if (samplesPerSegment < 1) throw new IllegalArgumentException("samplesPerSegment must be > 0: " + samplesPerSegment);
+		int samples = getSegmentCount() * samplesPerSegment;
+		if (arcLengths == null || arcLengths.length < samples + 1) arcLengths = new float[samples + 1];
+		float[] arcLengths = this.arcLengths;
+		float[] tmp = this.tmp;
+		int dimensions = this.dimensions;
+		float length = 0;
+		arcLengths[0] = 0;
+		evaluate(0, false, tmp, 0);
+		for (int i = 1, current = dimensions, previous = 0; i <= samples; i++) {
+			evaluate(i / (float)samples, false, tmp, current);
+			float length2 = 0;
+			for (int d = 0; d < dimensions; d++) {
+				float delta = tmp[current + d] - tmp[previous + d];
+				length2 += delta * delta;
+			}
+			length += (float)Math.sqrt(length2);
+			arcLengths[i] = length;
+			previous = current;
+			current = dimensions - current;
+		}
+		this.samplesPerSegment = samplesPerSegment;
+	}
+
+	/** @return the length of the spline, computing the arc length table if needed. */
+	public float getLength () {
+		if (samplesPerSegment == 0) computeArcLengths(16);
+		return arcLengths[getSegmentCount() * samplesPerSegment];
+	}
+
+	/** Returns the parameter t of the point at the given distance along the spline, computing the arc length table if needed.
+	 * @param distance the distance from the start of the spline, clamped to [0, {@link #getLength()}] */
+	public float getParameter (float distance) {
+		if (samplesPerSegment == 0) computeArcLengths(16);
+		int samples = getSegmentCount() * samplesPerSegment;
+		return getParameter(distance, findSample(distance, 0, samples), samples);
+	}
+
+	private float getParameter (float distance, int sample, int samples) {
+		if (samples == 0) return 0;
+		float[] arcLengths = this.arcLengths;
+		if (sample >= samples) return 1;
+		float start = arcLengths[sample], length = arcLengths[sample + 1] - start;
+		float fraction = length > 0 ? (distance - start) / length : 0;
+		if (fraction < 0) fraction = 0;
+		return (sample + fraction) / samples;
+	}
+
+	/** @return the last sample at or before the distance, searching from the given sample */
+	private int findSample (float distance, int low, int samples) {
+		float[] arcLengths = this.arcLengths;
+		int high = samples;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (arcLengths[middle] <= distance)
+				low = middle;
+			else
+				high = middle - 1;
+		}
+		return low;
+	}
+
+	/** Writes the point at the given distance along the spline to out.
+	 * @param out receives {@link #dimensions} floats
+	 * @param offset the offset in out */
+	public void valueAtDistance (float distance, float[] out, int offset) {
+		evaluate(getParameter(distance), false, out, offset);
+	}
+
+	/** Writes the first derivative at the given distance along the spline to out.
+	 * @param out receives {@link #dimensions} floats
+	 * @param offset the offset in out */
+	public void derivativeAtDistance (float distance, float[] out, int offset) {
+		evaluate(getParameter(distance), true, out, offset);
+	}
+
+	/** Stores the point at the given distance along the spline in out. Missing dimensions are set to 0.
+	 * @return out for chaining */
+	public Vector2 valueAtDistance (float distance, Vector2 out) {
+		return valueAt(getParameter(distance), out);
+	}
+
+	/** Stores the point at the given distance along the spline in out. Missing dimensions are set to 0.
+	 * @return out for chaining */
+	public Vector3 valueAtDistance (float distance, Vector3 out) {
+		return valueAt(getParameter(distance), out);
+	}
+
+	/** Stores the first derivative at the given distance along the spline in out. Missing dimensions are set to 0.
+	 * @return out for chaining */
+	public Vector2 derivativeAtDistance (float distance, Vector2 out) {
+		return derivativeAt(getParameter(distance), out);
+	}
+
+	/** Stores the first derivative at the given distance along the spline in out. Missing dimensions are set to 0.
+	 * @return out for chaining */
+	public Vector3 derivativeAtDistance (float distance, Vector3 out) {
+		return derivativeAt(getParameter(distance), out);
+	}
+
+	/** Writes the points at count distances along the spline to out. Runs of ascending distances are looked up by walking the arc
+	 * length table instead of searching it.
+	 * @param distances the distances from the start of the spline
+	 * @param out receives {@link #dimensions} floats per distance
+	 * @param outOffset the offset of the first point in out */
+	public void valuesAtDistances (float[] distances, int offset, int count, float[] out, int outOffset) {
+		if (samplesPerSegment == 0) computeArcLengths(16);
+		float[] arcLengths = this.arcLengths;
+		int samples = getSegmentCount() * samplesPerSegment;
+		int sample = 0;
+		float previous = Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < count; i++, outOffset += dimensions) {
+			float distance = distances[offset + i];
+			if (distance < previous)
+				sample = findSample(distance, 0, samples);
+			else {
+				while (sample < samples && arcLengths[sample + 1] <= distance)
+					sample++;
+			}
+			previous = distance;
+			evaluate(getParameter(distance, sample, samples), false, out, outOffset);
+		}
+	}
+
+	/** Writes count points evenly spaced by distance along the spline to out, including the start and the end point.
+	 * @param out receives {@link #dimensions} floats per point
+	 * @param outOffset the offset of the first point in out */
+	public void sampleByDistance (int count, float[] out, int outOffset) {
+		if (count == 1) {
+			evaluate(0, false, out, outOffset);
+			return;
+		}
+		if (samplesPerSegment == 0) computeArcLengths(16);
+		float[] arcLengths = this.arcLengths;
+		int samples = getSegmentCount() * samplesPerSegment;
+		float step = arcLengths[samples] / (count - 1);
+		int sample = 0;
+		for (int i = 0; i < count; i++, outOffset += dimensions) {
+			float distance = i * step;
+			while (sample < samples && arcLengths[sample + 1] <= distance)
+				sample++;
+			evaluate(i == count - 1 ? 1 : getParameter(distance, sample, samples), false, out, outOffset);
+		}
+	}
+
+	@SuppressWarnings("fallthrough")
+	private void evaluate (float t, boolean derivative, float[] out, int offset) {
+		int segments = getSegmentCount();
+		if (segments == 0) throw new GdxRuntimeException("Not enough control points: " + pointCount);
+		if (t < 0) t = 0;
+		if (t > 1) t = 1;
+		float position = t * segments;
+		int segment = Math.min((int)position, segments - 1);
+		float[] weights = this.weights;
+		getWeights(position - segment, derivative, weights);
+		if (derivative) {
+			// the weights are for the local parameter, scale them to the global one
+			for (int i = 0; i < 4; i++)
+				weights[i] *= segments;
+		}
+		float[] points = this.points;
+		int dimensions = this.dimensions;
+		int first = getFirstPointIndex(segment);
+		int p0, p1, p2, p3;
+		if (closed) {
+			int count = pointCount;
+			p0 = (first + count) % count * dimensions;
+			p1 = (first + 1 + count) % count * dimensions;
+			p2 = (first + 2 + count) % count * dimensions;
+			p3 = (first + 3 + count) % count * dimensions;
+		} else {
+			p0 = first * dimensions;
+			p1 = p0 + dimensions;
+			p2 = p1 + dimensions;
+			p3 = p2 + dimensions;
+		}
+		float w0 = weights[0], w1 = weights[1], w2 = weights[2], w3 = weights[3];
+		switch (dimensions) {
+		case 3:
+			out[offset + 2] = points[p0 + 2] * w0 + points[p1 + 2] * w1 + points[p2 + 2] * w2 + points[p3 + 2] * w3;
+			// fall through
+		case 2:
+			out[offset + 1] = points[p0 + 1] * w0 + points[p1 + 1] * w1 + points[p2 + 1] * w2 + points[p3 + 1] * w3;
+			out[offset] = points[p0] * w0 + points[p1] * w1 + points[p2] * w2 + points[p3] * w3;
+			break;
+		default:
+			for (int d = 0; d < dimensions; d++)
+				out[offset + d] = points[p0 + d] * w0 + points[p1 + d] * w1 + points[p2 + d] * w2 + points[p3 + d] * w3;
+		}
+	}
+
+	private Vector2 toVector (Vector2 out) {
+		return out.set(tmp[0], dimensions > 1 ? tmp[1] : 0);
+	}
+
+	private Vector3 toVector (Vector3 out) {
+		return out.set(tmp[0], dimensions > 1 ? tmp[1] : 0, dimensions > 2 ? tmp[2] : 0);
+	}
+
+	private void ensurePoints (int count) {
+		if (points.length < count * dimensions)
+			points = new float[count * dimensions];
+		else {
+			for (int i = 0, n = count * dimensions; i < n; i++)
+				points[i] = 0;
+		}
+		pointCount = count;
+	}
+}
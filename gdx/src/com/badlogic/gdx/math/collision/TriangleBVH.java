@@ -0,0 +1,650 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.math.collision;
+
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+/** <p>
+ * A bounding volume hierarchy over the triangles of an indexed triangle list. It answers nearest-hit and any-hit ray queries,
+ * segment queries as well as {@link BoundingBox} and {@link Sphere} overlap queries in logarithmic time instead of testing every
+ * triangle like {@link Intersector#intersectRayTriangles(Ray, float[], short[], int, Vector3)} does.
+ * </p>
+ *
+ * <p>
+ * The tree is built once by splitting the triangles at the median of their centroids along the longest axis, and is stored in
+ * flat primitive arrays: six floats of bounds and two ints per node, nine floats of positions per triangle in leaf order. Large
+ * meshes can be built on several threads, see {@link #TriangleBVH(float[], int, int, int[], int, int, int)}. The tree is static,
+ * if the geometry changes a new instance has to be created.
+ * </p>
+ *
+ * <p>
+ * Triangle indices returned by the queries refer to the position of the triangle in the original index list, that is triangle
+ * <code>i</code> is made up of the indices <code>3 * i</code> to <code>3 * i + 2</code>. Queries reuse an internal traversal
+ * stack and are therefore not thread safe.
+ * </p> */
+public class TriangleBVH {
+	/** the default maximum number of triangles in a leaf **/
+	public static final int DEFAULT_LEAF_SIZE = 4;
+	/** meshes with less triangles are always built on the calling thread **/
+	static final int PARALLEL_THRESHOLD = 16384;
+	static final float EPSILON = 0.000001f;
+
+	private final int numTriangles;
+	private final int leafSize;
+	private final int numNodes;
+	/** minX, minY, minZ, maxX, maxY, maxZ per node **/
+	private final float[] bounds;
+	/** per node: first triangle and triangle count for leaves, right child index and 0 for inner nodes. The left child of an inner
+	 * node always directly follows its parent. **/
+	private final int[] nodes;
+	/** the nine vertex coordinates of each triangle, in leaf order **/
+	private final float[] triangles;
+	/** the original index of each triangle, in leaf order **/
+	private final int[] order;
+
+	private float[] centroids;
+	private float[] source;
+	private volatile Throwable buildError;
+
+	private int[] nodeStack = new int[64];
+	private float[] distanceStack = new float[64];
+	private int hitTriangle = -1;
+
+	/** Builds the hierarchy from the positions and indices of the given mesh. The mesh must be made of triangles. If it has no
+	 * indices, every three consecutive vertices form a triangle.
+	 * @param mesh the mesh */
+	public TriangleBVH (Mesh mesh) {
+		this(mesh, DEFAULT_LEAF_SIZE, 1);
+	}
+
+	/** Builds the hierarchy from the positions and indices of the given mesh. The mesh must be made of triangles. If it has no
+	 * indices, every three consecutive vertices form a triangle.
+	 * @param mesh the mesh
+	 * @param leafSize the maximum number of triangles per leaf
+	 * @param threads the number of threads used to build the hierarchy, 1 to build on the calling thread */
+	public TriangleBVH (Mesh mesh, int leafSize, int threads) {
+		this(getVertices(mesh), mesh.getVertexSize() / 4, getPositionOffset(mesh), getIndices(mesh), mesh.getNumIndices() > 0
+			? mesh.getNumIndices() : mesh.getNumVertices(), leafSize, threads);
+	}
+
+	/** Builds the hierarchy from vertices with the position stored in the first three components of each vertex, using the same
+	 * layout as {@link Intersector#intersectRayTriangles(Ray, float[], short[], int, Vector3)}.
+	 * @param vertices the vertices
+	 * @param indices the indices, three per triangle
+	 * @param vertexSize the size of a vertex in floats */
+	public TriangleBVH (float[] vertices, short[] indices, int vertexSize) {
+		this(vertices, vertexSize, 0, toInts(indices), indices.length, DEFAULT_LEAF_SIZE, 1);
+	}
+
+	/** Builds the hierarchy from raw vertex and index arrays.
+	 * @param vertices the vertices
+	 * @param vertexSize the size of a vertex in floats
+	 * @param positionOffset the offset of the position in a vertex in floats
+	 * @param indices the indices, three per triangle, or null if every three consecutive vertices form a triangle
+	 * @param numIndices the number of indices to use, or the number of vertices if indices is null
+	 * @param leafSize the maximum number of triangles per leaf
+	 * @param threads the number of threads used to build the hierarchy, e.g.
+	 *           <code>Runtime.getRuntime().availableProcessors()</code>. 1 builds on the calling thread. */
+	public TriangleBVH (float[] vertices, int vertexSize, int positionOffset, int[] indices, int numIndices, int leafSize,
+		int threads) {
+		if (numIndices % 3 != 0) throw new IllegalArgumentException("number of indices must be a multiple of 3: " + numIndices);
+		if (leafSize < 1) throw new IllegalArgumentException("leafSize must be > 0: " + leafSize);
+		this.numTriangles = numIndices / 3;
+		this.leafSize = leafSize;
+		this.numNodes = numTriangles == 0 ? 0 : countNodes(numTriangles);
+		this.bounds = new float[numNodes * 6];
+		this.nodes = new int[numNodes * 2];
+		this.triangles = new float[numTriangles * 9];
+		this.order = new int[numTriangles];
+
+		source = new float[numTriangles * 9];
+		centroids = new float[numTriangles * 3];
+		for (int i = 0, s = 0; i < numIndices; i++, s += 3) {
+			int v = (indices != null ? indices[i] : i) * vertexSize + positionOffset;
+			source[s] = vertices[v];
+			source[s + 1] = vertices[v + 1];
+			source[s + 2] = vertices[v + 2];
+		}
+		for (int i = 0; i < numTriangles; i++) {
+			int s = i * 9, c = i * 3;
+			centroids[c] = source[s] + source[s + 3] + source[s + 6];
+			centroids[c + 1] = source[s + 1] + source[s + 4] + source[s + 7];
+			centroids[c + 2] = source[s + 2] + source[s + 5] + source[s + 8];
+			order[i] = i;
+		}
+
+		if (numTriangles > 0) {
+			if (threads > 1 && numTriangles >= PARALLEL_THRESHOLD)
+				buildParallel(threads);
+			else
+				build(0, 0, numTriangles, -1, null);
+		}
+
+		for (int i = 0; i < numTriangles; i++)
+			System.arraycopy(source, order[i] * 9, triangles, i * 9, 9);
+		source = null;
+		centroids = null;
+	}
+
+	private static float[] getVertices (Mesh mesh) {
+		FloatBuffer buffer = mesh.getVerticesBuffer();
+		float[] vertices = new float[mesh.getNumVertices() * mesh.getVertexSize() / 4];
+		for (int i = 0; i < vertices.length; i++)
+			vertices[i] = buffer.get(i);
+		return vertices;
+	}
+
+	private static int[] getIndices (Mesh mesh) {
+		if (mesh.getNumIndices() == 0) return null;
+		ShortBuffer buffer = mesh.getIndicesBuffer();
+		int[] indices = new int[mesh.getNumIndices()];
+		for (int i = 0; i < indices.length; i++)
+			indices[i] = buffer.get(i) & 0xffff;
+		return indices;
+	}
+
+	private static int getPositionOffset (Mesh mesh) {
+		VertexAttribute position = mesh.getVertexAttribute(Usage.Position);
+		if (position == null) throw new GdxRuntimeException("mesh has no position attribute");
+		return position.offset / 4;
+	}
+
+	private static int[] toInts (short[] indices) {
+		int[] result = new int[indices.length];
+		for (int i = 0; i < indices.length; i++)
+			result[i] = indices[i] & 0xffff;
+		return result;
+	}
+
+	/** @return the number of nodes a subtree over the given number of triangles occupies. As the tree is always split at the
+	 *         median this only depends on the triangle count, which lets subtrees be built independently. */
+	private int countNodes (int count) {
+		if (count <= leafSize) return 1;
+		int half = count / 2;
+		return 1 + countNodes(half) + countNodes(count - half);
+	}
+
+	private void buildParallel (int threads) {
+		// split the top of the tree on the calling thread until there are a few subtrees per thread
+		int depth = 1;
+		while ((1 << depth) < threads * 4)
+			depth++;
+		final IntArray tasks = new IntArray();
+		build(0, 0, numTriangles, depth, tasks);
+
+		final AtomicInteger next = new AtomicInteger();
+		Thread[] workers = new Thread[threads];
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Thread("TriangleBVH-Builder-Thread") {
+				public void run () {
+					try {
+						int task;
+						while ((task = next.getAndIncrement() * 3) < tasks.size)
+							build(tasks.items[task], tasks.items[task + 1], tasks.items[task + 2], -1, null);
+					} catch (Throwable t) {
+						buildError = t;
+					}
+				}
+			};
+			workers[i].start();
+		}
+		try {
+			for (int i = 0; i < threads; i++)
+				workers[i].join();
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException("interrupted while building bounding volume hierarchy", e);
+		}
+		if (buildError != null) throw new GdxRuntimeException("couldn't build bounding volume hierarchy", buildError);
+	}
+
+	/** Builds the subtree rooted at node over the triangles start to start + count in {@link #order}. Once splitDepth reaches 0 the
+	 * subtree is added to tasks instead of being built. */
+	private void build (int node, int start, int count, int splitDepth, IntArray tasks) {
+		if (splitDepth == 0) {
+			tasks.add(node);
+			tasks.add(start);
+			tasks.add(count);
+			return;
+		}
+
+		float[] source = this.source, centroids = this.centroids;
+		int[] order = this.order;
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		float cMinX = Float.POSITIVE_INFINITY, cMinY = Float.POSITIVE_INFINITY, cMinZ = Float.POSITIVE_INFINITY;
+		float cMaxX = Float.NEGATIVE_INFINITY, cMaxY = Float.NEGATIVE_INFINITY, cMaxZ = Float.NEGATIVE_INFINITY;
+		for (int i = start, n = start + count; i < n; i++) {
+			int triangle = order[i];
+			for (int s = triangle * 9, end = s + 9; s < end; s += 3) {
+				float x = source[s], y = source[s + 1], z = source[s + 2];
+				if (x < minX) minX = x;
+				if (x > maxX) maxX = x;
+				if (y < minY) minY = y;
+				if (y > maxY) maxY = y;
+				if (z < minZ) minZ = z;
+				if (z > maxZ) maxZ = z;
+			}
+			int c = triangle * 3;
+			float x = centroids[c], y = centroids[c + 1], z = centroids[c + 2];
+			if (x < cMinX) cMinX = x;
+			if (x > cMaxX) cMaxX = x;
+			if (y < cMinY) cMinY = y;
+			if (y > cMaxY) cMaxY = y;
+			if (z < cMinZ) cMinZ = z;
+			if (z > cMaxZ) cMaxZ = z;
+		}
+		int b = node * 6;
+		bounds[b] = minX;
+		bounds[b + 1] = minY;
+		bounds[b + 2] = minZ;
+		bounds[b + 3] = maxX;
+		bounds[b + 4] = maxY;
+		bounds[b + 5] = maxZ;
+
+		if (count <= leafSize) {
+			nodes[node * 2] = start;
+			nodes[node * 2 + 1] = count;
+			return;
+		}
+
+		float extentX = cMaxX - cMinX, extentY = cMaxY - cMinY, extentZ = cMaxZ - cMinZ;
+		int axis = extentX >= extentY ? (extentX >= extentZ ? 0 : 2) : (extentY >= extentZ ? 1 : 2);
+		int half = count / 2;
+		select(start, start + count - 1, start + half, axis);
+
+		int right = node + 1 + countNodes(half);
+		nodes[node * 2] = right;
+		nodes[node * 2 + 1] = 0;
+		build(node + 1, start, half, splitDepth - 1, tasks);
+		build(right, start + half, count - half, splitDepth - 1, tasks);
+	}
+
+	/** Partially sorts {@link #order} between left and right so that the triangle at k has the k-th smallest centroid along the
+	 * axis, with all smaller centroids before and all larger ones after it. */
+	private void select (int left, int right, int k, int axis) {
+		int[] order = this.order;
+		float[] centroids = this.centroids;
+		while (right > left) {
+			int mid = (left + right) >>> 1;
+			float a = centroids[order[left] * 3 + axis], b = centroids[order[mid] * 3 + axis], c = centroids[order[right] * 3 + axis];
+			float pivot = a < b ? (b < c ? b : (a < c ? c : a)) : (a < c ? a : (b < c ? c : b));
+			int i = left, j = right;
+			while (i <= j) {
+				while (centroids[order[i] * 3 + axis] < pivot)
+					i++;
+				while (centroids[order[j] * 3 + axis] > pivot)
+					j--;
+				if (i <= j) {
+					int tmp = order[i];
+					order[i] = order[j];
+					order[j] = tmp;
+					i++;
+					j--;
+				}
+			}
+			if (k <= j)
+				right = j;
+			else if (k >= i)
+				left = i;
+			else
+				return;
+		}
+	}
+
+	/** Intersects the ray with the triangles and returns the nearest intersection.
+	 * @param ray the ray
+	 * @param intersection the nearest intersection point, may be null
+	 * @return the index of the nearest triangle hit or -1 */
+	public int intersectRay (Ray ray, Vector3 intersection) {
+		Vector3 o = ray.origin, d = ray.direction;
+		float distance = intersect(o.x, o.y, o.z, d.x, d.y, d.z, Float.POSITIVE_INFINITY, false);
+		if (distance < 0) return -1;
+		if (intersection != null) intersection.set(d).mul(distance).add(o);
+		return hitTriangle;
+	}
+
+	/** Returns whether the ray hits any triangle closer than maxDistance. This is faster than {@link #intersectRay(Ray, Vector3)}
+	 * as traversal stops at the first hit, and is useful for visibility and shadow tests.
+	 * @param ray the ray
+	 * @param maxDistance the maximum distance from the ray origin
+	 * @return whether a triangle was hit */
+	public boolean intersectRayAny (Ray ray, float maxDistance) {
+		Vector3 o = ray.origin, d = ray.direction;
+		return intersect(o.x, o.y, o.z, d.x, d.y, d.z, maxDistance, true) >= 0;
+	}
+
+	/** Intersects the segment with the triangles and returns the intersection closest to {@link Segment#a}.
+	 * @param segment the segment
+	 * @param intersection the intersection point closest to the start of the segment, may be null
+	 * @return the index of the triangle hit or -1 */
+	public int intersectSegment (Segment segment, Vector3 intersection) {
+		Vector3 a = segment.a, b = segment.b;
+		float t = intersect(a.x, a.y, a.z, b.x - a.x, b.y - a.y, b.z - a.z, 1, false);
+		if (t < 0) return -1;
+		if (intersection != null) intersection.set(b).sub(a).mul(t).add(a);
+		return hitTriangle;
+	}
+
+	/** @param segment the segment
+	 * @return whether the segment intersects any triangle */
+	public boolean intersectSegmentAny (Segment segment) {
+		Vector3 a = segment.a, b = segment.b;
+		return intersect(a.x, a.y, a.z, b.x - a.x, b.y - a.y, b.z - a.z, 1, true) >= 0;
+	}
+
+	/** Intersects a batch of rays with the triangles. Each ray is given as six floats, origin followed by direction. The direction
+	 * does not have to be normalized, distances are then given in multiples of its length.
+	 * @param rays the rays
+	 * @param offset the offset of the first ray in the rays array
+	 * @param count the number of rays
+	 * @param maxDistance the maximum distance of a hit
+	 * @param distances receives the distance of the nearest hit for each ray or -1, may be null
+	 * @param hits receives the index of the nearest triangle hit for each ray or -1, may be null
+	 * @return the number of rays that hit a triangle */
+	public int intersectRays (float[] rays, int offset, int count, float maxDistance, float[] distances, int[] hits) {
+		int hitCount = 0;
+		for (int i = 0, r = offset; i < count; i++, r += 6) {
+			float distance = intersect(rays[r], rays[r + 1], rays[r + 2], rays[r + 3], rays[r + 4], rays[r + 5], maxDistance, false);
+			if (distance >= 0) hitCount++;
+			if (distances != null) distances[i] = distance;
+			if (hits != null) hits[i] = distance >= 0 ? hitTriangle : -1;
+		}
+		return hitCount;
+	}
+
+	/** Traverses the tree front to back and returns the distance of the nearest hit along the direction or -1. */
+	private float intersect (float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance, boolean any) {
+		hitTriangle = -1;
+		if (numNodes == 0) return -1;
+		float ix = 1 / dx, iy = 1 / dy, iz = 1 / dz;
+		float nearest = maxDistance;
+		if (intersectBounds(0, ox, oy, oz, ix, iy, iz, nearest) == Float.POSITIVE_INFINITY) return -1;
+
+		int[] nodes = this.nodes;
+		float[] triangles = this.triangles;
+		int[] nodeStack = this.nodeStack;
+		float[] distanceStack = this.distanceStack;
+		int stackSize = 0;
+		int node = 0;
+		while (true) {
+			int count = nodes[node * 2 + 1];
+			if (count > 0) {
+				for (int i = nodes[node * 2], n = i + count; i < n; i++) {
+					int t = i * 9;
+					float v0x = triangles[t], v0y = triangles[t + 1], v0z = triangles[t + 2];
+					float e1x = triangles[t + 3] - v0x, e1y = triangles[t + 4] - v0y, e1z = triangles[t + 5] - v0z;
+					float e2x = triangles[t + 6] - v0x, e2y = triangles[t + 7] - v0y, e2z = triangles[t + 8] - v0z;
+					float px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+					float det = e1x * px + e1y * py + e1z * pz;
+					if (det > -EPSILON && det < EPSILON) continue;
+					float invDet = 1 / det;
+					float sx = ox - v0x, sy = oy - v0y, sz = oz - v0z;
+					float u = (sx * px + sy * py + sz * pz) * invDet;
+					if (u < 0 || u > 1) continue;
+					float qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+					float v = (dx * qx + dy * qy + dz * qz) * invDet;
+					if (v < 0 || u + v > 1) continue;
+					float distance = (e2x * qx + e2y * qy + e2z * qz) * invDet;
+					if (distance < 0 || distance > nearest) continue;
+					nearest = distance;
+					hitTriangle = order[i];
+					if (any) return distance;
+				}
+			} else {
+				int left = node + 1, right = nodes[node * 2];
+				float leftDistance = intersectBounds(left, ox, oy, oz, ix, iy, iz, nearest);
+				float rightDistance = intersectBounds(right, ox, oy, oz, ix, iy, iz, nearest);
+				if (leftDistance != Float.POSITIVE_INFINITY) {
+					if (rightDistance != Float.POSITIVE_INFINITY) {
+						if (stackSize == nodeStack.length) {
+							nodeStack = this.nodeStack = grow(nodeStack);
+							distanceStack = this.distanceStack = grow(distanceStack);
+						}
+						if (leftDistance <= rightDistance) {
+							nodeStack[stackSize] = right;
+							distanceStack[stackSize++] = rightDistance;
+							node = left;
+						} else {
+							nodeStack[stackSize] = left;
+							distanceStack[stackSize++] = leftDistance;
+							node = right;
+						}
+					} else
+						node = left;
+					continue;
+				} else if (rightDistance != Float.POSITIVE_INFINITY) {
+					node = right;
+					continue;
+				}
+			}
+
+			// pop the next subtree that can still contain a nearer hit
+			do {
+				if (stackSize == 0) return hitTriangle == -1 ? -1 : nearest;
+				node = nodeStack[--stackSize];
+			} while (distanceStack[stackSize] > nearest);
+		}
+	}
+
+	/** @return the distance at which the ray enters the bounds of the node or {@link Float#POSITIVE_INFINITY} if it misses them
+	 *         within maxDistance */
+	private float intersectBounds (int node, float ox, float oy, float oz, float ix, float iy, float iz, float maxDistance) {
+		float[] bounds = this.bounds;
+		int b = node * 6;
+		float near = 0, far = maxDistance;
+		// an axis the ray doesn't move along has an infinite inverse direction, (bound - origin) * inverse would be NaN for an
+		// origin on the bound, so only the origin is checked against the slab
+		if (Float.isInfinite(ix)) {
+			if (ox < bounds[b] || ox > bounds[b + 3]) return Float.POSITIVE_INFINITY;
+		} else {
+			float t1 = (bounds[b] - ox) * ix, t2 = (bounds[b + 3] - ox) * ix;
+			near = Math.max(near, Math.min(t1, t2));
+			far = Math.min(far, Math.max(t1, t2));
+		}
+		if (Float.isInfinite(iy)) {
+			if (oy < bounds[b + 1] || oy > bounds[b + 4]) return Float.POSITIVE_INFINITY;
+		} else {
+			float t1 = (bounds[b + 1] - oy) * iy, t2 = (bounds[b + 4] - oy) * iy;
+			near = Math.max(near, Math.min(t1, t2));
+			far = Math.min(far, Math.max(t1, t2));
+		}
+		if (Float.isInfinite(iz)) {
+			if (oz < bounds[b + 2] || oz > bounds[b + 5]) return Float.POSITIVE_INFINITY;
+		} else {
+			float t1 = (bounds[b + 2] - oz) * iz, t2 = (bounds[b + 5] - oz) * iz;
+			near = Math.max(near, Math.min(t1, t2));
+			far = Math.min(far, Math.max(t1, t2));
+		}
+		return near <= far ? near : Float.POSITIVE_INFINITY;
+	}
+
+	/** Adds the indices of all triangles whose axis aligned bounds overlap the box to the results. This is conservative, triangles
+	 * passing diagonally by a corner of the box are reported as well.
+	 * @param box the box
+	 * @param results receives the triangle indices, is not cleared
+	 * @return the number of triangles added */
+	public int overlaps (BoundingBox box, IntArray results) {
+		if (numNodes == 0) return 0;
+		float minX = box.min.x, minY = box.min.y, minZ = box.min.z, maxX = box.max.x, maxY = box.max.y, maxZ = box.max.z;
+		float[] bounds = this.bounds, triangles = this.triangles;
+		int[] nodes = this.nodes, nodeStack = this.nodeStack;
+		int added = 0, stackSize = 0;
+		nodeStack[stackSize++] = 0;
+		while (stackSize > 0) {
+			int node = nodeStack[--stackSize];
+			int b = node * 6;
+			if (bounds[b] > maxX || bounds[b + 3] < minX || bounds[b + 1] > maxY || bounds[b + 4] < minY || bounds[b + 2] > maxZ
+				|| bounds[b + 5] < minZ) continue;
+			int count = nodes[node * 2 + 1];
+			if (count > 0) {
+				for (int i = nodes[node * 2], n = i + count; i < n; i++) {
+					int t = i * 9;
+					if (Math.min(triangles[t], Math.min(triangles[t + 3], triangles[t + 6])) > maxX) continue;
+					if (Math.max(triangles[t], Math.max(triangles[t + 3], triangles[t + 6])) < minX) continue;
+					if (Math.min(triangles[t + 1], Math.min(triangles[t + 4], triangles[t + 7])) > maxY) continue;
+					if (Math.max(triangles[t + 1], Math.max(triangles[t + 4], triangles[t + 7])) < minY) continue;
+					if (Math.min(triangles[t + 2], Math.min(triangles[t + 5], triangles[t + 8])) > maxZ) continue;
+					if (Math.max(triangles[t + 2], Math.max(triangles[t + 5], triangles[t + 8])) < minZ) continue;
+					results.add(order[i]);
+					added++;
+				}
+			} else {
+				if (stackSize + 2 > nodeStack.length) nodeStack = this.nodeStack = grow(nodeStack);
+				nodeStack[stackSize++] = nodes[node * 2];
+				nodeStack[stackSize++] = node + 1;
+			}
+		}
+		return added;
+	}
+
+	/** Adds the indices of all triangles that intersect the sphere to the results.
+	 * @param sphere the sphere
+	 * @param results receives the triangle indices, is not cleared
+	 * @return the number of triangles added */
+	public int overlaps (Sphere sphere, IntArray results) {
+		if (numNodes == 0) return 0;
+		float cx = sphere.center.x, cy = sphere.center.y, cz = sphere.center.z, radius2 = sphere.radius * sphere.radius;
+		float[] bounds = this.bounds;
+		int[] nodes = this.nodes, nodeStack = this.nodeStack;
+		int added = 0, stackSize = 0;
+		nodeStack[stackSize++] = 0;
+		while (stackSize > 0) {
+			int node = nodeStack[--stackSize];
+			int b = node * 6;
+			float dx = Math.max(bounds[b] - cx, Math.max(0, cx - bounds[b + 3]));
+			float dy = Math.max(bounds[b + 1] - cy, Math.max(0, cy - bounds[b + 4]));
+			float dz = Math.max(bounds[b + 2] - cz, Math.max(0, cz - bounds[b + 5]));
+			if (dx * dx + dy * dy + dz * dz > radius2) continue;
+			int count = nodes[node * 2 + 1];
+			if (count > 0) {
+				for (int i = nodes[node * 2], n = i + count; i < n; i++) {
+					if (distanceSquared(i * 9, cx, cy, cz) > radius2) continue;
+					results.add(order[i]);
+					added++;
+				}
+			} else {
+				if (stackSize + 2 > nodeStack.length) nodeStack = this.nodeStack = grow(nodeStack);
+				nodeStack[stackSize++] = nodes[node * 2];
+				nodeStack[stackSize++] = node + 1;
+			}
+		}
+		return added;
+	}
+
+	/** @return the squared distance between the point and the closest point on the triangle starting at offset t in
+	 *         {@link #triangles}, see Ericson, Real-Time Collision Detection, 5.1.5 */
+	private float distanceSquared (int t, float px, float py, float pz) {
+		float[] triangles = this.triangles;
+		float ax = triangles[t], ay = triangles[t + 1], az = triangles[t + 2];
+		float abx = triangles[t + 3] - ax, aby = triangles[t + 4] - ay, abz = triangles[t + 5] - az;
+		float acx = triangles[t + 6] - ax, acy = triangles[t + 7] - ay, acz = triangles[t + 8] - az;
+		float apx = px - ax, apy = py - ay, apz = pz - az;
+		float d1 = abx * apx + aby * apy + abz * apz, d2 = acx * apx + acy * apy + acz * apz;
+		float x, y, z;
+		if (d1 <= 0 && d2 <= 0) {
+			x = ax;
+			y = ay;
+			z = az;
+		} else {
+			float bpx = apx - abx, bpy = apy - aby, bpz = apz - abz;
+			float d3 = abx * bpx + aby * bpy + abz * bpz, d4 = acx * bpx + acy * bpy + acz * bpz;
+			float cpx = apx - acx, cpy = apy - acy, cpz = apz - acz;
+			float d5 = abx * cpx + aby * cpy + abz * cpz, d6 = acx * cpx + acy * cpy + acz * cpz;
+			float vc = d1 * d4 - d3 * d2, vb = d5 * d2 - d1 * d6, va = d3 * d6 - d5 * d4;
+			if (d3 >= 0 && d4 <= d3) {
+				// vertex b
+				x = ax + abx;
+				y = ay + aby;
+				z = az + abz;
+			} else if (d6 >= 0 && d5 <= d6) {
+				// vertex c
+				x = ax + acx;
+				y = ay + acy;
+				z = az + acz;
+			} else if (vc <= 0 && d1 >= 0 && d3 <= 0) {
+				// edge ab
+				float v = d1 / (d1 - d3);
+				x = ax + abx * v;
+				y = ay + aby * v;
+				z = az + abz * v;
+			} else if (vb <= 0 && d2 >= 0 && d6 <= 0) {
+				// edge ac
+				float w = d2 / (d2 - d6);
+				x = ax + acx * w;
+				y = ay + acy * w;
+				z = az + acz * w;
+			} else if (va <= 0 && d4 - d3 >= 0 && d5 - d6 >= 0) {
+				// edge bc
+				float w = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+				x = ax + abx + (acx - abx) * w;
+				y = ay + aby + (acy - aby) * w;
+				z = az + abz + (acz - abz) * w;
+			} else {
+				// inside the face
+				float denom = 1 / (va + vb + vc);
+				float v = vb * denom, w = vc * denom;
+				x = ax + abx * v + acx * w;
+				y = ay + aby * v + acy * w;
+				z = az + abz * v + acz * w;
+			}
+		}
+		x -= px;
+		y -= py;
+		z -= pz;
+		return x * x + y * y + z * z;
+	}
+
+	private static int[] grow (int[] array) {
+		int[] newArray = new int[array.length * 2];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	private static float[] grow (float[] array) {
+		float[] newArray = new float[array.length * 2];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	/** @param out the bounding box receiving the bounds of all triangles
+	 * @return the bounding box for chaining */
+	public BoundingBox getBounds (BoundingBox out) {
+		out.inf();
+		if (numNodes == 0) return out;
+		return out.ext(bounds[0], bounds[1], bounds[2]).ext(bounds[3], bounds[4], bounds[5]);
+	}
+
+	/** @return the number of triangles */
+	public int getNumTriangles () {
+		return numTriangles;
+	}
+
+	/** @return the number of nodes of the tree */
+	public int getNumNodes () {
+		return numNodes;
+	}
+}
@@ -26,7 +26,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /** A queue that allows one thread to call {@link #put(Object)} and another thread to call {@link #poll()}. Multiple threads must
- * not call these methods.
+ * not call these methods. See {@link ConcurrentQueue} for queues that allow multiple producers or consumers.
  * @author Matthias Mann */
 public class AtomicQueue<T> {
 	private final AtomicInteger writeIndex = new AtomicInteger();
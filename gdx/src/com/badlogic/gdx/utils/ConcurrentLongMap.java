@@ -0,0 +1,548 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/** An unordered map where the keys are longs. The map can be used by multiple threads at the same time. Null values are not
+ * allowed. This implementation is an open addressing hash map with linear probing. <br>
+ * <br>
+ * No method blocks. Reads only read the tables. Writes claim the slot of a key with compare and set and then swap its value. A
+ * slot keeps its key once claimed, removing a key replaces the value with a tombstone. When the claimed slots exceed the load
+ * factor a new table is created and the entries are migrated to it cooperatively: every writer that finds the old table still
+ * in use copies a few slots. A slot is copied by freezing its value, putting the value into the new table only if that slot is
+ * still empty there, and then replacing it with a forwarding marker. Readers and writers that find a frozen or forwarded slot
+ * continue with the new table, writers first finish copying the slot. Once every slot is forwarded the new table replaces the
+ * old one. The value of key 0 is kept outside of the tables and changed the same way as the value of a slot. <br>
+ * <br>
+ * The iterators are weakly consistent. Entries in the map for the whole iteration are returned, entries added or removed by
+ * other threads while iterating may or may not be returned, but no entry is returned twice. Unlike the other maps a new iterator
+ * is returned each time. */
+public class ConcurrentLongMap<V> {
+	static final int EMPTY = 0;
+
+	/** Value of a removed key. */
+	static final Object TOMBSTONE = new Object();
+	/** Value of a slot copied to the next table. */
+	static final Object MOVED = new Object();
+
+	static final int PUT = 0, PUT_IF_ABSENT = 1, REMOVE = 2, REMOVE_VALUE = 3, COPY = 4;
+	/** Returned by {@link Table#claim(long, boolean)}. */
+	static final int ABSENT = -1, FULL = -2;
+	/** Number of slots a writer copies each time it helps migrating a table. */
+	static final int COPY_CHUNK = 16;
+
+	private final float loadFactor;
+	private final int initialCapacity;
+	private final AtomicInteger size = new AtomicInteger();
+	final AtomicReference<Table> table = new AtomicReference();
+	final AtomicReferenceArray<Object> zeroValue = new AtomicReferenceArray(1);
+
+	/** Creates a new map with an initial capacity of 32 and a load factor of 0.75. */
+	public ConcurrentLongMap () {
+		this(32, 0.75f);
+	}
+
+	/** Creates a new map with a load factor of 0.75. */
+	public ConcurrentLongMap (int initialCapacity) {
+		this(initialCapacity, 0.75f);
+	}
+
+	/** Creates a new map with the specified initial capacity and load factor. A new table is created when more than
+	 * initialCapacity * loadFactor slots have been claimed. */
+	public ConcurrentLongMap (int initialCapacity, float loadFactor) {
+		if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity must be >= 0: " + initialCapacity);
+		if (initialCapacity > 1 << 30) throw new IllegalArgumentException("initialCapacity is too large: " + initialCapacity);
+		if (loadFactor <= 0 || loadFactor >= 1) throw new IllegalArgumentException("loadFactor must be > 0 and < 1: " + loadFactor);
+		this.loadFactor = loadFactor;
+		this.initialCapacity = Math.max(4, MathUtils.nextPowerOfTwo(initialCapacity));
+		table.set(new Table(this.initialCapacity, loadFactor));
+	}
+
+	/** Returns the number of entries in the map. */
+	public int size () {
+		return size.get();
+	}
+
+	/** Returns the old value, or null if the key was not in the map. */
+	public V put (long key, V value) {
+		if (value == null) throw new IllegalArgumentException("value cannot be null.");
+		if (key == 0) return (V)update(zeroValue, 0, value, PUT);
+		return (V)write(table.get(), key, value, PUT);
+	}
+
+	/** Puts the value only if the key is not in the map.
+	 * @return the current value, or null if the value was put */
+	public V putIfAbsent (long key, V value) {
+		if (value == null) throw new IllegalArgumentException("value cannot be null.");
+		if (key == 0) return (V)update(zeroValue, 0, value, PUT_IF_ABSENT);
+		return (V)write(table.get(), key, value, PUT_IF_ABSENT);
+	}
+
+	/** Returns the value for the specified key, or null if the key is not in the map. */
+	public V get (long key) {
+		return (V)read(table.get(), key);
+	}
+
+	/** Returns the value for the specified key, or the default value if the key is not in the map. */
+	public V get (long key, V defaultValue) {
+		Object value = read(table.get(), key);
+		return value == null ? defaultValue : (V)value;
+	}
+
+	public boolean containsKey (long key) {
+		return read(table.get(), key) != null;
+	}
+
+	/** Returns the removed value, or null if the key was not in the map. */
+	public V remove (long key) {
+		if (key == 0) return (V)update(zeroValue, 0, null, REMOVE);
+		return (V)write(table.get(), key, null, REMOVE);
+	}
+
+	/** Removes the key only if it is mapped to the specified value, compared by identity.
+	 * @return true if the key was removed */
+	public boolean remove (long key, V value) {
+		if (value == null) return false;
+		if (key == 0) return update(zeroValue, 0, value, REMOVE_VALUE) == value;
+		return write(table.get(), key, value, REMOVE_VALUE) == value;
+	}
+
+	/** Removes all entries. Entries put by other threads while clearing may remain. */
+	public void clear () {
+		for (Keys keys = keys(); keys.hasNext;)
+			remove(keys.next());
+	}
+
+	/** Returns true if the specified value is in the map. Note this traverses the entire map and compares every value, which may be
+	 * an expensive operation.
+	 * @param identity If true, uses == to compare the specified value with values in the map. If false, uses
+	 *           {@link #equals(Object)}. */
+	public boolean containsValue (Object value, boolean identity) {
+		for (Values<V> values = values(); values.hasNext;) {
+			V current = values.next();
+			if (identity ? current == value : current.equals(value)) return true;
+		}
+		return false;
+	}
+
+	/** Returns the key for the specified value, or notFound if it is not in the map. Note this traverses the entire map and compares
+	 * every value, which may be an expensive operation.
+	 * @param identity If true, uses == to compare the specified value with values in the map. If false, uses
+	 *           {@link #equals(Object)}. */
+	public long findKey (Object value, boolean identity, long notFound) {
+		for (Entries<V> entries = entries(); entries.hasNext;) {
+			Entry<V> entry = entries.next();
+			if (identity ? entry.value == value : entry.value.equals(value)) return entry.key;
+		}
+		return notFound;
+	}
+
+	/** Returns the value of the key in the table or the tables it was copied to, or null. */
+	Object read (Table table, long key) {
+		if (key == 0) {
+			Object value = zeroValue.get(0);
+			return value == TOMBSTONE ? null : value;
+		}
+		for (; table != null; table = table.next.get()) {
+			int index = table.find(key);
+			// a key without slot may have been put into the next table when this one was full
+			if (index == -1) continue;
+			Object value = table.values.get(index);
+			if (value == MOVED) continue;
+			if (value instanceof Frozen) return ((Frozen)value).value;
+			return value == TOMBSTONE ? null : value;
+		}
+		return null;
+	}
+
+	/** Changes the value of the key according to the mode, moving on to the next table for slots that were copied.
+	 * @return the old value, or null if the key was not in the map */
+	private Object write (Table table, long key, Object value, int mode) {
+		boolean claim = mode != REMOVE && mode != REMOVE_VALUE;
+		while (true) {
+			if (table.next.get() != null) help(table);
+			int index = table.claim(key, claim);
+			if (index == ABSENT) return null;
+			if (index == FULL) {
+				if (!claim && table.next.get() == null) return null;
+				resize(table);
+			} else {
+				if (table.claimed.get() > table.threshold) resize(table);
+				// a slot claimed while the table is being copied is forwarded before it gets a value
+				if (table.next.get() != null && table.values.get(index) == null) copySlot(table, index);
+				Object oldValue = update(table.values, index, value, mode);
+				if (oldValue != MOVED) return oldValue;
+				// the value must be in the next table before it is changed there
+				copySlot(table, index);
+			}
+			table = table.next.get();
+		}
+	}
+
+	/** Changes the value in a slot according to the mode.
+	 * @return the old value, null if the key was not in the map, or {@link #MOVED} if the slot is being copied */
+	private Object update (AtomicReferenceArray<Object> values, int index, Object value, int mode) {
+		while (true) {
+			Object current = values.get(index);
+			if (current == MOVED || current instanceof Frozen) return MOVED;
+			Object oldValue = current == TOMBSTONE ? null : current;
+			Object newValue = value;
+			switch (mode) {
+			case PUT_IF_ABSENT:
+				if (oldValue != null) return oldValue;
+				break;
+			case REMOVE:
+				if (oldValue == null) return null;
+				newValue = TOMBSTONE;
+				break;
+			case REMOVE_VALUE:
+				if (oldValue != value) return oldValue;
+				newValue = TOMBSTONE;
+				break;
+			case COPY:
+				// a removal or put after the copy must not be overwritten
+				if (current != null) return null;
+				break;
+			}
+			if (!values.compareAndSet(index, current, newValue)) continue;
+			if (mode != COPY) {
+				if (oldValue == null)
+					size.incrementAndGet();
+				else if (newValue == TOMBSTONE) size.decrementAndGet();
+			}
+			return oldValue;
+		}
+	}
+
+	/** Creates the next table if it does not exist yet. The capacity is chosen so the live entries fill at most half of the load
+	 * factor. */
+	private void resize (Table table) {
+		if (table.next.get() != null) return;
+		int capacity = Math.max(initialCapacity, MathUtils.nextPowerOfTwo((int)Math.ceil(size.get() * 2 / loadFactor) + 1));
+		table.next.compareAndSet(null, new Table(capacity, loadFactor));
+	}
+
+	/** Copies the next few slots of a table that is being copied to the next table. */
+	private void help (Table table) {
+		int length = table.values.length();
+		if (table.copyIndex.get() >= length) return;
+		int start = table.copyIndex.getAndAdd(COPY_CHUNK);
+		for (int i = start, n = Math.min(start + COPY_CHUNK, length); i < n; i++)
+			copySlot(table, i);
+	}
+
+	/** Copies the value of a slot to the next table and forwards the slot. Several threads may copy the same slot, the value is
+	 * only put into an empty slot of the next table so it never overwrites a newer value. */
+	private void copySlot (Table table, int index) {
+		AtomicReferenceArray<Object> values = table.values;
+		while (true) {
+			Object value = values.get(index);
+			if (value == MOVED) return;
+			if (value != null && value != TOMBSTONE) {
+				Frozen frozen;
+				if (value instanceof Frozen)
+					frozen = (Frozen)value;
+				else {
+					frozen = new Frozen(value);
+					if (!values.compareAndSet(index, value, frozen)) continue;
+				}
+				write(table.next.get(), table.keys.get(index), frozen.value, COPY);
+				value = frozen;
+			}
+			if (values.compareAndSet(index, value, MOVED)) {
+				if (table.copied.incrementAndGet() == values.length()) promote();
+				return;
+			}
+		}
+	}
+
+	/** Replaces the current table with its next table as long as all its slots are forwarded. */
+	private void promote () {
+		Table table = this.table.get();
+		while (table.copied.get() == table.values.length()) {
+			this.table.compareAndSet(table, table.next.get());
+			table = this.table.get();
+		}
+	}
+
+	public String toString () {
+		StringBuilder buffer = new StringBuilder(32);
+		buffer.append('{');
+		boolean first = true;
+		for (Entries<V> entries = entries(); entries.hasNext;) {
+			Entry<V> entry = entries.next();
+			if (!first) buffer.append(", ");
+			first = false;
+			buffer.append(entry.key);
+			buffer.append('=');
+			buffer.append(entry.value);
+		}
+		buffer.append('}');
+		return buffer.toString();
+	}
+
+	/** Returns a new iterator for the entries in the map. Remove is supported. */
+	public Entries<V> entries () {
+		return new Entries(this);
+	}
+
+	/** Returns a new iterator for the values in the map. Remove is supported. */
+	public Values<V> values () {
+		return new Values(this);
+	}
+
+	/** Returns a new iterator for the keys in the map. Remove is supported. */
+	public Keys keys () {
+		return new Keys(this);
+	}
+
+	static int hash (long key, int mask) {
+		// multiplies before folding, folding first maps all keys with equal high and low halves to the same slot
+		long h = key * 0x9e3779b97f4a7c15L;
+		int folded = (int)(h ^ h >>> 32);
+		return (folded ^ folded >>> 16) & mask;
+	}
+
+	/** The value of a slot while it is copied to the next table. */
+	static final class Frozen {
+		final Object value;
+
+		Frozen (Object value) {
+			this.value = value;
+		}
+	}
+
+	/** The keys and values of one table size. Key slots go from 0 to a key once. Values are null until the first put,
+	 * {@link #TOMBSTONE} for removed keys and end as {@link #MOVED} once the table is copied. */
+	static class Table {
+		final AtomicLongArray keys;
+		final AtomicReferenceArray<Object> values;
+		final AtomicInteger claimed = new AtomicInteger(), copyIndex = new AtomicInteger(), copied = new AtomicInteger();
+		final AtomicReference<Table> next = new AtomicReference();
+		final int mask, threshold;
+
+		Table (int capacity, float loadFactor) {
+			keys = new AtomicLongArray(capacity);
+			values = new AtomicReferenceArray(capacity);
+			mask = capacity - 1;
+			threshold = (int)(capacity * loadFactor);
+		}
+
+		/** Returns the slot of the key, or -1 if the key has no slot. */
+		int find (long key) {
+			AtomicLongArray keys = this.keys;
+			int mask = this.mask;
+			for (int index = hash(key, mask), i = 0; i <= mask; i++, index = index + 1 & mask) {
+				long current = keys.get(index);
+				if (current == EMPTY) return -1;
+				if (current == key) return index;
+			}
+			return -1;
+		}
+
+		/** Returns the slot of the key. If the key has no slot an empty slot is claimed for it, or {@link #ABSENT} is returned if
+		 * claim is false. Returns {@link #FULL} if the key has no slot and there is no empty slot. */
+		int claim (long key, boolean claim) {
+			AtomicLongArray keys = this.keys;
+			int mask = this.mask;
+			for (int index = hash(key, mask), i = 0; i <= mask; i++, index = index + 1 & mask) {
+				long current = keys.get(index);
+				if (current == EMPTY) {
+					if (!claim) return ABSENT;
+					if (keys.compareAndSet(index, EMPTY, key)) {
+						claimed.incrementAndGet();
+						return index;
+					}
+					// another writer claimed the slot, maybe for the same key
+					current = keys.get(index);
+				}
+				if (current == key) return index;
+			}
+			return FULL;
+		}
+	}
+
+	static public class Entry<V> {
+		public long key;
+		public V value;
+
+		public String toString () {
+			return key + "=" + value;
+		}
+	}
+
+	static private class MapIterator<V> {
+		public boolean hasNext;
+
+		final ConcurrentLongMap<V> map;
+		final Table first;
+		Table table;
+		int nextIndex = -2;
+		long nextKey, currentKey;
+		Object nextValue;
+		boolean hasCurrent;
+
+		public MapIterator (ConcurrentLongMap<V> map) {
+			this.map = map;
+			first = table = map.table.get();
+			advance();
+		}
+
+		/** Returns key 0 first, then walks the table the iterator started with and then the tables it is being copied to. A
+		 * forwarded entry is returned with the value of the table it was copied to, later tables only return keys that have no slot
+		 * in an earlier table. */
+		void advance () {
+			hasNext = false;
+			if (nextIndex == -2) {
+				nextIndex = -1;
+				Object zero = map.zeroValue.get(0);
+				if (zero != null && zero != TOMBSTONE) {
+					nextKey = 0;
+					nextValue = zero;
+					hasNext = true;
+					return;
+				}
+			}
+			while (table != null) {
+				AtomicLongArray keys = table.keys;
+				AtomicReferenceArray<Object> values = table.values;
+				for (int n = values.length(); ++nextIndex < n;) {
+					long key = keys.get(nextIndex);
+					if (key == EMPTY) continue;
+					Object value = values.get(nextIndex);
+					if (value == MOVED)
+						value = map.read(table.next.get(), key);
+					else if (value instanceof Frozen)
+						value = ((Frozen)value).value;
+					if (value == null || value == TOMBSTONE || inEarlierTable(key)) continue;
+					nextKey = key;
+					nextValue = value;
+					hasNext = true;
+					return;
+				}
+				table = table.next.get();
+				nextIndex = -1;
+			}
+		}
+
+		private boolean inEarlierTable (long key) {
+			for (Table earlier = first; earlier != table; earlier = earlier.next.get())
+				if (earlier.find(key) != -1) return true;
+			return false;
+		}
+
+		/** Removes the key of the last returned entry from the map. */
+		public void remove () {
+			if (!hasCurrent) throw new IllegalStateException("next must be called before remove.");
+			map.remove(currentKey);
+			hasCurrent = false;
+		}
+	}
+
+	static public class Entries<V> extends MapIterator<V> implements Iterable<Entry<V>>, Iterator<Entry<V>> {
+		private Entry<V> entry = new Entry();
+
+		public Entries (ConcurrentLongMap<V> map) {
+			super(map);
+		}
+
+		/** Note the same entry instance is returned each time this method is called. */
+		public Entry<V> next () {
+			if (!hasNext) throw new NoSuchElementException();
+			entry.key = nextKey;
+			entry.value = (V)nextValue;
+			currentKey = nextKey;
+			hasCurrent = true;
+			advance();
+			return entry;
+		}
+
+		public boolean hasNext () {
+			return hasNext;
+		}
+
+		public Iterator<Entry<V>> iterator () {
+			return this;
+		}
+	}
+
+	static public class Values<V> extends MapIterator<V> implements Iterable<V>, Iterator<V> {
+		public Values (ConcurrentLongMap<V> map) {
+			super(map);
+		}
+
+		public boolean hasNext () {
+			return hasNext;
+		}
+
+		public V next () {
+			if (!hasNext) throw new NoSuchElementException();
+			V value = (V)nextValue;
+			currentKey = nextKey;
+			hasCurrent = true;
+			advance();
+			return value;
+		}
+
+		public Iterator<V> iterator () {
+			return this;
+		}
+
+		/** Returns a new array containing the remaining values. */
+		public Array<V> toArray () {
+			Array array = new Array(true, map.size());
+			while (hasNext)
+				array.add(next());
+			return array;
+		}
+	}
+
+	static public class Keys extends MapIterator {
+		public Keys (ConcurrentLongMap map) {
+			super(map);
+		}
+
+		public boolean hasNext () {
+			return hasNext;
+		}
+
+		public long next () {
+			if (!hasNext) throw new NoSuchElementException();
+			long key = nextKey;
+			currentKey = nextKey;
+			hasCurrent = true;
+			advance();
+			return key;
+		}
+
+		/** Returns a new array containing the remaining keys. */
+		public LongArray toArray () {
+			LongArray array = new LongArray(true, map.size());
+			while (hasNext)
+				array.add(next());
+			return array;
+		}
+	}
+}
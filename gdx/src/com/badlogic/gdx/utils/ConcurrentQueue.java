@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/** A bounded queue that threads can use without locking. The subclasses differ in how many threads may add and remove values at
+ * the same time: {@link SpscQueue} allows one producer and one consumer, {@link MpscQueue} many producers and one consumer and
+ * {@link MpmcQueue} many of both. The fewer threads are allowed, the less the queue has to synchronize. Null values are not
+ * allowed.<br>
+ * <br>
+ * {@link #offer(Object)} and {@link #poll()} never wait. {@link #put(Object, WaitStrategy)} and {@link #take(WaitStrategy)} wait
+ * until the queue has room or a value, {@link #drain(Array, int)} removes all available values in one call, which is cheaper
+ * than polling them one by one. */
+public abstract class ConcurrentQueue<T> {
+	/** The number of values the queue can hold, a power of two. */
+	public final int capacity;
+	final int mask;
+
+	/** @param capacity rounded up to the next power of two */
+	public ConcurrentQueue (int capacity) {
+		if (capacity < 2) throw new IllegalArgumentException("capacity must be >= 2: " + capacity);
+		if (capacity > 1 << 30) throw new IllegalArgumentException("capacity is too large: " + capacity);
+		this.capacity = MathUtils.nextPowerOfTwo(capacity);
+		mask = this.capacity - 1;
+	}
+
+	/** Adds the value to the queue if it is not full.
+	 * @return false if the queue was full */
+	abstract public boolean offer (T value);
+
+	/** Removes the oldest value from the queue.
+	 * @return the value, or null if the queue was empty */
+	abstract public T poll ();
+
+	/** Returns the number of values in the queue. Other threads may change the queue at the same time, so the result is only an
+	 * estimate. */
+	abstract public int size ();
+
+	public boolean isEmpty () {
+		return size() == 0;
+	}
+
+	/** Adds the value, waiting with the given strategy while the queue is full. */
+	public void put (T value, WaitStrategy wait) {
+		for (int attempt = 0; !offer(value); attempt++)
+			wait.idle(attempt);
+	}
+
+	/** Removes the oldest value, waiting with the given strategy while the queue is empty. */
+	public T take (WaitStrategy wait) {
+		for (int attempt = 0;; attempt++) {
+			T value = poll();
+			if (value != null) return value;
+			wait.idle(attempt);
+		}
+	}
+
+	/** Removes all values that are in the queue and adds them to the array in order.
+	 * @return the number of values removed */
+	public int drain (Array<? super T> values) {
+		return drain(values, Integer.MAX_VALUE);
+	}
+
+	/** Removes up to limit values and adds them to the array in order.
+	 * @return the number of values removed */
+	public int drain (Array<? super T> values, int limit) {
+		int count = 0;
+		for (; count < limit; count++) {
+			T value = poll();
+			if (value == null) break;
+			values.add(value);
+		}
+		return count;
+	}
+
+	/** A counter that fills its own cache line, so that threads writing different counters do not invalidate each other's caches.
+	 * The producer and the consumer each keep a cached copy of the other side's counter beside their own. */
+	static class Sequence extends AtomicLong {
+		private static final long serialVersionUID = -6232577589680839519L;
+
+		long p1, p2, p3, p4, p5, p6;
+		long cache;
+		long q1, q2, q3, q4, q5, q6, q7;
+	}
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/** A {@link ConcurrentQueue} for any number of producer and consumer threads, e.g. the task queue of a worker pool. Producers and
+ * consumers claim a slot by incrementing the tail or head with compare and set. Every slot has a sequence number that tells
+ * whether it is free for the producer of the current round or holds a value for the consumer, so threads never wait for each
+ * other except to retry a failed compare and set. This is Dmitry Vyukov's bounded MPMC queue. */
+public class MpmcQueue<T> extends ConcurrentQueue<T> {
+	private final AtomicReferenceArray<T> buffer;
+	private final AtomicLongArray sequences;
+	private final Sequence tail = new Sequence();
+	private final Sequence head = new Sequence();
+
+	public MpmcQueue (int capacity) {
+		super(capacity);
+		buffer = new AtomicReferenceArray(this.capacity);
+		sequences = new AtomicLongArray(this.capacity);
+		for (int i = 0; i < this.capacity; i++)
+			sequences.set(i, i);
+	}
+
+	public boolean offer (T value) {
+		if (value == null) throw new IllegalArgumentException("value cannot be null.");
+		AtomicLongArray sequences = this.sequences;
+		long index = tail.get();
+		while (true) {
+			long sequence = sequences.get((int)index & mask);
+			if (sequence == index) {
+				if (tail.compareAndSet(index, index + 1)) break;
+				index = tail.get();
+			} else if (sequence < index)
+				return false; // the slot still holds the value from the previous round
+			else
+				index = tail.get(); // another producer took the slot
+		}
+		int slot = (int)index & mask;
+		buffer.lazySet(slot, value);
+		sequences.lazySet(slot, index + 1);
+		return true;
+	}
+
+	public T poll () {
+		AtomicLongArray sequences = this.sequences;
+		long index = head.get();
+		while (true) {
+			long sequence = sequences.get((int)index & mask);
+			if (sequence == index + 1) {
+				if (head.compareAndSet(index, index + 1)) break;
+				index = head.get();
+			} else if (sequence < index + 1)
+				return null; // the value for this slot has not been published yet
+			else
+				index = head.get(); // another consumer took the slot
+		}
+		int slot = (int)index & mask;
+		T value = buffer.get(slot);
+		buffer.lazySet(slot, null);
+		sequences.lazySet(slot, index + capacity);
+		return value;
+	}
+
+	public int size () {
+		long size = tail.get() - head.get();
+		return (int)Math.max(0, Math.min(size, capacity));
+	}
+}
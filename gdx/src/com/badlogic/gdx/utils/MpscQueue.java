@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/** A {@link ConcurrentQueue} for any number of producer threads and exactly one consumer thread, e.g. to post work to the render
+ * thread. Producers claim slots like in {@link MpmcQueue}, the consumer does not need compare and set and can remove many values
+ * with a single update of its index. */
+public class MpscQueue<T> extends ConcurrentQueue<T> {
+	private final AtomicReferenceArray<T> buffer;
+	private final AtomicLongArray sequences;
+	private final Sequence tail = new Sequence();
+	private final Sequence head = new Sequence();
+
+	public MpscQueue (int capacity) {
+		super(capacity);
+		buffer = new AtomicReferenceArray(this.capacity);
+		sequences = new AtomicLongArray(this.capacity);
+		for (int i = 0; i < this.capacity; i++)
+			sequences.set(i, i);
+	}
+
+	public boolean offer (T value) {
+		if (value == null) throw new IllegalArgumentException("value cannot be null.");
+		AtomicLongArray sequences = this.sequences;
+		long index = tail.get();
+		while (true) {
+			long sequence = sequences.get((int)index & mask);
+			if (sequence == index) {
+				if (tail.compareAndSet(index, index + 1)) break;
+				index = tail.get();
+			} else if (sequence < index)
+				return false; // the slot still holds the value from the previous round
+			else
+				index = tail.get(); // another producer took the slot
+		}
+		int slot = (int)index & mask;
+		buffer.lazySet(slot, value);
+		sequences.lazySet(slot, index + 1);
+		return true;
+	}
+
+	public T poll () {
+		long index = head.get();
+		int slot = (int)index & mask;
+		if (sequences.get(slot) != index + 1) return null;
+		T value = buffer.get(slot);
+		buffer.lazySet(slot, null);
+		sequences.lazySet(slot, index + capacity);
+		head.lazySet(index + 1);
+		return value;
+	}
+
+	/** Removes the published values in order and updates the head once. Stops at the first slot whose producer has claimed it but
+	 * not yet written the value. */
+	public int drain (Array<? super T> values, int limit) {
+		AtomicReferenceArray<T> buffer = this.buffer;
+		AtomicLongArray sequences = this.sequences;
+		long index = head.get();
+		int count = 0;
+		for (; count < limit; count++, index++) {
+			int slot = (int)index & mask;
+			if (sequences.get(slot) != index + 1) break;
+			values.add(buffer.get(slot));
+			buffer.lazySet(slot, null);
+			sequences.lazySet(slot, index + capacity);
+		}
+		if (count > 0) head.lazySet(index);
+		return count;
+	}
+
+	public int size () {
+		long size = tail.get() - head.get();
+		return (int)Math.max(0, Math.min(size, capacity));
+	}
+}
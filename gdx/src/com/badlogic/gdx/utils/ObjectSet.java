@@ -0,0 +1,454 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/** An unordered set where the items are objects. This implementation is a cuckoo hash set using 3 hashes, random walking, and a
+ * small stash for problematic items. Null items are not allowed. No allocation is done except when growing the table size. <br>
+ * <br>
+ * This set performs very fast contains and remove (typically O(1), worst case O(log(n))). Add may be a bit slower, depending on
+ * hash collisions. Load factors greater than 0.91 greatly increase the chances the set will have to rehash to the next higher POT
+ * size. */
+public class ObjectSet<T> implements Iterable<T> {
+	private static final int PRIME1 = 0xbe1f14b1;
+	private static final int PRIME2 = 0xb4b82e39;
+	private static final int PRIME3 = 0xced1c241;
+
+	public int size;
+
+	T[] keyTable;
+	int capacity, stashSize;
+
+	private float loadFactor;
+	private int hashShift, mask, threshold;
+	private int stashCapacity;
+	private int pushIterations;
+
+	private ObjectSetIterator<T> iterator;
+
+	/** Creates a new set with an initial capacity of 32 and a load factor of 0.8. This set will hold 25 items before growing the
+	 * backing table. */
+	public ObjectSet () {
+		this(32, 0.8f);
+	}
+
+	/** Creates a new set with a load factor of 0.8. This set will hold initialCapacity * 0.8 items before growing the backing
+	 * table. */
+	public ObjectSet (int initialCapacity) {
+		this(initialCapacity, 0.8f);
+	}
+
+	/** Creates a new set with the specified initial capacity and load factor. This set will hold initialCapacity * loadFactor items
+	 * before growing the backing table. */
+	public ObjectSet (int initialCapacity, float loadFactor) {
+		if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity must be >= 0: " + initialCapacity);
+		if (initialCapacity > 1 << 30) throw new IllegalArgumentException("initialCapacity is too large: " + initialCapacity);
+		capacity = MathUtils.nextPowerOfTwo(initialCapacity);
+
+		if (loadFactor <= 0) throw new IllegalArgumentException("loadFactor must be > 0: " + loadFactor);
+		this.loadFactor = loadFactor;
+
+		threshold = (int)(capacity * loadFactor);
+		mask = capacity - 1;
+		hashShift = 31 - Integer.numberOfTrailingZeros(capacity);
+		stashCapacity = Math.max(3, (int)Math.ceil(Math.log(capacity)) * 2);
+		pushIterations = Math.max(Math.min(capacity, 8), (int)Math.sqrt(capacity) / 8);
+
+		keyTable = (T[])new Object[capacity + stashCapacity];
+	}
+
+	/** Returns true if the key was not already in the set. */
+	public boolean add (T key) {
+		if (key == null) throw new IllegalArgumentException("key cannot be null.");
+		T[] keyTable = this.keyTable;
+
+		// Check for existing keys.
+		int hashCode = key.hashCode();
+		int index1 = hashCode & mask;
+		T key1 = keyTable[index1];
+		if (key.equals(key1)) return false;
+
+		int index2 = hash2(hashCode);
+		T key2 = keyTable[index2];
+		if (key.equals(key2)) return false;
+
+		int index3 = hash3(hashCode);
+		T key3 = keyTable[index3];
+		if (key.equals(key3)) return false;
+
+		// Find key in the stash.
+		for (int i = capacity, n = i + stashSize; i < n; i++)
+			if (key.equals(keyTable[i])) return false;
+
+		// Check for empty buckets.
+		if (key1 == null) {
+			keyTable[index1] = key;
+			if (size++ >= threshold) resize(capacity << 1);
+			return true;
+		}
+
+		if (key2 == null) {
+			keyTable[index2] = key;
+			if (size++ >= threshold) resize(capacity << 1);
+			return true;
+		}
+
+		if (key3 == null) {
+			keyTable[index3] = key;
+			if (size++ >= threshold) resize(capacity << 1);
+			return true;
+		}
+
+		push(key, index1, key1, index2, key2, index3, key3);
+		return true;
+	}
+
+	public void addAll (Array<? extends T> array) {
+		addAll(array.items, 0, array.size);
+	}
+
+	public void addAll (T[] array, int offset, int length) {
+		ensureCapacity(length);
+		for (int i = offset, n = i + length; i < n; i++)
+			add(array[i]);
+	}
+
+	public void addAll (ObjectSet<T> set) {
+		ensureCapacity(set.size);
+		for (T key : set)
+			add(key);
+	}
+
+	/** Skips checks for existing keys. */
+	private void addResize (T key) {
+		// Check for empty buckets.
+		int hashCode = key.hashCode();
+		int index1 = hashCode & mask;
+		T key1 = keyTable[index1];
+		if (key1 == null) {
+			keyTable[index1] = key;
+			if (size++ >= threshold) resize(capacity << 1);
+			return;
+		}
+
+		int index2 = hash2(hashCode);
+		T key2 = keyTable[index2];
+		if (key2 == null) {
+			keyTable[index2] = key;
+			if (size++ >= threshold) resize(capacity << 1);
+			return;
+		}
+
+		int index3 = hash3(hashCode);
+		T key3 = keyTable[index3];
+		if (key3 == null) {
+			keyTable[index3] = key;
+			if (size++ >= threshold) resize(capacity << 1);
+			return;
+		}
+
+		push(key, index1, key1, index2, key2, index3, key3);
+	}
+
+	private void push (T insertKey, int index1, T key1, int index2, T key2, int index3, T key3) {
+		T[] keyTable = this.keyTable;
+		int mask = this.mask;
+
+		// Push keys until an empty bucket is found.
+		T evictedKey;
+		int i = 0, pushIterations = this.pushIterations;
+		do {
+			// Replace the key for one of the hashes.
+			switch (MathUtils.random(2)) {
+			case 0:
+				evictedKey = key1;
+				keyTable[index1] = insertKey;
+				break;
+			case 1:
+				evictedKey = key2;
+				keyTable[index2] = insertKey;
+				break;
+			default:
+				evictedKey = key3;
+				keyTable[index3] = insertKey;
+				break;
+			}
+
+			// If the evicted key hashes to an empty bucket, put it there and stop.
+			int hashCode = evictedKey.hashCode();
+			index1 = hashCode & mask;
+			key1 = keyTable[index1];
+			if (key1 == null) {
+				keyTable[index1] = evictedKey;
+				if (size++ >= threshold) resize(capacity << 1);
+				return;
+			}
+
+			index2 = hash2(hashCode);
+			key2 = keyTable[index2];
+			if (key2 == null) {
+				keyTable[index2] = evictedKey;
+				if (size++ >= threshold) resize(capacity << 1);
+				return;
+			}
+
+			index3 = hash3(hashCode);
+			key3 = keyTable[index3];
+			if (key3 == null) {
+				keyTable[index3] = evictedKey;
+				if (size++ >= threshold) resize(capacity << 1);
+				return;
+			}
+
+			if (++i == pushIterations) break;
+
+			insertKey = evictedKey;
+		} while (true);
+
+		addStash(evictedKey);
+	}
+
+	private void addStash (T key) {
+		if (stashSize == stashCapacity) {
+			// Too many pushes occurred and the stash is full, increase the table size.
+			resize(capacity << 1);
+			add(key);
+			return;
+		}
+		// Store key in the stash.
+		int index = capacity + stashSize;
+		keyTable[index] = key;
+		stashSize++;
+		size++;
+	}
+
+	/** Returns true if the key was removed. */
+	public boolean remove (T key) {
+		int hashCode = key.hashCode();
+		int index = hashCode & mask;
+		if (key.equals(keyTable[index])) {
+			keyTable[index] = null;
+			size--;
+			return true;
+		}
+
+		index = hash2(hashCode);
+		if (key.equals(keyTable[index])) {
+			keyTable[index] = null;
+			size--;
+			return true;
+		}
+
+		index = hash3(hashCode);
+		if (key.equals(keyTable[index])) {
+			keyTable[index] = null;
+			size--;
+			return true;
+		}
+
+		return removeStash(key);
+	}
+
+	boolean removeStash (T key) {
+		T[] keyTable = this.keyTable;
+		for (int i = capacity, n = i + stashSize; i < n; i++) {
+			if (key.equals(keyTable[i])) {
+				removeStashIndex(i);
+				size--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	void removeStashIndex (int index) {
+		// If the removed location was not last, move the last key to the removed location.
+		stashSize--;
+		int lastIndex = capacity + stashSize;
+		if (index < lastIndex) keyTable[index] = keyTable[lastIndex];
+		keyTable[lastIndex] = null;
+	}
+
+	public void clear () {
+		T[] keyTable = this.keyTable;
+		for (int i = capacity + stashSize; i-- > 0;)
+			keyTable[i] = null;
+		size = 0;
+		stashSize = 0;
+	}
+
+	public boolean contains (T key) {
+		int hashCode = key.hashCode();
+		int index = hashCode & mask;
+		if (!key.equals(keyTable[index])) {
+			index = hash2(hashCode);
+			if (!key.equals(keyTable[index])) {
+				index = hash3(hashCode);
+				if (!key.equals(keyTable[index])) return containsKeyStash(key);
+			}
+		}
+		return true;
+	}
+
+	private boolean containsKeyStash (T key) {
+		T[] keyTable = this.keyTable;
+		for (int i = capacity, n = i + stashSize; i < n; i++)
+			if (key.equals(keyTable[i])) return true;
+		return false;
+	}
+
+	/** Increases the size of the backing array to acommodate the specified number of additional items. Useful before adding many
+	 * items to avoid multiple backing array resizes. */
+	public void ensureCapacity (int additionalCapacity) {
+		int sizeNeeded = size + additionalCapacity;
+		if (sizeNeeded >= threshold) resize(MathUtils.nextPowerOfTwo((int)(sizeNeeded / loadFactor)));
+	}
+
+	private void resize (int newSize) {
+		int oldEndIndex = capacity + stashSize;
+
+		capacity = newSize;
+		threshold = (int)(newSize * loadFactor);
+		mask = newSize - 1;
+		hashShift = 31 - Integer.numberOfTrailingZeros(newSize);
+		stashCapacity = Math.max(3, (int)Math.ceil(Math.log(newSize)) * 2);
+		pushIterations = Math.max(Math.min(newSize, 8), (int)Math.sqrt(newSize) / 8);
+
+		T[] oldKeyTable = keyTable;
+
+		keyTable = (T[])new Object[newSize + stashCapacity];
+
+		size = 0;
+		stashSize = 0;
+		for (int i = 0; i < oldEndIndex; i++) {
+			T key = oldKeyTable[i];
+			if (key != null) addResize(key);
+		}
+	}
+
+	private int hash2 (int h) {
+		h *= PRIME2;
+		return (h ^ h >>> hashShift) & mask;
+	}
+
+	private int hash3 (int h) {
+		h *= PRIME3;
+		return (h ^ h >>> hashShift) & mask;
+	}
+
+	public String toString () {
+		if (size == 0) return "[]";
+		StringBuilder buffer = new StringBuilder(32);
+		buffer.append('[');
+		T[] keyTable = this.keyTable;
+		int i = keyTable.length;
+		while (i-- > 0) {
+			T key = keyTable[i];
+			if (key == null) continue;
+			buffer.append(key);
+			break;
+		}
+		while (i-- > 0) {
+			T key = keyTable[i];
+			if (key == null) continue;
+			buffer.append(", ");
+			buffer.append(key);
+		}
+		buffer.append(']');
+		return buffer.toString();
+	}
+
+	/** Returns an iterator for the keys in the set. Remove is supported. Note that the same iterator instance is returned each time
+	 * this method is called. Use the {@link ObjectSetIterator} constructor for nested or multithreaded iteration. */
+	public ObjectSetIterator<T> iterator () {
+		if (iterator == null)
+			iterator = new ObjectSetIterator(this);
+		else
+			iterator.reset();
+		return iterator;
+	}
+
+	static public class ObjectSetIterator<K> implements Iterable<K>, Iterator<K> {
+		public boolean hasNext;
+
+		final ObjectSet<K> set;
+		int nextIndex, currentIndex;
+
+		public ObjectSetIterator (ObjectSet<K> set) {
+			this.set = set;
+			reset();
+		}
+
+		public void reset () {
+			currentIndex = -1;
+			nextIndex = -1;
+			findNextIndex();
+		}
+
+		void findNextIndex () {
+			hasNext = false;
+			K[] keyTable = set.keyTable;
+			for (int n = set.capacity + set.stashSize; ++nextIndex < n;) {
+				if (keyTable[nextIndex] != null) {
+					hasNext = true;
+					break;
+				}
+			}
+		}
+
+		public void remove () {
+			if (currentIndex < 0) throw new IllegalStateException("next must be called before remove.");
+			if (currentIndex >= set.capacity) {
+				set.removeStashIndex(currentIndex);
+				nextIndex = currentIndex - 1;
+				findNextIndex();
+			} else {
+				set.keyTable[currentIndex] = null;
+			}
+			currentIndex = -1;
+			set.size--;
+		}
+
+		public boolean hasNext () {
+			return hasNext;
+		}
+
+		public K next () {
+			if (!hasNext) throw new NoSuchElementException();
+			K key = set.keyTable[nextIndex];
+			currentIndex = nextIndex;
+			findNextIndex();
+			return key;
+		}
+
+		public Iterator<K> iterator () {
+			return this;
+		}
+
+		/** Returns a new array containing the remaining keys. */
+		public Array<K> toArray () {
+			Array array = new Array(true, set.size);
+			while (hasNext)
+				array.add(next());
+			return array;
+		}
+	}
+}
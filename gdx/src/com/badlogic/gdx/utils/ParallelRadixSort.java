@@ -0,0 +1,422 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/** A {@link RadixSort} that splits large arrays across a pool of worker threads. Every pass first counts the bytes of each
+ * thread's part of the array, then each thread moves its part to the positions computed from all counts. The result is the same
+ * as that of RadixSort, the sort is stable.<br>
+ * <br>
+ * Calls with fewer than {@link #parallelThreshold} values are sorted on the calling thread. The pool must be released with
+ * {@link #dispose()}. Multiple threads must not use the same instance at the same time. */
+public class ParallelRadixSort implements Disposable {
+	static private final int HISTOGRAM = 0, COUNT = 1, SCATTER = 2, TO_KEYS = 3, TO_FLOATS = 4;
+
+	/** calls with fewer values are sorted on the calling thread **/
+	public int parallelThreshold = 65536;
+
+	private final RadixSort sort = new RadixSort();
+	private final ExecutorService executor;
+	private final List<Worker> workers;
+	private final int[] totals = new int[8 * 256];
+	private int[] intKeys = new int[0], intBuffer = new int[0];
+	private long[] longBuffer = new long[0];
+	private Object[] itemBuffer = new Object[0];
+
+	// the state of the current pass, read by the workers
+	int phase, shift, flip, passes;
+	int[] srcInts, dstInts;
+	long[] srcLongs, dstLongs;
+	Object[] srcItems, dstItems;
+	float[] floats;
+	int srcOffset, dstOffset, srcItemOffset, dstItemOffset, floatOffset;
+
+	/** Creates a sort with one worker thread per available processor. */
+	public ParallelRadixSort () {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/** @param threads the number of worker threads used for large arrays. 1 sorts all arrays on the calling thread. */
+	public ParallelRadixSort (int threads) {
+		if (threads > 1) {
+			workers = new ArrayList<Worker>(threads);
+			for (int i = 0; i < threads; i++)
+				workers.add(new Worker());
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				@Override
+				public Thread newThread (Runnable r) {
+					Thread thread = new Thread(r, "ParallelRadixSort-Worker-Thread");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		} else {
+			workers = null;
+			executor = null;
+		}
+	}
+
+	public void sort (IntArray a) {
+		sort(a.items, 0, a.size);
+	}
+
+	public void sort (int[] a, int fromIndex, int toIndex) {
+		RadixSort.checkRange(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex;
+		if (executor == null || n < parallelThreshold)
+			sort.sort(a, fromIndex, toIndex);
+		else
+			sort(a, null, fromIndex, null, 0, n);
+	}
+
+	public void sort (FloatArray a) {
+		sort(a.items, 0, a.size);
+	}
+
+	public void sort (float[] a, int fromIndex, int toIndex) {
+		RadixSort.checkRange(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex;
+		if (executor == null || n < parallelThreshold)
+			sort.sort(a, fromIndex, toIndex);
+		else
+			sortFloats(a, fromIndex, null, 0, n);
+	}
+
+	public void sort (LongArray a) {
+		sort(a.items, 0, a.size);
+	}
+
+	public void sort (long[] a, int fromIndex, int toIndex) {
+		RadixSort.checkRange(a.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex;
+		if (executor == null || n < parallelThreshold)
+			sort.sort(a, fromIndex, toIndex);
+		else
+			sort(null, a, fromIndex, null, 0, n);
+	}
+
+	/** @see RadixSort#sort(Array, int[]) */
+	public <T> void sort (Array<T> items, int[] keys) {
+		sort(items.items, keys, 0, items.size);
+	}
+
+	/** @see RadixSort#sort(Object[], int[], int, int) */
+	public <T> void sort (T[] items, int[] keys, int fromIndex, int toIndex) {
+		RadixSort.checkRange(items.length, fromIndex, toIndex);
+		RadixSort.checkRange(keys.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex;
+		if (executor == null || n < parallelThreshold)
+			sort.sort(items, keys, fromIndex, toIndex);
+		else
+			sort(keys, null, fromIndex, items, fromIndex, n);
+	}
+
+	/** @see RadixSort#sort(Array, long[]) */
+	public <T> void sort (Array<T> items, long[] keys) {
+		sort(items.items, keys, 0, items.size);
+	}
+
+	/** @see RadixSort#sort(Object[], long[], int, int) */
+	public <T> void sort (T[] items, long[] keys, int fromIndex, int toIndex) {
+		RadixSort.checkRange(items.length, fromIndex, toIndex);
+		RadixSort.checkRange(keys.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex;
+		if (executor == null || n < parallelThreshold)
+			sort.sort(items, keys, fromIndex, toIndex);
+		else
+			sort(null, keys, fromIndex, items, fromIndex, n);
+	}
+
+	/** @see RadixSort#sort(Array, float[]) */
+	public <T> void sort (Array<T> items, float[] keys) {
+		sort(items.items, keys, 0, items.size);
+	}
+
+	/** @see RadixSort#sort(Object[], float[], int, int) */
+	public <T> void sort (T[] items, float[] keys, int fromIndex, int toIndex) {
+		RadixSort.checkRange(items.length, fromIndex, toIndex);
+		RadixSort.checkRange(keys.length, fromIndex, toIndex);
+		int n = toIndex - fromIndex;
+		if (executor == null || n < parallelThreshold)
+			sort.sort(items, keys, fromIndex, toIndex);
+		else
+			sortFloats(keys, fromIndex, items, fromIndex, n);
+	}
+
+	private void sortFloats (float[] keys, int keyOffset, Object[] items, int itemOffset, int n) {
+		if (intKeys.length < n) intKeys = new int[n];
+		floats = keys;
+		floatOffset = keyOffset;
+		srcInts = intKeys;
+		split(n);
+		run(TO_KEYS);
+		sort(intKeys, null, 0, items, itemOffset, n);
+		floats = keys;
+		srcInts = intKeys;
+		split(n);
+		run(TO_FLOATS);
+		floats = null;
+		srcInts = null;
+	}
+
+	/** Sorts either the int or the long keys and the items, if not null. */
+	private void sort (int[] ints, long[] longs, int keyOffset, Object[] items, int itemOffset, int n) {
+		if (ints != null) {
+			if (intBuffer.length < n) intBuffer = new int[n];
+			passes = 4;
+		} else {
+			if (longBuffer.length < n) longBuffer = new long[n];
+			passes = 8;
+		}
+		if (items != null && itemBuffer.length < n) itemBuffer = new Object[n];
+
+		srcInts = ints;
+		srcLongs = longs;
+		srcOffset = keyOffset;
+		split(n);
+		run(HISTOGRAM);
+
+		// sum the counts of all threads to find the passes over bytes that are the same for all keys
+		int[] totals = this.totals;
+		List<Worker> workers = this.workers;
+		int threads = workers.size();
+		for (int i = 0, end = passes * 256; i < end; i++) {
+			int total = 0;
+			for (int t = 0; t < threads; t++)
+				total += workers.get(t).counts[i];
+			totals[i] = total;
+		}
+
+		dstInts = ints != null ? intBuffer : null;
+		dstLongs = longs != null ? longBuffer : null;
+		srcItems = items;
+		dstItems = items != null ? itemBuffer : null;
+		dstOffset = 0;
+		srcItemOffset = itemOffset;
+		dstItemOffset = 0;
+		boolean first = true;
+		for (int pass = 0; pass < passes; pass++) {
+			shift = pass * 8;
+			flip = pass == passes - 1 ? 0x80 : 0;
+			int base = pass * 256;
+			boolean skip = false;
+			for (int i = base, end = base + 256; i < end; i++)
+				if (totals[i] == n) skip = true;
+			if (skip) continue;
+
+			// the histogram already has the counts for the first pass
+			if (first) {
+				for (int t = 0; t < threads; t++) {
+					int[] counts = workers.get(t).counts;
+					System.arraycopy(counts, base, counts, 0, 256);
+				}
+				first = false;
+			} else
+				run(COUNT);
+			for (int d = 0, sum = 0; d < 256; d++) {
+				for (int t = 0; t < threads; t++) {
+					int[] counts = workers.get(t).counts;
+					int count = counts[d];
+					counts[d] = sum;
+					sum += count;
+				}
+			}
+			run(SCATTER);
+
+			int[] intTemp = srcInts;
+			srcInts = dstInts;
+			dstInts = intTemp;
+			long[] longTemp = srcLongs;
+			srcLongs = dstLongs;
+			dstLongs = longTemp;
+			Object[] itemTemp = srcItems;
+			srcItems = dstItems;
+			dstItems = itemTemp;
+			int offsetTemp = srcOffset;
+			srcOffset = dstOffset;
+			dstOffset = offsetTemp;
+			offsetTemp = srcItemOffset;
+			srcItemOffset = dstItemOffset;
+			dstItemOffset = offsetTemp;
+		}
+
+		// after an odd number of passes the result is in the buffers
+		if (ints != null ? srcInts != ints : srcLongs != longs) {
+			if (ints != null)
+				System.arraycopy(srcInts, 0, ints, keyOffset, n);
+			else
+				System.arraycopy(srcLongs, 0, longs, keyOffset, n);
+			if (items != null) System.arraycopy(srcItems, 0, items, itemOffset, n);
+		}
+		if (items != null) {
+			Object[] itemBuffer = this.itemBuffer;
+			for (int i = 0; i < n; i++)
+				itemBuffer[i] = null;
+		}
+		srcInts = dstInts = null;
+		srcLongs = dstLongs = null;
+		srcItems = dstItems = null;
+	}
+
+	/** Assigns each worker a part of the n values. */
+	private void split (int n) {
+		List<Worker> workers = this.workers;
+		int threads = workers.size();
+		int range = (n + threads - 1) / threads;
+		for (int i = 0; i < threads; i++) {
+			Worker worker = workers.get(i);
+			worker.start = Math.min(n, i * range);
+			worker.end = Math.min(n, worker.start + range);
+		}
+	}
+
+	private void run (int phase) {
+		this.phase = phase;
+		try {
+			List<Future<Object>> results = executor.invokeAll(workers);
+			for (int i = 0, n = results.size(); i < n; i++)
+				results.get(i).get();
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException("interrupted while sorting", e);
+		} catch (ExecutionException e) {
+			throw new GdxRuntimeException("couldn't sort", e.getCause());
+		}
+	}
+
+	/** Shuts down the worker threads. */
+	@Override
+	public void dispose () {
+		if (executor == null) return;
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException("Couldn't shutdown sorting threads", e);
+		}
+	}
+
+	/** Processes a part of the values on one of the pool threads. */
+	private class Worker implements Callable<Object> {
+		final int[] counts = new int[8 * 256];
+		int start, end;
+
+		@Override
+		public Object call () {
+			switch (phase) {
+			case HISTOGRAM:
+				histogram();
+				break;
+			case COUNT:
+				count();
+				break;
+			case SCATTER:
+				scatter();
+				break;
+			case TO_KEYS:
+				for (int i = start; i < end; i++)
+					srcInts[i] = RadixSort.floatToSortKey(floats[floatOffset + i]);
+				break;
+			case TO_FLOATS:
+				for (int i = start; i < end; i++)
+					floats[floatOffset + i] = RadixSort.sortKeyToFloat(srcInts[i]);
+				break;
+			}
+			return null;
+		}
+
+		private void histogram () {
+			int[] counts = this.counts;
+			for (int i = 0, n = passes * 256; i < n; i++)
+				counts[i] = 0;
+			int offset = srcOffset;
+			if (srcInts != null) {
+				int[] keys = srcInts;
+				for (int i = offset + start, n = offset + end; i < n; i++) {
+					int key = keys[i];
+					counts[key & 0xff]++;
+					counts[256 + (key >>> 8 & 0xff)]++;
+					counts[512 + (key >>> 16 & 0xff)]++;
+					counts[768 + (key >>> 24 ^ 0x80)]++;
+				}
+			} else {
+				long[] keys = srcLongs;
+				for (int i = offset + start, n = offset + end; i < n; i++) {
+					long key = keys[i];
+					int low = (int)key, high = (int)(key >>> 32);
+					counts[low & 0xff]++;
+					counts[256 + (low >>> 8 & 0xff)]++;
+					counts[512 + (low >>> 16 & 0xff)]++;
+					counts[768 + (low >>> 24)]++;
+					counts[1024 + (high & 0xff)]++;
+					counts[1280 + (high >>> 8 & 0xff)]++;
+					counts[1536 + (high >>> 16 & 0xff)]++;
+					counts[1792 + (high >>> 24 ^ 0x80)]++;
+				}
+			}
+		}
+
+		private void count () {
+			int[] counts = this.counts;
+			for (int i = 0; i < 256; i++)
+				counts[i] = 0;
+			int offset = srcOffset, shift = ParallelRadixSort.this.shift, flip = ParallelRadixSort.this.flip;
+			if (srcInts != null) {
+				int[] keys = srcInts;
+				for (int i = offset + start, n = offset + end; i < n; i++)
+					counts[keys[i] >>> shift & 0xff ^ flip]++;
+			} else {
+				long[] keys = srcLongs;
+				for (int i = offset + start, n = offset + end; i < n; i++)
+					counts[(int)(keys[i] >>> shift) & 0xff ^ flip]++;
+			}
+		}
+
+		private void scatter () {
+			int[] counts = this.counts;
+			int shift = ParallelRadixSort.this.shift, flip = ParallelRadixSort.this.flip;
+			int srcOffset = ParallelRadixSort.this.srcOffset, dstOffset = ParallelRadixSort.this.dstOffset;
+			Object[] srcItems = ParallelRadixSort.this.srcItems, dstItems = ParallelRadixSort.this.dstItems;
+			int srcItemOffset = ParallelRadixSort.this.srcItemOffset, dstItemOffset = ParallelRadixSort.this.dstItemOffset;
+			if (srcInts != null) {
+				int[] srcKeys = srcInts, dstKeys = dstInts;
+				for (int i = start; i < end; i++) {
+					int key = srcKeys[srcOffset + i];
+					int index = counts[key >>> shift & 0xff ^ flip]++;
+					dstKeys[dstOffset + index] = key;
+					if (srcItems != null) dstItems[dstItemOffset + index] = srcItems[srcItemOffset + i];
+				}
+			} else {
+				long[] srcKeys = srcLongs, dstKeys = dstLongs;
+				for (int i = start; i < end; i++) {
+					long key = srcKeys[srcOffset + i];
+					int index = counts[(int)(key >>> shift) & 0xff ^ flip]++;
+					dstKeys[dstOffset + index] = key;
+					if (srcItems != null) dstItems[dstItemOffset + index] = srcItems[srcItemOffset + i];
+				}
+			}
+		}
+	}
+}
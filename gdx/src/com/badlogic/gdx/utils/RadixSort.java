@@ -0,0 +1,314 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+/** Sorts primitive arrays, and object arrays by a primitive key per object, with a least significant digit radix sort. Every
+ * pass moves the values by one byte of the key, so sorting takes time linear in the number of values and no comparisons are
+ * done. Passes over bytes that are the same for all keys are skipped, keys that only use the low bits of an int are sorted in one
+ * or two passes.<br>
+ * <br>
+ * Object arrays are sorted by a key array that is indexed like the objects. Both arrays are reordered, equal keys keep their
+ * order (the sort is stable). This replaces a {@link Sort} with a {@link java.util.Comparator} when the order can be expressed as
+ * a number, e.g. the distance to the camera or a render state packed into a long. Floats are ordered like
+ * {@link java.util.Arrays#sort(float[])} orders them, -0 before 0 and NaN last.<br>
+ * <br>
+ * Sorting requires working memory the size of the sorted range and this class allows that memory to be reused to avoid
+ * allocation. Short ranges are sorted with an insertion sort. See {@link ParallelRadixSort} for sorting large arrays with
+ * multiple threads. */
+public class RadixSort {
+	static final int INSERTION_THRESHOLD = 48;
+
+	static private RadixSort instance;
+
+	private final int[] counts = new int[8 * 256];
+	private int[] intKeys = new int[0], intBuffer = new int[0];
+	private long[] longBuffer = new long[0];
+	private Object[] itemBuffer = new Object[0];
+
+	public void sort (IntArray a) {
+		sort(a.items, 0, a.size);
+	}
+
+	public void sort (int[] a, int fromIndex, int toIndex) {
+		checkRange(a.length, fromIndex, toIndex);
+		sortInts(a, fromIndex, null, 0, toIndex - fromIndex);
+	}
+
+	public void sort (FloatArray a) {
+		sort(a.items, 0, a.size);
+	}
+
+	public void sort (float[] a, int fromIndex, int toIndex) {
+		checkRange(a.length, fromIndex, toIndex);
+		sortFloats(a, fromIndex, null, 0, toIndex - fromIndex);
+	}
+
+	public void sort (LongArray a) {
+		sort(a.items, 0, a.size);
+	}
+
+	public void sort (long[] a, int fromIndex, int toIndex) {
+		checkRange(a.length, fromIndex, toIndex);
+		sortLongs(a, fromIndex, null, 0, toIndex - fromIndex);
+	}
+
+	/** Sorts the items by ascending key.
+	 * @param keys the key of each item, indexed like the items. Reordered with the items. */
+	public <T> void sort (Array<T> items, int[] keys) {
+		sort(items.items, keys, 0, items.size);
+	}
+
+	/** Sorts the items between fromIndex (inclusive) and toIndex (exclusive) by ascending key.
+	 * @param keys the key of each item, indexed like the items. Reordered with the items. */
+	public <T> void sort (T[] items, int[] keys, int fromIndex, int toIndex) {
+		checkRange(items.length, fromIndex, toIndex);
+		checkRange(keys.length, fromIndex, toIndex);
+		sortInts(keys, fromIndex, items, fromIndex, toIndex - fromIndex);
+	}
+
+	/** Sorts the items by ascending key.
+	 * @param keys the key of each item, indexed like the items. Reordered with the items. */
+	public <T> void sort (Array<T> items, long[] keys) {
+		sort(items.items, keys, 0, items.size);
+	}
+
+	/** Sorts the items between fromIndex (inclusive) and toIndex (exclusive) by ascending key.
+	 * @param keys the key of each item, indexed like the items. Reordered with the items. */
+	public <T> void sort (T[] items, long[] keys, int fromIndex, int toIndex) {
+		checkRange(items.length, fromIndex, toIndex);
+		checkRange(keys.length, fromIndex, toIndex);
+		sortLongs(keys, fromIndex, items, fromIndex, toIndex - fromIndex);
+	}
+
+	/** Sorts the items by ascending key.
+	 * @param keys the key of each item, indexed like the items. Reordered with the items. */
+	public <T> void sort (Array<T> items, float[] keys) {
+		sort(items.items, keys, 0, items.size);
+	}
+
+	/** Sorts the items between fromIndex (inclusive) and toIndex (exclusive) by ascending key.
+	 * @param keys the key of each item, indexed like the items. Reordered with the items. */
+	public <T> void sort (T[] items, float[] keys, int fromIndex, int toIndex) {
+		checkRange(items.length, fromIndex, toIndex);
+		checkRange(keys.length, fromIndex, toIndex);
+		sortFloats(keys, fromIndex, items, fromIndex, toIndex - fromIndex);
+	}
+
+	private void sortFloats (float[] keys, int keyOffset, Object[] items, int itemOffset, int n) {
+		if (intKeys.length < n) intKeys = new int[n];
+		int[] intKeys = this.intKeys;
+		for (int i = 0; i < n; i++)
+			intKeys[i] = floatToSortKey(keys[keyOffset + i]);
+		sortInts(intKeys, 0, items, itemOffset, n);
+		for (int i = 0; i < n; i++)
+			keys[keyOffset + i] = sortKeyToFloat(intKeys[i]);
+	}
+
+	private void sortInts (int[] keys, int keyOffset, Object[] items, int itemOffset, int n) {
+		if (n < INSERTION_THRESHOLD) {
+			insertionSort(keys, keyOffset, items, itemOffset, n);
+			return;
+		}
+		if (intBuffer.length < n) intBuffer = new int[n];
+		if (items != null && itemBuffer.length < n) itemBuffer = new Object[n];
+
+		int[] counts = this.counts;
+		for (int i = 0; i < 4 * 256; i++)
+			counts[i] = 0;
+		for (int i = keyOffset, end = keyOffset + n; i < end; i++) {
+			int key = keys[i];
+			counts[key & 0xff]++;
+			counts[256 + (key >>> 8 & 0xff)]++;
+			counts[512 + (key >>> 16 & 0xff)]++;
+			counts[768 + (key >>> 24 ^ 0x80)]++;
+		}
+
+		int[] srcKeys = keys, dstKeys = intBuffer;
+		Object[] srcItems = items, dstItems = items != null ? itemBuffer : null;
+		int srcOffset = keyOffset, dstOffset = 0, srcItemOffset = itemOffset, dstItemOffset = 0;
+		for (int pass = 0; pass < 4; pass++) {
+			int shift = pass * 8, flip = pass == 3 ? 0x80 : 0, base = pass * 256;
+			// skip the pass if all keys have the same byte
+			if (counts[base + (srcKeys[srcOffset] >>> shift & 0xff ^ flip)] == n) continue;
+			for (int i = base, sum = 0, end = base + 256; i < end; i++) {
+				int count = counts[i];
+				counts[i] = sum;
+				sum += count;
+			}
+			if (srcItems == null) {
+				for (int i = srcOffset, end = srcOffset + n; i < end; i++) {
+					int key = srcKeys[i];
+					dstKeys[dstOffset + counts[base + (key >>> shift & 0xff ^ flip)]++] = key;
+				}
+			} else {
+				for (int i = 0; i < n; i++) {
+					int key = srcKeys[srcOffset + i];
+					int index = counts[base + (key >>> shift & 0xff ^ flip)]++;
+					dstKeys[dstOffset + index] = key;
+					dstItems[dstItemOffset + index] = srcItems[srcItemOffset + i];
+				}
+			}
+			int[] keyTemp = srcKeys;
+			srcKeys = dstKeys;
+			dstKeys = keyTemp;
+			Object[] itemTemp = srcItems;
+			srcItems = dstItems;
+			dstItems = itemTemp;
+			int offsetTemp = srcOffset;
+			srcOffset = dstOffset;
+			dstOffset = offsetTemp;
+			offsetTemp = srcItemOffset;
+			srcItemOffset = dstItemOffset;
+			dstItemOffset = offsetTemp;
+		}
+
+		// after an odd number of passes the result is in the buffers
+		if (srcKeys != keys) {
+			System.arraycopy(srcKeys, 0, keys, keyOffset, n);
+			if (items != null) System.arraycopy(srcItems, 0, items, itemOffset, n);
+		}
+		if (items != null) clearItemBuffer(n);
+	}
+
+	private void sortLongs (long[] keys, int keyOffset, Object[] items, int itemOffset, int n) {
+		if (n < INSERTION_THRESHOLD) {
+			insertionSort(keys, keyOffset, items, itemOffset, n);
+			return;
+		}
+		if (longBuffer.length < n) longBuffer = new long[n];
+		if (items != null && itemBuffer.length < n) itemBuffer = new Object[n];
+
+		int[] counts = this.counts;
+		for (int i = 0; i < 8 * 256; i++)
+			counts[i] = 0;
+		for (int i = keyOffset, end = keyOffset + n; i < end; i++) {
+			long key = keys[i];
+			int low = (int)key, high = (int)(key >>> 32);
+			counts[low & 0xff]++;
+			counts[256 + (low >>> 8 & 0xff)]++;
+			counts[512 + (low >>> 16 & 0xff)]++;
+			counts[768 + (low >>> 24)]++;
+			counts[1024 + (high & 0xff)]++;
+			counts[1280 + (high >>> 8 & 0xff)]++;
+			counts[1536 + (high >>> 16 & 0xff)]++;
+			counts[1792 + (high >>> 24 ^ 0x80)]++;
+		}
+
+		long[] srcKeys = keys, dstKeys = longBuffer;
+		Object[] srcItems = items, dstItems = items != null ? itemBuffer : null;
+		int srcOffset = keyOffset, dstOffset = 0, srcItemOffset = itemOffset, dstItemOffset = 0;
+		for (int pass = 0; pass < 8; pass++) {
+			int shift = pass * 8, flip = pass == 7 ? 0x80 : 0, base = pass * 256;
+			if (counts[base + ((int)(srcKeys[srcOffset] >>> shift) & 0xff ^ flip)] == n) continue;
+			for (int i = base, sum = 0, end = base + 256; i < end; i++) {
+				int count = counts[i];
+				counts[i] = sum;
+				sum += count;
+			}
+			if (srcItems == null) {
+				for (int i = srcOffset, end = srcOffset + n; i < end; i++) {
+					long key = srcKeys[i];
+					dstKeys[dstOffset + counts[base + ((int)(key >>> shift) & 0xff ^ flip)]++] = key;
+				}
+			} else {
+				for (int i = 0; i < n; i++) {
+					long key = srcKeys[srcOffset + i];
+					int index = counts[base + ((int)(key >>> shift) & 0xff ^ flip)]++;
+					dstKeys[dstOffset + index] = key;
+					dstItems[dstItemOffset + index] = srcItems[srcItemOffset + i];
+				}
+			}
+			long[] keyTemp = srcKeys;
+			srcKeys = dstKeys;
+			dstKeys = keyTemp;
+			Object[] itemTemp = srcItems;
+			srcItems = dstItems;
+			dstItems = itemTemp;
+			int offsetTemp = srcOffset;
+			srcOffset = dstOffset;
+			dstOffset = offsetTemp;
+			offsetTemp = srcItemOffset;
+			srcItemOffset = dstItemOffset;
+			dstItemOffset = offsetTemp;
+		}
+
+		if (srcKeys != keys) {
+			System.arraycopy(srcKeys, 0, keys, keyOffset, n);
+			if (items != null) System.arraycopy(srcItems, 0, items, itemOffset, n);
+		}
+		if (items != null) clearItemBuffer(n);
+	}
+
+	/** Removes the references to the sorted items, so they can be garbage collected. */
+	private void clearItemBuffer (int n) {
+		Object[] itemBuffer = this.itemBuffer;
+		for (int i = 0; i < n; i++)
+			itemBuffer[i] = null;
+	}
+
+	static private void insertionSort (int[] keys, int keyOffset, Object[] items, int itemOffset, int n) {
+		for (int i = 1; i < n; i++) {
+			int key = keys[keyOffset + i];
+			Object item = items == null ? null : items[itemOffset + i];
+			int j = i - 1;
+			for (; j >= 0 && keys[keyOffset + j] > key; j--) {
+				keys[keyOffset + j + 1] = keys[keyOffset + j];
+				if (items != null) items[itemOffset + j + 1] = items[itemOffset + j];
+			}
+			keys[keyOffset + j + 1] = key;
+			if (items != null) items[itemOffset + j + 1] = item;
+		}
+	}
+
+	static private void insertionSort (long[] keys, int keyOffset, Object[] items, int itemOffset, int n) {
+		for (int i = 1; i < n; i++) {
+			long key = keys[keyOffset + i];
+			Object item = items == null ? null : items[itemOffset + i];
+			int j = i - 1;
+			for (; j >= 0 && keys[keyOffset + j] > key; j--) {
+				keys[keyOffset + j + 1] = keys[keyOffset + j];
+				if (items != null) items[itemOffset + j + 1] = items[itemOffset + j];
+			}
+			keys[keyOffset + j + 1] = key;
+			if (items != null) items[itemOffset + j + 1] = item;
+		}
+	}
+
+	static void checkRange (int length, int fromIndex, int toIndex) {
+		if (fromIndex > toIndex) throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+		if (fromIndex < 0) throw new ArrayIndexOutOfBoundsException(fromIndex);
+		if (toIndex > length) throw new ArrayIndexOutOfBoundsException(toIndex);
+	}
+
+	/** Returns an int that orders like the float when compared as signed int. Negative floats have their magnitude bits flipped,
+	 * NaN is ordered after positive infinity. */
+	static public int floatToSortKey (float value) {
+		int bits = NumberUtils.floatToIntBits(value);
+		return bits ^ (bits >> 31 & 0x7fffffff);
+	}
+
+	/** Returns the float for a key returned by {@link #floatToSortKey(float)}. */
+	static public float sortKeyToFloat (int key) {
+		return NumberUtils.intBitsToFloat(key ^ (key >> 31 & 0x7fffffff));
+	}
+
+	/** Returns a RadixSort instance for convenience. Multiple threads must not use this instance at the same time. */
+	static public RadixSort instance () {
+		if (instance == null) instance = new RadixSort();
+		return instance;
+	}
+}
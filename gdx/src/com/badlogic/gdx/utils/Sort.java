@@ -19,7 +19,7 @@ import java.util.Comparator;
  * avoid allocation. The sorting is otherwise identical to the Arrays.sort methods (uses timsort).<br>
  * <br>
  * Note that sorting primitive arrays with the Arrays.sort methods does not allocate memory (unless sorting large arrays of char,
- * short, or byte).
+ * short, or byte). {@link RadixSort} sorts primitive arrays, and object arrays by a primitive key, without comparisons.
  * @author Nathan Sweet */
 public class Sort {
 	static private Sort instance;
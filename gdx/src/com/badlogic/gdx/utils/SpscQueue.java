@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/** A {@link ConcurrentQueue} for exactly one producer thread and one consumer thread. Each side owns its index and only reads the
+ * other side's index when its cached copy says the queue is full or empty. Unlike {@link AtomicQueue} all slots are used and the
+ * indices do not share a cache line. */
+public class SpscQueue<T> extends ConcurrentQueue<T> {
+	private final AtomicReferenceArray<T> buffer;
+	/** written by the producer, the cache is the last read head **/
+	private final Sequence tail = new Sequence();
+	/** written by the consumer, the cache is the last read tail **/
+	private final Sequence head = new Sequence();
+
+	public SpscQueue (int capacity) {
+		super(capacity);
+		buffer = new AtomicReferenceArray(this.capacity);
+	}
+
+	public boolean offer (T value) {
+		if (value == null) throw new IllegalArgumentException("value cannot be null.");
+		Sequence tail = this.tail;
+		long index = tail.get();
+		if (index - tail.cache >= capacity) {
+			tail.cache = head.get();
+			if (index - tail.cache >= capacity) return false;
+		}
+		buffer.lazySet((int)index & mask, value);
+		tail.lazySet(index + 1);
+		return true;
+	}
+
+	public T poll () {
+		Sequence head = this.head;
+		long index = head.get();
+		if (index >= head.cache) {
+			head.cache = tail.get();
+			if (index >= head.cache) return null;
+		}
+		int slot = (int)index & mask;
+		T value = buffer.get(slot);
+		buffer.lazySet(slot, null);
+		head.lazySet(index + 1);
+		return value;
+	}
+
+	/** Reads the producer's index once and frees all removed slots with one write. */
+	public int drain (Array<? super T> values, int limit) {
+		Sequence head = this.head;
+		long index = head.get();
+		head.cache = tail.get();
+		int count = (int)Math.min(head.cache - index, limit);
+		if (count <= 0) return 0;
+		values.ensureCapacity(count);
+		AtomicReferenceArray<T> buffer = this.buffer;
+		for (int i = 0; i < count; i++) {
+			int slot = (int)(index + i) & mask;
+			values.add(buffer.get(slot));
+			buffer.lazySet(slot, null);
+		}
+		head.lazySet(index + count);
+		return count;
+	}
+
+	public int size () {
+		long size = tail.get() - head.get();
+		return (int)Math.max(0, Math.min(size, capacity));
+	}
+}
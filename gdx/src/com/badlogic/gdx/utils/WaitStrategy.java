@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.util.concurrent.locks.LockSupport;
+
+/** Decides what a thread does while it waits for a {@link ConcurrentQueue} to become non-empty or non-full. Spinning has the
+ * lowest latency but keeps a core busy, parking frees the core but takes longer to wake up. */
+public abstract class WaitStrategy {
+	/** Called each time the queue was checked without success.
+	 * @param attempt the number of unsuccessful checks before this one for the current wait, starting at 0 */
+	abstract public void idle (int attempt);
+
+	/** Retries immediately. Only useful if the waiting thread has a core to itself. */
+	static public final WaitStrategy busySpin = new WaitStrategy() {
+		public void idle (int attempt) {
+		}
+	};
+
+	/** Yields the rest of the time slice to other threads. */
+	static public final WaitStrategy yielding = new WaitStrategy() {
+		public void idle (int attempt) {
+			Thread.yield();
+		}
+	};
+
+	/** Spins for a few attempts, then yields, then parks for a microsecond at first and up to a millisecond after many attempts.
+	 * A good default for worker threads that may wait for a long time. */
+	static public final WaitStrategy backoff = new WaitStrategy() {
+		public void idle (int attempt) {
+			if (attempt < 64) return;
+			if (attempt < 128) {
+				Thread.yield();
+				return;
+			}
+			LockSupport.parkNanos(Math.min(1000L << Math.min(10, (attempt - 128) >> 4), 1000000L));
+		}
+	};
+}
@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.ConcurrentIntMap;
+import com.badlogic.gdx.utils.ConcurrentLongMap;
+import com.badlogic.gdx.utils.ConcurrentObjectMap;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Stress tests {@link ConcurrentIntMap}, {@link ConcurrentLongMap} and {@link ConcurrentObjectMap}. Each writer thread puts,
+ * removes and gets random keys of its own range, so every result can be checked against a {@link HashMap} of that thread. A reader
+ * thread gets keys of all ranges at the same time and iterates the map now and then. The maps start with the smallest table,
+ * so it is copied many times while the threads run. The results are logged. */
+public class ConcurrentMapTest extends GdxTest {
+	static final int WRITERS = 4, KEYS = 20000, OPERATIONS = 1000000;
+
+	volatile boolean writing;
+
+	@Override
+	public boolean needsGL20 () {
+		return false;
+	}
+
+	/** A value knows the key it was put for, so the reader can check it got the value of the right key. */
+	static class Value {
+		final int key;
+
+		Value (int key) {
+			this.key = key;
+		}
+	}
+
+	/** The operations of one of the tested maps, keys are mapped to the key type of the map. */
+	static abstract class Adapter {
+		abstract Value put (int key, Value value);
+
+		abstract Value putIfAbsent (int key, Value value);
+
+		abstract Value get (int key);
+
+		abstract Value remove (int key);
+
+		abstract boolean remove (int key, Value value);
+
+		abstract int size ();
+
+		/** Iterates the map and checks every entry against the expected entries. If expected is null the map is being changed, then
+		 * it is only checked that every value belongs to its key and no key is returned twice.
+		 * @return the number of entries iterated */
+		abstract int checkEntries (Map<Integer, Value> expected);
+	}
+
+	@Override
+	public void create () {
+		for (int round = 0; round < 2; round++) {
+			final ConcurrentIntMap<Value> intMap = new ConcurrentIntMap<Value>(0);
+			stress("ConcurrentIntMap", new Adapter() {
+				Value put (int key, Value value) {
+					return intMap.put(key, value);
+				}
+
+				Value putIfAbsent (int key, Value value) {
+					return intMap.putIfAbsent(key, value);
+				}
+
+				Value get (int key) {
+					return intMap.get(key);
+				}
+
+				Value remove (int key) {
+					return intMap.remove(key);
+				}
+
+				boolean remove (int key, Value value) {
+					return intMap.remove(key, value);
+				}
+
+				int size () {
+					return intMap.size();
+				}
+
+				int checkEntries (Map<Integer, Value> expected) {
+					HashSet<Integer> returned = new HashSet<Integer>();
+					for (ConcurrentIntMap.Entry<Value> entry : intMap.entries()) {
+						checkEntry(entry.key, entry.value, expected, returned);
+					}
+					return returned.size();
+				}
+			});
+
+			final ConcurrentLongMap<Value> longMap = new ConcurrentLongMap<Value>(0);
+			stress("ConcurrentLongMap", new Adapter() {
+				// spreads the keys over the high and low bits
+				long key (int key) {
+					return key * 0x100000001L;
+				}
+
+				Value put (int key, Value value) {
+					return longMap.put(key(key), value);
+				}
+
+				Value putIfAbsent (int key, Value value) {
+					return longMap.putIfAbsent(key(key), value);
+				}
+
+				Value get (int key) {
+					return longMap.get(key(key));
+				}
+
+				Value remove (int key) {
+					return longMap.remove(key(key));
+				}
+
+				boolean remove (int key, Value value) {
+					return longMap.remove(key(key), value);
+				}
+
+				int size () {
+					return longMap.size();
+				}
+
+				int checkEntries (Map<Integer, Value> expected) {
+					HashSet<Integer> returned = new HashSet<Integer>();
+					for (ConcurrentLongMap.Entry<Value> entry : longMap.entries()) {
+						if (entry.key % 0x100000001L != 0) throw new GdxRuntimeException("unknown key: " + entry.key);
+						checkEntry((int)(entry.key / 0x100000001L), entry.value, expected, returned);
+					}
+					return returned.size();
+				}
+			});
+
+			final ConcurrentObjectMap<String, Value> objectMap = new ConcurrentObjectMap<String, Value>(0);
+			stress("ConcurrentObjectMap", new Adapter() {
+				// a new string each time, so the map has to compare keys with equals
+				String key (int key) {
+					return "key" + key;
+				}
+
+				Value put (int key, Value value) {
+					return objectMap.put(key(key), value);
+				}
+
+				Value putIfAbsent (int key, Value value) {
+					return objectMap.putIfAbsent(key(key), value);
+				}
+
+				Value get (int key) {
+					return objectMap.get(key(key));
+				}
+
+				Value remove (int key) {
+					return objectMap.remove(key(key));
+				}
+
+				boolean remove (int key, Value value) {
+					return objectMap.remove(key(key), value);
+				}
+
+				int size () {
+					return objectMap.size();
+				}
+
+				int checkEntries (Map<Integer, Value> expected) {
+					HashSet<Integer> returned = new HashSet<Integer>();
+					for (ConcurrentObjectMap.Entry<String, Value> entry : objectMap.entries()) {
+						checkEntry(Integer.parseInt(entry.key.substring(3)), entry.value, expected, returned);
+					}
+					return returned.size();
+				}
+			});
+		}
+	}
+
+	static void checkEntry (int key, Value value, Map<Integer, Value> expected, Set<Integer> returned) {
+		if (!returned.add(key)) throw new GdxRuntimeException("key " + key + " was iterated twice");
+		if (expected == null ? value.key != key : expected.get(key) != value)
+			throw new GdxRuntimeException("unexpected entry for key " + key);
+	}
+
+	private void stress (String name, final Adapter map) {
+		final HashMap<Integer, Value>[] expected = new HashMap[WRITERS];
+		final Throwable[] error = new Throwable[1];
+		Thread[] writers = new Thread[WRITERS];
+		for (int i = 0; i < WRITERS; i++) {
+			final int writer = i;
+			final HashMap<Integer, Value> reference = expected[i] = new HashMap<Integer, Value>();
+			writers[i] = new Thread() {
+				public void run () {
+					try {
+						// the first writer owns key 0, which the int and long maps store outside of the table
+						Random random = new Random(writer);
+						for (int i = 0; i < OPERATIONS; i++) {
+							int key = writer * KEYS + random.nextInt(KEYS);
+							Value old = reference.get(key);
+							Value value = new Value(key);
+							switch (random.nextInt(6)) {
+							case 0:
+							case 1:
+								check(map.put(key, value) == old, "put", key);
+								reference.put(key, value);
+								break;
+							case 2:
+								Value current = map.putIfAbsent(key, value);
+								check(current == old, "putIfAbsent", key);
+								if (old == null) reference.put(key, value);
+								break;
+							case 3:
+								check(map.remove(key) == old, "remove", key);
+								reference.remove(key);
+								break;
+							case 4:
+								// removes with the current value or a value that isn't in the map
+								Value removeValue = old != null && random.nextBoolean() ? old : value;
+								boolean removed = map.remove(key, removeValue);
+								check(removed == (removeValue == old), "remove value", key);
+								if (removed) reference.remove(key);
+								break;
+							default:
+								check(map.get(key) == old, "get", key);
+							}
+						}
+					} catch (Throwable ex) {
+						synchronized (error) {
+							if (error[0] == null) error[0] = ex;
+						}
+					}
+				}
+			};
+		}
+		Thread reader = new Thread() {
+			public void run () {
+				try {
+					Random random = new Random();
+					for (int i = 1; writing; i++) {
+						int key = random.nextInt(WRITERS * KEYS);
+						Value value = map.get(key);
+						if (value != null) check(value.key == key, "get of another thread's key", key);
+						if (i % 10000 == 0) map.checkEntries(null);
+					}
+				} catch (Throwable ex) {
+					synchronized (error) {
+						if (error[0] == null) error[0] = ex;
+					}
+				}
+			}
+		};
+
+		long start = TimeUtils.nanoTime();
+		writing = true;
+		reader.start();
+		for (int i = 0; i < WRITERS; i++)
+			writers[i].start();
+		try {
+			for (int i = 0; i < WRITERS; i++)
+				writers[i].join();
+			writing = false;
+			reader.join();
+		} catch (InterruptedException ex) {
+			throw new GdxRuntimeException(ex);
+		}
+		float time = (TimeUtils.nanoTime() - start) / 1000000f;
+		if (error[0] != null) throw new GdxRuntimeException(name + " failed", error[0]);
+
+		HashMap<Integer, Value> all = new HashMap<Integer, Value>();
+		for (int i = 0; i < WRITERS; i++)
+			all.putAll(expected[i]);
+		if (map.size() != all.size()) throw new GdxRuntimeException(name + " size is " + map.size() + ", expected " + all.size());
+		for (Map.Entry<Integer, Value> entry : all.entrySet())
+			check(map.get(entry.getKey()) == entry.getValue(), "final get", entry.getKey());
+		int count = map.checkEntries(all);
+		if (count != all.size()) throw new GdxRuntimeException(name + " iterated " + count + " entries, expected " + all.size());
+
+		Gdx.app.log("ConcurrentMapTest", name + ": " + WRITERS * OPERATIONS + " operations by " + WRITERS + " writers in " + time
+			+ " ms, " + all.size() + " entries, all checks passed");
+	}
+
+	static void check (boolean condition, String operation, int key) {
+		if (!condition) throw new GdxRuntimeException(operation + " returned a wrong result for key " + key);
+	}
+}
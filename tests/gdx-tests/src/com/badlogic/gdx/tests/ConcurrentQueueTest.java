@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.AtomicQueue;
+import com.badlogic.gdx.utils.ConcurrentQueue;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.MpmcQueue;
+import com.badlogic.gdx.utils.MpscQueue;
+import com.badlogic.gdx.utils.SpscQueue;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.WaitStrategy;
+
+/** Benchmarks {@link SpscQueue}, {@link MpscQueue} and {@link MpmcQueue} against {@link AtomicQueue}, the java.util.concurrent
+ * queues and a synchronized list that is copied by the consumer, as the backends do with posted runnables. Every producer thread
+ * adds {@link #COUNT} values. The throughput is logged. */
+public class ConcurrentQueueTest extends GdxTest {
+	static final int COUNT = 1000000, CAPACITY = 1024;
+	static final Integer VALUE = 1;
+
+	@Override
+	public boolean needsGL20 () {
+		return false;
+	}
+
+	/** The operations of one of the benchmarked queues. */
+	static abstract class Adapter {
+		abstract boolean offer (Integer value);
+
+		/** Removes values and returns how many were removed. */
+		abstract int drain ();
+	}
+
+	@Override
+	public void create () {
+		for (int round = 0; round < 2; round++) {
+			final AtomicQueue<Integer> atomicQueue = new AtomicQueue<Integer>(CAPACITY);
+			bench("AtomicQueue", 1, new Adapter() {
+				boolean offer (Integer value) {
+					return atomicQueue.put(value);
+				}
+
+				int drain () {
+					return atomicQueue.poll() != null ? 1 : 0;
+				}
+			});
+			bench("SpscQueue", 1, queue(new SpscQueue<Integer>(CAPACITY), false));
+			bench("SpscQueue drain", 1, queue(new SpscQueue<Integer>(CAPACITY), true));
+			bench("MpscQueue", 4, queue(new MpscQueue<Integer>(CAPACITY), false));
+			bench("MpscQueue drain", 4, queue(new MpscQueue<Integer>(CAPACITY), true));
+			bench("MpmcQueue", 4, queue(new MpmcQueue<Integer>(CAPACITY), false));
+
+			final ArrayBlockingQueue<Integer> blockingQueue = new ArrayBlockingQueue<Integer>(CAPACITY);
+			bench("ArrayBlockingQueue", 4, new Adapter() {
+				boolean offer (Integer value) {
+					return blockingQueue.offer(value);
+				}
+
+				int drain () {
+					return blockingQueue.poll() != null ? 1 : 0;
+				}
+			});
+			final ConcurrentLinkedQueue<Integer> linkedQueue = new ConcurrentLinkedQueue<Integer>();
+			bench("ConcurrentLinkedQueue", 4, new Adapter() {
+				boolean offer (Integer value) {
+					return linkedQueue.offer(value);
+				}
+
+				int drain () {
+					return linkedQueue.poll() != null ? 1 : 0;
+				}
+			});
+			final List<Integer> list = new ArrayList<Integer>(), copy = new ArrayList<Integer>();
+			bench("synchronized list", 4, new Adapter() {
+				boolean offer (Integer value) {
+					synchronized (list) {
+						list.add(value);
+					}
+					return true;
+				}
+
+				int drain () {
+					synchronized (list) {
+						copy.clear();
+						copy.addAll(list);
+						list.clear();
+					}
+					return copy.size();
+				}
+			});
+		}
+	}
+
+	private Adapter queue (final ConcurrentQueue<Integer> queue, final boolean drain) {
+		final Array<Integer> values = new Array<Integer>(CAPACITY);
+		return new Adapter() {
+			boolean offer (Integer value) {
+				return queue.offer(value);
+			}
+
+			int drain () {
+				if (!drain) return queue.poll() != null ? 1 : 0;
+				values.clear();
+				return queue.drain(values);
+			}
+		};
+	}
+
+	private void bench (String name, int producers, final Adapter queue) {
+		Thread[] threads = new Thread[producers];
+		for (int i = 0; i < producers; i++) {
+			threads[i] = new Thread() {
+				public void run () {
+					WaitStrategy wait = WaitStrategy.yielding;
+					for (int i = 0; i < COUNT; i++)
+						for (int attempt = 0; !queue.offer(VALUE); attempt++)
+							wait.idle(attempt);
+				}
+			};
+		}
+		long start = TimeUtils.nanoTime();
+		for (Thread thread : threads)
+			thread.start();
+		WaitStrategy wait = WaitStrategy.yielding;
+		for (int remaining = producers * COUNT, attempt = 0; remaining > 0;) {
+			int count = queue.drain();
+			if (count == 0)
+				wait.idle(attempt++);
+			else {
+				remaining -= count;
+				attempt = 0;
+			}
+		}
+		try {
+			for (Thread thread : threads)
+				thread.join();
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException(e);
+		}
+		float millis = (TimeUtils.nanoTime() - start) / 1000000f;
+		Gdx.app.log("ConcurrentQueueTest", name + ", " + producers + " producers: " + millis + " ms, " + (int)(producers * COUNT
+			/ millis / 1000) + " million values/s");
+	}
+}
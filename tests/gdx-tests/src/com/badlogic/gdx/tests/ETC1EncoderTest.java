@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.graphics.glutils.ETC1.ETC1Data;
+import com.badlogic.gdx.graphics.glutils.ETC1Encoder;
+import com.badlogic.gdx.graphics.glutils.ETC1Encoder.Quality;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Benchmarks {@link ETC1Encoder} at each {@link Quality} against the native {@link ETC1#encodeImagePKM(Pixmap)}, and checks
+ * that {@link Quality#Medium} produces the same data. Time and error of each encoder are logged. */
+public class ETC1EncoderTest extends GdxTest {
+	@Override
+	public boolean needsGL20 () {
+		return false;
+	}
+
+	ETC1Encoder encoder = new ETC1Encoder(Runtime.getRuntime().availableProcessors());
+
+	@Override
+	public void create () {
+		Pixmap image = new Pixmap(Gdx.files.internal("data/badlogic.jpg"));
+		Pixmap pixmap = new Pixmap(image.getWidth(), image.getHeight(), Format.RGB888);
+		pixmap.drawPixmap(image, 0, 0);
+		image.dispose();
+
+		long start = TimeUtils.nanoTime();
+		ETC1Data reference = ETC1.encodeImagePKM(pixmap);
+		log("native", TimeUtils.nanoTime() - start, pixmap, reference);
+
+		for (Quality quality : Quality.values()) {
+			start = TimeUtils.nanoTime();
+			ETC1Data data = encoder.encodeImagePKM(pixmap, quality);
+			log(quality.toString(), TimeUtils.nanoTime() - start, pixmap, data);
+			if (quality == Quality.Medium) {
+				for (int i = 0, n = reference.compressedData.capacity(); i < n; i++)
+					if (reference.compressedData.get(i) != data.compressedData.get(i))
+						throw new GdxRuntimeException("Medium differs from native encoding at byte " + i);
+			}
+			data.dispose();
+		}
+		pixmap.dispose();
+	}
+
+	private void log (String name, long time, Pixmap pixmap, ETC1Data data) {
+		Pixmap decoded = ETC1.decodeImage(data, Format.RGB888);
+		long error = 0;
+		for (int y = 0; y < pixmap.getHeight(); y++) {
+			for (int x = 0; x < pixmap.getWidth(); x++) {
+				int expected = pixmap.getPixel(x, y), actual = decoded.getPixel(x, y);
+				for (int shift = 8; shift < 32; shift += 8) {
+					int delta = ((expected >>> shift) & 0xff) - ((actual >>> shift) & 0xff);
+					error += delta * delta;
+				}
+			}
+		}
+		decoded.dispose();
+		float rmse = (float)Math.sqrt(error / (3.0 * pixmap.getWidth() * pixmap.getHeight()));
+		Gdx.app.log("ETC1EncoderTest", name + ": " + time / 1000000f + " ms, rms error " + rmse);
+	}
+
+	@Override
+	public void dispose () {
+		encoder.dispose();
+	}
+}
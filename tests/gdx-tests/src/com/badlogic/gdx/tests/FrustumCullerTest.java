@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL10;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.FrustumCuller;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.WindowedMean;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.tests.utils.GdxTest;
+
+/** Benchmarks {@link FrustumCuller} against testing each object with the {@link com.badlogic.gdx.math.Frustum} methods. */
+public class FrustumCullerTest extends GdxTest {
+	static final int COUNT = 50000;
+
+	@Override
+	public boolean needsGL20 () {
+		return false;
+	}
+
+	PerspectiveCamera cam;
+	SpriteBatch batch;
+	BitmapFont font;
+	FrustumCuller culler, parallelCuller;
+	float[] x = new float[COUNT], y = new float[COUNT], z = new float[COUNT];
+	float[] halfWidth = new float[COUNT], halfHeight = new float[COUNT], halfDepth = new float[COUNT];
+	BoundingBox[] boxes = new BoundingBox[COUNT];
+	int[] visible = new int[COUNT];
+	byte[] planeCache = new byte[COUNT];
+	String[] names = {"sphereInFrustum", "cullSpheres", "cullSpheres coherent", "cullSpheres parallel", "boundsInFrustum",
+		"cullBoxes", "cullBoxes coherent", "cullBoxes parallel"};
+	WindowedMean[] times = new WindowedMean[names.length];
+	int[] counts = new int[names.length];
+	Vector3 center = new Vector3();
+
+	public void create () {
+		cam = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		cam.near = 1;
+		cam.far = 500;
+		batch = new SpriteBatch();
+		font = new BitmapFont();
+		culler = new FrustumCuller();
+		parallelCuller = new FrustumCuller(Runtime.getRuntime().availableProcessors());
+		for (int i = 0; i < COUNT; i++) {
+			x[i] = MathUtils.random(-500f, 500f);
+			y[i] = MathUtils.random(-50f, 50f);
+			z[i] = MathUtils.random(-500f, 500f);
+			halfWidth[i] = MathUtils.random(0.5f, 5);
+			halfHeight[i] = MathUtils.random(0.5f, 5);
+			halfDepth[i] = MathUtils.random(0.5f, 5);
+			boxes[i] = new BoundingBox(new Vector3(x[i] - halfWidth[i], y[i] - halfHeight[i], z[i] - halfDepth[i]), new Vector3(x[i]
+				+ halfWidth[i], y[i] + halfHeight[i], z[i] + halfDepth[i]));
+		}
+		for (int i = 0; i < times.length; i++)
+			times[i] = new WindowedMean(60);
+	}
+
+	public void render () {
+		cam.rotate(Gdx.graphics.getDeltaTime() * 20, 0, 1, 0);
+		cam.update();
+		culler.set(cam.frustum);
+		parallelCuller.set(cam.frustum);
+
+		for (int test = 0; test < names.length; test++) {
+			long start = System.nanoTime();
+			int count = 0;
+			switch (test) {
+			case 0:
+				for (int i = 0; i < COUNT; i++)
+					if (cam.frustum.sphereInFrustum(center.set(x[i], y[i], z[i]), halfWidth[i])) count++;
+				break;
+			case 1:
+				count = culler.cullSpheres(x, y, z, halfWidth, 0, COUNT, null, visible);
+				break;
+			case 2:
+				count = culler.cullSpheres(x, y, z, halfWidth, 0, COUNT, planeCache, visible);
+				break;
+			case 3:
+				count = parallelCuller.cullSpheres(x, y, z, halfWidth, 0, COUNT, null, visible);
+				break;
+			case 4:
+				for (int i = 0; i < COUNT; i++)
+					if (cam.frustum.boundsInFrustum(boxes[i])) count++;
+				break;
+			case 5:
+				count = culler.cullBoxes(x, y, z, halfWidth, halfHeight, halfDepth, 0, COUNT, null, visible);
+				break;
+			case 6:
+				count = culler.cullBoxes(x, y, z, halfWidth, halfHeight, halfDepth, 0, COUNT, planeCache, visible);
+				break;
+			case 7:
+				count = parallelCuller.cullBoxes(x, y, z, halfWidth, halfHeight, halfDepth, 0, COUNT, null, visible);
+				break;
+			}
+			times[test].addValue((System.nanoTime() - start) / 1000000f);
+			counts[test] = count;
+		}
+
+		Gdx.gl.glClear(GL10.GL_COLOR_BUFFER_BIT);
+		batch.begin();
+		font.draw(batch, COUNT + " objects, fps: " + Gdx.graphics.getFramesPerSecond(), 10, Gdx.graphics.getHeight() - 10);
+		for (int i = 0; i < names.length; i++)
+			font.draw(batch, names[i] + ": " + times[i].getMean() + " ms, " + counts[i] + " visible", 10, Gdx.graphics.getHeight()
+				- 30 - i * 20);
+		batch.end();
+	}
+
+	public void dispose () {
+		batch.dispose();
+		font.dispose();
+		parallelCuller.dispose();
+	}
+}
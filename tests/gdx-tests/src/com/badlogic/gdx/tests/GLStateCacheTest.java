@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.Buffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL10;
+import com.badlogic.gdx.graphics.GL11;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GLCommon;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.GLProfiler;
+import com.badlogic.gdx.graphics.glutils.GLStateCache;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** Checks {@link GLStateCache} and {@link GLProfiler} against a mock GL20 that records the calls reaching it. Redundant state
+ * changes have to be dropped, all others, including the ones made by {@link ShaderProgram} and {@link FrameBuffer}, have to get
+ * through and be counted by the profiler. The result is logged. */
+public class GLStateCacheTest extends GdxTest {
+	static final String VERTEX_SHADER = "attribute vec4 a_position;\nvoid main () {\n	gl_Position = a_position;\n}";
+	static final String FRAGMENT_SHADER = "void main () {\n	gl_FragColor = vec4(1.0);\n}";
+
+	@Override
+	public boolean needsGL20 () {
+		return true;
+	}
+
+	final Array<String> calls = new Array<String>();
+	int lastHandle;
+	SpriteBatch batch;
+	BitmapFont font;
+	String result;
+
+	@Override
+	public void create () {
+		result = runChecks();
+		Gdx.app.log("GLStateCacheTest", result);
+
+		batch = new SpriteBatch();
+		font = new BitmapFont();
+	}
+
+	/** Replaces the GL instances in {@link Gdx} with the mock, runs all checks and puts the original instances back.
+	 * @return a description of the first failed check or that all checks passed */
+	String runChecks () {
+		GLCommon gl = Gdx.gl;
+		GL10 gl10 = Gdx.gl10;
+		GL11 gl11 = Gdx.gl11;
+		GL20 gl20 = Gdx.gl20;
+		GL20 mock = newMock();
+		Gdx.gl = mock;
+		Gdx.gl10 = null;
+		Gdx.gl11 = null;
+		Gdx.gl20 = mock;
+		try {
+			checkStateCache();
+			GLStateCache.uninstall();
+			checkProfiler();
+			return "all checks passed";
+		} catch (GdxRuntimeException ex) {
+			return ex.getMessage();
+		} finally {
+			GLStateCache.uninstall();
+			GLProfiler.disable();
+			Gdx.gl = gl;
+			Gdx.gl10 = gl10;
+			Gdx.gl11 = gl11;
+			Gdx.gl20 = gl20;
+		}
+	}
+
+	void checkStateCache () {
+		GLStateCache cache = GLStateCache.install();
+
+		calls.clear();
+		Gdx.gl.glEnable(GL10.GL_BLEND);
+		Gdx.gl.glEnable(GL10.GL_BLEND);
+		Gdx.gl.glDisable(GL10.GL_BLEND);
+		Gdx.gl.glDisable(GL10.GL_BLEND);
+		expect("glEnable(3042)", "glDisable(3042)");
+
+		calls.clear();
+		Gdx.gl.glBlendFunc(GL10.GL_SRC_ALPHA, GL10.GL_ONE_MINUS_SRC_ALPHA);
+		Gdx.gl.glBlendFunc(GL10.GL_SRC_ALPHA, GL10.GL_ONE_MINUS_SRC_ALPHA);
+		Gdx.gl.glBlendFunc(GL10.GL_ONE, GL10.GL_ONE_MINUS_SRC_ALPHA);
+		expect("glBlendFunc(770,771)", "glBlendFunc(1,771)");
+
+		// the texture bound to each unit is tracked separately
+		calls.clear();
+		Gdx.gl.glActiveTexture(GL10.GL_TEXTURE0);
+		Gdx.gl.glBindTexture(GL10.GL_TEXTURE_2D, 1);
+		Gdx.gl.glBindTexture(GL10.GL_TEXTURE_2D, 1);
+		Gdx.gl.glActiveTexture(GL10.GL_TEXTURE1);
+		Gdx.gl.glBindTexture(GL10.GL_TEXTURE_2D, 1);
+		Gdx.gl.glActiveTexture(GL10.GL_TEXTURE0);
+		Gdx.gl.glBindTexture(GL10.GL_TEXTURE_2D, 1);
+		expect("glActiveTexture(33984)", "glBindTexture(3553,1)", "glActiveTexture(33985)", "glBindTexture(3553,1)",
+			"glActiveTexture(33984)");
+
+		// so is enabling GL_TEXTURE_2D, enabling it on a second unit must not be dropped
+		calls.clear();
+		Gdx.gl.glEnable(GL10.GL_TEXTURE_2D);
+		Gdx.gl.glEnable(GL10.GL_TEXTURE_2D);
+		Gdx.gl.glActiveTexture(GL10.GL_TEXTURE1);
+		Gdx.gl.glEnable(GL10.GL_TEXTURE_2D);
+		Gdx.gl.glDisable(GL10.GL_TEXTURE_2D);
+		Gdx.gl.glActiveTexture(GL10.GL_TEXTURE0);
+		Gdx.gl.glEnable(GL10.GL_TEXTURE_2D);
+		expect("glEnable(3553)", "glActiveTexture(33985)", "glEnable(3553)", "glDisable(3553)", "glActiveTexture(33984)");
+
+		// program switches made by ShaderProgram have to be seen by the cache, otherwise the last glUseProgram is dropped
+		ShaderProgram shader1 = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+		int program1 = lastHandle;
+		ShaderProgram shader2 = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+		int program2 = lastHandle;
+		calls.clear();
+		Gdx.gl20.glUseProgram(program1);
+		shader2.begin();
+		Gdx.gl20.glUseProgram(program1);
+		shader1.begin();
+		shader1.end();
+		Gdx.gl20.glUseProgram(0);
+		expect("glUseProgram(" + program1 + ")", "glUseProgram(" + program2 + ")", "glUseProgram(" + program1 + ")",
+			"glUseProgram(0)");
+		shader1.dispose();
+		shader2.dispose();
+
+		// FrameBuffer unbinds its texture when it is built, the cache has to see that
+		FrameBuffer frameBuffer = new FrameBuffer(Format.RGBA8888, 16, 16, false);
+		calls.clear();
+		Gdx.gl.glBindTexture(GL10.GL_TEXTURE_2D, 1);
+		frameBuffer.begin();
+		frameBuffer.end();
+		expect("glBindTexture(3553,1)", "glViewport(0,0,16,16)", "glBindFramebuffer(36160," + lastHandle + ")", "glViewport(0,0,"
+			+ Gdx.graphics.getWidth() + "," + Gdx.graphics.getHeight() + ")", "glBindFramebuffer(36160,0)");
+		frameBuffer.dispose();
+
+		// after invalidate() everything is passed through again
+		cache.invalidate();
+		calls.clear();
+		Gdx.gl.glDisable(GL10.GL_BLEND);
+		Gdx.gl.glBindTexture(GL10.GL_TEXTURE_2D, 1);
+		expect("glDisable(3042)", "glBindTexture(3553,1)");
+	}
+
+	void checkProfiler () {
+		ShaderProgram shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+		GLProfiler.enable();
+		GLProfiler.reset();
+		shader.begin();
+		shader.begin();
+		Gdx.gl.glBindTexture(GL10.GL_TEXTURE_2D, 1);
+		expectCount("shader switches", 2, GLProfiler.shaderSwitches);
+		expectCount("texture bindings", 1, GLProfiler.textureBindings);
+		expectCount("calls", 3, GLProfiler.calls);
+
+		// with the cache installed on top of the profiler, only the calls reaching the driver are counted
+		GLStateCache.install();
+		GLProfiler.reset();
+		shader.begin();
+		shader.begin();
+		shader.end();
+		expectCount("shader switches", 2, GLProfiler.shaderSwitches);
+
+		GLProfiler.nextFrame();
+		expectCount("shader switches after nextFrame()", 0, GLProfiler.shaderSwitches);
+		GLStateCache.uninstall();
+		GLProfiler.disable();
+		shader.dispose();
+	}
+
+	/** Throws if the counter doesn't have the expected value. */
+	void expectCount (String name, int expected, int actual) {
+		if (actual != expected) throw new GdxRuntimeException("expected " + expected + " " + name + " but got " + actual);
+	}
+
+	/** Throws if the calls that reached the mock since the last clear are not the expected ones. */
+	void expect (String... expected) {
+		boolean equal = calls.size == expected.length;
+		for (int i = 0; equal && i < expected.length; i++)
+			equal = calls.get(i).equals(expected[i]);
+		if (equal) return;
+		StringBuilder buffer = new StringBuilder("expected ");
+		for (int i = 0; i < expected.length; i++)
+			buffer.append(expected[i]).append(' ');
+		buffer.append("but got ").append(calls.toString(" "));
+		throw new GdxRuntimeException(buffer.toString());
+	}
+
+	/** Returns a GL20 that records each call as name(arguments) and returns handles that aren't zero for created objects. Shader
+	 * compilation and program linking always succeed. Arguments that are buffers are not recorded. */
+	GL20 newMock () {
+		return (GL20)Proxy.newProxyInstance(GLStateCacheTest.class.getClassLoader(), new Class[] {GL20.class},
+			new InvocationHandler() {
+				public Object invoke (Object proxy, Method method, Object[] args) {
+					String name = method.getName();
+					if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+						int pname = (Integer)args[1];
+						((IntBuffer)args[2]).put(0, pname == GL20.GL_COMPILE_STATUS || pname == GL20.GL_LINK_STATUS ? 1 : 0);
+					}
+					if (name.startsWith("glGen") && args.length == 2 && args[1] instanceof IntBuffer) {
+						IntBuffer handles = (IntBuffer)args[1];
+						for (int i = 0, n = (Integer)args[0]; i < n; i++)
+							handles.put(handles.position() + i, ++lastHandle);
+					}
+
+					StringBuilder call = new StringBuilder(name).append('(');
+					if (args != null) {
+						for (int i = 0; i < args.length; i++) {
+							if (args[i] instanceof Buffer) continue;
+							if (call.charAt(call.length() - 1) != '(') call.append(',');
+							call.append(args[i]);
+						}
+					}
+					calls.add(call.append(')').toString());
+
+					if (name.equals("glCreateShader") || name.equals("glCreateProgram")) return ++lastHandle;
+					if (name.equals("glCheckFramebufferStatus")) return GL20.GL_FRAMEBUFFER_COMPLETE;
+					Class type = method.getReturnType();
+					if (type == int.class) return 0;
+					if (type == float.class) return 0f;
+					if (type == boolean.class) return false;
+					if (type == String.class) return "";
+					return null;
+				}
+			});
+	}
+
+	@Override
+	public void render () {
+		Gdx.gl.glClear(GL10.GL_COLOR_BUFFER_BIT);
+		batch.begin();
+		font.draw(batch, result, 10, Gdx.graphics.getHeight() - 10);
+		batch.end();
+	}
+
+	@Override
+	public void dispose () {
+		batch.dispose();
+		font.dispose();
+	}
+}
@@ -17,6 +17,8 @@ package com.badlogic.gdx.tests;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Matrix4Utils;
+import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.tests.utils.GdxTest;
 import com.badlogic.gdx.utils.GdxRuntimeException;
@@ -70,12 +72,67 @@ public class MatrixJNITest extends GdxTest {
 		Matrix4.mul(mat3.val, mat2.val);
 		check(mat1, mat3);
 
+		checkUtils();
 		bench();
 	}
 
+	private void checkUtils () {
+		Matrix4 mat1 = new Matrix4().setToRotation(0, 1, 0, 45).trn(1, 2, 3);
+		Matrix4 mat2 = new Matrix4().setToProjection(1, 100, 60, 1.3f);
+		float[] fvecs = {1, 2, 3, 0, 0, 1, 2, 3, 0, 0, 1, 2, 3, 0, 0};
+		float[] jvecs = fvecs.clone();
+
+		Matrix4.mulVec(mat1.val, fvecs, 0, 3, 5);
+		Matrix4Utils.mulVec(mat1.val, jvecs, 0, 3, 5);
+		check(fvecs, jvecs, 0);
+		Matrix4.prj(mat2.val, fvecs, 0, 3, 5);
+		Matrix4Utils.prj(mat2.val, jvecs, 0, 3, 5);
+		check(fvecs, jvecs, 0);
+		Matrix4.rot(mat1.val, fvecs, 0, 3, 5);
+		Matrix4Utils.rot(mat1.val, jvecs, 0, 3, 5);
+		check(fvecs, jvecs, 0);
+
+		if (Math.abs(Matrix4.det(mat2.val) - Matrix4Utils.det(mat2.val)) > 0.0001f)
+			throw new GdxRuntimeException("java det doesn't work");
+		Matrix4 mat3 = mat2.cpy();
+		Matrix4.inv(mat2.val);
+		Matrix4Utils.inv(mat3.val);
+		check(mat2.val, mat3.val, 0.0001f);
+
+		mat3.set(mat1);
+		Matrix4.mul(mat1.val, mat2.val);
+		Matrix4Utils.mul(mat3.val, mat2.val);
+		check(mat1.val, mat3.val, 0);
+
+		// hierarchy of three nodes, each rotated and translated relative to its parent
+		Quaternion rotation = new Quaternion(new Vector3(0, 1, 0), 30);
+		float[] translations = {1, 0, 0, 0, 2, 0, 0, 0, 3};
+		float[] rotations = new float[12];
+		for (int i = 0; i < 3; i++) {
+			rotations[i * 4] = rotation.x;
+			rotations[i * 4 + 1] = rotation.y;
+			rotations[i * 4 + 2] = rotation.z;
+			rotations[i * 4 + 3] = rotation.w;
+		}
+		float[] local = new float[16 * 3];
+		float[] world = new float[16 * 3];
+		Matrix4Utils.setToTransforms(translations, rotations, null, local, 3);
+		Matrix4Utils.mulHierarchy(local, new int[] {-1, 0, 1}, world, 3);
+		Matrix4 expected = new Matrix4();
+		Matrix4 node = new Matrix4();
+		for (int i = 0; i < 3; i++) {
+			node.set(rotation).trn(translations[i * 3], translations[i * 3 + 1], translations[i * 3 + 2]);
+			expected.mul(node);
+			float[] actual = new float[16];
+			System.arraycopy(world, i * 16, actual, 0, 16);
+			check(expected.val, actual, 0.0001f);
+		}
+	}
+
 	private void bench () {
-		Matrix4 mata = new Matrix4();
-		Matrix4 matb = new Matrix4();
+		// rotations, so the matrices multiplied over and over again stay orthonormal instead of running to infinity
+		Matrix4 mata = new Matrix4().setToRotation(0, 1, 0, 30);
+		Matrix4 matb = new Matrix4().setToRotation(1, 0, 0, 20);
 
 		long start = TimeUtils.nanoTime();
 		for (int i = 0; i < 1000000; i++) {
@@ -89,6 +146,25 @@ public class MatrixJNITest extends GdxTest {
 		}
 		Gdx.app.log("MatrixJNITest", "jni matrix * matrix took: " + (TimeUtils.nanoTime() - start) / 1000000000.0f);
 
+		start = TimeUtils.nanoTime();
+		for (int i = 0; i < 1000000; i++) {
+			Matrix4Utils.mul(mata.val, matb.val);
+		}
+		Gdx.app.log("MatrixJNITest", "java static matrix * matrix took: " + (TimeUtils.nanoTime() - start) / 1000000000.0f);
+
+		float[] left = new float[16 * 1000];
+		float[] right = new float[16 * 1000];
+		float[] result = new float[16 * 1000];
+		for (int i = 0; i < 1000; i++) {
+			System.arraycopy(mata.val, 0, left, i * 16, 16);
+			System.arraycopy(matb.val, 0, right, i * 16, 16);
+		}
+		start = TimeUtils.nanoTime();
+		for (int i = 0; i < 1000; i++) {
+			Matrix4Utils.mul(left, right, result, 1000);
+		}
+		Gdx.app.log("MatrixJNITest", "java bulk matrix * matrix took: " + (TimeUtils.nanoTime() - start) / 1000000000.0f);
+
 		Vector3 vec = new Vector3();
 		start = TimeUtils.nanoTime();
 		for (int i = 0; i < 500000; i++) {
@@ -103,11 +179,21 @@ public class MatrixJNITest extends GdxTest {
 		}
 		Gdx.app.log("MatrixJNITest", "jni vecs * matrix took: " + (TimeUtils.nanoTime() - start) / 1000000000.0f);
 
+		start = TimeUtils.nanoTime();
+		for (int i = 0; i < 500000; i++) {
+			Matrix4Utils.mulVec(mata.val, fvec);
+		}
+		Gdx.app.log("MatrixJNITest", "java static vecs * matrix took: " + (TimeUtils.nanoTime() - start) / 1000000000.0f);
+
 		float[] fvecs = new float[3 * 500000];
 		start = TimeUtils.nanoTime();
 		Matrix4.mulVec(mata.val, fvecs, 0, 500000, 3);
 		Gdx.app.log("MatrixJNITest", "jni bulk vecs * matrix took: " + (TimeUtils.nanoTime() - start) / 1000000000.0f);
 
+		start = TimeUtils.nanoTime();
+		Matrix4Utils.mulVec(mata.val, fvecs, 0, 500000, 3);
+		Gdx.app.log("MatrixJNITest", "java bulk vecs * matrix took: " + (TimeUtils.nanoTime() - start) / 1000000000.0f);
+
 		start = TimeUtils.nanoTime();
 		for (int i = 0; i < 1000000; i++) {
 			mata.inv();
@@ -119,6 +205,18 @@ public class MatrixJNITest extends GdxTest {
 			Matrix4.inv(mata.val);
 		}
 		Gdx.app.log("MatrixJNITest", "jni inv(matrix): " + (TimeUtils.nanoTime() - start) / 1000000000.0f);
+
+		start = TimeUtils.nanoTime();
+		for (int i = 0; i < 1000000; i++) {
+			Matrix4Utils.inv(mata.val);
+		}
+		Gdx.app.log("MatrixJNITest", "java static inv(matrix): " + (TimeUtils.nanoTime() - start) / 1000000000.0f);
+	}
+
+	private void check (float[] expected, float[] actual, float epsilon) {
+		for (int i = 0; i < expected.length; i++) {
+			if (Math.abs(expected[i] - actual[i]) > epsilon) throw new GdxRuntimeException("values not equal");
+		}
 	}
 
 	private void check (Vector3 vec, float[] fvec) {
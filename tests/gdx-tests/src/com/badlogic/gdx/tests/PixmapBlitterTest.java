@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Blending;
+import com.badlogic.gdx.graphics.Pixmap.Filter;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.g2d.PixmapBlitter;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Benchmarks {@link PixmapBlitter} against the native {@link Pixmap} methods for unscaled and scaled draws, and checks that
+ * both produce the same pixels. */
+public class PixmapBlitterTest extends GdxTest {
+	@Override
+	public boolean needsGL20 () {
+		return false;
+	}
+
+	PixmapBlitter blitter = new PixmapBlitter(Runtime.getRuntime().availableProcessors());
+
+	@Override
+	public void create () {
+		Pixmap image = new Pixmap(Gdx.files.internal("data/badlogic.jpg"));
+		Pixmap source = blitter.convert(image, Format.RGBA8888);
+		image.dispose();
+		int width = source.getWidth() * 4, height = source.getHeight() * 4;
+
+		for (Blending blending : Blending.values()) {
+			for (Filter filter : Filter.values()) {
+				Pixmap expected = new Pixmap(width, height, Format.RGB888);
+				Pixmap actual = new Pixmap(width, height, Format.RGB888);
+				Pixmap.setBlending(blending);
+				Pixmap.setFilter(filter);
+
+				long start = TimeUtils.nanoTime();
+				expected.drawPixmap(source, 0, 0, source.getWidth(), source.getHeight(), 0, 0, width, height);
+				long nativeTime = TimeUtils.nanoTime() - start;
+				start = TimeUtils.nanoTime();
+				blitter.drawPixmap(source, actual, 0, 0, source.getWidth(), source.getHeight(), 0, 0, width, height, blending, filter);
+				long blitterTime = TimeUtils.nanoTime() - start;
+				compare(expected, actual);
+				log(blending + ", " + filter, nativeTime, blitterTime);
+
+				start = TimeUtils.nanoTime();
+				for (int i = 0; i < 16; i++)
+					expected.drawPixmap(source, (i % 4) * source.getWidth(), (i / 4) * source.getHeight());
+				nativeTime = TimeUtils.nanoTime() - start;
+				start = TimeUtils.nanoTime();
+				for (int i = 0; i < 16; i++)
+					blitter.drawPixmap(source, actual, (i % 4) * source.getWidth(), (i / 4) * source.getHeight(), blending);
+				blitterTime = TimeUtils.nanoTime() - start;
+				compare(expected, actual);
+				log(blending + ", unscaled", nativeTime, blitterTime);
+
+				expected.dispose();
+				actual.dispose();
+			}
+		}
+		Pixmap.setBlending(Blending.SourceOver);
+		source.dispose();
+	}
+
+	private void compare (Pixmap expected, Pixmap actual) {
+		for (int i = 0, n = expected.getPixels().capacity(); i < n; i++)
+			if (expected.getPixels().get(i) != actual.getPixels().get(i))
+				throw new GdxRuntimeException("PixmapBlitter differs from native drawing at byte " + i);
+	}
+
+	private void log (String name, long nativeTime, long blitterTime) {
+		Gdx.app.log("PixmapBlitterTest", name + ": native " + nativeTime / 1000000f + " ms, blitter " + blitterTime / 1000000f
+			+ " ms");
+	}
+
+	@Override
+	public void dispose () {
+		blitter.dispose();
+	}
+}
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests;
+
+import java.util.Random;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL10;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker.Page;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/** Packs images from several threads into a {@link PixmapPacker}, each thread removing some of its images again, while the
+ * rendering thread updates a {@link TextureAtlas}. Afterwards the pixels and duplicated borders of every image, the cleared padding
+ * around them, the allocated areas and the regions of the atlas are checked. The pages are rendered. */
+public class PixmapPackerTest extends GdxTest {
+	static final int THREADS = 4, IMAGES = 60, MAX_SIZE = 24, PAGE_SIZE = 128, PADDING = 2;
+
+	@Override
+	public boolean needsGL20 () {
+		return false;
+	}
+
+	/** An image packed by one of the threads, its pixels are derived from the id and the position. */
+	static class Image {
+		final String name;
+		final int id, width, height;
+
+		Image (int id, int width, int height) {
+			this.name = "image" + id;
+			this.id = id;
+			this.width = width;
+			this.height = height;
+		}
+
+		int getPixel (int x, int y) {
+			return id << 24 | x << 16 | y << 8 | 0xff;
+		}
+	}
+
+	PixmapPacker packer;
+	TextureAtlas atlas;
+	SpriteBatch batch;
+
+	@Override
+	public void create () {
+		packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Format.RGBA8888, PADDING, true);
+		atlas = new TextureAtlas();
+		batch = new SpriteBatch();
+
+		final Array<Image>[] packed = new Array[THREADS];
+		final Array<Image>[] removed = new Array[THREADS];
+		final Throwable[] error = new Throwable[1];
+		Thread[] threads = new Thread[THREADS];
+		for (int i = 0; i < THREADS; i++) {
+			final int thread = i;
+			packed[i] = new Array<Image>();
+			removed[i] = new Array<Image>();
+			threads[i] = new Thread() {
+				public void run () {
+					try {
+						Random random = new Random(thread);
+						for (int i = 0; i < IMAGES; i++) {
+							Image image = new Image(thread * IMAGES + i, 1 + random.nextInt(MAX_SIZE), 1 + random.nextInt(MAX_SIZE));
+							Pixmap pixmap = new Pixmap(image.width, image.height, Format.RGBA8888);
+							for (int y = 0; y < image.height; y++)
+								for (int x = 0; x < image.width; x++)
+									pixmap.drawPixel(x, y, image.getPixel(x, y));
+							packer.pack(image.name, pixmap);
+							pixmap.dispose();
+							packed[thread].add(image);
+
+							if (random.nextInt(3) == 0) {
+								Image remove = packed[thread].removeIndex(random.nextInt(packed[thread].size));
+								if (!packer.remove(remove.name)) throw new GdxRuntimeException("'" + remove.name + "' was not removed");
+								removed[thread].add(remove);
+							}
+						}
+					} catch (Throwable ex) {
+						synchronized (error) {
+							if (error[0] == null) error[0] = ex;
+						}
+					}
+				}
+			};
+		}
+
+		for (int i = 0; i < THREADS; i++)
+			threads[i].start();
+		int updates = 0;
+		try {
+			for (int i = 0; i < THREADS; i++) {
+				while (threads[i].isAlive()) {
+					packer.updateTextureAtlas(atlas, TextureFilter.Nearest, TextureFilter.Nearest, false);
+					if (updates++ == 10) packer.generateTextureAtlas(TextureFilter.Nearest, TextureFilter.Nearest, false).dispose();
+					threads[i].join(1);
+				}
+			}
+		} catch (InterruptedException ex) {
+			throw new GdxRuntimeException(ex);
+		}
+		if (error[0] != null) throw new GdxRuntimeException("packing failed", error[0]);
+		packer.updateTextureAtlas(atlas, TextureFilter.Nearest, TextureFilter.Nearest, false);
+
+		Array<Image> images = new Array<Image>();
+		for (int i = 0; i < THREADS; i++) {
+			images.addAll(packed[i]);
+			for (Image image : removed[i]) {
+				if (packer.getRect(image.name) != null) throw new GdxRuntimeException("'" + image.name + "' is still packed");
+				if (atlas.findRegion(image.name) != null) throw new GdxRuntimeException("'" + image.name + "' is still in the atlas");
+			}
+		}
+		if (atlas.getRegions().size != images.size)
+			throw new GdxRuntimeException("atlas has " + atlas.getRegions().size + " regions, expected " + images.size);
+
+		ObjectMap<Page, Texture> textures = new ObjectMap<Page, Texture>();
+		for (Image image : images) {
+			Page page = packer.getPage(image.name);
+			Rectangle rect = packer.getRect(image.name);
+			if (rect.width != image.width || rect.height != image.height)
+				throw new GdxRuntimeException("'" + image.name + "' has size " + rect.width + "x" + rect.height);
+			checkPixels(page.getPixmap(), image, (int)rect.x, (int)rect.y);
+
+			AtlasRegion region = atlas.findRegion(image.name);
+			if (region == null) throw new GdxRuntimeException("'" + image.name + "' is missing in the atlas");
+			if (region.getRegionX() != rect.x || region.getRegionY() != rect.y || region.getRegionWidth() != image.width
+				|| region.getRegionHeight() != image.height) throw new GdxRuntimeException("region of '" + image.name + "' is wrong");
+			if (!textures.containsKey(page)) textures.put(page, region.getTexture());
+			if (textures.get(page) != region.getTexture())
+				throw new GdxRuntimeException("'" + image.name + "' has another texture than its page");
+		}
+		checkAreas(images);
+
+		Gdx.app.log("PixmapPackerTest", images.size + " images on " + packer.getPages().size + " pages, " + THREADS * IMAGES
+			+ " packed, " + updates + " updates, all checks passed");
+	}
+
+	/** Checks the image, its duplicated border and that the padding around it was cleared. */
+	private void checkPixels (Pixmap pixmap, Image image, int x, int y) {
+		int border = PADDING + 1;
+		for (int py = -border; py < image.height + border; py++) {
+			for (int px = -border; px < image.width + border; px++) {
+				int pageX = x + px, pageY = y + py;
+				if (pageX < 0 || pageY < 0 || pageX >= PAGE_SIZE || pageY >= PAGE_SIZE) continue;
+				int expected;
+				if (px < -1 || py < -1 || px > image.width || py > image.height)
+					expected = 0;
+				else
+					expected = image.getPixel(Math.max(0, Math.min(px, image.width - 1)), Math.max(0, Math.min(py, image.height - 1)));
+				if (pixmap.getPixel(pageX, pageY) != expected)
+					throw new GdxRuntimeException("'" + image.name + "' has pixel " + Integer.toHexString(pixmap.getPixel(pageX, pageY))
+						+ " at " + px + ", " + py + ", expected " + Integer.toHexString(expected));
+			}
+		}
+	}
+
+	/** Checks that the areas of the images including border and padding are inside their page and don't overlap. */
+	private void checkAreas (Array<Image> images) {
+		int border = PADDING + 1;
+		Array<Rectangle> areas = new Array<Rectangle>();
+		for (Image image : images) {
+			Rectangle rect = packer.getRect(image.name);
+			Rectangle area = new Rectangle(rect.x - border, rect.y - border, rect.width + border * 2, rect.height + border * 2);
+			if (area.x < 0 || area.y < 0 || area.x + area.width > PAGE_SIZE || area.y + area.height > PAGE_SIZE)
+				throw new GdxRuntimeException("'" + image.name + "' is outside of its page");
+			areas.add(area);
+		}
+		for (int i = 0; i < images.size; i++) {
+			for (int j = i + 1; j < images.size; j++) {
+				if (packer.getPage(images.get(i).name) != packer.getPage(images.get(j).name)) continue;
+				Rectangle a = areas.get(i), b = areas.get(j);
+				if (a.x < b.x + b.width && b.x < a.x + a.width && a.y < b.y + b.height && b.y < a.y + a.height)
+					throw new GdxRuntimeException("'" + images.get(i).name + "' overlaps '" + images.get(j).name + "'");
+			}
+		}
+	}
+
+	@Override
+	public void render () {
+		Gdx.gl.glClearColor(0.2f, 0.2f, 0.2f, 1);
+		Gdx.gl.glClear(GL10.GL_COLOR_BUFFER_BIT);
+		batch.begin();
+		int x = 0;
+		for (Texture texture : atlas.getTextures()) {
+			batch.draw(texture, x, 0);
+			x += texture.getWidth() + 4;
+		}
+		batch.end();
+	}
+
+	@Override
+	public void dispose () {
+		batch.dispose();
+		atlas.dispose();
+	}
+}
@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.IntFloatMap;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.IntSet;
+import com.badlogic.gdx.utils.LongSet;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Benchmarks the primitive maps and sets against the boxing {@link IntMap}, {@link ObjectMap} and the java.util collections.
+ * Each collection is filled, queried with a mix of present and missing keys and emptied again. The results of the last of
+ * several rounds are logged. */
+public class PrimitiveMapsTest extends GdxTest {
+	static final int COUNT = 100000, ROUNDS = 5;
+
+	@Override
+	public boolean needsGL20 () {
+		return false;
+	}
+
+	int[] keys = new int[COUNT];
+	long[] longKeys = new long[COUNT];
+	String[] stringKeys = new String[COUNT];
+	boolean last;
+	int sink;
+
+	@Override
+	public void create () {
+		for (int i = 0; i < COUNT; i++) {
+			keys[i] = MathUtils.random.nextInt();
+			longKeys[i] = (long)keys[i] << 32 ^ MathUtils.random.nextInt();
+			stringKeys[i] = Integer.toString(keys[i], 36);
+		}
+		for (int round = 0; round < ROUNDS; round++) {
+			last = round == ROUNDS - 1;
+			intIntMap();
+			intMap();
+			intHashMap();
+			intFloatMap();
+			objectFloatMap();
+			objectMap();
+			stringHashMap();
+			intSet();
+			intHashSet();
+			longSet();
+			longHashSet();
+			objectSet();
+			stringHashSet();
+		}
+		Gdx.app.log("PrimitiveMapsTest", "" + sink);
+	}
+
+	private void intIntMap () {
+		IntIntMap map = new IntIntMap();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			map.put(keys[i], i);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			sink += map.get(keys[i], 0) + map.get(keys[i] + 1, 0);
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			sink += map.remove(keys[i], 0);
+		log("IntIntMap", start, get, remove);
+	}
+
+	private void intMap () {
+		IntMap<Integer> map = new IntMap();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			map.put(keys[i], i);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++) {
+			Integer value = map.get(keys[i]);
+			if (value != null) sink += value;
+			if (map.get(keys[i] + 1) != null) sink++;
+		}
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			if (map.remove(keys[i]) != null) sink++;
+		log("IntMap<Integer>", start, get, remove);
+	}
+
+	private void intHashMap () {
+		HashMap<Integer, Integer> map = new HashMap();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			map.put(keys[i], i);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++) {
+			Integer value = map.get(keys[i]);
+			if (value != null) sink += value;
+			if (map.get(keys[i] + 1) != null) sink++;
+		}
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			if (map.remove(keys[i]) != null) sink++;
+		log("HashMap<Integer, Integer>", start, get, remove);
+	}
+
+	private void intFloatMap () {
+		IntFloatMap map = new IntFloatMap();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			map.put(keys[i], i);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			sink += map.get(keys[i], 0) + map.get(keys[i] + 1, 0);
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			sink += map.remove(keys[i], 0);
+		log("IntFloatMap", start, get, remove);
+	}
+
+	private void objectFloatMap () {
+		ObjectFloatMap<String> map = new ObjectFloatMap();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			map.put(stringKeys[i], i);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			sink += map.get(stringKeys[i], 0) + map.get(stringKeys[COUNT - 1 - i], 0);
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			sink += map.remove(stringKeys[i], 0);
+		log("ObjectFloatMap<String>", start, get, remove);
+	}
+
+	private void objectMap () {
+		ObjectMap<String, Float> map = new ObjectMap();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			map.put(stringKeys[i], (float)i);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			sink += map.get(stringKeys[i]) + map.get(stringKeys[COUNT - 1 - i]);
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			if (map.remove(stringKeys[i]) != null) sink++;
+		log("ObjectMap<String, Float>", start, get, remove);
+	}
+
+	private void stringHashMap () {
+		HashMap<String, Float> map = new HashMap();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			map.put(stringKeys[i], (float)i);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			sink += map.get(stringKeys[i]) + map.get(stringKeys[COUNT - 1 - i]);
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			if (map.remove(stringKeys[i]) != null) sink++;
+		log("HashMap<String, Float>", start, get, remove);
+	}
+
+	private void intSet () {
+		IntSet set = new IntSet();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			set.add(keys[i]);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++) {
+			if (set.contains(keys[i])) sink++;
+			if (set.contains(keys[i] + 1)) sink++;
+		}
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			if (set.remove(keys[i])) sink++;
+		log("IntSet", start, get, remove);
+	}
+
+	private void intHashSet () {
+		HashSet<Integer> set = new HashSet();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			set.add(keys[i]);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++) {
+			if (set.contains(keys[i])) sink++;
+			if (set.contains(keys[i] + 1)) sink++;
+		}
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			if (set.remove(keys[i])) sink++;
+		log("HashSet<Integer>", start, get, remove);
+	}
+
+	private void longSet () {
+		LongSet set = new LongSet();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			set.add(longKeys[i]);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++) {
+			if (set.contains(longKeys[i])) sink++;
+			if (set.contains(longKeys[i] + 1)) sink++;
+		}
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			if (set.remove(longKeys[i])) sink++;
+		log("LongSet", start, get, remove);
+	}
+
+	private void longHashSet () {
+		HashSet<Long> set = new HashSet();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			set.add(longKeys[i]);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++) {
+			if (set.contains(longKeys[i])) sink++;
+			if (set.contains(longKeys[i] + 1)) sink++;
+		}
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			if (set.remove(longKeys[i])) sink++;
+		log("HashSet<Long>", start, get, remove);
+	}
+
+	private void objectSet () {
+		ObjectSet<String> set = new ObjectSet();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			set.add(stringKeys[i]);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++) {
+			if (set.contains(stringKeys[i])) sink++;
+			if (set.contains(stringKeys[COUNT - 1 - i])) sink++;
+		}
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			if (set.remove(stringKeys[i])) sink++;
+		log("ObjectSet<String>", start, get, remove);
+	}
+
+	private void stringHashSet () {
+		HashSet<String> set = new HashSet();
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			set.add(stringKeys[i]);
+		long get = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++) {
+			if (set.contains(stringKeys[i])) sink++;
+			if (set.contains(stringKeys[COUNT - 1 - i])) sink++;
+		}
+		long remove = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			if (set.remove(stringKeys[i])) sink++;
+		log("HashSet<String>", start, get, remove);
+	}
+
+	private void log (String name, long start, long get, long remove) {
+		if (!last) return;
+		long end = TimeUtils.nanoTime();
+		Gdx.app.log("PrimitiveMapsTest", name + ": add " + (get - start) / COUNT + " ns, get " + (remove - get) / COUNT / 2
+			+ " ns, remove " + (end - remove) / COUNT + " ns");
+	}
+}
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ParallelRadixSort;
+import com.badlogic.gdx.utils.RadixSort;
+import com.badlogic.gdx.utils.Sort;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Benchmarks {@link RadixSort} and {@link ParallelRadixSort} against {@link Sort} with a comparator for objects with a float
+ * depth, as a render queue would sort them, and against {@link Arrays#sort(int[])} for primitives. The results are logged. */
+public class RadixSortTest extends GdxTest {
+	static final int ROUNDS = 5;
+
+	@Override
+	public boolean needsGL20 () {
+		return false;
+	}
+
+	static class Renderable {
+		float depth;
+	}
+
+	final Comparator<Renderable> comparator = new Comparator<Renderable>() {
+		@Override
+		public int compare (Renderable o1, Renderable o2) {
+			return Float.compare(o1.depth, o2.depth);
+		}
+	};
+
+	RadixSort radixSort = new RadixSort();
+	ParallelRadixSort parallelSort = new ParallelRadixSort();
+
+	@Override
+	public void create () {
+		parallelSort.parallelThreshold = 0;
+		for (int count = 1000; count <= 1000000; count *= 10) {
+			Array<Renderable> renderables = new Array<Renderable>(true, count, Renderable.class);
+			for (int i = 0; i < count; i++) {
+				Renderable renderable = new Renderable();
+				renderable.depth = MathUtils.random(1000f);
+				renderables.add(renderable);
+			}
+			Array<Renderable> sorted = new Array<Renderable>(true, count, Renderable.class);
+			float[] keys = new float[count];
+			int[] ints = new int[count], intsSorted = new int[count];
+			for (int i = 0; i < count; i++)
+				ints[i] = MathUtils.random.nextInt();
+			int rounds = Math.max(ROUNDS, 1000000 / count);
+
+			long time = 0;
+			for (int round = 0; round < rounds; round++) {
+				shuffle(renderables, sorted);
+				long start = TimeUtils.nanoTime();
+				Sort.instance().sort(sorted, comparator);
+				time += TimeUtils.nanoTime() - start;
+			}
+			log("Sort with comparator", count, time, rounds);
+
+			time = 0;
+			for (int round = 0; round < rounds; round++) {
+				shuffle(renderables, sorted);
+				long start = TimeUtils.nanoTime();
+				for (int i = 0; i < count; i++)
+					keys[i] = sorted.items[i].depth;
+				radixSort.sort(sorted, keys);
+				time += TimeUtils.nanoTime() - start;
+			}
+			check(sorted);
+			log("RadixSort by float key", count, time, rounds);
+
+			time = 0;
+			for (int round = 0; round < rounds; round++) {
+				shuffle(renderables, sorted);
+				long start = TimeUtils.nanoTime();
+				for (int i = 0; i < count; i++)
+					keys[i] = sorted.items[i].depth;
+				parallelSort.sort(sorted, keys);
+				time += TimeUtils.nanoTime() - start;
+			}
+			check(sorted);
+			log("ParallelRadixSort by float key", count, time, rounds);
+
+			time = 0;
+			for (int round = 0; round < rounds; round++) {
+				System.arraycopy(ints, 0, intsSorted, 0, count);
+				long start = TimeUtils.nanoTime();
+				Arrays.sort(intsSorted, 0, count);
+				time += TimeUtils.nanoTime() - start;
+			}
+			log("Arrays.sort int[]", count, time, rounds);
+
+			time = 0;
+			for (int round = 0; round < rounds; round++) {
+				System.arraycopy(ints, 0, intsSorted, 0, count);
+				long start = TimeUtils.nanoTime();
+				radixSort.sort(intsSorted, 0, count);
+				time += TimeUtils.nanoTime() - start;
+			}
+			log("RadixSort int[]", count, time, rounds);
+
+			time = 0;
+			for (int round = 0; round < rounds; round++) {
+				System.arraycopy(ints, 0, intsSorted, 0, count);
+				long start = TimeUtils.nanoTime();
+				parallelSort.sort(intsSorted, 0, count);
+				time += TimeUtils.nanoTime() - start;
+			}
+			log("ParallelRadixSort int[]", count, time, rounds);
+		}
+	}
+
+	private void shuffle (Array<Renderable> renderables, Array<Renderable> sorted) {
+		sorted.clear();
+		sorted.addAll(renderables);
+	}
+
+	private void check (Array<Renderable> sorted) {
+		for (int i = 1; i < sorted.size; i++)
+			if (sorted.items[i - 1].depth > sorted.items[i].depth) throw new GdxRuntimeException("not sorted at " + i);
+	}
+
+	private void log (String name, int count, long time, int rounds) {
+		float millis = time / 1000000f / rounds;
+		Gdx.app.log("RadixSortTest", name + " " + count + ": " + millis + " ms");
+	}
+
+	@Override
+	public void dispose () {
+		parallelSort.dispose();
+	}
+}
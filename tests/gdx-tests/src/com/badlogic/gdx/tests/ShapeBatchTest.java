@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL10;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeBatch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.tests.utils.GdxTest;
+
+public class ShapeBatchTest extends GdxTest {
+
+	@Override
+	public boolean needsGL20 () {
+		return false;
+	}
+
+	ShapeBatch shapes;
+	OrthographicCamera cam;
+	SpriteBatch batch;
+	BitmapFont font;
+
+	public void create () {
+		shapes = new ShapeBatch();
+		cam = new OrthographicCamera(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		cam.position.set(Gdx.graphics.getWidth() / 2, Gdx.graphics.getHeight() / 2, 0);
+		batch = new SpriteBatch();
+		font = new BitmapFont();
+	}
+
+	public void render () {
+		Gdx.gl.glClear(GL10.GL_COLOR_BUFFER_BIT);
+		cam.update();
+		shapes.setProjectionMatrix(cam.combined);
+
+		MathUtils.random.setSeed(0);
+		float width = Gdx.graphics.getWidth(), height = Gdx.graphics.getHeight();
+
+		// all shape types are mixed freely within a single begin/end pair
+		shapes.begin();
+		for (int i = 0; i < 2000; i++) {
+			float x = MathUtils.random(width), y = MathUtils.random(height);
+			shapes.setColor(MathUtils.random(), MathUtils.random(), MathUtils.random(), 1);
+			switch (i % 6) {
+			case 0:
+				shapes.line(x, y, x + MathUtils.random(-40, 40), y + MathUtils.random(-40, 40));
+				break;
+			case 1:
+				shapes.rect(x, y, 20, 10);
+				break;
+			case 2:
+				shapes.filledRect(x, y, 10, 20);
+				break;
+			case 3:
+				shapes.circle(x, y, 10, 12);
+				break;
+			case 4:
+				shapes.filledCircle(x, y, 8, 12);
+				break;
+			case 5:
+				shapes.filledTriangle(x, y, x + 10, y, x + 5, y + 10);
+				break;
+			}
+		}
+		shapes.end();
+
+		batch.begin();
+		font.setColor(Color.WHITE);
+		font.draw(batch, "fps: " + Gdx.graphics.getFramesPerSecond() + ", render calls: " + shapes.renderCalls, 0, 20);
+		batch.end();
+	}
+
+	@Override
+	public void dispose () {
+		batch.dispose();
+		font.dispose();
+		shapes.dispose();
+	}
+}
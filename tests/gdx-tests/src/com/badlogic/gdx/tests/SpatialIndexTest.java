@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.LooseQuadTree;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.SpatialHash;
+import com.badlogic.gdx.math.SpatialIndex;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Benchmarks {@link SpatialHash} and {@link LooseQuadTree} with 10k to 1M moving objects against a brute force scan. The
+ * results are logged. */
+public class SpatialIndexTest extends GdxTest {
+	static final int FRAMES = 10, QUERIES = 1000, QUERY_SIZE = 20;
+
+	@Override
+	public boolean needsGL20 () {
+		return false;
+	}
+
+	@Override
+	public void create () {
+		for (int count = 10000; count <= 1000000; count *= 10) {
+			// keep the density constant, one object per 16 square units
+			float size = (float)Math.sqrt(count) * 4;
+			int depth = Math.min(10, MathUtils.ceil((float)(Math.log(size / 4) / Math.log(2))));
+			float[] boxes = new float[count * 4];
+			float[] velocities = new float[count * 2];
+			for (int i = 0; i < count; i++) {
+				float x = MathUtils.random(size), y = MathUtils.random(size);
+				boxes[i * 4] = x;
+				boxes[i * 4 + 1] = y;
+				boxes[i * 4 + 2] = x + MathUtils.random(0.5f, 1.5f);
+				boxes[i * 4 + 3] = y + MathUtils.random(0.5f, 1.5f);
+				velocities[i * 2] = MathUtils.random(-0.5f, 0.5f);
+				velocities[i * 2 + 1] = MathUtils.random(-0.5f, 0.5f);
+			}
+			bruteForce(boxes, count, size);
+			bench("SpatialHash", new SpatialHash(4), boxes.clone(), velocities, count, size);
+			bench("LooseQuadTree", new LooseQuadTree(0, 0, size, depth), boxes.clone(), velocities, count, size);
+		}
+	}
+
+	private void bench (String name, SpatialIndex index, float[] boxes, float[] velocities, int count, float size) {
+		String prefix = name + " " + count + ": ";
+		IntArray results = new IntArray();
+
+		long start = TimeUtils.nanoTime();
+		index.set(boxes, 0, count);
+		log(prefix + "build", start, 1);
+
+		start = TimeUtils.nanoTime();
+		for (int frame = 0; frame < FRAMES; frame++) {
+			for (int i = 0; i < count; i++) {
+				int b = i * 4;
+				float vx = velocities[i * 2], vy = velocities[i * 2 + 1];
+				if (boxes[b] + vx < 0 || boxes[b + 2] + vx > size) velocities[i * 2] = vx = -vx;
+				if (boxes[b + 1] + vy < 0 || boxes[b + 3] + vy > size) velocities[i * 2 + 1] = vy = -vy;
+				boxes[b] += vx;
+				boxes[b + 1] += vy;
+				boxes[b + 2] += vx;
+				boxes[b + 3] += vy;
+				index.update(i, boxes[b], boxes[b + 1], boxes[b + 2], boxes[b + 3]);
+			}
+		}
+		log(prefix + "update all", start, FRAMES);
+
+		MathUtils.random.setSeed(0);
+		int found = 0;
+		start = TimeUtils.nanoTime();
+		for (int i = 0; i < QUERIES; i++) {
+			float x = MathUtils.random(size), y = MathUtils.random(size);
+			results.clear();
+			found += index.query(x, y, x + QUERY_SIZE, y + QUERY_SIZE, results);
+		}
+		log(prefix + "query (" + found / QUERIES + " found)", start, QUERIES);
+
+		found = 0;
+		start = TimeUtils.nanoTime();
+		for (int i = 0; i < QUERIES; i++) {
+			results.clear();
+			found += index.queryRadius(MathUtils.random(size), MathUtils.random(size), QUERY_SIZE / 2, results);
+		}
+		log(prefix + "queryRadius (" + found / QUERIES + " found)", start, QUERIES);
+
+		found = 0;
+		start = TimeUtils.nanoTime();
+		for (int i = 0; i < QUERIES; i++) {
+			float angle = MathUtils.random(MathUtils.PI * 2);
+			if (index.raycastFirst(MathUtils.random(size), MathUtils.random(size), MathUtils.cos(angle), MathUtils.sin(angle),
+				size / 4) != -1) found++;
+		}
+		log(prefix + "raycastFirst (" + found + " hits)", start, QUERIES);
+
+		start = TimeUtils.nanoTime();
+		for (int i = 0; i < QUERIES; i++) {
+			results.clear();
+			index.nearest(MathUtils.random(size), MathUtils.random(size), 8, results);
+		}
+		log(prefix + "nearest 8", start, QUERIES);
+	}
+
+	private void bruteForce (float[] boxes, int count, float size) {
+		MathUtils.random.setSeed(0);
+		int queries = QUERIES / 10, found = 0;
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < queries; i++) {
+			float minX = MathUtils.random(size), minY = MathUtils.random(size);
+			float maxX = minX + QUERY_SIZE, maxY = minY + QUERY_SIZE;
+			for (int j = 0, n = count * 4; j < n; j += 4)
+				if (boxes[j] <= maxX && boxes[j + 2] >= minX && boxes[j + 1] <= maxY && boxes[j + 3] >= minY) found++;
+		}
+		log("brute force " + count + ": query (" + found / queries + " found)", start, queries);
+	}
+
+	private void log (String name, long start, int iterations) {
+		float micros = (TimeUtils.nanoTime() - start) / 1000f / iterations;
+		Gdx.app.log("SpatialIndexTest", name + ": " + micros + " us");
+	}
+}
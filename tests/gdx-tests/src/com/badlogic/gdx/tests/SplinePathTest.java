@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL10;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.math.BSpline;
+import com.badlogic.gdx.math.BezierSpline;
+import com.badlogic.gdx.math.CardinalSpline;
+import com.badlogic.gdx.math.CatmullRomSpline;
+import com.badlogic.gdx.math.Spline;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Shows closed Catmull-Rom, Bezier and B-splines with markers moving along them at constant speed, and logs how long sampling
+ * a spline by parameter and by distance takes compared to {@link CatmullRomSpline#getPath(int)}. */
+public class SplinePathTest extends GdxTest {
+	static final int SAMPLES = 200, MARKERS = 10;
+	static final float SPEED = 100;
+
+	@Override
+	public boolean needsGL20 () {
+		return false;
+	}
+
+	OrthographicCamera cam;
+	ShapeRenderer renderer;
+	Spline[] splines;
+	float[] path = new float[SAMPLES * 2];
+	float[] distances = new float[MARKERS];
+	float[] markers = new float[MARKERS * 2];
+	float distance;
+
+	@Override
+	public void create () {
+		cam = new OrthographicCamera(480, 320);
+		renderer = new ShapeRenderer();
+
+		Vector2[] points = new Vector2[12];
+		for (int i = 0; i < points.length; i++) {
+			float angle = i * 360f / points.length;
+			float radius = i % 2 == 0 ? 40 : 70;
+			points[i] = new Vector2(radius, 0).rotate(angle);
+		}
+		splines = new Spline[] {new CardinalSpline(2, 0, true), new BezierSpline(2, true), new BSpline(2, true)};
+		for (int i = 0; i < splines.length; i++) {
+			splines[i].setControlPoints(points);
+			splines[i].computeArcLengths(32);
+		}
+
+		bench();
+	}
+
+	private void bench () {
+		CatmullRomSpline old = new CatmullRomSpline();
+		for (int i = 0; i < 12; i++)
+			old.add(new Vector3(i * 10, i % 2 * 10, 0));
+		CardinalSpline spline = new CardinalSpline(3);
+		spline.setControlPoints(old.getControlPoints().toArray(new Vector3[12]));
+		float[] values = new float[(9 * 20 + 1) * 3];
+		float[] parameters = new float[9 * 20 + 1];
+		for (int i = 0; i < parameters.length; i++)
+			parameters[i] = i / (float)(parameters.length - 1);
+
+		for (int run = 0; run < 3; run++) {
+			long start = TimeUtils.nanoTime();
+			for (int i = 0; i < 10000; i++)
+				old.getPath(19);
+			Gdx.app.log("SplinePathTest", "CatmullRomSpline.getPath: " + (TimeUtils.nanoTime() - start) / 1000000000.0f);
+
+			start = TimeUtils.nanoTime();
+			for (int i = 0; i < 10000; i++)
+				spline.valuesAt(parameters, 0, parameters.length, values, 0);
+			Gdx.app.log("SplinePathTest", "CardinalSpline.valuesAt: " + (TimeUtils.nanoTime() - start) / 1000000000.0f);
+
+			start = TimeUtils.nanoTime();
+			for (int i = 0; i < 10000; i++)
+				spline.sampleByDistance(9 * 20 + 1, values, 0);
+			Gdx.app.log("SplinePathTest", "CardinalSpline.sampleByDistance: " + (TimeUtils.nanoTime() - start) / 1000000000.0f);
+		}
+	}
+
+	@Override
+	public void render () {
+		distance += Gdx.graphics.getDeltaTime() * SPEED;
+
+		Gdx.gl.glClear(GL10.GL_COLOR_BUFFER_BIT);
+		cam.update();
+		renderer.setProjectionMatrix(cam.combined);
+		for (int i = 0; i < splines.length; i++) {
+			Spline spline = splines[i];
+			float offsetX = (i - 1) * 160;
+			spline.sampleByDistance(SAMPLES, path, 0);
+			float length = spline.getLength();
+			for (int j = 0; j < MARKERS; j++)
+				distances[j] = (distance + j * length / MARKERS) % length;
+			spline.valuesAtDistances(distances, 0, MARKERS, markers, 0);
+
+			renderer.begin(ShapeType.Line);
+			renderer.setColor(1, 1, 1, 1);
+			for (int j = 0; j < SAMPLES - 1; j++)
+				renderer.line(path[j * 2] + offsetX, path[j * 2 + 1], path[j * 2 + 2] + offsetX, path[j * 2 + 3]);
+			renderer.end();
+
+			renderer.begin(ShapeType.FilledCircle);
+			renderer.setColor(1, 0, 0, 1);
+			for (int j = 0; j < MARKERS; j++)
+				renderer.filledCircle(markers[j * 2] + offsetX, markers[j * 2 + 1], 3);
+			renderer.end();
+		}
+	}
+
+	@Override
+	public void dispose () {
+		renderer.dispose();
+	}
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL10;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.math.collision.TriangleBVH;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** Compares picking against a terrain with {@link TriangleBVH} to the linear
+ * {@link Intersector#intersectRayTriangles(Ray, float[], short[], int, Vector3)}. Vertical rays starting on the cell boundaries
+ * of the terrain have to hit it. */
+public class TriangleBVHTest extends GdxTest {
+	static final int SIZE = 180;
+	static final int RAYS = 100;
+
+	@Override
+	public boolean needsGL20 () {
+		return false;
+	}
+
+	SpriteBatch batch;
+	BitmapFont font;
+	String[] results = new String[5];
+
+	public void create () {
+		batch = new SpriteBatch();
+		font = new BitmapFont();
+
+		float[] vertices = new float[(SIZE + 1) * (SIZE + 1) * 3];
+		for (int z = 0, i = 0; z <= SIZE; z++) {
+			for (int x = 0; x <= SIZE; x++) {
+				vertices[i++] = x;
+				vertices[i++] = MathUtils.random(2f);
+				vertices[i++] = z;
+			}
+		}
+		short[] indices = new short[SIZE * SIZE * 6];
+		for (int z = 0, i = 0; z < SIZE; z++) {
+			for (int x = 0; x < SIZE; x++) {
+				int v = z * (SIZE + 1) + x;
+				indices[i++] = (short)v;
+				indices[i++] = (short)(v + 1);
+				indices[i++] = (short)(v + SIZE + 1);
+				indices[i++] = (short)(v + 1);
+				indices[i++] = (short)(v + SIZE + 2);
+				indices[i++] = (short)(v + SIZE + 1);
+			}
+		}
+
+		long start = System.nanoTime();
+		TriangleBVH bvh = new TriangleBVH(vertices, indices, 3);
+		results[0] = "build: " + (System.nanoTime() - start) / 1000000f + " ms, " + bvh.getNumTriangles() + " triangles, "
+			+ bvh.getNumNodes() + " nodes";
+
+		Ray[] rays = new Ray[RAYS];
+		for (int i = 0; i < RAYS; i++)
+			rays[i] = new Ray(new Vector3(MathUtils.random(SIZE), 10, MathUtils.random(SIZE)), new Vector3(MathUtils.random(-0.5f,
+				0.5f), -1, MathUtils.random(-0.5f, 0.5f)));
+
+		Vector3 intersection = new Vector3();
+		int hits = 0;
+		start = System.nanoTime();
+		for (int i = 0; i < RAYS; i++)
+			if (bvh.intersectRay(rays[i], intersection) != -1) hits++;
+		results[1] = "bvh: " + (System.nanoTime() - start) / 1000000f + " ms, " + hits + " hits";
+
+		hits = 0;
+		start = System.nanoTime();
+		for (int i = 0; i < RAYS; i++)
+			if (Intersector.intersectRayTriangles(rays[i], vertices, indices, 3, intersection)) hits++;
+		results[2] = "linear: " + (System.nanoTime() - start) / 1000000f + " ms, " + hits + " hits";
+
+		int processors = Runtime.getRuntime().availableProcessors();
+		start = System.nanoTime();
+		int[] intIndices = new int[indices.length];
+		for (int i = 0; i < indices.length; i++)
+			intIndices[i] = indices[i] & 0xffff;
+		new TriangleBVH(vertices, 3, 0, intIndices, intIndices.length, TriangleBVH.DEFAULT_LEAF_SIZE, processors);
+		results[3] = "parallel build (" + processors + " threads): " + (System.nanoTime() - start) / 1000000f + " ms";
+
+		// axis aligned rays on the planes of node bounds, every one of them is above the terrain
+		int boundaryRays = 0, missed = 0;
+		for (int z = 1; z < SIZE * 2; z += 3) {
+			for (int x = 1; x < SIZE; x += 3) {
+				Ray ray = new Ray(new Vector3(x, 10, z * 0.5f + 0.25f), new Vector3(0, -1, 0));
+				boundaryRays++;
+				if (bvh.intersectRay(ray, intersection) == -1) {
+					missed++;
+					if (Intersector.intersectRayTriangles(ray, vertices, indices, 3, intersection))
+						throw new GdxRuntimeException("bvh missed a hit found by the linear test: " + ray);
+				}
+			}
+		}
+		if (missed > 0) throw new GdxRuntimeException("bvh missed " + missed + " of " + boundaryRays + " vertical rays");
+		results[4] = "vertical rays on cell boundaries: " + boundaryRays + " hits";
+
+		for (int i = 0; i < results.length; i++)
+			Gdx.app.log("TriangleBVHTest", results[i]);
+	}
+
+	public void render () {
+		Gdx.gl.glClear(GL10.GL_COLOR_BUFFER_BIT);
+		batch.begin();
+		for (int i = 0; i < results.length; i++)
+			font.draw(batch, results[i], 10, Gdx.graphics.getHeight() - 10 - i * 20);
+		batch.end();
+	}
+
+	public void dispose () {
+		batch.dispose();
+		font.dispose();
+	}
+}
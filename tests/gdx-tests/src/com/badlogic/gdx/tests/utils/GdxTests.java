@@ -57,11 +57,11 @@ public class GdxTests {
 			Box2DTest.class, InterpolationTest.class, TouchpadTest.class,
 			Box2DTestCollection.class, BufferUtilsTest.class, ImageTest.class,
 			CompassTest.class, ComplexActionTest.class, CullTest.class,
-			DeltaTimeTest.class, EdgeDetectionTest.class, ETC1Test.class,
+			DeltaTimeTest.class, EdgeDetectionTest.class, ETC1Test.class, ETC1EncoderTest.class,
 			ExitTest.class, FilesTest.class, ScrollPaneTest.class,
 			FloatTest.class, FrameBufferTest.class,
 			FramebufferToTextureTest.class, FrustumTest.class,
-			FullscreenTest.class, Gdx2DTest.class, GroupFadeTest.class,
+			FullscreenTest.class, Gdx2DTest.class, GLStateCacheTest.class, GroupFadeTest.class,
 			ImmediateModeRendererTest.class, Scene2dTest.class,
 			ImmediateModeRendererAlphaTest.class,
 			IndexBufferObjectClassTest.class,
@@ -75,7 +75,7 @@ public class GdxTests {
 			MusicTest.class, MyFirstTriangle.class, ObjTest.class,
 			OnscreenKeyboardTest.class, OrthoCamBorderTest.class,
 			ParallaxTest.class, ParticleEmitterTest.class, PickingTest.class,
-			PixelsPerInchTest.class, PixmapBlendingTest.class,
+			PixelsPerInchTest.class, PixmapBlendingTest.class, PixmapBlitterTest.class, PixmapPackerTest.class,
 			PixmapTest.class, PolygonRegionTest.class, PolygonSpriteTest.class, PreferencesTest.class,
 			ProjectiveTextureTest.class, Pong.class, ProjectTest.class,
 			RemoteTest.class, RotationTest.class, ShaderMultitextureTest.class,
@@ -89,13 +89,20 @@ public class GdxTests {
 			StageTest.class, TerrainTest.class, TextureDataTest.class,
 			TextureDownloadTest.class, TextureFormatTest.class,
 			TextureAtlasTest.class, TextInputDialogTest.class,
-			TextureRenderTest.class, TiledMapTest.class, TileTest.class,
+			TextureRenderTest.class, TiledMapTest.class, TileTest.class, TriangleBVHTest.class,
+			FrustumCullerTest.class,
+			SpatialIndexTest.class,
+			SplinePathTest.class,
+			PrimitiveMapsTest.class,
+			RadixSortTest.class,
+			ConcurrentMapTest.class,
+			ConcurrentQueueTest.class,
 			UITest.class, VBOVATest.class, VertexArrayTest.class,
 			VertexBufferObjectTest.class, VertexArrayClassTest.class,
 			VertexBufferObjectClassTest.class,
 			VertexBufferObjectShaderTest.class, VibratorTest.class,
 			VorbisTest.class, WaterRipples.class, HelloTriangle.class,
-			SimpleVertexShader.class, ShapeRendererTest.class,
+			SimpleVertexShader.class, ShapeRendererTest.class, ShapeBatchTest.class,
 			MoveSpriteExample.class, StbTrueTypeTest.class, SoundTouchTest.class, Mpg123Test.class, WavTest.class,
 			TextButtonTest.class, TextButtonTestGL2.class, TextureBindTest.class,
 			SortedSpriteTest.class, ExternalMusicTest.class, SoftKeyboardTest.class, 